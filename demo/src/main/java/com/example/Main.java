@@ -1,27 +1,101 @@
 package com.example;
 
+import com.example.cli.CliMain;
 import com.example.controller.PhysicsController;
+import com.example.controller.SimulationManager;
 import com.example.gui.MainWindow;
+import com.example.model.SimulationParameters;
+import com.example.remote.RemoteControlServer;
+import com.example.telemetry.TelemetryServer;
 
 import javax.swing.*;
 public class Main {
     public static void main(String[] args) {
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
+        if (args.length > 0) {
+            // Режим командной строки: AWT/Swing не инициализируются
+            System.exit(CliMain.run(args));
         }
-        SwingUtilities.invokeLater(() -> {
-            PhysicsController controller = new PhysicsController();
-            MainWindow mainWindow = new MainWindow(controller);
-            
-            mainWindow.addWindowListener(new java.awt.event.WindowAdapter() {
-                @Override
-                public void windowClosing(java.awt.event.WindowEvent e) {
-                    controller.shutdown();
+        Gui.start();
+    }
+
+    /** Запуск интерфейса вынесен в отдельный класс, чтобы режим командной строки не загружал AWT. */
+    private static final class Gui {
+        static void start() {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception e) {
+            }
+            SwingUtilities.invokeLater(() -> {
+                SimulationManager manager = new SimulationManager();
+                PhysicsController controller = manager.get(manager.create(new SimulationParameters()));
+                MainWindow mainWindow = new MainWindow(controller, manager);
+                startTelemetry(controller);
+                startRemoteControl(controller);
+
+                mainWindow.addWindowListener(new java.awt.event.WindowAdapter() {
+                    @Override
+                    public void windowClosing(java.awt.event.WindowEvent e) {
+                        manager.shutdown();
+                    }
+                });
+
+                reportFirstFrame(mainWindow);
+                mainWindow.setVisible(true);
+            });
+        }
+
+        /**
+         * Замер холодного старта: свойство pendulum.startupReport печатает время от запуска
+         * процесса до первого кадра, pendulum.exitAfterFirstFrame завершает процесс после
+         * него (обучающий запуск для архива AppCDS, см. профиль appcds в pom.xml).
+         */
+        private static void reportFirstFrame(MainWindow mainWindow) {
+            boolean report = Boolean.getBoolean("pendulum.startupReport");
+            boolean exit = Boolean.getBoolean("pendulum.exitAfterFirstFrame");
+            if (!report && !exit) {
+                return;
+            }
+            mainWindow.onFirstFrame(() -> {
+                if (report) {
+                    long now = System.currentTimeMillis();
+                    ProcessHandle.current().info().startInstant().ifPresent(start ->
+                        System.err.printf("Первый кадр через %d мс после запуска процесса%n",
+                                          now - start.toEpochMilli()));
+                }
+                if (exit) {
+                    System.exit(0);
                 }
             });
-            
-            mainWindow.setVisible(true);
-        });
+        }
+
+        /** Сервер телеметрии основной симуляции, если задано свойство pendulum.telemetry.port. */
+        private static void startTelemetry(PhysicsController controller) {
+            String port = System.getProperty("pendulum.telemetry.port");
+            if (port == null) {
+                return;
+            }
+            try {
+                TelemetryServer server = new TelemetryServer(
+                    System.getProperty("pendulum.telemetry.host", "127.0.0.1"), Integer.parseInt(port));
+                controller.addStepListener(server);
+            } catch (java.io.IOException | IllegalArgumentException e) {
+                System.err.println("Не удалось запустить сервер телеметрии: " + e.getMessage());
+            }
+        }
+
+        /** Удалённое управление: свойство pendulum.control.port или pendulum.control.socket. */
+        private static void startRemoteControl(PhysicsController controller) {
+            String port = System.getProperty("pendulum.control.port");
+            String socket = System.getProperty("pendulum.control.socket");
+            try {
+                if (socket != null) {
+                    new RemoteControlServer(controller, java.nio.file.Path.of(socket));
+                } else if (port != null) {
+                    new RemoteControlServer(controller, "127.0.0.1", Integer.parseInt(port));
+                }
+            } catch (java.io.IOException | IllegalArgumentException e) {
+                System.err.println("Не удалось запустить удалённое управление: " + e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.example.analysis;
+
+import com.example.model.Channel;
+import com.example.model.PhysicsState;
+import com.example.observer.StepListener;
+
+/**
+ * Конвейер анализа угла и длины пружины, получающий каждый шаг интегрирования.
+ * Результаты публикуются как производные каналы состояния ({@link Channel#isDerived()}),
+ * которые можно выводить на графики наравне с обычными.
+ */
+public class AnalysisPipeline implements StepListener {
+
+    private static final int FFT_SIZE = 1024;
+    private static final double SPECTRUM_RATE = 100.0; // Частота отсчётов для БПФ (Гц)
+
+    private final SignalAnalyzer angle;
+    private final SignalAnalyzer springLength;
+
+    /** @param dt шаг интегрирования (с) */
+    public AnalysisPipeline(double dt) {
+        double sampleRate = 1.0 / dt;
+        int decimation = Math.max(1, (int) Math.round(sampleRate / SPECTRUM_RATE));
+        this.angle = new SignalAnalyzer(sampleRate, decimation, FFT_SIZE);
+        this.springLength = new SignalAnalyzer(sampleRate, decimation, FFT_SIZE);
+    }
+
+    @Override
+    public void onStep(double time, double springLength, double radialVelocity,
+                       double angle, double angularVelocity) {
+        this.angle.add(time, angle);
+        this.springLength.add(time, springLength);
+    }
+
+    @Override
+    public void onReset() {
+        angle.clear();
+        springLength.clear();
+    }
+
+    /** Записать текущие результаты в производные каналы состояния. */
+    public void publish(PhysicsState state) {
+        double[] derived = new double[Channel.DERIVED_COUNT];
+        writeResults(derived);
+        state.setDerived(derived);
+    }
+
+    /** Записать результаты в массив из {@link Channel#DERIVED_COUNT} значений без выделения памяти. */
+    public void writeResults(double[] derived) {
+        angle.writeResults(derived, Channel.ANGLE_MEAN.getDerivedIndex());
+        springLength.writeResults(derived, Channel.LENGTH_MEAN.getDerivedIndex());
+    }
+
+    public SignalAnalyzer getAngle() { return angle; }
+    public SignalAnalyzer getSpringLength() { return springLength; }
+}
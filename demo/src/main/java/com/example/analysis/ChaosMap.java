@@ -0,0 +1,201 @@
+package com.example.analysis;
+
+import com.example.model.SimulationParameters;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Карта хаоса: старший показатель Ляпунова на сетке из двух параметров симуляции
+ * (например, {@code initialAngle} × {@code initialLength}). Сетка делится на плитки,
+ * которые рекурсивно раздаются пулу ForkJoin с перехватом работы; о каждой
+ * готовой плитке сообщается слушателю, поэтому карту можно рисовать по мере расчёта.
+ */
+public class ChaosMap {
+
+    /** Вызывается в рабочем потоке, когда значения плитки записаны. */
+    @FunctionalInterface
+    public interface TileListener {
+        void tileCompleted(int column, int row, int width, int height);
+    }
+
+    private static final int TILE_SIZE = 8;
+
+    private final SimulationParameters base;
+    private final String xParameter, yParameter;
+    private final double xFrom, xTo, yFrom, yTo;
+    private final int columns, rows;
+    private final double[] values;
+    private final AtomicInteger completedCells = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    private double dt = 0.001;
+    private double duration = 50;
+    private int renormalizationSteps = 100;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private TileListener listener = (column, row, width, height) -> {};
+
+    public ChaosMap(SimulationParameters base,
+                    String xParameter, double xFrom, double xTo, int columns,
+                    String yParameter, double yFrom, double yTo, int rows) {
+        // Проверка имён параметров до запуска расчёта
+        base.getParameter(xParameter);
+        base.getParameter(yParameter);
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Размер сетки должен быть положительным");
+        }
+        this.base = new SimulationParameters(base);
+        this.xParameter = xParameter;
+        this.yParameter = yParameter;
+        this.xFrom = xFrom;
+        this.xTo = xTo;
+        this.yFrom = yFrom;
+        this.yTo = yTo;
+        this.columns = columns;
+        this.rows = rows;
+        this.values = new double[columns * rows];
+        Arrays.fill(values, Double.NaN);
+    }
+
+    public ChaosMap setIntegration(double dt, double duration, int renormalizationSteps) {
+        this.dt = dt;
+        this.duration = duration;
+        this.renormalizationSteps = renormalizationSteps;
+        return this;
+    }
+
+    public ChaosMap setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public ChaosMap setTileListener(TileListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /** Рассчитать карту в вызывающем потоке; возвращается после завершения или отмены. */
+    public void compute() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new TileTask(0, 0, columns, rows));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Остановить расчёт; уже готовые значения сохраняются. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() { return cancelled; }
+
+    /** Значение параметра по горизонтали для столбца (центр ячейки сетки). */
+    public double getX(int column) {
+        return columns == 1 ? xFrom : xFrom + (xTo - xFrom) * column / (columns - 1);
+    }
+
+    public double getY(int row) {
+        return rows == 1 ? yFrom : yFrom + (yTo - yFrom) * row / (rows - 1);
+    }
+
+    /** @return показатель Ляпунова (1/с) или NaN, если ячейка ещё не рассчитана */
+    public double getValue(int column, int row) {
+        return values[row * columns + column];
+    }
+
+    public double getProgress() {
+        return completedCells.get() / (double) values.length;
+    }
+
+    /** @return наибольшее рассчитанное значение или 0 */
+    public double getMaxValue() {
+        double max = 0;
+        for (double value : values) {
+            if (value > max) max = value;
+        }
+        return max;
+    }
+
+    /** Изображение карты, по пикселю на ячейку, ось y направлена вверх. */
+    public BufferedImage toImage(double maxValue) {
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                image.setRGB(c, rows - 1 - r, colorFor(getValue(c, r), maxValue));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Цвет ячейки: от тёмно-синего (регулярное движение, показатель около нуля)
+     * к красному (maxValue); нерассчитанные ячейки светло-серые.
+     */
+    public static int colorFor(double value, double maxValue) {
+        if (Double.isNaN(value)) {
+            return 0xE0E0E0;
+        }
+        double level = maxValue > 0 ? Math.max(0, Math.min(1, value / maxValue)) : 0;
+        float hue = (float) (0.66 * (1 - level));
+        float brightness = (float) (0.45 + 0.55 * Math.sqrt(level));
+        return Color.HSBtoRGB(hue, 0.9f, brightness) & 0xFFFFFF;
+    }
+
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public String getXParameter() { return xParameter; }
+    public String getYParameter() { return yParameter; }
+
+    /** Прямоугольник сетки; делится пополам, пока не станет не больше плитки. */
+    private class TileTask extends RecursiveAction {
+        private final int column, row, width, height;
+
+        TileTask(int column, int row, int width, int height) {
+            this.column = column;
+            this.row = row;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled) {
+                return;
+            }
+            if (width > TILE_SIZE || height > TILE_SIZE) {
+                if (width >= height) {
+                    int half = width / 2;
+                    invokeAll(new TileTask(column, row, half, height),
+                              new TileTask(column + half, row, width - half, height));
+                } else {
+                    int half = height / 2;
+                    invokeAll(new TileTask(column, row, width, half),
+                              new TileTask(column, row + half, width, height - half));
+                }
+                return;
+            }
+
+            LyapunovEstimator estimator = new LyapunovEstimator(dt, duration, renormalizationSteps);
+            SimulationParameters params = new SimulationParameters(base);
+            for (int r = row; r < row + height; r++) {
+                params.setParameter(yParameter, getY(r));
+                for (int c = column; c < column + width; c++) {
+                    params.setParameter(xParameter, getX(c));
+                    double value = estimator.estimate(params, ChaosMap.this::isCancelled);
+                    if (cancelled) {
+                        return;
+                    }
+                    values[r * columns + c] = value;
+                    completedCells.incrementAndGet();
+                }
+            }
+            listener.tileCompleted(column, row, width, height);
+        }
+    }
+}
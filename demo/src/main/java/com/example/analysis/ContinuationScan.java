@@ -0,0 +1,175 @@
+package com.example.analysis;
+
+import com.example.controller.PendulumIntegrator;
+import com.example.model.Channel;
+import com.example.model.ParameterSchedule;
+import com.example.model.PhysicsState;
+import com.example.model.SimulationParameters;
+
+/**
+ * Сканирование параметров с продолжением: один расчёт без сбросов, в котором параметры
+ * меняются по {@link ParameterSchedule}. Каждый следующий режим начинается из состояния,
+ * в котором закончился предыдущий, поэтому переходные процессы не пересчитываются с нуля,
+ * а при проходе параметра туда и обратно видны гистерезис и сосуществующие режимы.
+ *
+ * Расчёт делится на отрезки (узлы расписания и, по желанию, равные отрезки); по последней
+ * доле {@code settleFraction} каждого отрезка собирается статистика выбранных каналов —
+ * установившиеся наблюдаемые для значений параметров этого отрезка. Параметры
+ * пересчитываются перед каждым шагом и в пределах шага постоянны.
+ */
+public class ContinuationScan {
+
+    /** Вызывается в потоке расчёта после каждого отрезка. */
+    @FunctionalInterface
+    public interface SegmentListener {
+        void segmentCompleted(int index, Segment segment);
+    }
+
+    /** Результат одного отрезка. */
+    public static final class Segment {
+        private final double start;
+        private final double end;
+        private final double[] parameters;
+        private final RunningStatistics[] statistics;
+
+        Segment(double start, double end, double[] parameters, RunningStatistics[] statistics) {
+            this.start = start;
+            this.end = end;
+            this.parameters = parameters;
+            this.statistics = statistics;
+        }
+
+        public double getStart() { return start; }
+        public double getEnd() { return end; }
+        /** @return значение параметра дорожки расписания в середине окна наблюдения */
+        public double getParameter(int track) { return parameters[track]; }
+        /** @return статистика канала по окну наблюдения */
+        public RunningStatistics getStatistics(int channel) { return statistics[channel]; }
+
+        /** @return половина размаха канала от минимума до максимума */
+        public double getAmplitude(int channel) {
+            return (statistics[channel].getMax() - statistics[channel].getMin()) / 2;
+        }
+    }
+
+    private final SimulationParameters base;
+    private final ParameterSchedule schedule;
+    private final Channel[] channels;
+
+    private double dt = 0.001;
+    private double duration;
+    private double segmentLength;
+    private double settleFraction = 0.5;
+    private SegmentListener listener = (index, segment) -> {};
+    private volatile boolean cancelled;
+    private Segment[] segments = new Segment[0];
+
+    /** @param channels основные (не производные) каналы, по которым собирается статистика */
+    public ContinuationScan(SimulationParameters base, ParameterSchedule schedule, Channel[] channels) {
+        for (Channel channel : channels) {
+            if (channel.isDerived()) {
+                throw new IllegalArgumentException("Производные каналы не поддерживаются: " + channel.getKey());
+            }
+        }
+        this.base = new SimulationParameters(base);
+        this.schedule = schedule;
+        this.channels = channels.clone();
+        this.duration = schedule.getDefaultDuration();
+    }
+
+    public ContinuationScan setIntegration(double dt, double duration) {
+        this.dt = dt;
+        this.duration = duration;
+        return this;
+    }
+
+    /** @param segmentLength длина равных отрезков внутри интервалов расписания (0 — только узлы) */
+    public ContinuationScan setSegmentLength(double segmentLength) {
+        this.segmentLength = segmentLength;
+        return this;
+    }
+
+    /** @param settleFraction доля конца отрезка, по которой считается статистика (0..1] */
+    public ContinuationScan setSettleFraction(double settleFraction) {
+        if (!(settleFraction > 0 && settleFraction <= 1)) {
+            throw new IllegalArgumentException("Доля окна наблюдения должна быть в (0, 1]: " + settleFraction);
+        }
+        this.settleFraction = settleFraction;
+        return this;
+    }
+
+    public ContinuationScan setSegmentListener(SegmentListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /** Выполнить расчёт в вызывающем потоке. */
+    public void compute() {
+        if (!(duration > 0)) {
+            throw new IllegalArgumentException("Задайте длительность расчёта (duration)");
+        }
+        double[] boundaries = schedule.segmentBoundaries(duration, segmentLength);
+        segments = new Segment[boundaries.length - 1];
+
+        SimulationParameters params = new SimulationParameters(base);
+        schedule.apply(0, params);
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        PhysicsState state = new PhysicsState();
+        int tracks = schedule.getTrackCount();
+        double[] current = new double[tracks];
+        for (int i = 0; i < tracks; i++) {
+            current[i] = params.getParameter(schedule.getTrack(i).getParameter());
+        }
+
+        for (int s = 0; s < segments.length && !cancelled; s++) {
+            double start = boundaries[s];
+            double end = boundaries[s + 1];
+            double windowStart = end - settleFraction * (end - start);
+            long endStep = Math.round(end / dt);
+            long windowStep = Math.round(windowStart / dt);
+            RunningStatistics[] statistics = new RunningStatistics[channels.length];
+            for (int c = 0; c < channels.length; c++) {
+                statistics[c] = new RunningStatistics();
+            }
+
+            while (integrator.getSteps() < endStep) {
+                double t = integrator.getTime();
+                for (int i = 0; i < tracks; i++) {
+                    ParameterSchedule.Track track = schedule.getTrack(i);
+                    double value = track.valueAt(t);
+                    if (value != current[i]) {
+                        integrator.setParameter(track.getParameter(), value);
+                        current[i] = value;
+                    }
+                }
+                integrator.step(dt);
+                if (integrator.getSteps() > windowStep) {
+                    integrator.fillState(state);
+                    for (int c = 0; c < channels.length; c++) {
+                        statistics[c].add(channels[c].read(state));
+                    }
+                }
+            }
+
+            double[] values = new double[tracks];
+            for (int i = 0; i < tracks; i++) {
+                values[i] = schedule.getTrack(i).valueAt((windowStart + end) / 2);
+            }
+            segments[s] = new Segment(start, end, values, statistics);
+            listener.segmentCompleted(s, segments[s]);
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** @return число отрезков последнего расчёта */
+    public int getSegmentCount() { return segments.length; }
+    /** @return отрезок или null, если расчёт до него не дошёл */
+    public Segment getSegment(int index) { return segments[index]; }
+    public Channel getChannel(int index) { return channels[index]; }
+    public int getChannelCount() { return channels.length; }
+    public ParameterSchedule getSchedule() { return schedule; }
+    public double getDuration() { return duration; }
+}
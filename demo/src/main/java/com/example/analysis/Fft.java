@@ -0,0 +1,61 @@
+package com.example.analysis;
+
+/**
+ * Быстрое преобразование Фурье по основанию 2 на месте. Таблицы перестановки
+ * и поворотных множителей вычисляются один раз, преобразование не выделяет память.
+ */
+public class Fft {
+    private final int size;
+    private final int[] reversed;
+    private final double[] cos;
+    private final double[] sin;
+
+    /** @param size степень двойки */
+    public Fft(int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Размер БПФ должен быть степенью двойки: " + size);
+        }
+        this.size = size;
+        this.reversed = new int[size];
+        int bits = Integer.numberOfTrailingZeros(size);
+        for (int i = 0; i < size; i++) {
+            reversed[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+        this.cos = new double[size / 2];
+        this.sin = new double[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            cos[i] = Math.cos(-2 * Math.PI * i / size);
+            sin[i] = Math.sin(-2 * Math.PI * i / size);
+        }
+    }
+
+    public int getSize() { return size; }
+
+    public void transform(double[] re, double[] im) {
+        for (int i = 0; i < size; i++) {
+            int j = reversed[i];
+            if (j > i) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+        for (int length = 2; length <= size; length <<= 1) {
+            int half = length >> 1;
+            int stride = size / length;
+            for (int start = 0; start < size; start += length) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * stride];
+                    double wi = sin[k * stride];
+                    int a = start + k;
+                    int b = a + half;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.analysis;
+
+import com.example.controller.PendulumIntegrator;
+import com.example.model.Channel;
+import com.example.model.SimulationParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Амплитудно-частотная характеристика при колеблющемся подвесе: для каждой частоты
+ * подвеса расчёт идёт до установившегося режима, а не на фиксированное время.
+ *
+ * По каждому периоду подвеса считается размах выбранного канала (половина разности
+ * максимума и минимума) и первая гармоника на частоте подвеса (синхронное детектирование).
+ * Размахи собираются в окна по {@code windowPeriods} периодов; режим считается
+ * установившимся, когда в двух окнах подряд разброс размаха внутри окна и изменение
+ * среднего размаха от окна к окну меньше {@code tolerance} (относительно). Расчёт точки
+ * прекращается сразу после этого или по истечении {@code maxDuration}. Точки раздаются
+ * пулу ForkJoin по одной, поэтому общее время определяется тем, как быстро сходятся
+ * точки, а не худшим случаем.
+ */
+public class FrequencySweep {
+
+    /** Вызывается в рабочем потоке, когда точка рассчитана. */
+    @FunctionalInterface
+    public interface PointListener {
+        void pointCompleted(int index, Point point);
+    }
+
+    /** Результат для одной частоты. */
+    public static final class Point {
+        private final double frequency;
+        private final double amplitude;
+        private final double fundamental;
+        private final double phase;
+        private final double settlingTime;
+        private final boolean converged;
+        private final long steps;
+
+        Point(double frequency, double amplitude, double fundamental, double phase,
+              double settlingTime, boolean converged, long steps) {
+            this.frequency = frequency;
+            this.amplitude = amplitude;
+            this.fundamental = fundamental;
+            this.phase = phase;
+            this.settlingTime = settlingTime;
+            this.converged = converged;
+            this.steps = steps;
+        }
+
+        /** @return частота подвеса (Гц) */
+        public double getFrequency() { return frequency; }
+        /** @return средний размах канала за последнее окно (половина размаха от пика до пика) */
+        public double getAmplitude() { return amplitude; }
+        /** @return амплитуда первой гармоники на частоте подвеса */
+        public double getFundamental() { return fundamental; }
+        /** @return отставание первой гармоники от смещения подвеса (рад) */
+        public double getPhase() { return phase; }
+        /** @return модельное время до остановки (с) */
+        public double getSettlingTime() { return settlingTime; }
+        public boolean isConverged() { return converged; }
+        public long getSteps() { return steps; }
+    }
+
+    private static final double ABSOLUTE_FLOOR = 1e-9; // Размах, ниже которого канал считается неподвижным
+    private static final int CONFIRMATIONS = 2;
+
+    private final SimulationParameters base;
+    private final Channel channel;
+    private final double from, to;
+    private final Point[] points;
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    private double dt = 0.001;
+    private double maxDuration = 600;
+    private int windowPeriods = 10;
+    private double tolerance = 1e-3;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private PointListener listener = (index, point) -> {};
+
+    /**
+     * @param base    параметры системы; амплитуда подвеса должна быть ненулевой
+     * @param channel springLength, angle, radialVelocity, angularVelocity, x или y
+     */
+    public FrequencySweep(SimulationParameters base, Channel channel, double from, double to, int count) {
+        if (base.getDriveAmplitude() == 0) {
+            throw new IllegalArgumentException("Задайте амплитуду колебаний подвеса (driveAmplitude)");
+        }
+        if (count < 1 || !(from > 0) || !(to > 0)) {
+            throw new IllegalArgumentException("Нужна хотя бы одна точка и положительные частоты");
+        }
+        read(channel, 1, 0, 0, 0); // Проверка канала до запуска расчёта
+        this.base = new SimulationParameters(base);
+        this.channel = channel;
+        this.from = from;
+        this.to = to;
+        this.points = new Point[count];
+    }
+
+    public FrequencySweep setIntegration(double dt, double maxDuration) {
+        this.dt = dt;
+        this.maxDuration = maxDuration;
+        return this;
+    }
+
+    public FrequencySweep setConvergence(int windowPeriods, double tolerance) {
+        this.windowPeriods = Math.max(1, windowPeriods);
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    public FrequencySweep setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public FrequencySweep setPointListener(PointListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /** Рассчитать все точки в вызывающем потоке; возвращается после завершения или отмены. */
+    public void compute() {
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            int index = i;
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    if (!cancelled) {
+                        points[index] = computePoint(getFrequency(index));
+                        completed.incrementAndGet();
+                        listener.pointCompleted(index, points[index]);
+                    }
+                }
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Частоты распределены равномерно в логарифмическом масштабе. */
+    public double getFrequency(int index) {
+        return points.length == 1 ? from : from * Math.pow(to / from, index / (double) (points.length - 1));
+    }
+
+    /** @return точка или null, если она ещё не рассчитана */
+    public Point getPoint(int index) { return points[index]; }
+    public int getPointCount() { return points.length; }
+    public Channel getChannel() { return channel; }
+    public double getMaxDuration() { return maxDuration; }
+
+    public double getProgress() {
+        return completed.get() / (double) points.length;
+    }
+
+    private Point computePoint(double frequency) {
+        SimulationParameters params = new SimulationParameters(base);
+        params.setDriveFrequency(frequency);
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        double omega = 2 * Math.PI * frequency;
+        double period = 1 / frequency;
+        long maxSteps = Math.round(maxDuration / dt);
+
+        // Текущий период подвеса
+        long periodIndex = 0;
+        double periodEnd = period;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        double sum = 0, sumCos = 0, sumSin = 0, sumXCos = 0, sumXSin = 0;
+        int count = 0;
+        // Текущее окно периодов
+        int windowCount = 0;
+        double windowMin = Double.POSITIVE_INFINITY, windowMax = Double.NEGATIVE_INFINITY, windowSum = 0;
+        double windowI = 0, windowQ = 0;
+        double previousMean = Double.NaN;
+        int confirmations = 0;
+        double amplitude = Double.NaN, fundamental = Double.NaN, phase = Double.NaN;
+
+        for (long step = 0; step < maxSteps; step++) {
+            integrator.step(dt);
+            double t = integrator.getTime();
+            double value = read(channel, integrator.getSpringLength(), integrator.getAngle(),
+                                integrator.getRadialVelocity(), integrator.getAngularVelocity());
+            if (t < periodEnd) {
+                double cos = Math.cos(omega * t), sin = Math.sin(omega * t);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+                sumCos += cos;
+                sumSin += sin;
+                sumXCos += value * cos;
+                sumXSin += value * sin;
+                count++;
+                continue;
+            }
+            // Период закончен: размах и первая гармоника с вычетом среднего
+            if (count > 0) {
+                double mean = sum / count;
+                windowI += 2 * (sumXCos - mean * sumCos) / count;
+                windowQ += 2 * (sumXSin - mean * sumSin) / count;
+                double periodAmplitude = (max - min) / 2;
+                windowMin = Math.min(windowMin, periodAmplitude);
+                windowMax = Math.max(windowMax, periodAmplitude);
+                windowSum += periodAmplitude;
+                windowCount++;
+            }
+            periodIndex++;
+            periodEnd = (periodIndex + 1) * period;
+            min = max = value;
+            double cos = Math.cos(omega * t), sin = Math.sin(omega * t);
+            sum = value;
+            sumCos = cos;
+            sumSin = sin;
+            sumXCos = value * cos;
+            sumXSin = value * sin;
+            count = 1;
+
+            if (windowCount == windowPeriods) {
+                double mean = windowSum / windowCount;
+                double scale = Math.max(mean, ABSOLUTE_FLOOR);
+                amplitude = mean;
+                fundamental = Math.hypot(windowI, windowQ) / windowCount;
+                phase = Math.atan2(windowQ, windowI);
+                boolean settled = windowMax - windowMin < tolerance * scale
+                    && Math.abs(mean - previousMean) < tolerance * scale;
+                confirmations = settled ? confirmations + 1 : 0;
+                if (confirmations >= CONFIRMATIONS || cancelled) {
+                    return new Point(frequency, amplitude, fundamental, phase, t, !cancelled, integrator.getSteps());
+                }
+                previousMean = mean;
+                windowCount = 0;
+                windowMin = Double.POSITIVE_INFINITY;
+                windowMax = Double.NEGATIVE_INFINITY;
+                windowSum = windowI = windowQ = 0;
+            }
+        }
+        return new Point(frequency, amplitude, fundamental, phase, integrator.getTime(), false, integrator.getSteps());
+    }
+
+    private static double read(Channel channel, double R, double fi, double dR, double dfi) {
+        return switch (channel) {
+            case SPRING_LENGTH -> R;
+            case ANGLE -> fi;
+            case RADIAL_VELOCITY -> dR;
+            case ANGULAR_VELOCITY -> dfi;
+            case X -> R * Math.sin(fi);
+            case Y -> R * Math.cos(fi);
+            default -> throw new IllegalArgumentException("Канал не поддерживается для АЧХ: " + channel.getKey());
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.analysis;
+
+import com.example.controller.PendulumIntegrator;
+import com.example.model.SimulationParameters;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Конечновременной старший показатель Ляпунова по методу Бенеттина: рядом с основной
+ * траекторией интегрируется возмущённая, расстояние между ними в фазовом пространстве
+ * {R, dR/dt, fi, d(fi)/dt} периодически нормируется обратно к начальному,
+ * а логарифмы коэффициентов растяжения суммируются.
+ * Экземпляр не потокобезопасен и переиспользуется для последовательных расчётов в одном потоке.
+ */
+public class LyapunovEstimator {
+
+    private static final double SEPARATION = 1e-8;
+
+    private final double dt;
+    private final long steps;
+    private final int renormalizationSteps;
+    private final SimulationParameters defaults = new SimulationParameters();
+    private final PendulumIntegrator reference = new PendulumIntegrator(defaults);
+    private final PendulumIntegrator perturbed = new PendulumIntegrator(defaults);
+    private final double[] a = new double[4];
+    private final double[] b = new double[4];
+
+    /**
+     * @param duration модельное время на одну оценку (с)
+     * @param renormalizationSteps число шагов между нормировками
+     */
+    public LyapunovEstimator(double dt, double duration, int renormalizationSteps) {
+        this.dt = dt;
+        this.steps = Math.round(duration / dt);
+        this.renormalizationSteps = Math.max(1, renormalizationSteps);
+    }
+
+    /**
+     * @param cancelled опрашивается между нормировками
+     * @return показатель (1/с) или NaN, если расчёт отменён или траектория разошлась
+     */
+    public double estimate(SimulationParameters params, BooleanSupplier cancelled) {
+        reference.setParameters(params);
+        reference.reset();
+        perturbed.setParameters(params);
+        perturbed.reset();
+        reference.getState(a);
+        a[2] += SEPARATION;
+        perturbed.setState(a);
+
+        double logSum = 0;
+        long done = 0;
+        while (done < steps) {
+            int chunk = (int) Math.min(renormalizationSteps, steps - done);
+            for (int i = 0; i < chunk; i++) {
+                reference.step(dt);
+                perturbed.step(dt);
+            }
+            done += chunk;
+
+            reference.getState(a);
+            perturbed.getState(b);
+            double distance = 0;
+            for (int i = 0; i < 4; i++) {
+                double d = b[i] - a[i];
+                distance += d * d;
+            }
+            distance = Math.sqrt(distance);
+            if (!(distance > 0) || Double.isInfinite(distance)) {
+                return Double.NaN;
+            }
+            logSum += Math.log(distance / SEPARATION);
+            double scale = SEPARATION / distance;
+            for (int i = 0; i < 4; i++) {
+                b[i] = a[i] + (b[i] - a[i]) * scale;
+            }
+            perturbed.setState(b);
+
+            if (cancelled.getAsBoolean()) {
+                return Double.NaN;
+            }
+        }
+        return logSum / (steps * dt);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.analysis;
+
+import com.example.model.Channel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Измеренная траектория: моменты времени, угол и длина пружины.
+ * Читается из CSV с заголовком, в котором есть столбцы {@code time}, {@code angle}
+ * и {@code springLength} (например, вывод команды {@code batch}); остальные столбцы игнорируются.
+ */
+public final class MeasuredTrajectory {
+
+    private final double[] times;
+    private final double[] angles;
+    private final double[] lengths;
+
+    public MeasuredTrajectory(double[] times, double[] angles, double[] lengths) {
+        if (times.length != angles.length || times.length != lengths.length || times.length < 2) {
+            throw new IllegalArgumentException("Нужно не меньше двух точек одинаковой длины");
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (!(times[i] > times[i - 1])) {
+                throw new IllegalArgumentException("Время должно строго возрастать (строка " + (i + 2) + ")");
+            }
+        }
+        this.times = times.clone();
+        this.angles = angles.clone();
+        this.lengths = lengths.clone();
+    }
+
+    public static MeasuredTrajectory load(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("Пустой файл: " + path);
+            }
+            String[] names = header.split(",");
+            int timeColumn = -1, angleColumn = -1, lengthColumn = -1;
+            for (int i = 0; i < names.length; i++) {
+                Channel channel = Channel.find(names[i].trim());
+                if (channel == Channel.TIME) timeColumn = i;
+                if (channel == Channel.ANGLE) angleColumn = i;
+                if (channel == Channel.SPRING_LENGTH) lengthColumn = i;
+            }
+            if (timeColumn < 0 || angleColumn < 0 || lengthColumn < 0) {
+                throw new IOException("В заголовке нужны столбцы time, angle и springLength: " + header);
+            }
+
+            double[] times = new double[1024];
+            double[] angles = new double[1024];
+            double[] lengths = new double[1024];
+            int size = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (size == times.length) {
+                    times = Arrays.copyOf(times, size * 2);
+                    angles = Arrays.copyOf(angles, size * 2);
+                    lengths = Arrays.copyOf(lengths, size * 2);
+                }
+                try {
+                    times[size] = Double.parseDouble(fields[timeColumn].trim());
+                    angles[size] = Double.parseDouble(fields[angleColumn].trim());
+                    lengths[size] = Double.parseDouble(fields[lengthColumn].trim());
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new IOException("Некорректная строка " + (size + 2) + ": " + line, e);
+                }
+                size++;
+            }
+            return new MeasuredTrajectory(Arrays.copyOf(times, size), Arrays.copyOf(angles, size),
+                                          Arrays.copyOf(lengths, size));
+        }
+    }
+
+    public int size() { return times.length; }
+    public double getTime(int index) { return times[index]; }
+    public double getAngle(int index) { return angles[index]; }
+    public double getSpringLength(int index) { return lengths[index]; }
+}
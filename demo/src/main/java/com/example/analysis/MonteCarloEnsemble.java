@@ -0,0 +1,210 @@
+package com.example.analysis;
+
+import com.example.controller.PendulumIntegrator;
+import com.example.model.Channel;
+import com.example.model.PhysicsState;
+import com.example.model.SimulationParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Распространение неопределённости параметров методом Монте-Карло.
+ * Параметры каждой реализации разыгрываются из заданных распределений; реализации
+ * интегрируются параллельно, а значения выбранных каналов в каждый момент выборки
+ * попадают в потоковые эскизы квантилей ({@link QuantileSketch}) вместо хранения траекторий.
+ * Потоки копят собственные эскизы и периодически вливают их в общие, поэтому
+ * полосы квантилей можно запрашивать во время расчёта.
+ */
+public class MonteCarloEnsemble {
+
+    private static final int SKETCH_ACCURACY = 128;
+    private static final int MERGE_EVERY = 16; // Реализаций между слияниями эскизов потока
+
+    private final SimulationParameters base;
+    private final List<ParameterDistribution> distributions;
+    private final Channel[] channels;
+    private final int realizations;
+    private final double dt;
+    private final int stepsPerSample;
+    private final int samples;
+    private final QuantileSketch[][] sketches; // [канал][момент выборки]
+
+    private final AtomicInteger nextRealization = new AtomicInteger();
+    private final AtomicInteger completedRealizations = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Runnable progressListener = () -> {};
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed = 1;
+
+    /**
+     * @param sampleInterval интервал между моментами выборки (с), кратный dt
+     */
+    public MonteCarloEnsemble(SimulationParameters base, List<ParameterDistribution> distributions,
+                              Channel[] channels, int realizations,
+                              double dt, double duration, double sampleInterval) {
+        for (Channel channel : channels) {
+            if (channel.isDerived()) {
+                throw new IllegalArgumentException("Производный канал не поддерживается: " + channel.getKey());
+            }
+        }
+        this.base = new SimulationParameters(base);
+        this.distributions = List.copyOf(distributions);
+        this.channels = channels.clone();
+        this.realizations = realizations;
+        this.dt = dt;
+        this.stepsPerSample = Math.max(1, (int) Math.round(sampleInterval / dt));
+        this.samples = (int) (Math.round(duration / dt) / stepsPerSample) + 1;
+        this.sketches = createSketches();
+    }
+
+    public MonteCarloEnsemble setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /** Зерно генератора: реализация i всегда получает одни и те же параметры. */
+    public MonteCarloEnsemble setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** @param listener вызывается в рабочем потоке после каждого слияния эскизов */
+    public MonteCarloEnsemble setProgressListener(Runnable listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    /** Выполнить расчёт в вызывающем потоке; возвращается после завершения или отмены. */
+    public void run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "MonteCarloWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(this::work));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void work() {
+        QuantileSketch[][] local = createSketches();
+        PendulumIntegrator integrator = new PendulumIntegrator(base);
+        SimulationParameters params = new SimulationParameters(base);
+        PhysicsState state = new PhysicsState();
+        int pending = 0;
+
+        int realization;
+        while (!cancelled && (realization = nextRealization.getAndIncrement()) < realizations) {
+            SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + realization);
+            for (ParameterDistribution distribution : distributions) {
+                distribution.apply(params, random);
+            }
+            integrator.setParameters(params);
+            integrator.reset();
+
+            for (int sample = 0; sample < samples && !cancelled; sample++) {
+                if (sample > 0) {
+                    for (int i = 0; i < stepsPerSample; i++) {
+                        integrator.step(dt);
+                    }
+                }
+                integrator.fillState(state);
+                for (int c = 0; c < channels.length; c++) {
+                    local[c][sample].add(channels[c].read(state));
+                }
+            }
+            if (cancelled) {
+                break;
+            }
+            completedRealizations.incrementAndGet();
+            if (++pending == MERGE_EVERY) {
+                mergeIntoShared(local);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            mergeIntoShared(local);
+        }
+    }
+
+    private void mergeIntoShared(QuantileSketch[][] local) {
+        synchronized (sketches) {
+            for (int c = 0; c < channels.length; c++) {
+                for (int s = 0; s < samples; s++) {
+                    sketches[c][s].merge(local[c][s]);
+                    local[c][s].clear();
+                }
+            }
+        }
+        progressListener.run();
+    }
+
+    private QuantileSketch[][] createSketches() {
+        QuantileSketch[][] result = new QuantileSketch[channels.length][samples];
+        for (int c = 0; c < channels.length; c++) {
+            for (int s = 0; s < samples; s++) {
+                result[c][s] = new QuantileSketch(SKETCH_ACCURACY, seed + (long) c * samples + s);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Снимок полос квантилей канала по всем реализациям, влитым к текущему моменту.
+     * Под блокировкой эскизы только копируются, сортировка идёт после неё и не задерживает
+     * слияния рабочих потоков.
+     *
+     * @param qs уровни квантилей по возрастанию
+     * @param out массив [уровень][момент выборки]
+     */
+    public void quantiles(int channel, double[] qs, double[][] out) {
+        QuantileSketch[] snapshot = new QuantileSketch[samples];
+        synchronized (sketches) {
+            for (int s = 0; s < samples; s++) {
+                snapshot[s] = new QuantileSketch(sketches[channel][s]);
+            }
+        }
+        double[] values = new double[qs.length];
+        for (int s = 0; s < samples; s++) {
+            snapshot[s].quantiles(qs, values);
+            for (int q = 0; q < qs.length; q++) {
+                out[q][s] = values[q];
+            }
+        }
+    }
+
+    /** @return число реализаций, учтённых в общих эскизах */
+    public long getMergedRealizations() {
+        synchronized (sketches) {
+            return sketches[0][0].getCount();
+        }
+    }
+
+    public int getCompletedRealizations() { return completedRealizations.get(); }
+    public int getRealizations() { return realizations; }
+    public int getSampleCount() { return samples; }
+    public double getSampleTime(int sample) { return sample * stepsPerSample * dt; }
+    public Channel[] getChannels() { return channels.clone(); }
+    public boolean isCancelled() { return cancelled; }
+}
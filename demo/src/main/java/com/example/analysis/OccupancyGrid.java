@@ -0,0 +1,158 @@
+package com.example.analysis;
+
+import com.example.model.SimulationParameters;
+import com.example.observer.StepListener;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма занятости: сколько шагов грузик провёл в каждой ячейке плоскости (x, y).
+ * Память фиксирована размером сетки и не растёт с длиной расчёта; y направлена вниз,
+ * как в окне симуляции.
+ *
+ * Запись из нескольких потоков двумя способами:
+ * <ul>
+ *   <li>{@link #addConcurrent} — все потоки пишут в общую сетку атомарным сложением;</li>
+ *   <li>полосы: каждый поток копит свою сетку ({@link #emptyCopy()}) простым {@link #add}
+ *       и время от времени сливает её в общую через {@link #mergeFrom}, который тоже атомарен,
+ *       поэтому сливать можно одновременно из разных потоков.</li>
+ * </ul>
+ * Чтение (отрисовка, {@link #getCount}) допустимо во время записи: значения ячеек только растут.
+ */
+public class OccupancyGrid implements StepListener {
+
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final double xMin, xMax, yMin, yMax;
+    private final int width, height;
+    private final double xScale, yScale;
+    private final long[] counts;
+    private final LongAdder outside = new LongAdder();
+
+    public OccupancyGrid(double xMin, double xMax, double yMin, double yMax, int width, int height) {
+        if (!(xMax > xMin) || !(yMax > yMin) || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Некорректные границы сетки занятости");
+        }
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.yMin = yMin;
+        this.yMax = yMax;
+        this.width = width;
+        this.height = height;
+        this.xScale = width / (xMax - xMin);
+        this.yScale = height / (yMax - yMin);
+        this.counts = new long[width * height];
+    }
+
+    /**
+     * Квадратная сетка вокруг подвеса, в которую заведомо помещается траектория без раскачки
+     * подвесом: наибольшая длина пружины оценивается по энергии начального состояния
+     * (как в {@link PoincareBuilder}), при колеблющемся подвесе берётся полуторный запас.
+     */
+    public static OccupancyGrid forParameters(SimulationParameters params, int resolution) {
+        double m = params.getMass(), k = params.getSpringConstant(), R0 = params.getNaturalLength();
+        double g = params.getGravity(), R = params.getInitialLength();
+        double energy = 0.5 * k * (R - R0) * (R - R0) - m * g * R * Math.cos(params.getInitialAngle());
+        double b = k * R0 + m * g;
+        double discriminant = b * b - k * (k * R0 * R0 - 2 * energy);
+        double reach = k > 0 && discriminant >= 0 ? (b + Math.sqrt(discriminant)) / k : 2 * Math.max(R, R0);
+        reach = Math.max(reach, R) * (params.getDriveAmplitude() != 0 ? 1.5 : 1.1);
+        return new OccupancyGrid(-reach, reach, -reach, reach, resolution, resolution);
+    }
+
+    /** Пустая сетка с теми же границами (полоса для одного потока). */
+    public OccupancyGrid emptyCopy() {
+        return new OccupancyGrid(xMin, xMax, yMin, yMax, width, height);
+    }
+
+    /** @return индекс ячейки или -1 вне сетки */
+    private int cellOf(double x, double y) {
+        double column = (x - xMin) * xScale;
+        double row = (y - yMin) * yScale;
+        if (!(column >= 0 && column < width && row >= 0 && row < height)) {
+            return -1;
+        }
+        return (int) row * width + (int) column;
+    }
+
+    /** Учесть точку; только для сетки, в которую пишет один поток. */
+    public void add(double x, double y) {
+        int cell = cellOf(x, y);
+        if (cell < 0) {
+            outside.increment();
+        } else {
+            counts[cell]++;
+        }
+    }
+
+    /** Учесть точку атомарно; можно вызывать из нескольких потоков одновременно. */
+    public void addConcurrent(double x, double y) {
+        int cell = cellOf(x, y);
+        if (cell < 0) {
+            outside.increment();
+        } else {
+            COUNTS.getAndAdd(counts, cell, 1L);
+        }
+    }
+
+    @Override
+    public void onStep(double time, double springLength, double radialVelocity,
+                       double angle, double angularVelocity) {
+        add(springLength * Math.sin(angle), springLength * Math.cos(angle));
+    }
+
+    @Override
+    public void onReset() {
+        clear();
+    }
+
+    /**
+     * Прибавить сетку другого потока атомарно по ячейкам и очистить её.
+     * Полосу в это время не должен менять её поток.
+     */
+    public void mergeFrom(OccupancyGrid stripe) {
+        if (stripe.width != width || stripe.height != height || stripe.xMin != xMin || stripe.xMax != xMax
+                || stripe.yMin != yMin || stripe.yMax != yMax) {
+            throw new IllegalArgumentException("Сетки с разными границами не объединяются");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            long count = stripe.counts[i];
+            if (count != 0) {
+                COUNTS.getAndAdd(counts, i, count);
+                stripe.counts[i] = 0;
+            }
+        }
+        outside.add(stripe.outside.sumThenReset());
+    }
+
+    public void clear() {
+        for (int i = 0; i < counts.length; i++) {
+            COUNTS.setOpaque(counts, i, 0L);
+        }
+        outside.reset();
+    }
+
+    /** @param row строка сверху вниз (по возрастанию y) */
+    public long getCount(int column, int row) {
+        return (long) COUNTS.getOpaque(counts, row * width + column);
+    }
+
+    /** @return число точек внутри сетки (сумма по ячейкам) */
+    public long getInside() {
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            sum += (long) COUNTS.getOpaque(counts, i);
+        }
+        return sum;
+    }
+
+    public long getOutside() { return outside.sum(); }
+    public double getXMin() { return xMin; }
+    public double getXMax() { return xMax; }
+    public double getYMin() { return yMin; }
+    public double getYMax() { return yMax; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
@@ -0,0 +1,87 @@
+package com.example.analysis;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Инкрементальная отрисовка {@link OccupancyGrid} в изображение с логарифмической шкалой цвета.
+ * Перекрашиваются только ячейки, счётчик которых изменился с прошлой отрисовки. Шкала
+ * нормируется не на максимум, а на ближайшую сверху степень двойки, поэтому всё изображение
+ * перекрашивается, лишь когда максимум её переходит (за весь расчёт — десятки раз).
+ * Цвета — как у {@link PhaseHistogram}, пустые ячейки белые.
+ */
+public class OccupancyRenderer {
+
+    private static final int LEVELS = 256;
+    private static final int[] PALETTE = new int[LEVELS];
+
+    static {
+        for (int i = 0; i < LEVELS; i++) {
+            PALETTE[i] = PhaseHistogram.densityColor(i / (double) (LEVELS - 1));
+        }
+    }
+
+    private final OccupancyGrid grid;
+    private final BufferedImage image;
+    private final int[] pixels;
+    private final long[] rendered;
+    private long ceiling = 1;
+
+    public OccupancyRenderer(OccupancyGrid grid) {
+        this.grid = grid;
+        image = new BufferedImage(grid.getWidth(), grid.getHeight(), BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        rendered = new long[pixels.length];
+        Arrays.fill(pixels, 0xFFFFFF);
+    }
+
+    /**
+     * Перенести изменения сетки в изображение.
+     *
+     * @return число перекрашенных ячеек
+     */
+    public int render() {
+        int width = grid.getWidth();
+        double logCeiling = Math.log1p(ceiling);
+        long max = 0;
+        int changed = 0;
+        for (int row = 0; row < grid.getHeight(); row++) {
+            for (int column = 0; column < width; column++) {
+                int i = row * width + column;
+                long count = grid.getCount(column, row);
+                if (count > max) {
+                    max = count;
+                }
+                if (count != rendered[i]) {
+                    rendered[i] = count;
+                    pixels[i] = color(count, logCeiling);
+                    changed++;
+                }
+            }
+        }
+        long needed = max == 0 ? 1 : Long.highestOneBit(max) << 1;
+        if (needed != ceiling) {
+            ceiling = needed;
+            logCeiling = Math.log1p(ceiling);
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = color(rendered[i], logCeiling);
+            }
+            changed = pixels.length;
+        }
+        return changed;
+    }
+
+    private static int color(long count, double logCeiling) {
+        if (count <= 0) {
+            return 0xFFFFFF;
+        }
+        int level = (int) (Math.log1p(count) / logCeiling * (LEVELS - 1));
+        return PALETTE[Math.min(level, LEVELS - 1)];
+    }
+
+    /** @return изображение, которое обновляет {@link #render()}; ось y направлена вниз */
+    public BufferedImage getImage() { return image; }
+
+    public OccupancyGrid getGrid() { return grid; }
+}
@@ -0,0 +1,85 @@
+package com.example.analysis;
+
+import com.example.model.SimulationParameters;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Распределение одного параметра симуляции для расчётов методом Монте-Карло.
+ * Все параметры, кроме начального угла, физически неотрицательны, поэтому
+ * отрицательные выборки нормального распределения отбрасываются и разыгрываются заново.
+ */
+public final class ParameterDistribution {
+
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private final String parameter;
+    private final boolean normal;
+    private final double a, b;
+
+    private ParameterDistribution(String parameter, boolean normal, double a, double b) {
+        new SimulationParameters().getParameter(parameter); // Проверка имени
+        this.parameter = parameter;
+        this.normal = normal;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static ParameterDistribution normal(String parameter, double mean, double deviation) {
+        return new ParameterDistribution(parameter, true, mean, deviation);
+    }
+
+    public static ParameterDistribution uniform(String parameter, double min, double max) {
+        return new ParameterDistribution(parameter, false, min, max);
+    }
+
+    /**
+     * Разобрать описание вида {@code имя:normal:среднее:СКО} или {@code имя:uniform:мин:макс}.
+     */
+    public static ParameterDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Ожидалось имя:normal|uniform:a:b, получено: " + spec);
+        }
+        double a = Double.parseDouble(parts[2]);
+        double b = Double.parseDouble(parts[3]);
+        return switch (parts[1]) {
+            case "normal" -> normal(parts[0], a, b);
+            case "uniform" -> uniform(parts[0], a, b);
+            default -> throw new IllegalArgumentException("Неизвестное распределение: " + parts[1]);
+        };
+    }
+
+    public String getParameter() { return parameter; }
+
+    public double sample(SplittableRandom random) {
+        boolean nonNegative = !"initialAngle".equals(parameter);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            double value = normal ? a + b * gaussian(random) : a + (b - a) * random.nextDouble();
+            if (!nonNegative || value >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Распределение параметра " + parameter + " почти целиком отрицательно");
+    }
+
+    /** Заменить значение параметра выборкой. */
+    public void apply(SimulationParameters params, SplittableRandom random) {
+        params.setParameter(parameter, sample(random));
+    }
+
+    /** Нормальная величина по методу Бокса-Мюллера. */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    @Override
+    public String toString() {
+        return normal
+            ? String.format(Locale.US, "%s ~ N(%g, %g)", parameter, a, b)
+            : String.format(Locale.US, "%s ~ U(%g, %g)", parameter, a, b);
+    }
+}
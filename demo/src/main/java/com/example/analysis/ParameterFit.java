@@ -0,0 +1,348 @@
+package com.example.analysis;
+
+import com.example.controller.PendulumIntegrator;
+import com.example.model.SimulationParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Оценка параметров модели по измеренной траектории методом Левенберга-Марквардта.
+ * Невязки — разности угла и длины пружины модели и измерений во все моменты измерений;
+ * столбцы якобиана считаются конечными разностями параллельно, каждый рабочий поток
+ * переиспользует свой интегратор и буфер невязок.
+ *
+ * Уравнения движения зависят от массы только через k/m и c/m, поэтому масса по углу
+ * и длине не определяется: она остаётся заданной, а подбираются жёсткость и затухание
+ * (по умолчанию). Начальное состояние берётся из первой точки измерений с нулевыми
+ * скоростями; initialAngle и initialLength можно добавить в список подбираемых параметров.
+ */
+public class ParameterFit {
+
+    private static final int MAX_ITERATIONS = 100;
+    private static final double TOLERANCE = 1e-10;
+    private static final double CONFIDENCE_Z = 1.959964; // Двусторонний 95 % интервал нормального распределения
+
+    private final MeasuredTrajectory data;
+    private final SimulationParameters initialGuess;
+    private final String[] names;
+    private final double dt;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private final ThreadLocal<Workspace> workspaces;
+
+    public ParameterFit(MeasuredTrajectory data, SimulationParameters initialGuess, String[] names, double dt) {
+        for (String name : names) {
+            if ("mass".equals(name)) {
+                throw new IllegalArgumentException("Масса не определяется по углу и длине пружины: "
+                    + "модель зависит только от k/m и c/m");
+            }
+            initialGuess.getParameter(name);
+        }
+        this.data = data;
+        this.initialGuess = new SimulationParameters(initialGuess);
+        this.initialGuess.setInitialAngle(data.getAngle(0));
+        this.initialGuess.setInitialLength(data.getSpringLength(0));
+        this.names = names.clone();
+        this.dt = dt;
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(this.initialGuess));
+    }
+
+    public ParameterFit setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    public Result fit() throws InterruptedException {
+        int p = names.length;
+        int n = 2 * data.size();
+        double[] values = new double[p];
+        for (int j = 0; j < p; j++) {
+            values[j] = initialGuess.getParameter(names[j]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, p), r -> {
+            Thread thread = new Thread(r, "FitWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            double[] residuals = new double[n];
+            double cost = residuals(values, residuals);
+            if (!Double.isFinite(cost)) {
+                throw new IllegalArgumentException("Модель расходится при начальном приближении");
+            }
+            double[][] jacobian = new double[p][n];
+            double[][] normal = new double[p][p];
+            double[] gradient = new double[p];
+            double[] trialValues = new double[p];
+            double[] trialResiduals = new double[n];
+            double lambda = 1e-3;
+            int iterations = 0;
+            int evaluations = 1;
+            boolean converged = false;
+
+            while (iterations < MAX_ITERATIONS && !converged) {
+                iterations++;
+                jacobian(executor, values, residuals, jacobian);
+                evaluations += p;
+                normalEquations(jacobian, residuals, normal, gradient);
+
+                boolean improved = false;
+                while (!improved && lambda < 1e12) {
+                    double[] step = solveDamped(normal, gradient, lambda);
+                    if (step == null) {
+                        lambda *= 10;
+                        continue;
+                    }
+                    for (int j = 0; j < p; j++) {
+                        trialValues[j] = values[j] + step[j];
+                    }
+                    double trialCost = residuals(trialValues, trialResiduals);
+                    evaluations++;
+                    if (trialCost < cost) {
+                        double relativeChange = (cost - trialCost) / Math.max(cost, Double.MIN_NORMAL);
+                        double stepSize = 0;
+                        for (int j = 0; j < p; j++) {
+                            stepSize = Math.max(stepSize, Math.abs(step[j]) / Math.max(Math.abs(values[j]), 1e-12));
+                        }
+                        System.arraycopy(trialValues, 0, values, 0, p);
+                        System.arraycopy(trialResiduals, 0, residuals, 0, n);
+                        cost = trialCost;
+                        lambda = Math.max(lambda / 10, 1e-12);
+                        improved = true;
+                        converged = relativeChange < TOLERANCE || stepSize < TOLERANCE;
+                    } else {
+                        lambda *= 10;
+                    }
+                }
+                if (!improved) {
+                    converged = true; // Шаг по антиградиенту уже не уменьшает невязку
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+
+            // Ковариация оценок: s² (JᵀJ)⁻¹ в найденной точке
+            jacobian(executor, values, residuals, jacobian);
+            evaluations += p;
+            normalEquations(jacobian, residuals, normal, gradient);
+            double[][] inverse = invert(normal);
+            double variance = cost / Math.max(1, n - p);
+            double[] errors = new double[p];
+            for (int j = 0; j < p; j++) {
+                errors[j] = inverse == null ? Double.NaN : Math.sqrt(variance * inverse[j][j]);
+            }
+
+            SimulationParameters fitted = new SimulationParameters(initialGuess);
+            for (int j = 0; j < p; j++) {
+                fitted.setParameter(names[j], values[j]);
+            }
+            return new Result(fitted, names.clone(), values, errors, cost, n, iterations, evaluations);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** @return сумма квадратов невязок или +∞, если модель разошлась */
+    private double residuals(double[] values, double[] out) {
+        Workspace workspace = workspaces.get();
+        for (int j = 0; j < names.length; j++) {
+            workspace.params.setParameter(names[j], values[j]);
+        }
+        return workspace.simulate(data, dt, out);
+    }
+
+    private void jacobian(ExecutorService executor, double[] values, double[] base, double[][] out)
+            throws InterruptedException, ExecutionException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int j = 0; j < names.length; j++) {
+            int column = j;
+            futures.add(executor.submit(() -> {
+                double[] shifted = values.clone();
+                double h = 1e-6 * Math.max(Math.abs(values[column]), 1e-3);
+                shifted[column] += h;
+                double[] derivative = out[column];
+                residuals(shifted, derivative);
+                for (int i = 0; i < derivative.length; i++) {
+                    derivative[i] = (derivative[i] - base[i]) / h;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void normalEquations(double[][] jacobian, double[] residuals, double[][] normal, double[] gradient) {
+        int p = jacobian.length;
+        for (int a = 0; a < p; a++) {
+            for (int b = 0; b <= a; b++) {
+                double sum = 0;
+                for (int i = 0; i < residuals.length; i++) {
+                    sum += jacobian[a][i] * jacobian[b][i];
+                }
+                normal[a][b] = sum;
+                normal[b][a] = sum;
+            }
+            double sum = 0;
+            for (int i = 0; i < residuals.length; i++) {
+                sum += jacobian[a][i] * residuals[i];
+            }
+            gradient[a] = sum;
+        }
+    }
+
+    /** Решить (JᵀJ + λ·diag(JᵀJ)) δ = -Jᵀr разложением Холецкого; null, если матрица вырождена. */
+    private static double[] solveDamped(double[][] normal, double[] gradient, double lambda) {
+        int p = gradient.length;
+        double[][] a = new double[p][p];
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j < p; j++) {
+                a[i][j] = normal[i][j];
+            }
+            a[i][i] += lambda * Math.max(normal[i][i], 1e-12);
+        }
+        double[][] l = cholesky(a);
+        if (l == null) {
+            return null;
+        }
+        double[] y = new double[p];
+        for (int i = 0; i < p; i++) {
+            double sum = -gradient[i];
+            for (int k = 0; k < i; k++) sum -= l[i][k] * y[k];
+            y[i] = sum / l[i][i];
+        }
+        double[] x = new double[p];
+        for (int i = p - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int k = i + 1; k < p; k++) sum -= l[k][i] * x[k];
+            x[i] = sum / l[i][i];
+        }
+        return x;
+    }
+
+    private static double[][] cholesky(double[][] a) {
+        int p = a.length;
+        double[][] l = new double[p][p];
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = a[i][j];
+                for (int k = 0; k < j; k++) sum -= l[i][k] * l[j][k];
+                if (i == j) {
+                    if (!(sum > 0)) {
+                        return null;
+                    }
+                    l[i][i] = Math.sqrt(sum);
+                } else {
+                    l[i][j] = sum / l[j][j];
+                }
+            }
+        }
+        return l;
+    }
+
+    private static double[][] invert(double[][] a) {
+        int p = a.length;
+        double[][] inverse = new double[p][];
+        for (int j = 0; j < p; j++) {
+            double[] unit = new double[p];
+            unit[j] = -1; // solveDamped решает систему с -правой частью
+            inverse[j] = solveDamped(a, unit, 0);
+            if (inverse[j] == null) {
+                return null;
+            }
+        }
+        return inverse;
+    }
+
+    /** Интегратор, параметры и буферы одного рабочего потока. */
+    private static final class Workspace {
+        final SimulationParameters params;
+        final PendulumIntegrator integrator;
+
+        Workspace(SimulationParameters initial) {
+            this.params = new SimulationParameters(initial);
+            this.integrator = new PendulumIntegrator(initial);
+        }
+
+        double simulate(MeasuredTrajectory data, double dt, double[] out) {
+            integrator.setParameters(params);
+            integrator.reset();
+            double start = data.getTime(0);
+            double previousTime = 0;
+            double previousAngle = integrator.getAngle();
+            double previousLength = integrator.getSpringLength();
+            double cost = 0;
+            for (int i = 0; i < data.size(); i++) {
+                double target = data.getTime(i) - start;
+                while (integrator.getTime() < target - 1e-12) {
+                    previousTime = integrator.getTime();
+                    previousAngle = integrator.getAngle();
+                    previousLength = integrator.getSpringLength();
+                    integrator.step(dt);
+                }
+                // Линейная интерполяция между соседними шагами интегрирования
+                double angle = integrator.getAngle();
+                double length = integrator.getSpringLength();
+                double span = integrator.getTime() - previousTime;
+                if (span > 0 && integrator.getTime() - target > 1e-12) {
+                    double w = (target - previousTime) / span;
+                    angle = previousAngle + (angle - previousAngle) * w;
+                    length = previousLength + (length - previousLength) * w;
+                }
+                double angleResidual = angle - data.getAngle(i);
+                double lengthResidual = length - data.getSpringLength(i);
+                out[2 * i] = angleResidual;
+                out[2 * i + 1] = lengthResidual;
+                cost += angleResidual * angleResidual + lengthResidual * lengthResidual;
+            }
+            return Double.isFinite(cost) ? cost : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /** Подобранные параметры с 95 % доверительными интервалами. */
+    public static final class Result {
+        private final SimulationParameters parameters;
+        private final String[] names;
+        private final double[] values;
+        private final double[] standardErrors;
+        private final double residualSumOfSquares;
+        private final int observations;
+        private final int iterations;
+        private final int evaluations;
+
+        Result(SimulationParameters parameters, String[] names, double[] values, double[] standardErrors,
+               double residualSumOfSquares, int observations, int iterations, int evaluations) {
+            this.parameters = parameters;
+            this.names = names;
+            this.values = values;
+            this.standardErrors = standardErrors;
+            this.residualSumOfSquares = residualSumOfSquares;
+            this.observations = observations;
+            this.iterations = iterations;
+            this.evaluations = evaluations;
+        }
+
+        /** @return полный набор параметров с подобранными значениями */
+        public SimulationParameters getParameters() { return new SimulationParameters(parameters); }
+        public int getParameterCount() { return names.length; }
+        public String getName(int index) { return names[index]; }
+        public double getValue(int index) { return values[index]; }
+        public double getStandardError(int index) { return standardErrors[index]; }
+        /** @return полуширина 95 % доверительного интервала */
+        public double getConfidenceHalfWidth(int index) { return CONFIDENCE_Z * standardErrors[index]; }
+        public double getResidualSumOfSquares() { return residualSumOfSquares; }
+        /** @return среднеквадратичная невязка на одно наблюдение */
+        public double getRms() { return Math.sqrt(residualSumOfSquares / observations); }
+        public int getIterations() { return iterations; }
+        public int getEvaluations() { return evaluations; }
+    }
+}
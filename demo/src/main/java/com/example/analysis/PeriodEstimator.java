@@ -0,0 +1,70 @@
+package com.example.analysis;
+
+/**
+ * Оценка периода и огибающей амплитуды по пересечениям сигнала с медленно
+ * меняющимся базовым уровнем (экспоненциальное среднее). Период — интервал между
+ * соседними пересечениями снизу вверх, момент пересечения уточняется линейной
+ * интерполяцией; амплитуда — половина размаха за последний период. O(1) на отсчёт.
+ */
+public class PeriodEstimator {
+    private final double baselineTimeConstant;
+
+    private boolean started;
+    private double baseline;
+    private double lastTime;
+    private double lastOffset;
+    private double lastCrossing = Double.NaN;
+    private double cycleMin;
+    private double cycleMax;
+
+    private double period = Double.NaN;
+    private double amplitude = Double.NaN;
+
+    /** @param baselineTimeConstant постоянная времени базового уровня (с) */
+    public PeriodEstimator(double baselineTimeConstant) {
+        this.baselineTimeConstant = baselineTimeConstant;
+    }
+
+    public void add(double time, double value) {
+        if (!started) {
+            started = true;
+            baseline = value;
+            lastTime = time;
+            lastOffset = 0;
+            cycleMin = value;
+            cycleMax = value;
+            return;
+        }
+
+        double alpha = Math.min(1.0, (time - lastTime) / baselineTimeConstant);
+        baseline += alpha * (value - baseline);
+        double offset = value - baseline;
+
+        if (value < cycleMin) cycleMin = value;
+        if (value > cycleMax) cycleMax = value;
+
+        if (lastOffset < 0 && offset >= 0) {
+            double crossing = lastTime + (time - lastTime) * (-lastOffset) / (offset - lastOffset);
+            if (!Double.isNaN(lastCrossing)) {
+                period = crossing - lastCrossing;
+                amplitude = (cycleMax - cycleMin) / 2;
+            }
+            lastCrossing = crossing;
+            cycleMin = value;
+            cycleMax = value;
+        }
+
+        lastTime = time;
+        lastOffset = offset;
+    }
+
+    public void clear() {
+        started = false;
+        lastCrossing = Double.NaN;
+        period = Double.NaN;
+        amplitude = Double.NaN;
+    }
+
+    public double getPeriod() { return period; }
+    public double getAmplitude() { return amplitude; }
+}
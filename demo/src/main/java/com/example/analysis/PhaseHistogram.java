@@ -0,0 +1,110 @@
+package com.example.analysis;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Двумерная гистограмма плотности точек на фазовой плоскости с фиксированными границами.
+ * Точки вне границ учитываются отдельно. Гистограммы, накопленные в разных потоках,
+ * объединяются сложением.
+ */
+public class PhaseHistogram {
+
+    private final double xMin, xMax, yMin, yMax;
+    private final int width, height;
+    private final long[] counts;
+    private long total;
+    private long outside;
+
+    public PhaseHistogram(double xMin, double xMax, double yMin, double yMax, int width, int height) {
+        if (!(xMax > xMin) || !(yMax > yMin) || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Некорректные границы гистограммы");
+        }
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.yMin = yMin;
+        this.yMax = yMax;
+        this.width = width;
+        this.height = height;
+        this.counts = new long[width * height];
+    }
+
+    /** Пустая гистограмма с теми же границами и разрешением. */
+    public PhaseHistogram emptyCopy() {
+        return new PhaseHistogram(xMin, xMax, yMin, yMax, width, height);
+    }
+
+    public void add(double x, double y) {
+        int column = (int) Math.floor((x - xMin) / (xMax - xMin) * width);
+        int row = (int) Math.floor((y - yMin) / (yMax - yMin) * height);
+        total++;
+        if (column < 0 || column >= width || row < 0 || row >= height) {
+            outside++;
+            return;
+        }
+        counts[row * width + column]++;
+    }
+
+    public void merge(PhaseHistogram other) {
+        if (other.width != width || other.height != height || other.xMin != xMin || other.xMax != xMax
+                || other.yMin != yMin || other.yMax != yMax) {
+            throw new IllegalArgumentException("Гистограммы с разными границами не объединяются");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        outside += other.outside;
+    }
+
+    /** @param row строка снизу вверх (по возрастанию y) */
+    public long getCount(int column, int row) {
+        return counts[row * width + column];
+    }
+
+    public long getMaxCount() {
+        long max = 0;
+        for (long count : counts) {
+            if (count > max) max = count;
+        }
+        return max;
+    }
+
+    /**
+     * Изображение плотности в логарифмической шкале: пустые ячейки белые,
+     * чем больше точек, тем темнее и насыщеннее цвет. Ось y направлена вверх.
+     */
+    public BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        double logMax = Math.log1p(getMaxCount());
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                long count = counts[row * width + column];
+                int rgb = 0xFFFFFF;
+                if (count > 0) {
+                    double level = Math.log1p(count) / logMax;
+                    rgb = densityColor(level);
+                }
+                image.setRGB(column, height - 1 - row, rgb);
+            }
+        }
+        return image;
+    }
+
+    /** Цвет для уровня 0..1: от светло-голубого через синий к тёмно-красному. */
+    static int densityColor(double level) {
+        float hue = (float) (0.6 - 0.6 * level);
+        float saturation = (float) (0.6 + 0.4 * level);
+        float brightness = (float) (0.85 - 0.4 * level);
+        return java.awt.Color.HSBtoRGB(hue, saturation, brightness) & 0xFFFFFF;
+    }
+
+    public double getXMin() { return xMin; }
+    public double getXMax() { return xMax; }
+    public double getYMin() { return yMin; }
+    public double getYMax() { return yMax; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    /** @return число добавленных точек, включая вышедшие за границы */
+    public long getTotal() { return total; }
+    public long getOutside() { return outside; }
+}
@@ -0,0 +1,185 @@
+package com.example.analysis;
+
+import com.example.controller.EventDetector;
+import com.example.controller.PendulumIntegrator;
+import com.example.model.SimulationParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Построение сечения Пуанкаре (R, dR/dt при fi = 0, dfi > 0) для нескольких начальных условий.
+ * Траектории интегрируются параллельно без интерфейса, каждая со своим интегратором
+ * и своей копией гистограммы; в конце гистограммы складываются.
+ *
+ * Границы гистограммы по умолчанию берутся из закона сохранения энергии: на сечении
+ * {@code m·dR²/2 + k(R-R0)²/2 - m·g·R ≤ E}, а затухание энергию только уменьшает.
+ */
+public class PoincareBuilder {
+
+    private static final int CANCEL_CHECK_STEPS = 1 << 16;
+
+    private final List<SimulationParameters> initialConditions;
+    private final double dt;
+    private final double duration;
+    private int capacity = 1 << 20;
+    private int resolution = 512;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private PhaseHistogram histogramTemplate;
+    private final AtomicLong completedSteps = new AtomicLong();
+
+    public PoincareBuilder(List<SimulationParameters> initialConditions, double dt, double duration) {
+        if (initialConditions.isEmpty()) {
+            throw new IllegalArgumentException("Не заданы начальные условия");
+        }
+        this.initialConditions = List.copyOf(initialConditions);
+        this.dt = dt;
+        this.duration = duration;
+    }
+
+    /** @param capacity максимум сохраняемых точек на траекторию */
+    public PoincareBuilder setCapacity(int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    /** @param resolution число ячеек гистограммы по каждой оси */
+    public PoincareBuilder setResolution(int resolution) {
+        this.resolution = resolution;
+        return this;
+    }
+
+    public PoincareBuilder setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /** Задать границы гистограммы вместо оценки по энергии. */
+    public PoincareBuilder setBounds(double rMin, double rMax, double vMin, double vMax) {
+        this.histogramTemplate = new PhaseHistogram(rMin, rMax, vMin, vMax, resolution, resolution);
+        return this;
+    }
+
+    /** @return доля выполненных шагов 0..1, можно вызывать из любого потока */
+    public double getProgress() {
+        return completedSteps.get() / (double) (totalStepsPerTrajectory() * initialConditions.size());
+    }
+
+    /**
+     * Выполнить расчёт. Прерывание вызывающего потока отменяет расчёт.
+     *
+     * @throws InterruptedException если расчёт отменён
+     */
+    public Result build() throws InterruptedException {
+        PhaseHistogram template = histogramTemplate != null ? histogramTemplate : energyBoundedHistogram();
+        completedSteps.set(0);
+        long startNanos = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, initialConditions.size()), r -> {
+            Thread thread = new Thread(r, "PoincareWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<PoincareSection>> futures = new ArrayList<>();
+            for (SimulationParameters params : initialConditions) {
+                futures.add(executor.submit(integrate(params, template.emptyCopy())));
+            }
+            List<PoincareSection> sections = new ArrayList<>();
+            PhaseHistogram histogram = template.emptyCopy();
+            for (Future<PoincareSection> future : futures) {
+                PoincareSection section = future.get();
+                sections.add(section);
+                histogram.merge(section.getHistogram());
+            }
+            return new Result(sections, histogram, System.nanoTime() - startNanos,
+                              totalStepsPerTrajectory() * initialConditions.size());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                throw (InterruptedException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<PoincareSection> integrate(SimulationParameters params, PhaseHistogram histogram) {
+        return () -> {
+            PendulumIntegrator integrator = new PendulumIntegrator(params);
+            EventDetector detector = new EventDetector(PoincareSection.SECTION);
+            PoincareSection section = new PoincareSection(capacity, histogram);
+            detector.addListener(section);
+            integrator.setEventDetector(detector);
+
+            long steps = totalStepsPerTrajectory();
+            for (long i = 1; i <= steps; i++) {
+                integrator.step(dt);
+                if (i % CANCEL_CHECK_STEPS == 0) {
+                    completedSteps.addAndGet(CANCEL_CHECK_STEPS);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+            completedSteps.addAndGet(steps % CANCEL_CHECK_STEPS);
+            return section;
+        };
+    }
+
+    private long totalStepsPerTrajectory() {
+        return Math.round(duration / dt);
+    }
+
+    private PhaseHistogram energyBoundedHistogram() {
+        double rMin = Double.POSITIVE_INFINITY, rMax = Double.NEGATIVE_INFINITY, vMax = 0;
+        for (SimulationParameters p : initialConditions) {
+            double m = p.getMass();
+            double k = p.getSpringConstant();
+            double R0 = p.getNaturalLength();
+            double g = p.getGravity();
+            double R = p.getInitialLength();
+            // Начальные скорости нулевые, энергия отсчитывается от уровня точки подвеса
+            double energy = k * (R - R0) * (R - R0) / 2 - m * g * R * Math.cos(p.getInitialAngle());
+            double minPotential = -m * g * R0 - (m * g) * (m * g) / (2 * k);
+            double excess = Math.max(0, energy - minPotential);
+            double equilibrium = R0 + m * g / k;
+            double halfWidth = Math.sqrt(2 * excess / k);
+            rMin = Math.min(rMin, equilibrium - halfWidth);
+            rMax = Math.max(rMax, equilibrium + halfWidth);
+            vMax = Math.max(vMax, Math.sqrt(2 * excess / m));
+        }
+        rMin = Math.max(PendulumIntegrator.MIN_SPRING_LENGTH, rMin);
+        double rMargin = Math.max(1e-6, (rMax - rMin) * 0.05);
+        double vMargin = Math.max(1e-6, vMax * 0.05);
+        return new PhaseHistogram(rMin - rMargin, rMax + rMargin, -vMax - vMargin, vMax + vMargin,
+                                  resolution, resolution);
+    }
+
+    /** Результат: точки сечения по траекториям и общая гистограмма плотности. */
+    public static final class Result {
+        private final List<PoincareSection> sections;
+        private final PhaseHistogram histogram;
+        private final long elapsedNanos;
+        private final long steps;
+
+        Result(List<PoincareSection> sections, PhaseHistogram histogram, long elapsedNanos, long steps) {
+            this.sections = sections;
+            this.histogram = histogram;
+            this.elapsedNanos = elapsedNanos;
+            this.steps = steps;
+        }
+
+        /** @return сечения в порядке начальных условий */
+        public List<PoincareSection> getSections() { return sections; }
+        public PhaseHistogram getHistogram() { return histogram; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public long getSteps() { return steps; }
+    }
+}
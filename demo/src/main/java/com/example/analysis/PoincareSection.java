@@ -0,0 +1,70 @@
+package com.example.analysis;
+
+import com.example.controller.EventFunction;
+import com.example.model.SimulationEvent;
+import com.example.observer.SimulationEventListener;
+
+import java.util.Arrays;
+
+/**
+ * Точки сечения Пуанкаре одной траектории: пересечения плоскости fi = 0 (по модулю 2π)
+ * при dfi > 0. Для каждого пересечения хранятся момент, длина пружины R и dR/dt
+ * в примитивных массивах; после заполнения {@code capacity} точки продолжают
+ * поступать только в гистограмму.
+ */
+public class PoincareSection implements SimulationEventListener {
+
+    /**
+     * sin(fi) растёт при прохождении fi = 2πn с dfi > 0, а также fi = π + 2πn с dfi < 0;
+     * второй случай отбрасывается в {@link #onEvent}.
+     */
+    public static final EventFunction SECTION =
+        EventFunction.of("poincare", EventFunction.INCREASING, (t, y) -> Math.sin(y[2]));
+
+    private final int capacity;
+    private final PhaseHistogram histogram;
+    private double[] times = new double[256];
+    private double[] lengths = new double[256];
+    private double[] radialVelocities = new double[256];
+    private int size;
+    private long crossings;
+
+    /** @param histogram гистограмма, накапливающая все пересечения, или null */
+    public PoincareSection(int capacity, PhaseHistogram histogram) {
+        this.capacity = capacity;
+        this.histogram = histogram;
+    }
+
+    @Override
+    public void onEvent(SimulationEvent event) {
+        if (event.getAngularVelocity() <= 0) {
+            return;
+        }
+        crossings++;
+        if (histogram != null) {
+            histogram.add(event.getSpringLength(), event.getRadialVelocity());
+        }
+        if (size == capacity) {
+            return;
+        }
+        if (size == times.length) {
+            int newLength = (int) Math.min(capacity, (long) size * 2);
+            times = Arrays.copyOf(times, newLength);
+            lengths = Arrays.copyOf(lengths, newLength);
+            radialVelocities = Arrays.copyOf(radialVelocities, newLength);
+        }
+        times[size] = event.getTime();
+        lengths[size] = event.getSpringLength();
+        radialVelocities[size] = event.getRadialVelocity();
+        size++;
+    }
+
+    /** @return число сохранённых точек */
+    public int size() { return size; }
+    /** @return число всех пересечений, включая не поместившиеся в буфер */
+    public long getCrossings() { return crossings; }
+    public PhaseHistogram getHistogram() { return histogram; }
+    public double getTime(int index) { return times[index]; }
+    public double getSpringLength(int index) { return lengths[index]; }
+    public double getRadialVelocity(int index) { return radialVelocities[index]; }
+}
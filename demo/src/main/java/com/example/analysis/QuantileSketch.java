@@ -0,0 +1,183 @@
+package com.example.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Потоковая оценка квантилей с ограниченной памятью (упрощённый KLL-эскиз).
+ * Значения накапливаются в уровнях-компакторах: уровень h хранит значения с весом 2^h;
+ * переполненный уровень сортируется, и каждое второе значение (со случайным сдвигом)
+ * переходит на уровень выше. Емкость уровней убывает вниз по иерархии в 2/3 раза,
+ * поэтому память растёт как O(k) при погрешности ранга порядка 1/k.
+ * Эскизы, накопленные отдельно, объединяются без потери точности оценки.
+ */
+public class QuantileSketch {
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private long count;
+    private long randomState;
+
+    /** @param k точность: погрешность ранга порядка 1.7/k */
+    public QuantileSketch(int k, long seed) {
+        this.k = Math.max(8, k);
+        this.randomState = seed | 1;
+        levels[0] = new double[capacity(0)];
+    }
+
+    /** Независимая копия эскиза (снимок для чтения вне блокировки). */
+    public QuantileSketch(QuantileSketch other) {
+        this.k = other.k;
+        this.randomState = other.randomState;
+        this.count = other.count;
+        this.sizes = other.sizes.clone();
+        this.levels = new double[other.levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            levels[h] = other.levels[h].clone();
+        }
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        append(0, value);
+        count++;
+        compress();
+    }
+
+    /** Добавить все значения другого эскиза с тем же параметром k. */
+    public void merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Эскизы с разной точностью не объединяются");
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        count += other.count;
+        compress();
+    }
+
+    public void clear() {
+        levels = new double[1][];
+        sizes = new int[1];
+        levels[0] = new double[capacity(0)];
+        count = 0;
+    }
+
+    public long getCount() { return count; }
+
+    /** @return оценка квантиля уровня q (0..1) или NaN для пустого эскиза */
+    public double quantile(double q) {
+        double[] result = new double[1];
+        quantiles(new double[] {q}, result);
+        return result[0];
+    }
+
+    /**
+     * Оценить несколько квантилей за один проход.
+     *
+     * @param qs уровни по возрастанию
+     */
+    public void quantiles(double[] qs, double[] out) {
+        long totalWeight = 0;
+        double[][] sorted = new double[levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+            totalWeight += (long) sizes[h] << h;
+        }
+        if (totalWeight == 0) {
+            Arrays.fill(out, 0, qs.length, Double.NaN);
+            return;
+        }
+        // Слияние отсортированных уровней с накоплением веса
+        int[] positions = new int[levels.length];
+        long cumulative = 0;
+        double value = Double.NaN;
+        int next = 0;
+        while (next < qs.length) {
+            int best = -1;
+            for (int h = 0; h < sorted.length; h++) {
+                if (positions[h] < sorted[h].length
+                        && (best < 0 || sorted[h][positions[h]] < sorted[best][positions[best]])) {
+                    best = h;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            value = sorted[best][positions[best]++];
+            cumulative += 1L << best;
+            while (next < qs.length && cumulative >= qs[next] * totalWeight) {
+                out[next++] = value;
+            }
+        }
+        while (next < qs.length) {
+            out[next++] = value;
+        }
+    }
+
+    private void append(int level, double value) {
+        ensureLevel(level);
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    private void ensureLevel(int level) {
+        if (level < levels.length) {
+            return;
+        }
+        int oldLength = levels.length;
+        levels = Arrays.copyOf(levels, level + 1);
+        sizes = Arrays.copyOf(sizes, level + 1);
+        for (int h = oldLength; h <= level; h++) {
+            levels[h] = new double[MIN_LEVEL_CAPACITY * 2];
+        }
+    }
+
+    /** Ёмкость уровня h при текущем числе уровней: верхний уровень хранит k значений. */
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] <= capacity(h)) {
+                continue;
+            }
+            double[] level = levels[h];
+            int size = sizes[h];
+            Arrays.sort(level, 0, size);
+            // При нечётном размере наибольшее значение остаётся на уровне
+            int pairs = size / 2;
+            int offset = nextBit();
+            ensureLevel(h + 1);
+            level = levels[h];
+            for (int i = 0; i < pairs; i++) {
+                append(h + 1, level[2 * i + offset]);
+            }
+            if (size % 2 == 1) {
+                level[0] = level[size - 1];
+                sizes[h] = 1;
+            } else {
+                sizes[h] = 0;
+            }
+        }
+    }
+
+    private int nextBit() {
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        return (int) (randomState & 1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.analysis;
+
+/**
+ * Среднее, дисперсия, минимум и максимум потока значений по алгоритму Уэлфорда, O(1) на значение.
+ */
+public class RunningStatistics {
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /** Объединить со статистикой, накопленной отдельно (формула Чана). */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * count * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void clear() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public long getCount() { return count; }
+    public double getMean() { return count > 0 ? mean : Double.NaN; }
+    public double getVariance() { return count > 1 ? m2 / (count - 1) : Double.NaN; }
+    public double getStandardDeviation() { return Math.sqrt(getVariance()); }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+}
@@ -0,0 +1,57 @@
+package com.example.analysis;
+
+/**
+ * Потоковый анализ одного сигнала: статистика Уэлфорда, период и амплитуда
+ * по пересечениям, доминирующая частота по скользящему БПФ.
+ */
+public class SignalAnalyzer {
+
+    /** Число значений, записываемых {@link #writeResults(double[], int)} */
+    public static final int RESULT_COUNT = 5;
+
+    private final RunningStatistics statistics = new RunningStatistics();
+    private final PeriodEstimator periodEstimator;
+    private final SlidingSpectrum spectrum;
+    private final int decimation;
+    private long samples;
+
+    /**
+     * @param sampleRate частота поступления отсчётов (Гц)
+     * @param decimation в спектр попадает каждый decimation-й отсчёт
+     * @param fftSize    длина окна БПФ (степень двойки)
+     */
+    public SignalAnalyzer(double sampleRate, int decimation, int fftSize) {
+        this.decimation = decimation;
+        this.periodEstimator = new PeriodEstimator(5.0);
+        this.spectrum = new SlidingSpectrum(fftSize, fftSize / 4, sampleRate / decimation);
+    }
+
+    public void add(double time, double value) {
+        statistics.add(value);
+        periodEstimator.add(time, value);
+        if (samples++ % decimation == 0) {
+            spectrum.add(value);
+        }
+    }
+
+    public void clear() {
+        statistics.clear();
+        periodEstimator.clear();
+        spectrum.clear();
+        samples = 0;
+    }
+
+    /** Записать среднее, СКО, период, частоту и амплитуду начиная с позиции offset. */
+    public void writeResults(double[] out, int offset) {
+        out[offset] = statistics.getMean();
+        out[offset + 1] = statistics.getStandardDeviation();
+        out[offset + 2] = periodEstimator.getPeriod();
+        out[offset + 3] = spectrum.getDominantFrequency();
+        out[offset + 4] = periodEstimator.getAmplitude();
+    }
+
+    public RunningStatistics getStatistics() { return statistics; }
+    public double getPeriod() { return periodEstimator.getPeriod(); }
+    public double getAmplitude() { return periodEstimator.getAmplitude(); }
+    public double getDominantFrequency() { return spectrum.getDominantFrequency(); }
+}
@@ -0,0 +1,91 @@
+package com.example.analysis;
+
+/**
+ * Доминирующая частота сигнала по скользящему окну. Отсчёты копятся в кольцевом буфере,
+ * и после каждых {@code hop} новых отсчётов выполняется БПФ окна с окном Ханна,
+ * то есть в среднем O(N log N / hop) = O(log N) на отсчёт. Все буферы выделяются заранее.
+ */
+public class SlidingSpectrum {
+    private final Fft fft;
+    private final int size;
+    private final int hop;
+    private final double sampleRate;
+    private final double[] ring;
+    private final double[] window;
+    private final double[] re;
+    private final double[] im;
+    private long count;
+    private double dominantFrequency = Double.NaN;
+
+    /**
+     * @param size       длина окна (степень двойки)
+     * @param hop        число новых отсчётов между пересчётами спектра
+     * @param sampleRate частота дискретизации (Гц)
+     */
+    public SlidingSpectrum(int size, int hop, double sampleRate) {
+        this.fft = new Fft(size);
+        this.size = size;
+        this.hop = hop;
+        this.sampleRate = sampleRate;
+        this.ring = new double[size];
+        this.window = new double[size];
+        this.re = new double[size];
+        this.im = new double[size];
+        for (int i = 0; i < size; i++) {
+            window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / (size - 1));
+        }
+    }
+
+    public void add(double value) {
+        ring[(int) (count % size)] = value;
+        count++;
+        if (count >= size && count % hop == 0) {
+            recompute();
+        }
+    }
+
+    private void recompute() {
+        int start = (int) (count % size);
+        double mean = 0;
+        for (int i = 0; i < size; i++) {
+            mean += ring[i];
+        }
+        mean /= size;
+        for (int i = 0; i < size; i++) {
+            re[i] = (ring[(start + i) % size] - mean) * window[i];
+            im[i] = 0;
+        }
+        fft.transform(re, im);
+
+        int peak = 1;
+        double peakPower = 0;
+        for (int i = 1; i < size / 2; i++) {
+            double power = re[i] * re[i] + im[i] * im[i];
+            if (power > peakPower) {
+                peakPower = power;
+                peak = i;
+            }
+        }
+
+        // Уточнение положения пика параболой по логарифмам мощности соседних бинов
+        double offset = 0;
+        if (peak > 1 && peak < size / 2 - 1) {
+            double left = Math.log(re[peak - 1] * re[peak - 1] + im[peak - 1] * im[peak - 1] + 1e-300);
+            double center = Math.log(peakPower + 1e-300);
+            double right = Math.log(re[peak + 1] * re[peak + 1] + im[peak + 1] * im[peak + 1] + 1e-300);
+            double denominator = left - 2 * center + right;
+            if (denominator != 0) {
+                offset = 0.5 * (left - right) / denominator;
+            }
+        }
+        dominantFrequency = (peak + offset) * sampleRate / size;
+    }
+
+    public void clear() {
+        count = 0;
+        dominantFrequency = Double.NaN;
+    }
+
+    /** @return доминирующая частота (Гц) или NaN, пока окно не заполнено */
+    public double getDominantFrequency() { return dominantFrequency; }
+}
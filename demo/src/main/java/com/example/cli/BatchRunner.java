@@ -0,0 +1,165 @@
+package com.example.cli;
+
+import com.example.analysis.AnalysisPipeline;
+import com.example.controller.CompressedTrajectory;
+import com.example.controller.PendulumIntegrator;
+import com.example.controller.TrajectoryCache;
+import com.example.equations.EquationCompiler;
+import com.example.model.Channel;
+import com.example.model.PhysicsState;
+import com.example.model.SimulationCheckpoint;
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Пакетный расчёт без графического интерфейса: интегрирует систему на заданном
+ * модельном интервале с максимальной скоростью и потоково выводит выбранные каналы.
+ *
+ * Параметры: {@code --duration} модельное время (с), {@code --dt} шаг (с),
+ * {@code --every} выводить каждый N-й шаг, {@code --channels} список каналов через запятую,
+ * {@code --format=csv|binary|compressed}, {@code --output} файл или {@code -} (stdout),
+ * {@code --resume} продолжить с контрольной точки, {@code --checkpoint} сохранить
+ * контрольную точку в конце расчёта, {@code --cache} каталог дискового кэша траекторий
+ * (повторный расчёт с теми же параметрами, dt и every читается из кэша),
+ * {@code --equations} файл с пользовательскими уравнениями движения.
+ */
+public class BatchRunner {
+
+    private final CommandLine commandLine;
+
+    public BatchRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        SimulationParameters params = commandLine.getSimulationParameters();
+        double duration = commandLine.getDouble("duration", 10.0);
+        double dt = commandLine.getDouble("dt", 0.001);
+        int every = Math.max(1, commandLine.getInt("every", 1));
+        Channel[] channels = parseChannels(commandLine.getString("channels", "time,angle,springLength"));
+        String format = commandLine.getString("format", "csv");
+        String output = commandLine.getString("output", "-");
+
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        if (commandLine.has("resume")) {
+            SimulationCheckpoint checkpoint = SimulationCheckpoint.load(Path.of(commandLine.getString("resume", "")));
+            if (commandLine.has("dt") && dt != checkpoint.getDt()) {
+                throw new IllegalArgumentException("Шаг --dt отличается от шага контрольной точки " + checkpoint.getDt());
+            }
+            dt = checkpoint.getDt();
+            integrator.restore(checkpoint);
+        }
+        if (commandLine.has("equations")) {
+            String source = Files.readString(Path.of(commandLine.getString("equations", "")));
+            integrator.setEquations(EquationCompiler.compile(source));
+        }
+        PhysicsState state = new PhysicsState();
+        AnalysisPipeline analysis = null;
+        double[] derived = new double[Channel.DERIVED_COUNT];
+        for (Channel channel : channels) {
+            if (channel.isDerived()) {
+                analysis = new AnalysisPipeline(dt);
+                state.setDerived(derived);
+                break;
+            }
+        }
+        long steps = Math.round(duration / dt);
+        if (commandLine.has("cache")) {
+            if (analysis != null || commandLine.has("resume") || commandLine.has("equations")) {
+                throw new IllegalArgumentException("--cache несовместим с производными каналами, --resume и --equations");
+            }
+            return runCached(params, dt, duration, every, channels, format, output);
+        }
+
+        long startNanos = System.nanoTime();
+        try (TrajectoryWriter writer = TrajectoryWriter.open(format, output, channels)) {
+            integrator.fillState(state);
+            if (analysis != null) {
+                analysis.writeResults(derived);
+            }
+            writer.write(state);
+            for (long i = 1; i <= steps; i++) {
+                integrator.step(dt);
+                if (analysis != null) {
+                    analysis.onStep(integrator.getTime(), integrator.getSpringLength(),
+                                    integrator.getRadialVelocity(), integrator.getAngle(),
+                                    integrator.getAngularVelocity());
+                }
+                if (i % every == 0) {
+                    integrator.fillState(state);
+                    if (analysis != null) {
+                        analysis.writeResults(derived);
+                    }
+                    writer.write(state);
+                }
+            }
+            writer.flush();
+            printStatistics(steps, integrator.getTime(), System.nanoTime() - startNanos, writer);
+            if (!commandLine.has("equations")) {
+                System.err.printf(Locale.US, "Дрейф баланса энергии: %.3e, ограничение длины пружины: %d шагов%n",
+                    integrator.getEnergyDrift(), integrator.getClampCount());
+            }
+        }
+        if (commandLine.has("checkpoint")) {
+            integrator.checkpoint(dt).save(Path.of(commandLine.getString("checkpoint", "")));
+        }
+        return 0;
+    }
+
+    /**
+     * Вывод из дискового кэша траекторий: траектория с тем же ключом (параметры, dt, every)
+     * читается из каталога {@code --cache} или рассчитывается и сохраняется туда.
+     */
+    private int runCached(SimulationParameters params, double dt, double duration, int every,
+                          Channel[] channels, String format, String output) throws IOException {
+        TrajectoryCache cache = new TrajectoryCache(Long.MAX_VALUE, Path.of(commandLine.getString("cache", "")));
+        long startNanos = System.nanoTime();
+        CompressedTrajectory trajectory = cache.compute(params, dt, every, duration);
+        double[] samples = trajectory.decode();
+        int count = (int) (Math.round(duration / dt) / every) + 1;
+
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        PhysicsState state = new PhysicsState();
+        try (TrajectoryWriter writer = TrajectoryWriter.open(format, output, channels)) {
+            for (int s = 0; s < count; s++) {
+                TrajectoryCache.loadSample(integrator, samples, s, (long) s * every);
+                integrator.fillState(state);
+                writer.write(state);
+            }
+            writer.flush();
+            printStatistics((long) (count - 1) * every, integrator.getTime(), System.nanoTime() - startNanos, writer);
+        }
+        System.err.printf(Locale.US, "Кэш траекторий: %s%n", cache.getHits() > 0 ? "попадание" : "расчёт и сохранение");
+        cache.flush();
+        if (commandLine.has("checkpoint")) {
+            integrator.checkpoint(dt).save(Path.of(commandLine.getString("checkpoint", "")));
+        }
+        return 0;
+    }
+
+    static Channel[] parseChannels(String list) {
+        String[] names = list.split(",");
+        Channel[] channels = new Channel[names.length];
+        for (int i = 0; i < names.length; i++) {
+            channels[i] = Channel.find(names[i].trim());
+            if (channels[i] == null) {
+                throw new IllegalArgumentException("Неизвестный канал: " + names[i]);
+            }
+        }
+        return channels;
+    }
+
+    private static void printStatistics(long steps, double simulatedTime, long elapsedNanos,
+                                        TrajectoryWriter writer) {
+        double seconds = elapsedNanos / 1e9;
+        System.err.printf(Locale.US,
+            "Шагов: %d, модельное время: %.3f с, расчёт: %.3f с (%.2f млн шагов/с, x%.0f реального времени)%n",
+            steps, simulatedTime, seconds, steps / seconds / 1e6, simulatedTime / seconds);
+        System.err.printf(Locale.US, "Записано строк: %d, байт: %d (%.1f МБ/с)%n",
+            writer.getRowsWritten(), writer.getBytesWritten(), writer.getBytesWritten() / seconds / 1e6);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.cli;
+
+import com.example.controller.ChainIntegrator;
+import com.example.model.PhysicsState;
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Замер производительности цепочки грузиков на пружинах.
+ *
+ * Параметры: {@code --bodies} список размеров цепочки через запятую, {@code --work} число
+ * тело-шагов на один замер (шагов выполняется {@code work / bodies}), {@code --dt},
+ * {@code --threads}. Для каждого размера печатается состояние последнего грузика
+ * и скорость в тело-шагах в секунду.
+ */
+public class ChainRunner {
+
+    private final CommandLine commandLine;
+
+    public ChainRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        SimulationParameters params = commandLine.getSimulationParameters();
+        String[] sizes = commandLine.getString("bodies", "1,10,100,1000,10000").split(",");
+        long work = commandLine.getLong("work", 20_000_000);
+        double dt = commandLine.getDouble("dt", 0.001);
+        int threads = commandLine.getInt("threads", Runtime.getRuntime().availableProcessors());
+
+        PhysicsState state = new PhysicsState();
+        for (String size : sizes) {
+            int bodies = Integer.parseInt(size.trim());
+            long steps = Math.max(100, work / bodies);
+            try (ChainIntegrator chain = new ChainIntegrator(params, bodies).setParallelism(threads)) {
+                for (long i = 0; i < Math.max(10, steps / 10); i++) {
+                    chain.step(dt); // Прогрев JIT
+                }
+                chain.reset();
+                long startNanos = System.nanoTime();
+                for (long i = 0; i < steps; i++) {
+                    chain.step(dt);
+                }
+                double seconds = (System.nanoTime() - startNanos) / 1e9;
+                chain.fillState(state);
+                System.out.printf(Locale.US, "bodies=%d time=%s x=%s y=%s velocity=%s%n",
+                    bodies, state.getTime(), state.getX(), state.getY(), state.getVelocity());
+                System.err.printf(Locale.US, "%6d тел: %d шагов за %.3f с, %.2f млн тело-шагов/с (потоков: %d)%n",
+                    bodies, steps, seconds, bodies * (double) steps / seconds / 1e6,
+                    bodies >= ChainIntegrator.PARALLEL_THRESHOLD ? threads : 1);
+            }
+        }
+        return 0;
+    }
+}
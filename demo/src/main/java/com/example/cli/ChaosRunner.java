@@ -0,0 +1,70 @@
+package com.example.cli;
+
+import com.example.analysis.ChaosMap;
+
+import javax.imageio.ImageIO;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Карта хаоса: показатель Ляпунова на сетке двух параметров.
+ *
+ * Параметры: {@code --x=initialAngle --xFrom --xTo --columns}, {@code --y=initialLength --yFrom --yTo --rows},
+ * {@code --duration} время на ячейку (с), {@code --dt}, {@code --renorm} шагов между нормировками,
+ * {@code --threads}, {@code --output} CSV (x, y, lambda), {@code --image} PNG.
+ */
+public class ChaosRunner {
+
+    private final CommandLine commandLine;
+
+    public ChaosRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        ChaosMap map = new ChaosMap(commandLine.getSimulationParameters(),
+                commandLine.getString("x", "initialAngle"),
+                commandLine.getDouble("xFrom", 0.1), commandLine.getDouble("xTo", 3.0),
+                commandLine.getInt("columns", 64),
+                commandLine.getString("y", "initialLength"),
+                commandLine.getDouble("yFrom", 0.5), commandLine.getDouble("yTo", 2.5),
+                commandLine.getInt("rows", 64))
+            .setIntegration(commandLine.getDouble("dt", 0.001), commandLine.getDouble("duration", 50),
+                            commandLine.getInt("renorm", 100))
+            .setParallelism(commandLine.getInt("threads", Runtime.getRuntime().availableProcessors()));
+
+        long startNanos = System.nanoTime();
+        map.compute();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        if (commandLine.has("output")) {
+            writeGrid(map, commandLine.getString("output", "-"));
+        }
+        if (commandLine.has("image")) {
+            ImageIO.write(map.toImage(map.getMaxValue()), "png",
+                          Path.of(commandLine.getString("image", "")).toFile());
+        }
+        System.err.printf(Locale.US, "Ячеек: %d, расчёт: %.3f с (%.1f ячеек/с), максимум показателя: %.4f 1/с%n",
+            map.getColumns() * map.getRows(), seconds, map.getColumns() * map.getRows() / seconds, map.getMaxValue());
+        return 0;
+    }
+
+    private static void writeGrid(ChaosMap map, String output) throws IOException {
+        try (Writer writer = "-".equals(output)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+            writer.write(map.getXParameter() + "," + map.getYParameter() + ",lambda\n");
+            for (int row = 0; row < map.getRows(); row++) {
+                for (int column = 0; column < map.getColumns(); column++) {
+                    writer.write(map.getX(column) + "," + map.getY(row) + "," + map.getValue(column, row) + "\n");
+                }
+            }
+        }
+    }
+}
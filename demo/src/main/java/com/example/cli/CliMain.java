@@ -0,0 +1,128 @@
+package com.example.cli;
+
+import java.io.IOException;
+
+/**
+ * Точка входа режимов командной строки. Не загружает AWT/Swing,
+ * поэтому работает на машинах без графической среды.
+ */
+public final class CliMain {
+
+    private CliMain() {}
+
+    /** @return код завершения процесса */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        try {
+            CommandLine commandLine = new CommandLine(args);
+            return switch (commandLine.getCommand()) {
+                case "batch" -> new BatchRunner(commandLine).run();
+                case "events" -> new EventsRunner(commandLine).run();
+                case "poincare" -> new PoincareRunner(commandLine).run();
+                case "chaos" -> new ChaosRunner(commandLine).run();
+                case "montecarlo" -> new MonteCarloRunner(commandLine).run();
+                case "fit" -> new FitRunner(commandLine).run();
+                case "parareal" -> new PararealRunner(commandLine).run();
+                case "equations" -> new EquationsRunner(commandLine).run();
+                case "chain" -> new ChainRunner(commandLine).run();
+                case "ensemble" -> new EnsembleRunner(commandLine).run();
+                case "serve" -> new ServeRunner(commandLine).run();
+                case "telemetry" -> new TelemetryRunner(commandLine).run();
+                case "remote" -> new RemoteRunner(commandLine).run();
+                case "codec" -> new CodecRunner(commandLine).run();
+                case "sweep" -> new SweepRunner(commandLine).run();
+                case "scan" -> new ScanRunner(commandLine).run();
+                case "energy" -> new EnergyRunner(commandLine).run();
+                case "occupancy" -> new OccupancyRunner(commandLine).run();
+                case "help" -> {
+                    printUsage();
+                    yield 0;
+                }
+                default -> {
+                    System.err.println("Неизвестная команда: " + commandLine.getCommand());
+                    printUsage();
+                    yield 2;
+                }
+            };
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Ошибка ввода-вывода: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("""
+            Использование: java -jar demo.jar <команда> [--параметр=значение ...]
+            Без аргументов запускается графический интерфейс.
+
+            Команды:
+              batch   расчёт без интерфейса с потоковым выводом каналов
+                      --duration=10 --dt=0.001 --every=1
+                      --channels=time,angle,springLength --format=csv|binary|compressed --output=-
+                      --params=файл.properties, --mass=1 --springConstant=50 ...
+                      --resume=файл.chk --checkpoint=файл.chk --cache=каталог
+                      --equations=файл (пользовательские уравнения движения)
+              events  расчёт без интерфейса с выводом событий в CSV
+                      --duration=10 --dt=0.001 --events=angleZero,springMin,springMax,clamp
+                      --output=- и параметры системы, как в batch
+              poincare  сечение Пуанкаре (R, dR/dt при fi = 0, dfi > 0), параллельно по траекториям
+                      --duration=1000 --dt=0.001 --angles=0.3,0.6 | --count=8 --angleFrom=0.1 --angleTo=1.5
+                      --resolution=512 --capacity=1048576 --threads=N
+                      --output=точки.csv --image=плотность.png --damping=0
+              chaos   карта показателя Ляпунова на сетке двух параметров (ForkJoin)
+                      --x=initialAngle --xFrom=0.1 --xTo=3 --columns=64
+                      --y=initialLength --yFrom=0.5 --yTo=2.5 --rows=64
+                      --duration=50 --dt=0.001 --renorm=100 --threads=N
+                      --output=карта.csv --image=карта.png
+              montecarlo  полосы квантилей по ансамблю реализаций со случайными параметрами
+                      --vary=mass:normal:1:0.05,springConstant:uniform:45:55
+                      --realizations=1000 --duration=10 --interval=0.01 --channels=angle
+                      --quantiles=0.05,0.25,0.5,0.75,0.95 --seed=1 --threads=N --output=-
+              fit     подбор параметров по измеренной траектории (Левенберг-Марквардт)
+                      --data=измерения.csv (столбцы time, angle, springLength)
+                      --fit=springConstant,damping --dt=0.001 --output=параметры.properties
+                      начальное приближение: --params=..., --springConstant=... (масса фиксирована)
+              parareal  длинный расчёт, параллельный по времени (Parareal на ForkJoin)
+                      --duration=3600 --dt=0.001 --coarse=0.02 --slices=4×потоков
+                      --tolerance=1e-9 --iterations=20 --threads=N --compare
+              equations  проверка и скорость пользовательских уравнений движения
+                      --file=уравнения.txt (по умолчанию встроенные) --steps=5000000 --dt=0.001
+              chain   скорость расчёта цепочки грузиков на пружинах (тело-шагов в секунду)
+                      --bodies=1,10,100,1000,10000 --work=20000000 --dt=0.001 --threads=N
+              ensemble  большой ансамбль маятников в памяти вне кучи или в отображённом файле
+                      --members=1000000 --vary=initialAngle:uniform:0.1:1.5 --seed=1
+                      --duration=10 --dt=0.001 --threads=N --file=ансамбль.bin
+                      --resume=ансамбль.bin --checkpoint=1 --output=члены.csv
+              serve   симуляция в реальном времени с сервером телеметрии (двоичный протокол)
+                      --host=127.0.0.1 --port=4711 --speed=1 --seconds=0 и параметры системы
+                      --control=4712 --controlHost=127.0.0.1 | --controlSocket=файл (удалённое управление)
+              telemetry  тестовый клиент телеметрии с замером задержки
+                      --host=127.0.0.1 --port=4711 --channels=time,angle --decimation=1
+                      --seconds=10 --slow=мс --local (сервер в этом же процессе)
+              remote  удалённое управление симуляцией (строки команд по TCP или Unix-сокету)
+                      --host=127.0.0.1 --port=4712 | --socket=файл
+                      --commands="start;set damping=0.2;get" или замер: --requests=20000 --pipeline=64
+                      --local [--unix] (симуляция и сервер в этом же процессе)
+              codec   сжатие траекторий (предсказание + XOR): замер против двоичного формата
+                      --duration=60 --dt=0.001 --channels=все основные --block=1024 --rounds=20
+                      или преобразование: --input=файл --format=csv|binary|compressed --output=-
+              sweep   АЧХ при вертикальных колебаниях подвеса, каждая точка — до установления
+                      --from=0.3 --to=3 --points=41 --driveAmplitude=0.01 --channel=springLength
+                      --window=10 --tolerance=1e-3 --maxDuration=600 --dt=0.001 --threads=N --output=-
+              scan    сканирование параметров по расписанию в одном расчёте без сброса (гистерезис)
+                      --schedule="damping:step:0=0.5,100=0.4,200=0.3" или имя:linear:t=значение,...
+                      --duration=по расписанию --segment=0 --settle=0.5 --channels=springLength,angle
+                      --dt=0.001 --output=- и параметры системы, как в batch
+              energy  наибольший шаг, при котором дрейф баланса энергии ниже порога
+                      --dts=0.0005,0.001,0.002,0.005,0.01,0.02 --duration=100 --threshold=1e-6
+                      и параметры системы, как в batch
+              occupancy  гистограмма занятости положения (x, y) по каждому шагу, параллельно по траекториям
+                      --angles=0.3,0.6 | --count=8 --angleFrom=0.1 --angleTo=1.5 --duration=1000 --dt=0.001
+                      --resolution=256 --threads=N --merge=striped|atomic|both --mergeEvery=65536
+                      --image=занятость.png --output=ячейки.csv
+              help    эта справка""");
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.cli;
+
+import com.example.codec.TrajectoryDecoder;
+import com.example.codec.TrajectoryEncoder;
+import com.example.controller.PendulumIntegrator;
+import com.example.model.Channel;
+import com.example.model.PhysicsState;
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Сжатие траекторий {@link TrajectoryEncoder}: замер и преобразование файлов.
+ *
+ * Без {@code --input} рассчитывает траекторию ({@code --duration}, {@code --dt}, {@code --channels},
+ * по умолчанию все основные каналы) и сравнивает три способа хранения: простой двоичный,
+ * блочное сжатие с предсказанием и XOR с предыдущей строкой + Deflate (как в кэше траекторий).
+ * Печатает размер, бит на значение и скорость кодирования и декодирования (лучший из
+ * {@code --rounds} замеров), а также бит на значение по каждому каналу.
+ *
+ * С {@code --input} читает двоичный или сжатый файл и записывает его в формате
+ * {@code --format} в {@code --output}.
+ */
+public class CodecRunner {
+
+    private final CommandLine commandLine;
+
+    public CodecRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        if (commandLine.has("input")) {
+            return convert();
+        }
+        SimulationParameters params = commandLine.getSimulationParameters();
+        double duration = commandLine.getDouble("duration", 60);
+        double dt = commandLine.getDouble("dt", 0.001);
+        int blockRows = commandLine.getInt("block", TrajectoryWriter.COMPRESSED_BLOCK_ROWS);
+        int rounds = Math.max(1, commandLine.getInt("rounds", 20));
+        Channel[] channels = commandLine.has("channels")
+            ? BatchRunner.parseChannels(commandLine.getString("channels", ""))
+            : Arrays.stream(Channel.values()).filter(channel -> !channel.isDerived()).toArray(Channel[]::new);
+        for (Channel channel : channels) {
+            if (channel.isDerived()) {
+                throw new IllegalArgumentException("Производные каналы не поддерживаются: " + channel.getKey());
+            }
+        }
+
+        int rows = (int) Math.min(Integer.MAX_VALUE / 8 / channels.length, Math.round(duration / dt) + 1);
+        double[] samples = simulate(params, dt, rows, channels);
+        long rawBytes = (long) samples.length * Double.BYTES;
+        System.err.printf(Locale.US, "Траектория: %d строк × %d каналов, %.1f КБ на модельную секунду%n",
+            rows, channels.length, rawBytes / 1024.0 / (rows * dt));
+
+        System.err.println("способ            байт  сжатие  бит/знач  кодирование  декодирование");
+        report("двоичный", rawBytes, rawBytes, samples.length, measurePlain(samples, rounds));
+        long[] times = new long[2];
+        long size = measureCodec(samples, channels.length, blockRows, rounds, times);
+        report("предсказание+XOR", size, rawBytes, samples.length, times);
+        size = measureDeflate(samples, channels.length, rounds, times);
+        report("XOR+Deflate", size, rawBytes, samples.length, times);
+
+        System.err.println("по каналам (бит на значение):");
+        double[] column = new double[rows];
+        for (int c = 0; c < channels.length; c++) {
+            for (int r = 0; r < rows; r++) {
+                column[r] = samples[r * channels.length + c];
+            }
+            long bytes = measureCodec(column, 1, blockRows, 1, times);
+            System.err.printf(Locale.US, "  %-16s %6.2f%n", channels[c].getKey(), bytes * 8.0 / rows);
+        }
+        return 0;
+    }
+
+    private static double[] simulate(SimulationParameters params, double dt, int rows, Channel[] channels) {
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        PhysicsState state = new PhysicsState();
+        double[] samples = new double[rows * channels.length];
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                integrator.step(dt);
+            }
+            integrator.fillState(state);
+            for (int c = 0; c < channels.length; c++) {
+                samples[r * channels.length + c] = channels[c].read(state);
+            }
+        }
+        return samples;
+    }
+
+    private static long[] measurePlain(double[] samples, int rounds) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(samples.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        double[] decoded = new double[samples.length];
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            buffer.clear();
+            for (double value : samples) {
+                buffer.putDouble(value);
+            }
+            long middle = System.nanoTime();
+            buffer.flip();
+            for (int i = 0; i < decoded.length; i++) {
+                decoded[i] = buffer.getDouble();
+            }
+            long end = System.nanoTime();
+            best[0] = Math.min(best[0], middle - start);
+            best[1] = Math.min(best[1], end - middle);
+        }
+        verify(samples, decoded);
+        return best;
+    }
+
+    private static long measureCodec(double[] samples, int channels, int blockRows, int rounds, long[] best) {
+        int rows = samples.length / channels;
+        TrajectoryEncoder encoder = new TrajectoryEncoder(channels, blockRows);
+        TrajectoryDecoder decoder = new TrajectoryDecoder(channels);
+        int blocks = (rows + blockRows - 1) / blockRows;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(blocks * encoder.maxBlockBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        double[] row = new double[channels];
+        double[] decoded = new double[samples.length];
+        best[0] = best[1] = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            buffer.clear();
+            for (int r = 0; r < rows; r++) {
+                System.arraycopy(samples, r * channels, row, 0, channels);
+                encoder.append(row);
+                if (encoder.isFull()) {
+                    encoder.encode(buffer);
+                }
+            }
+            encoder.encode(buffer);
+            long middle = System.nanoTime();
+            buffer.flip();
+            int offset = 0;
+            while (buffer.hasRemaining()) {
+                int blockSize = decoder.decode(buffer);
+                for (int r = 0; r < blockSize; r++) {
+                    decoder.getRow(r, row);
+                    System.arraycopy(row, 0, decoded, offset, channels);
+                    offset += channels;
+                }
+            }
+            long end = System.nanoTime();
+            best[0] = Math.min(best[0], middle - start);
+            best[1] = Math.min(best[1], end - middle);
+        }
+        verify(samples, decoded);
+        return buffer.limit();
+    }
+
+    /** XOR каждого столбца с предыдущей строкой и Deflate — способ {@code CompressedTrajectory}. */
+    private static long measureDeflate(double[] samples, int channels, int rounds, long[] best) {
+        ByteBuffer raw = ByteBuffer.allocate(samples.length * Double.BYTES);
+        byte[] compressed = new byte[raw.capacity() + raw.capacity() / 8 + 64];
+        double[] decoded = new double[samples.length];
+        long[] previous = new long[channels];
+        int size = 0;
+        best[0] = best[1] = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            raw.clear();
+            Arrays.fill(previous, 0);
+            for (int i = 0; i < samples.length; i++) {
+                long bits = Double.doubleToRawLongBits(samples[i]);
+                raw.putLong(bits ^ previous[i % channels]);
+                previous[i % channels] = bits;
+            }
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            deflater.setInput(raw.array());
+            deflater.finish();
+            size = deflater.deflate(compressed);
+            deflater.end();
+            long middle = System.nanoTime();
+            Inflater inflater = new Inflater();
+            inflater.setInput(compressed, 0, size);
+            try {
+                inflater.inflate(raw.array());
+            } catch (DataFormatException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                inflater.end();
+            }
+            raw.clear();
+            Arrays.fill(previous, 0);
+            for (int i = 0; i < decoded.length; i++) {
+                long bits = raw.getLong() ^ previous[i % channels];
+                decoded[i] = Double.longBitsToDouble(bits);
+                previous[i % channels] = bits;
+            }
+            long end = System.nanoTime();
+            best[0] = Math.min(best[0], middle - start);
+            best[1] = Math.min(best[1], end - middle);
+        }
+        verify(samples, decoded);
+        return size;
+    }
+
+    private static void verify(double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.doubleToRawLongBits(expected[i]) != Double.doubleToRawLongBits(actual[i])) {
+                throw new IllegalStateException("Декодированное значение " + i + " не совпадает с исходным");
+            }
+        }
+    }
+
+    private static void report(String name, long bytes, long rawBytes, int values, long[] nanos) {
+        System.err.printf(Locale.US, "%-16s %9d  %5.2fx  %8.2f  %8.0f МБ/с  %8.0f МБ/с%n",
+            name, bytes, rawBytes / (double) bytes, bytes * 8.0 / values,
+            rawBytes / (nanos[0] / 1e9) / 1e6, rawBytes / (nanos[1] / 1e9) / 1e6);
+    }
+
+    private int convert() throws IOException {
+        Path input = Path.of(commandLine.getString("input", ""));
+        String format = commandLine.getString("format", "csv");
+        String output = commandLine.getString("output", "-");
+        long startNanos = System.nanoTime();
+        try (TrajectoryReader reader = TrajectoryReader.open(input);
+             TrajectoryWriter writer = TrajectoryWriter.open(format, output, reader.getChannels())) {
+            double[] row = new double[reader.getChannels().length];
+            while (reader.next(row)) {
+                writer.write(row);
+            }
+            writer.flush();
+            System.err.printf(Locale.US, "Строк: %d, записано байт: %d за %.3f с%n",
+                reader.getRowsRead(), writer.getBytesWritten(), (System.nanoTime() - startNanos) / 1e9);
+        }
+        return 0;
+    }
+}
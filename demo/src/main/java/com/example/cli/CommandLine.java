@@ -0,0 +1,86 @@
+package com.example.cli;
+
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Разобранные аргументы командной строки вида {@code команда --имя=значение --флаг}.
+ */
+public class CommandLine {
+
+    private final String command;
+    private final Map<String, String> options = new LinkedHashMap<>();
+
+    public CommandLine(String[] args) {
+        this.command = args.length > 0 ? args[0] : "";
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Ожидался параметр вида --имя=значение: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+
+    public String getCommand() { return command; }
+
+    public boolean has(String name) {
+        return options.containsKey(name);
+    }
+
+    public String getString(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String name, long defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Параметры симуляции: значения по умолчанию, затем файл {@code --params=файл.properties},
+     * затем отдельные параметры ({@code --mass=2 --damping=0.3}). Углы задаются в радианах.
+     */
+    public SimulationParameters getSimulationParameters() throws IOException {
+        SimulationParameters params = new SimulationParameters();
+        String file = options.get("params");
+        if (file != null) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String name : properties.stringPropertyNames()) {
+                params.setParameter(name, Double.parseDouble(properties.getProperty(name).trim()));
+            }
+        }
+        for (String name : SimulationParameters.getParameterNames()) {
+            if (options.containsKey(name)) {
+                params.setParameter(name, getDouble(name, 0));
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.cli;
+
+import com.example.controller.EnergyMonitor;
+import com.example.controller.PendulumIntegrator;
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Выбор шага интегрирования по балансу энергии ({@link PendulumIntegrator#getEnergyDrift()}).
+ *
+ * Для каждого шага из {@code --dts} система интегрируется {@code --duration} секунд, после
+ * каждого шага проверяется дрейф баланса энергии. Печатается наибольший дрейф, число
+ * срабатываний ограничения длины пружины и скорость расчёта, затем наибольший шаг, при котором
+ * дрейф не превысил {@code --threshold} и ограничение не срабатывало. Параметры системы — как в batch.
+ */
+public class EnergyRunner {
+
+    private final CommandLine commandLine;
+
+    public EnergyRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        SimulationParameters params = commandLine.getSimulationParameters();
+        double duration = commandLine.getDouble("duration", 100);
+        double threshold = commandLine.getDouble("threshold", EnergyMonitor.DEFAULT_THRESHOLD);
+        String[] list = commandLine.getString("dts", "0.0005,0.001,0.002,0.005,0.01,0.02").split(",");
+
+        System.err.println("      шаг (с)   наибольший дрейф   ограничение   x реального времени");
+        double best = Double.NaN;
+        for (String item : list) {
+            double dt = Double.parseDouble(item.trim());
+            PendulumIntegrator integrator = new PendulumIntegrator(params);
+            EnergyMonitor monitor = new EnergyMonitor(threshold);
+            long steps = Math.round(duration / dt);
+            long startNanos = System.nanoTime();
+            for (long i = 0; i < steps; i++) {
+                integrator.step(dt);
+                monitor.check(integrator);
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            boolean safe = monitor.getMaxDrift() <= threshold && integrator.getClampCount() == 0;
+            if (safe && !(dt <= best)) {
+                best = dt;
+            }
+            System.err.printf(Locale.US, "%13.6g   %16.3e   %11d   %19.0f  %s%n", dt, monitor.getMaxDrift(),
+                integrator.getClampCount(), integrator.getTime() / seconds, safe ? "" : "небезопасен");
+        }
+        if (Double.isNaN(best)) {
+            System.err.printf(Locale.US, "Ни один шаг не удержал дрейф ниже %.1e без срабатывания ограничения%n",
+                threshold);
+            return 1;
+        }
+        System.err.printf(Locale.US, "Наибольший безопасный шаг: %s с (порог дрейфа %.1e)%n", best, threshold);
+        return 0;
+    }
+}
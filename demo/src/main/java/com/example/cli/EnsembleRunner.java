@@ -0,0 +1,127 @@
+package com.example.cli;
+
+import com.example.analysis.ParameterDistribution;
+import com.example.analysis.RunningStatistics;
+import com.example.controller.EnsembleIntegrator;
+import com.example.controller.EnsembleStore;
+import com.example.model.SimulationParameters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Расчёт большого ансамбля маятников в хранилище вне кучи.
+ *
+ * Параметры: {@code --members} размер ансамбля, {@code --vary} распределения параметров
+ * (как в montecarlo), {@code --seed}, {@code --duration}, {@code --dt}, {@code --threads},
+ * {@code --file} файл хранилища, отображаемый в память (без него — прямая память),
+ * {@code --resume} продолжить расчёт из файла хранилища (файл, запись которого прервана
+ * посреди порции шагов, отвергается), {@code --checkpoint} интервал модельного времени между
+ * сбросами файла на диск, {@code --output} состояния членов в CSV.
+ * Сводка (среднее и разброс угла и длины пружины) выводится в stderr.
+ */
+public class EnsembleRunner {
+
+    private final CommandLine commandLine;
+
+    public EnsembleRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        double duration = commandLine.getDouble("duration", 10);
+        double dt = commandLine.getDouble("dt", 0.001);
+        int threads = commandLine.getInt("threads", Runtime.getRuntime().availableProcessors());
+
+        long startNanos = System.nanoTime();
+        try (EnsembleStore store = openStore()) {
+            double setupSeconds = (System.nanoTime() - startNanos) / 1e9;
+            EnsembleIntegrator integrator = new EnsembleIntegrator(store).setParallelism(threads);
+            long totalSteps = Math.round(duration / dt);
+            long chunkSteps = store.isMapped() && commandLine.has("checkpoint")
+                ? Math.max(1, Math.round(commandLine.getDouble("checkpoint", duration) / dt))
+                : totalSteps;
+
+            long integrateStart = System.nanoTime();
+            for (long done = 0; done < totalSteps; ) {
+                long steps = Math.min(chunkSteps, totalSteps - done);
+                integrator.advance(dt, steps); // Файл сбрасывается на диск в конце каждой порции
+                done += steps;
+            }
+            double seconds = (System.nanoTime() - integrateStart) / 1e9;
+
+            RunningStatistics angle = new RunningStatistics();
+            RunningStatistics length = new RunningStatistics();
+            for (long i = 0; i < store.size(); i++) {
+                angle.add(store.get(i, EnsembleStore.FI));
+                length.add(store.get(i, EnsembleStore.R));
+            }
+            if (commandLine.has("output")) {
+                writeMembers(store, commandLine.getString("output", "-"));
+            }
+            System.err.printf(Locale.US,
+                "Ансамбль: %d членов, %.1f МБ вне кучи (%s), время модели: %.3f с, подготовка: %.3f с%n",
+                store.size(), store.size() * EnsembleStore.STRIDE * 8.0 / (1 << 20),
+                store.isMapped() ? "файл" : "прямая память", store.getTime(), setupSeconds);
+            System.err.printf(Locale.US, "Расчёт: %.3f с, %.2f млн член-шагов/с, потоков: %d%n",
+                seconds, store.size() * (double) totalSteps / seconds / 1e6, threads);
+            System.err.printf(Locale.US, "Угол: среднее %.6g, СКО %.6g; длина: среднее %.6g, СКО %.6g%n",
+                angle.getMean(), angle.getStandardDeviation(), length.getMean(), length.getStandardDeviation());
+        }
+        return 0;
+    }
+
+    private EnsembleStore openStore() throws IOException {
+        if (commandLine.has("resume")) {
+            return EnsembleStore.open(Path.of(commandLine.getString("resume", "")));
+        }
+        List<ParameterDistribution> distributions = new ArrayList<>();
+        for (String spec : commandLine.getString("vary", "").split(",")) {
+            if (!spec.isBlank()) {
+                distributions.add(ParameterDistribution.parse(spec));
+            }
+        }
+        long members = commandLine.getLong("members", 1_000_000);
+        EnsembleStore store = commandLine.has("file")
+            ? EnsembleStore.create(Path.of(commandLine.getString("file", "")), members)
+            : EnsembleStore.allocate(members);
+        SimulationParameters base = commandLine.getSimulationParameters();
+        SimulationParameters params = new SimulationParameters(base);
+        SplittableRandom random = new SplittableRandom(commandLine.getLong("seed", 1));
+        for (long i = 0; i < members; i++) {
+            for (ParameterDistribution distribution : distributions) {
+                distribution.apply(params, random);
+            }
+            store.setMember(i, params);
+        }
+        return store;
+    }
+
+    private static void writeMembers(EnsembleStore store, String output) throws IOException {
+        Writer writer = "-".equals(output)
+            ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+            : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+        try {
+            writer.write("member,springLength,radialVelocity,angle,angularVelocity\n");
+            for (long i = 0; i < store.size(); i++) {
+                writer.write(i + "," + store.get(i, EnsembleStore.R) + "," + store.get(i, EnsembleStore.DR)
+                             + "," + store.get(i, EnsembleStore.FI) + "," + store.get(i, EnsembleStore.DFI) + "\n");
+            }
+        } finally {
+            if ("-".equals(output)) {
+                writer.flush();
+            } else {
+                writer.close();
+            }
+        }
+    }
+}
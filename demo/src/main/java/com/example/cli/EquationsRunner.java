@@ -0,0 +1,88 @@
+package com.example.cli;
+
+import com.example.controller.EquationsOfMotion;
+import com.example.controller.PendulumIntegrator;
+import com.example.equations.EquationCompiler;
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Проверка и замер скорости пользовательских уравнений движения.
+ *
+ * Параметры: {@code --file} файл с уравнениями (по умолчанию — запись встроенных уравнений),
+ * {@code --steps} число шагов замера, {@code --dt}. Для каждой реализации (встроенная, байт-код, MethodHandle) выполняется
+ * прогрев и замер; печатаются шаги в секунду и конечное состояние.
+ */
+public class EquationsRunner {
+
+    private final CommandLine commandLine;
+
+    public EquationsRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        SimulationParameters params = commandLine.getSimulationParameters();
+        String source = commandLine.has("file")
+            ? Files.readString(Path.of(commandLine.getString("file", "")))
+            : EquationCompiler.DEFAULT_EQUATIONS;
+        long steps = commandLine.getLong("steps", 5_000_000);
+        double dt = commandLine.getDouble("dt", 0.001);
+
+        long compileStart = System.nanoTime();
+        EquationsOfMotion handles = EquationCompiler.compileHandles(source);
+        double handleCompile = (System.nanoTime() - compileStart) / 1e6;
+        EquationsOfMotion bytecode = null;
+        double bytecodeCompile = 0;
+        if (EquationCompiler.isBytecodeAvailable()) {
+            compileStart = System.nanoTime();
+            bytecode = EquationCompiler.compileBytecode(source);
+            bytecodeCompile = (System.nanoTime() - compileStart) / 1e6;
+        } else {
+            System.err.println("Компилятор Java недоступен, используется только MethodHandle");
+        }
+        System.err.printf(Locale.US, "Сборка: байт-код %.1f мс, MethodHandle %.1f мс%n", bytecodeCompile, handleCompile);
+
+        double[] reference = measure("встроенные", params, null, steps, dt, null);
+        if (bytecode != null) {
+            measure("байт-код", params, bytecode, steps, dt, reference);
+        }
+        measure("MethodHandle", params, handles, steps, dt, reference);
+        return 0;
+    }
+
+    private static double[] measure(String name, SimulationParameters params, EquationsOfMotion equations,
+                                    long steps, double dt, double[] reference) {
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        integrator.setEquations(equations);
+        for (long i = 0; i < Math.min(steps, 200_000); i++) {
+            integrator.step(dt); // Прогрев JIT
+        }
+        integrator.reset();
+        long startNanos = System.nanoTime();
+        for (long i = 0; i < steps; i++) {
+            integrator.step(dt);
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        double[] state = new double[4];
+        integrator.getState(state);
+
+        System.out.printf(Locale.US, "%s: time=%s springLength=%s radialVelocity=%s angle=%s angularVelocity=%s%n",
+            name, integrator.getTime(), state[0], state[1], state[2], state[3]);
+        if (reference == null) {
+            System.err.printf(Locale.US, "%-12s %.2f млн шагов/с%n", name, steps / seconds / 1e6);
+        } else {
+            double difference = 0;
+            for (int i = 0; i < 4; i++) {
+                difference = Math.max(difference, Math.abs(state[i] - reference[i]));
+            }
+            System.err.printf(Locale.US, "%-12s %.2f млн шагов/с, отличие от встроенных: %.3g%n",
+                name, steps / seconds / 1e6, difference);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.cli;
+
+import com.example.controller.EventDetector;
+import com.example.controller.EventFunction;
+import com.example.controller.PendulumEvents;
+import com.example.controller.PendulumIntegrator;
+import com.example.model.SimulationEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Расчёт без интерфейса с выводом только событий (CSV: имя, момент и состояние в момент события).
+ *
+ * Параметры: {@code --duration}, {@code --dt}, {@code --events} список событий через запятую
+ * (по умолчанию все), {@code --output} файл или {@code -} (stdout).
+ */
+public class EventsRunner {
+
+    private final CommandLine commandLine;
+
+    public EventsRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        double duration = commandLine.getDouble("duration", 10.0);
+        double dt = commandLine.getDouble("dt", 0.001);
+        EventFunction[] functions = parseEvents(commandLine.getString("events", ""));
+        String output = commandLine.getString("output", "-");
+
+        PendulumIntegrator integrator = new PendulumIntegrator(commandLine.getSimulationParameters());
+        EventDetector detector = new EventDetector(functions);
+        integrator.setEventDetector(detector);
+
+        long[] count = new long[1];
+        try (Writer writer = "-".equals(output)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+            writer.write("event,time,springLength,radialVelocity,angle,angularVelocity\n");
+            detector.addListener(event -> {
+                writeEvent(writer, event);
+                count[0]++;
+            });
+
+            long steps = Math.round(duration / dt);
+            long startNanos = System.nanoTime();
+            for (long i = 0; i < steps; i++) {
+                integrator.step(dt);
+            }
+            writer.flush();
+            System.err.printf(Locale.US, "Шагов: %d, событий: %d, расчёт: %.3f с%n",
+                steps, count[0], (System.nanoTime() - startNanos) / 1e9);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return 0;
+    }
+
+    private static void writeEvent(Writer writer, SimulationEvent event) {
+        try {
+            writer.write(String.format(Locale.US, "%s,%s,%s,%s,%s,%s%n", event.getName(),
+                event.getTime(), event.getSpringLength(), event.getRadialVelocity(),
+                event.getAngle(), event.getAngularVelocity()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static EventFunction[] parseEvents(String list) {
+        if (list.isBlank()) {
+            return PendulumEvents.all();
+        }
+        String[] names = list.split(",");
+        EventFunction[] functions = new EventFunction[names.length];
+        for (int i = 0; i < names.length; i++) {
+            functions[i] = PendulumEvents.find(names[i].trim());
+            if (functions[i] == null) {
+                throw new IllegalArgumentException("Неизвестное событие: " + names[i]);
+            }
+        }
+        return functions;
+    }
+}
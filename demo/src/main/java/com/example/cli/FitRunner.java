@@ -0,0 +1,72 @@
+package com.example.cli;
+
+import com.example.analysis.MeasuredTrajectory;
+import com.example.analysis.ParameterFit;
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Подбор параметров модели по измеренной траектории.
+ *
+ * Параметры: {@code --data} CSV со столбцами time, angle, springLength,
+ * {@code --fit=springConstant,damping} подбираемые параметры, {@code --dt},
+ * {@code --threads}; начальное приближение задаётся как в {@code batch}
+ * ({@code --params}, {@code --springConstant=...}). {@code --output} сохранить
+ * подобранные параметры в формате properties.
+ */
+public class FitRunner {
+
+    private final CommandLine commandLine;
+
+    public FitRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        if (!commandLine.has("data")) {
+            throw new IllegalArgumentException("Не задан файл измерений (--data)");
+        }
+        MeasuredTrajectory data = MeasuredTrajectory.load(Path.of(commandLine.getString("data", "")));
+        String[] names = commandLine.getString("fit", "springConstant,damping").split(",");
+        for (int i = 0; i < names.length; i++) {
+            names[i] = names[i].trim();
+        }
+
+        ParameterFit fit = new ParameterFit(data, commandLine.getSimulationParameters(), names,
+                                            commandLine.getDouble("dt", 0.001))
+            .setThreads(commandLine.getInt("threads", Runtime.getRuntime().availableProcessors()));
+        long startNanos = System.nanoTime();
+        ParameterFit.Result result;
+        try {
+            result = fit.fit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        StringBuilder report = new StringBuilder();
+        for (int j = 0; j < result.getParameterCount(); j++) {
+            report.append(String.format(Locale.US, "%-15s = %.8g ± %.3g (95 %%), СКО %.3g%n",
+                result.getName(j), result.getValue(j), result.getConfidenceHalfWidth(j),
+                result.getStandardError(j)));
+        }
+        System.out.print(report);
+        System.err.printf(Locale.US, "Точек: %d, итераций: %d, расчётов модели: %d, RMS невязки: %.3g, время: %.3f с%n",
+            data.size(), result.getIterations(), result.getEvaluations(), result.getRms(), seconds);
+
+        if (commandLine.has("output")) {
+            SimulationParameters fitted = result.getParameters();
+            StringBuilder properties = new StringBuilder();
+            for (String name : SimulationParameters.getParameterNames()) {
+                properties.append(name).append('=').append(fitted.getParameter(name)).append('\n');
+            }
+            Files.writeString(Path.of(commandLine.getString("output", "")), properties);
+        }
+        return 0;
+    }
+}
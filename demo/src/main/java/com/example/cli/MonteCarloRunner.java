@@ -0,0 +1,111 @@
+package com.example.cli;
+
+import com.example.analysis.MonteCarloEnsemble;
+import com.example.analysis.ParameterDistribution;
+import com.example.model.Channel;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Полосы квантилей каналов по ансамблю реализаций со случайными параметрами.
+ *
+ * Параметры: {@code --vary=mass:normal:1:0.05,damping:uniform:0.05:0.15},
+ * {@code --realizations}, {@code --duration}, {@code --dt}, {@code --interval} шаг выборки (с),
+ * {@code --channels}, {@code --quantiles=0.05,0.5,0.95}, {@code --seed}, {@code --threads},
+ * {@code --output} CSV (время и квантили каждого канала).
+ */
+public class MonteCarloRunner {
+
+    private final CommandLine commandLine;
+
+    public MonteCarloRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        List<ParameterDistribution> distributions = new ArrayList<>();
+        for (String spec : commandLine.getString("vary", "").split(",")) {
+            if (!spec.isBlank()) {
+                distributions.add(ParameterDistribution.parse(spec));
+            }
+        }
+        if (distributions.isEmpty()) {
+            throw new IllegalArgumentException("Не заданы распределения параметров (--vary)");
+        }
+        Channel[] channels = BatchRunner.parseChannels(commandLine.getString("channels", "angle"));
+        double[] qs = parseQuantiles(commandLine.getString("quantiles", "0.05,0.25,0.5,0.75,0.95"));
+
+        MonteCarloEnsemble ensemble = new MonteCarloEnsemble(commandLine.getSimulationParameters(),
+                distributions, channels, commandLine.getInt("realizations", 1000),
+                commandLine.getDouble("dt", 0.001), commandLine.getDouble("duration", 10),
+                commandLine.getDouble("interval", 0.01))
+            .setSeed(commandLine.getLong("seed", 1))
+            .setThreads(commandLine.getInt("threads", Runtime.getRuntime().availableProcessors()));
+
+        long startNanos = System.nanoTime();
+        try {
+            ensemble.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        writeBands(ensemble, qs, commandLine.getString("output", "-"));
+        System.err.printf(Locale.US, "Реализаций: %d, моментов выборки: %d, расчёт: %.3f с (%.1f реализаций/с)%n",
+            ensemble.getCompletedRealizations(), ensemble.getSampleCount(), seconds,
+            ensemble.getCompletedRealizations() / seconds);
+        return 0;
+    }
+
+    static double[] parseQuantiles(String list) {
+        String[] parts = list.split(",");
+        double[] qs = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            qs[i] = Double.parseDouble(parts[i].trim());
+            if (qs[i] < 0 || qs[i] > 1 || (i > 0 && qs[i] < qs[i - 1])) {
+                throw new IllegalArgumentException("Квантили должны возрастать в диапазоне 0..1: " + list);
+            }
+        }
+        return qs;
+    }
+
+    private static void writeBands(MonteCarloEnsemble ensemble, double[] qs, String output) throws IOException {
+        Channel[] channels = ensemble.getChannels();
+        int samples = ensemble.getSampleCount();
+        double[][][] bands = new double[channels.length][qs.length][samples];
+        for (int c = 0; c < channels.length; c++) {
+            ensemble.quantiles(c, qs, bands[c]);
+        }
+        try (Writer writer = "-".equals(output)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder("time");
+            for (Channel channel : channels) {
+                for (double q : qs) {
+                    line.append(',').append(channel.getKey()).append("_q").append(Math.round(q * 1000) / 10.0);
+                }
+            }
+            writer.write(line.append('\n').toString());
+            for (int s = 0; s < samples; s++) {
+                line.setLength(0);
+                line.append(ensemble.getSampleTime(s));
+                for (int c = 0; c < channels.length; c++) {
+                    for (int q = 0; q < qs.length; q++) {
+                        line.append(',').append(bands[c][q][s]);
+                    }
+                }
+                writer.write(line.append('\n').toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.cli;
+
+import com.example.analysis.OccupancyGrid;
+import com.example.analysis.OccupancyRenderer;
+import com.example.controller.PendulumIntegrator;
+import com.example.model.SimulationParameters;
+
+import javax.imageio.ImageIO;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Гистограмма занятости положения грузика ({@link OccupancyGrid}) по нескольким траекториям,
+ * рассчитываемым параллельно; в сетку попадает каждый шаг интегрирования.
+ *
+ * Параметры: начальные углы как в poincare ({@code --angles} или {@code --count --angleFrom
+ * --angleTo}), {@code --duration}, {@code --dt}, {@code --resolution} ячеек по оси,
+ * {@code --threads}, {@code --merge=striped|atomic|both} — свои полосы у потоков со слиянием
+ * каждые {@code --mergeEvery} шагов или атомарная запись в общую сетку ({@code both} — замер
+ * обоих способов и проверка совпадения), {@code --image} PNG, {@code --output} CSV ненулевых ячеек.
+ */
+public class OccupancyRunner {
+
+    private final CommandLine commandLine;
+
+    public OccupancyRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        List<SimulationParameters> runs = PoincareRunner.parseInitialConditions(commandLine);
+        double dt = commandLine.getDouble("dt", 0.001);
+        long steps = Math.round(commandLine.getDouble("duration", 1000) / dt);
+        int resolution = commandLine.getInt("resolution", 256);
+        int threads = Math.max(1, commandLine.getInt("threads", Runtime.getRuntime().availableProcessors()));
+        int mergeEvery = Math.max(1, commandLine.getInt("mergeEvery", 1 << 16));
+        String merge = commandLine.getString("merge", "striped");
+        if (!merge.equals("striped") && !merge.equals("atomic") && !merge.equals("both")) {
+            throw new IllegalArgumentException("Неизвестный способ слияния: " + merge);
+        }
+
+        OccupancyGrid template = OccupancyGrid.forParameters(runs.get(0), resolution);
+        for (SimulationParameters params : runs) {
+            OccupancyGrid candidate = OccupancyGrid.forParameters(params, resolution);
+            if (candidate.getXMax() > template.getXMax()) {
+                template = candidate;
+            }
+        }
+
+        OccupancyGrid result = null;
+        for (String mode : merge.equals("both") ? new String[] {"striped", "atomic"} : new String[] {merge}) {
+            OccupancyGrid grid = template.emptyCopy();
+            long startNanos = System.nanoTime();
+            accumulate(runs, grid, mode.equals("atomic"), threads, dt, steps, mergeEvery);
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            long total = steps * runs.size();
+            System.err.printf(Locale.US, "%-8s траекторий: %d, шагов: %d, расчёт: %.3f с (%.2f млн шагов/с)%n",
+                mode, runs.size(), total, seconds, total / seconds / 1e6);
+            if (result != null && !sameCounts(result, grid)) {
+                throw new IllegalStateException("Результаты способов слияния не совпадают");
+            }
+            result = grid;
+        }
+        System.err.printf(Locale.US, "Сетка %d×%d, ±%.3f м, в сетке: %d, вне сетки: %d%n", resolution, resolution,
+            result.getXMax(), result.getInside(), result.getOutside());
+
+        if (commandLine.has("image")) {
+            OccupancyRenderer renderer = new OccupancyRenderer(result);
+            renderer.render();
+            ImageIO.write(renderer.getImage(), "png", Path.of(commandLine.getString("image", "")).toFile());
+        }
+        if (commandLine.has("output")) {
+            writeCells(result, commandLine.getString("output", "-"));
+        }
+        return 0;
+    }
+
+    private static void accumulate(List<SimulationParameters> runs, OccupancyGrid grid, boolean atomic,
+                                   int threads, double dt, long steps, int mergeEvery) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (SimulationParameters params : runs) {
+                futures.add(pool.submit(() -> {
+                    PendulumIntegrator integrator = new PendulumIntegrator(params);
+                    OccupancyGrid stripe = atomic ? null : grid.emptyCopy();
+                    for (long i = 1; i <= steps; i++) {
+                        integrator.step(dt);
+                        double R = integrator.getSpringLength(), fi = integrator.getAngle();
+                        if (atomic) {
+                            grid.addConcurrent(R * Math.sin(fi), R * Math.cos(fi));
+                        } else {
+                            stripe.add(R * Math.sin(fi), R * Math.cos(fi));
+                            if (i % mergeEvery == 0) {
+                                grid.mergeFrom(stripe);
+                            }
+                        }
+                    }
+                    if (stripe != null) {
+                        grid.mergeFrom(stripe);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Расчёт прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean sameCounts(OccupancyGrid a, OccupancyGrid b) {
+        for (int row = 0; row < a.getHeight(); row++) {
+            for (int column = 0; column < a.getWidth(); column++) {
+                if (a.getCount(column, row) != b.getCount(column, row)) {
+                    return false;
+                }
+            }
+        }
+        return a.getOutside() == b.getOutside();
+    }
+
+    private static void writeCells(OccupancyGrid grid, String output) throws IOException {
+        try (Writer writer = "-".equals(output)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+            writer.write("x,y,count\n");
+            double cellWidth = (grid.getXMax() - grid.getXMin()) / grid.getWidth();
+            double cellHeight = (grid.getYMax() - grid.getYMin()) / grid.getHeight();
+            for (int row = 0; row < grid.getHeight(); row++) {
+                for (int column = 0; column < grid.getWidth(); column++) {
+                    long count = grid.getCount(column, row);
+                    if (count > 0) {
+                        writer.write((grid.getXMin() + (column + 0.5) * cellWidth) + ","
+                            + (grid.getYMin() + (row + 0.5) * cellHeight) + "," + count + "\n");
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.cli;
+
+import com.example.controller.PararealIntegrator;
+import com.example.controller.PendulumIntegrator;
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Длинный расчёт методом Parareal.
+ *
+ * Параметры: {@code --duration}, {@code --dt} точный шаг, {@code --coarse} грубый шаг,
+ * {@code --slices} число отрезков, {@code --tolerance} допуск сходимости на границах,
+ * {@code --iterations} максимум итераций, {@code --threads}, {@code --compare}
+ * дополнительно выполнить последовательный расчёт и сравнить время и конечное состояние.
+ */
+public class PararealRunner {
+
+    private final CommandLine commandLine;
+
+    public PararealRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        SimulationParameters params = commandLine.getSimulationParameters();
+        double duration = commandLine.getDouble("duration", 3600);
+        double dt = commandLine.getDouble("dt", 0.001);
+        int threads = commandLine.getInt("threads", Runtime.getRuntime().availableProcessors());
+        PararealIntegrator parareal = new PararealIntegrator(params, dt,
+                commandLine.getDouble("coarse", 0.02), duration,
+                commandLine.getInt("slices", 4 * threads),
+                commandLine.getDouble("tolerance", 1e-9),
+                commandLine.getInt("iterations", 20))
+            .setParallelism(threads);
+
+        long startNanos = System.nanoTime();
+        double[][] states = parareal.integrate();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        double[] end = states[states.length - 1];
+
+        System.out.printf(Locale.US, "time=%s springLength=%s radialVelocity=%s angle=%s angularVelocity=%s%n",
+            parareal.getEndTime(), end[0], end[1], end[2], end[3]);
+        System.err.printf(Locale.US,
+            "Parareal: %d отрезков, итераций: %d, поправка: %.3g, точных шагов: %d (%.2f от последовательного), "
+            + "время: %.3f с, потоков: %d%n",
+            states.length - 1, parareal.getIterations(), parareal.getLastCorrection(), parareal.getFineSteps(),
+            parareal.getFineSteps() / (double) parareal.getTotalSteps(), seconds, threads);
+
+        if (commandLine.has("compare")) {
+            PendulumIntegrator sequential = new PendulumIntegrator(params);
+            long sequentialStart = System.nanoTime();
+            for (long i = 0; i < parareal.getTotalSteps(); i++) {
+                sequential.step(dt);
+            }
+            double sequentialSeconds = (System.nanoTime() - sequentialStart) / 1e9;
+            double error = Math.max(Math.max(Math.abs(sequential.getSpringLength() - end[0]),
+                                             Math.abs(sequential.getRadialVelocity() - end[1])),
+                                    Math.max(Math.abs(sequential.getAngle() - end[2]),
+                                             Math.abs(sequential.getAngularVelocity() - end[3])));
+            System.err.printf(Locale.US, "Последовательно: %.3f с, ускорение: x%.2f, отличие конечного состояния: %.3g%n",
+                sequentialSeconds, sequentialSeconds / seconds, error);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.cli;
+
+import com.example.analysis.PhaseHistogram;
+import com.example.analysis.PoincareBuilder;
+import com.example.analysis.PoincareSection;
+import com.example.model.SimulationParameters;
+
+import javax.imageio.ImageIO;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Сечение Пуанкаре (R, dR/dt при fi = 0, dfi > 0) для набора начальных углов.
+ *
+ * Параметры: {@code --duration}, {@code --dt}, начальные углы списком {@code --angles=0.3,0.6}
+ * или диапазоном {@code --count=8 --angleFrom=0.1 --angleTo=1.5} (рад),
+ * {@code --resolution} ячеек гистограммы по оси, {@code --capacity} точек на траекторию,
+ * {@code --threads}, {@code --output} точки в CSV, {@code --image} гистограмма плотности в PNG.
+ * Для консервативной системы задайте {@code --damping=0}.
+ */
+public class PoincareRunner {
+
+    private final CommandLine commandLine;
+
+    public PoincareRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        double duration = commandLine.getDouble("duration", 1000.0);
+        double dt = commandLine.getDouble("dt", 0.001);
+        List<SimulationParameters> initialConditions = parseInitialConditions(commandLine);
+
+        PoincareBuilder builder = new PoincareBuilder(initialConditions, dt, duration)
+            .setResolution(commandLine.getInt("resolution", 512))
+            .setCapacity(commandLine.getInt("capacity", 1 << 20))
+            .setThreads(commandLine.getInt("threads", Runtime.getRuntime().availableProcessors()));
+        PoincareBuilder.Result result;
+        try {
+            result = builder.build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+
+        if (commandLine.has("output")) {
+            writePoints(result, commandLine.getString("output", "-"));
+        }
+        PhaseHistogram histogram = result.getHistogram();
+        if (commandLine.has("image")) {
+            ImageIO.write(histogram.toImage(), "png", Path.of(commandLine.getString("image", "")).toFile());
+        }
+
+        double seconds = result.getElapsedNanos() / 1e9;
+        System.err.printf(Locale.US, "Траекторий: %d, шагов: %d, расчёт: %.3f с (%.2f млн шагов/с)%n",
+            initialConditions.size(), result.getSteps(), seconds, result.getSteps() / seconds / 1e6);
+        System.err.printf(Locale.US, "Пересечений: %d, вне гистограммы: %d, R ∈ [%.4f, %.4f], dR/dt ∈ [%.4f, %.4f]%n",
+            histogram.getTotal(), histogram.getOutside(), histogram.getXMin(), histogram.getXMax(),
+            histogram.getYMin(), histogram.getYMax());
+        return 0;
+    }
+
+    static List<SimulationParameters> parseInitialConditions(CommandLine commandLine) throws IOException {
+        SimulationParameters base = commandLine.getSimulationParameters();
+        List<Double> angles = new ArrayList<>();
+        if (commandLine.has("angles")) {
+            for (String angle : commandLine.getString("angles", "").split(",")) {
+                angles.add(Double.parseDouble(angle.trim()));
+            }
+        } else if (commandLine.has("count")) {
+            int count = commandLine.getInt("count", 1);
+            double from = commandLine.getDouble("angleFrom", 0.1);
+            double to = commandLine.getDouble("angleTo", 1.5);
+            for (int i = 0; i < count; i++) {
+                angles.add(count == 1 ? from : from + (to - from) * i / (count - 1));
+            }
+        } else {
+            angles.add(base.getInitialAngle());
+        }
+
+        List<SimulationParameters> initialConditions = new ArrayList<>();
+        for (double angle : angles) {
+            SimulationParameters params = new SimulationParameters(base);
+            params.setInitialAngle(angle);
+            initialConditions.add(params);
+        }
+        return initialConditions;
+    }
+
+    private static void writePoints(PoincareBuilder.Result result, String output) throws IOException {
+        try (Writer writer = "-".equals(output)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+            writer.write("trajectory,time,springLength,radialVelocity\n");
+            StringBuilder line = new StringBuilder(96);
+            List<PoincareSection> sections = result.getSections();
+            for (int trajectory = 0; trajectory < sections.size(); trajectory++) {
+                PoincareSection section = sections.get(trajectory);
+                for (int i = 0; i < section.size(); i++) {
+                    line.setLength(0);
+                    line.append(trajectory).append(',').append(section.getTime(i)).append(',')
+                        .append(section.getSpringLength(i)).append(',').append(section.getRadialVelocity(i))
+                        .append('\n');
+                    writer.append(line);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.cli;
+
+import com.example.analysis.QuantileSketch;
+import com.example.controller.PhysicsController;
+import com.example.remote.RemoteControlClient;
+import com.example.remote.RemoteControlServer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Клиент удалённого управления: выполняет команды или измеряет задержку запросов.
+ *
+ * Параметры: {@code --host}, {@code --port} или {@code --socket} файл Unix-domain сокета,
+ * {@code --commands="start;set damping=0.2;get"} выполнить команды по очереди и вывести ответы,
+ * иначе замер: {@code --requests} число запросов, {@code --pipeline} глубина конвейера.
+ * {@code --local} запускает симуляцию и сервер в этом же процессе ({@code --unix} — на сокете
+ * Unix-domain во временном каталоге).
+ */
+public class RemoteRunner {
+
+    private final CommandLine commandLine;
+
+    public RemoteRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        PhysicsController controller = null;
+        RemoteControlServer server = null;
+        Path socketFile = commandLine.has("socket") ? Path.of(commandLine.getString("socket", "")) : null;
+        int port = commandLine.getInt("port", 4712);
+        if (commandLine.has("local")) {
+            controller = ServeRunner.startController(commandLine);
+            if (commandLine.has("unix")) {
+                socketFile = Files.createTempDirectory("pendulum").resolve("control.sock");
+                server = new RemoteControlServer(controller, socketFile);
+            } else {
+                server = new RemoteControlServer(controller, "127.0.0.1", 0);
+                port = server.getPort();
+            }
+        }
+        try (RemoteControlClient client = socketFile != null
+                ? new RemoteControlClient(socketFile)
+                : new RemoteControlClient(commandLine.getString("host", "127.0.0.1"), port)) {
+            client.setEventHandler(System.out::println);
+            if (commandLine.has("commands")) {
+                for (String command : commandLine.getString("commands", "").split(";")) {
+                    if (command.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        System.out.println(command.trim() + " -> " + client.request(command.trim()));
+                    } catch (IOException e) {
+                        System.out.println(command.trim() + " -> ошибка: " + e.getMessage());
+                    }
+                }
+            } else {
+                benchmark(client, socketFile != null ? "Unix-domain" : "TCP");
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+            if (controller != null) {
+                controller.shutdown();
+            }
+        }
+        return 0;
+    }
+
+    private void benchmark(RemoteControlClient client, String transport) throws IOException {
+        int requests = commandLine.getInt("requests", 20000);
+        int pipeline = Math.max(1, commandLine.getInt("pipeline", 64));
+        double damping = Double.parseDouble(client.request("get").replaceAll(".*damping=(\\S+).*", "$1"));
+
+        for (int i = 0; i < Math.min(requests, 2000); i++) {
+            client.request("ping"); // Прогрев JIT
+        }
+        measure(transport + ", ping", client, requests, 1, i -> "ping");
+        measure(transport + ", set", client, requests, 1,
+                i -> String.format(Locale.US, "set damping=%s", damping * (1 + 1e-3 * (i % 10))));
+        measure(transport + ", set конвейер " + pipeline, client, requests, pipeline,
+                i -> String.format(Locale.US, "set damping=%s", damping * (1 + 1e-3 * (i % 10))));
+        client.request(String.format(Locale.US, "set damping=%s", damping));
+    }
+
+    /** Замер: запросы отправляются пачками по {@code depth}, задержка — от отправки пачки до ответа. */
+    private static void measure(String name, RemoteControlClient client, int requests, int depth,
+                                java.util.function.IntFunction<String> command) throws IOException {
+        QuantileSketch latency = new QuantileSketch(256, 1);
+        long startNanos = System.nanoTime();
+        for (int done = 0; done < requests; done += depth) {
+            int count = Math.min(depth, requests - done);
+            long sent = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                client.send(command.apply(done + i));
+            }
+            client.flush();
+            for (int i = 0; i < count; i++) {
+                client.receive();
+                latency.add((System.nanoTime() - sent) / 1e3);
+            }
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        double[] q = new double[3];
+        latency.quantiles(new double[] {0.5, 0.99, 1.0}, q);
+        System.err.printf(Locale.US, "%-28s %9.0f запросов/с, задержка (мкс): медиана %.1f, 99%% %.1f, макс %.1f%n",
+            name, requests / seconds, q[0], q[1], q[2]);
+    }
+}
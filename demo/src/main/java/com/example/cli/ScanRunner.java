@@ -0,0 +1,96 @@
+package com.example.cli;
+
+import com.example.analysis.ContinuationScan;
+import com.example.analysis.RunningStatistics;
+import com.example.model.Channel;
+import com.example.model.ParameterSchedule;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Сканирование параметров с продолжением ({@link ContinuationScan}): параметры меняются
+ * по расписанию {@code --schedule} в одном расчёте без сброса.
+ *
+ * Параметры: {@code --schedule} (см. {@link ParameterSchedule}), {@code --duration}
+ * (по умолчанию из расписания), {@code --segment} длина равных отрезков, {@code --settle}
+ * доля конца отрезка для статистики, {@code --channels}, {@code --dt}, {@code --output} CSV:
+ * на отрезок строка с границами, значениями параметров и средним, СКО, минимумом, максимумом
+ * и полуразмахом каждого канала. Параметры системы — как в batch.
+ */
+public class ScanRunner {
+
+    private final CommandLine commandLine;
+
+    public ScanRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        if (!commandLine.has("schedule")) {
+            throw new IllegalArgumentException("Задайте расписание: --schedule=имя:step|linear:t=значение,...");
+        }
+        ParameterSchedule schedule = ParameterSchedule.parse(commandLine.getString("schedule", ""));
+        Channel[] channels = BatchRunner.parseChannels(commandLine.getString("channels", "springLength,angle"));
+        ContinuationScan scan = new ContinuationScan(commandLine.getSimulationParameters(), schedule, channels)
+            .setIntegration(commandLine.getDouble("dt", 0.001),
+                            commandLine.getDouble("duration", schedule.getDefaultDuration()))
+            .setSegmentLength(commandLine.getDouble("segment", 0))
+            .setSettleFraction(commandLine.getDouble("settle", 0.5));
+
+        long startNanos = System.nanoTime();
+        try (Writer writer = open(commandLine.getString("output", "-"))) {
+            StringBuilder header = new StringBuilder("start,end");
+            for (int i = 0; i < schedule.getTrackCount(); i++) {
+                header.append(',').append(schedule.getTrack(i).getParameter());
+            }
+            for (Channel channel : channels) {
+                String key = channel.getKey();
+                header.append(',').append(key).append("Mean,").append(key).append("Std,")
+                      .append(key).append("Min,").append(key).append("Max,").append(key).append("Amplitude");
+            }
+            writer.write(header.append('\n').toString());
+
+            scan.setSegmentListener((index, segment) -> {
+                StringBuilder line = new StringBuilder();
+                line.append(segment.getStart()).append(',').append(segment.getEnd());
+                for (int i = 0; i < schedule.getTrackCount(); i++) {
+                    line.append(',').append(segment.getParameter(i));
+                }
+                for (int c = 0; c < channels.length; c++) {
+                    RunningStatistics statistics = segment.getStatistics(c);
+                    line.append(',').append(statistics.getMean()).append(',').append(statistics.getStandardDeviation())
+                        .append(',').append(statistics.getMin()).append(',').append(statistics.getMax())
+                        .append(',').append(segment.getAmplitude(c));
+                }
+                try {
+                    writer.write(line.append('\n').toString());
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            scan.compute();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.err.printf(Locale.US, "Отрезков: %d, модельное время %.0f с за один проход, расчёт: %.3f с%n",
+            scan.getSegmentCount(), scan.getDuration(), seconds);
+        return 0;
+    }
+
+    private static Writer open(String output) throws IOException {
+        return "-".equals(output)
+            ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+            : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.cli;
+
+import com.example.controller.PhysicsController;
+import com.example.remote.RemoteControlServer;
+import com.example.telemetry.TelemetryServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Симуляция без интерфейса в реальном времени с сервером телеметрии.
+ *
+ * Параметры: {@code --host} адрес (по умолчанию только локальный, {@code 0.0.0.0} — для сети),
+ * {@code --port}, {@code --speed} множитель скорости, {@code --seconds} время работы
+ * (0 — до завершения процесса) и параметры системы, как в batch. {@code --control} порт
+ * или {@code --controlSocket} файл Unix-domain сокета для удалённого управления. Порт управления
+ * не наследует {@code --host}: команды checkpoint и restore пишут и читают файлы, поэтому он
+ * открывается только локально, если адрес не задан явно в {@code --controlHost}.
+ */
+public class ServeRunner {
+
+    private final CommandLine commandLine;
+
+    public ServeRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        PhysicsController controller = startController(commandLine);
+        String host = commandLine.getString("host", "127.0.0.1");
+        RemoteControlServer control = null;
+        try (TelemetryServer server = new TelemetryServer(host, commandLine.getInt("port", 4711))) {
+            controller.addStepListener(server);
+            System.err.println("Телеметрия: порт " + server.getPort());
+            if (commandLine.has("controlSocket")) {
+                control = new RemoteControlServer(controller, Path.of(commandLine.getString("controlSocket", "")));
+            } else if (commandLine.has("control")) {
+                String controlHost = commandLine.getString("controlHost", "127.0.0.1");
+                control = new RemoteControlServer(controller, controlHost, commandLine.getInt("control", 4712));
+                System.err.println("Управление: " + controlHost + ", порт " + control.getPort());
+            }
+            double seconds = commandLine.getDouble("seconds", 0);
+            long deadline = seconds > 0 ? System.nanoTime() + (long) (seconds * 1e9) : Long.MAX_VALUE;
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(Math.min(1000, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+            }
+            System.err.println("Клиентов: " + server.getClientCount()
+                               + ", потеряно шагов в буфере: " + server.getDroppedSteps()
+                               + ", отброшено записей медленных клиентов: " + server.getDroppedRecords());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (control != null) {
+                control.close();
+            }
+            controller.shutdown();
+        }
+        return 0;
+    }
+
+    /** Запустить контроллер с параметрами командной строки в собственном потоке. */
+    static PhysicsController startController(CommandLine commandLine) throws IOException {
+        PhysicsController controller = new PhysicsController();
+        controller.setParameters(commandLine.getSimulationParameters());
+        controller.setSimulationSpeed(commandLine.getDouble("speed", 1));
+        controller.start();
+        return controller;
+    }
+}
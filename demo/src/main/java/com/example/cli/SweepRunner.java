@@ -0,0 +1,88 @@
+package com.example.cli;
+
+import com.example.analysis.FrequencySweep;
+import com.example.model.Channel;
+import com.example.model.SimulationParameters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * АЧХ маятника при вертикальных колебаниях подвеса ({@link FrequencySweep}).
+ *
+ * Параметры: {@code --from --to --points} частоты подвеса (Гц, логарифмическая сетка),
+ * {@code --driveAmplitude} амплитуда подвеса (м, по умолчанию 0.01), {@code --channel} отклик,
+ * {@code --window} периодов в окне, {@code --tolerance} относительный допуск установления,
+ * {@code --maxDuration} предел модельного времени на точку (с), {@code --dt}, {@code --threads},
+ * {@code --output} CSV. Параметры системы — как в batch.
+ */
+public class SweepRunner {
+
+    private final CommandLine commandLine;
+
+    public SweepRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        SimulationParameters params = commandLine.getSimulationParameters();
+        if (!commandLine.has("driveAmplitude") && params.getDriveAmplitude() == 0) {
+            params.setDriveAmplitude(0.01);
+        }
+        Channel channel = Channel.find(commandLine.getString("channel", "springLength"));
+        if (channel == null) {
+            throw new IllegalArgumentException("Неизвестный канал: " + commandLine.getString("channel", ""));
+        }
+        FrequencySweep sweep = new FrequencySweep(params, channel,
+                commandLine.getDouble("from", 0.3), commandLine.getDouble("to", 3.0),
+                commandLine.getInt("points", 41))
+            .setIntegration(commandLine.getDouble("dt", 0.001), commandLine.getDouble("maxDuration", 600))
+            .setConvergence(commandLine.getInt("window", 10), commandLine.getDouble("tolerance", 1e-3))
+            .setParallelism(commandLine.getInt("threads", Runtime.getRuntime().availableProcessors()));
+
+        long startNanos = System.nanoTime();
+        sweep.setPointListener((index, point) -> System.err.printf(Locale.US,
+            "  f=%.4f Гц: размах %.6g, %s за %.1f с%n", point.getFrequency(), point.getAmplitude(),
+            point.isConverged() ? "установился" : "НЕ установился", point.getSettlingTime()));
+        sweep.compute();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        try (Writer writer = open(commandLine.getString("output", "-"))) {
+            writer.write("frequency,amplitude,fundamental,phase,settlingTime,converged\n");
+            for (int i = 0; i < sweep.getPointCount(); i++) {
+                FrequencySweep.Point point = sweep.getPoint(i);
+                writer.write(point.getFrequency() + "," + point.getAmplitude() + "," + point.getFundamental()
+                    + "," + point.getPhase() + "," + point.getSettlingTime() + "," + point.isConverged() + "\n");
+            }
+        }
+
+        double simulated = 0;
+        long steps = 0;
+        int converged = 0;
+        for (int i = 0; i < sweep.getPointCount(); i++) {
+            FrequencySweep.Point point = sweep.getPoint(i);
+            simulated += point.getSettlingTime();
+            steps += point.getSteps();
+            converged += point.isConverged() ? 1 : 0;
+        }
+        double worstCase = sweep.getPointCount() * sweep.getMaxDuration();
+        System.err.printf(Locale.US,
+            "Точек: %d (установились %d), модельное время %.0f с из %.0f с при фиксированной длительности (%.1f%%), "
+                + "расчёт: %.3f с (%.2f млн шагов/с)%n",
+            sweep.getPointCount(), converged, simulated, worstCase, 100 * simulated / worstCase,
+            seconds, steps / seconds / 1e6);
+        return 0;
+    }
+
+    private static Writer open(String output) throws IOException {
+        return "-".equals(output)
+            ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+            : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.cli;
+
+import com.example.analysis.QuantileSketch;
+import com.example.controller.PhysicsController;
+import com.example.model.Channel;
+import com.example.telemetry.TelemetryClient;
+import com.example.telemetry.TelemetryServer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Тестовый клиент телеметрии: принимает записи и измеряет задержку от снятия состояния
+ * на сервере до получения клиентом. Моменты сравниваются по {@link System#nanoTime()},
+ * поэтому задержка верна, только если клиент и сервер работают на одном компьютере.
+ *
+ * Параметры: {@code --host}, {@code --port}, {@code --channels}, {@code --decimation},
+ * {@code --seconds} время приёма, {@code --slow} пауза (мс) после каждой записи для проверки
+ * медленного клиента, {@code --local} запустить сервер и симуляцию в этом же процессе.
+ */
+public class TelemetryRunner {
+
+    private final CommandLine commandLine;
+
+    public TelemetryRunner(CommandLine commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    public int run() throws IOException {
+        List<Channel> channels = Arrays.asList(
+            BatchRunner.parseChannels(commandLine.getString("channels", "time,angle,springLength")));
+        int decimation = commandLine.getInt("decimation", 1);
+        double seconds = commandLine.getDouble("seconds", 10);
+        long slowMillis = commandLine.getLong("slow", 0);
+
+        PhysicsController controller = null;
+        TelemetryServer server = null;
+        int port = commandLine.getInt("port", 4711);
+        if (commandLine.has("local")) {
+            controller = ServeRunner.startController(commandLine);
+            server = new TelemetryServer("127.0.0.1", 0);
+            controller.addStepListener(server);
+            port = server.getPort();
+        }
+        QuantileSketch latency = new QuantileSketch(256, 1);
+        long records = 0;
+        double lastTime = Double.NaN;
+        try (TelemetryClient client = new TelemetryClient(commandLine.getString("host", "127.0.0.1"), port)) {
+            client.subscribe(channels, decimation);
+            double[] values = new double[channels.size()];
+            long startNanos = System.nanoTime();
+            long deadline = startNanos + (long) (seconds * 1e9);
+            while (System.nanoTime() < deadline) {
+                client.next(values);
+                latency.add((System.nanoTime() - client.getLastNanos()) / 1e6);
+                records++;
+                int timeIndex = client.getChannels().indexOf(Channel.TIME);
+                if (timeIndex >= 0) {
+                    lastTime = values[timeIndex];
+                }
+                if (slowMillis > 0) {
+                    Thread.sleep(slowMillis);
+                }
+            }
+            double elapsed = (System.nanoTime() - startNanos) / 1e9;
+            double[] q = new double[4];
+            latency.quantiles(new double[] {0.5, 0.9, 0.99, 1.0}, q);
+            System.out.printf(Locale.US, "records=%d rate=%.1f lastTime=%s dropped=%d%n",
+                records, records / elapsed, lastTime, client.getDropped());
+            System.err.printf(Locale.US,
+                "Каналы: %s, прореживание: %d; задержка (мс): медиана %.3f, 90%% %.3f, 99%% %.3f, макс %.3f%n",
+                client.getChannels(), client.getDecimation(), q[0], q[1], q[2], q[3]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+            if (controller != null) {
+                controller.shutdown();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.cli;
+
+import com.example.codec.TrajectoryDecoder;
+import com.example.codec.TrajectoryEncoder;
+import com.example.model.Channel;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Потоковое чтение двоичного и сжатого форматов {@link TrajectoryWriter} по строкам.
+ * Сжатые блоки читаются и декодируются целиком, буферы переиспользуются между блоками.
+ */
+public final class TrajectoryReader implements Closeable {
+
+    private final ReadableByteChannel in;
+    private final Channel[] channels;
+    private final boolean compressed;
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private TrajectoryDecoder decoder;
+    private int blockRow;
+    private long rowsRead;
+
+    private TrajectoryReader(ReadableByteChannel in) throws IOException {
+        this.in = in;
+        buffer.flip();
+        int magic = readHeaderInt();
+        if (magic != TrajectoryWriter.MAGIC && magic != TrajectoryWriter.COMPRESSED_MAGIC) {
+            throw new IOException("Файл не является двоичной траекторией");
+        }
+        compressed = magic == TrajectoryWriter.COMPRESSED_MAGIC;
+        int count = readHeaderInt();
+        if (count < 1 || count > Channel.values().length) {
+            throw new IOException("Неверное число каналов: " + count);
+        }
+        channels = new Channel[count];
+        for (int i = 0; i < count; i++) {
+            fill(Short.BYTES);
+            byte[] name = new byte[buffer.getShort()];
+            fill(name.length);
+            buffer.get(name);
+            String key = new String(name, StandardCharsets.UTF_8);
+            channels[i] = Channel.find(key);
+            if (channels[i] == null) {
+                throw new IOException("Неизвестный канал в файле: " + key);
+            }
+        }
+        if (compressed) {
+            decoder = new TrajectoryDecoder(count);
+        }
+    }
+
+    public static TrajectoryReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file);
+        try {
+            return new TrajectoryReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Channel[] getChannels() { return channels.clone(); }
+    public boolean isCompressed() { return compressed; }
+    public long getRowsRead() { return rowsRead; }
+
+    /**
+     * Прочитать следующую строку.
+     *
+     * @return false в конце файла
+     */
+    public boolean next(double[] values) throws IOException {
+        if (compressed) {
+            if (blockRow == decoder.getRows()) {
+                if (!fillOrEnd(TrajectoryEncoder.BLOCK_HEADER_BYTES)) {
+                    return false;
+                }
+                long words = buffer.getInt(buffer.position() + Integer.BYTES) & 0xFFFFFFFFL;
+                fill((int) Math.min(Integer.MAX_VALUE, TrajectoryEncoder.BLOCK_HEADER_BYTES + words * Long.BYTES));
+                try {
+                    decoder.decode(buffer);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+                blockRow = 0;
+            }
+            decoder.getRow(blockRow++, values);
+        } else {
+            if (!fillOrEnd(channels.length * Double.BYTES)) {
+                return false;
+            }
+            for (int i = 0; i < channels.length; i++) {
+                values[i] = buffer.getDouble();
+            }
+        }
+        rowsRead++;
+        return true;
+    }
+
+    private int readHeaderInt() throws IOException {
+        fill(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    private void fill(int bytes) throws IOException {
+        if (!fillOrEnd(bytes)) {
+            throw new EOFException("Файл траектории обрезан");
+        }
+    }
+
+    /** Дочитать в буфер не меньше {@code bytes} байт; false, если файл кончился ровно на границе. */
+    private boolean fillOrEnd(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2))
+                .order(ByteOrder.LITTLE_ENDIAN).put(buffer).flip();
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (in.read(buffer) < 0) {
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    throw new EOFException("Файл траектории обрезан");
+                }
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.cli;
+
+import com.example.codec.TrajectoryEncoder;
+import com.example.model.Channel;
+import com.example.model.PhysicsState;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Потоковая запись выбранных каналов в CSV, двоичном или сжатом виде через буферизованный NIO-канал.
+ *
+ * Двоичный формат: заголовок {@code int MAGIC, int число каналов, для каждого канала
+ * short длина имени + имя в UTF-8}, затем строки из double в порядке little-endian.
+ * Сжатый формат: такой же заголовок с {@link #COMPRESSED_MAGIC}, затем блоки
+ * {@link TrajectoryEncoder} по {@link #COMPRESSED_BLOCK_ROWS} строк (little-endian).
+ * Оба двоичных формата читает {@link TrajectoryReader}.
+ */
+public abstract class TrajectoryWriter implements Closeable {
+
+    public static final int MAGIC = 0x5053494D; // "PSIM"
+    public static final int COMPRESSED_MAGIC = 0x5053495A; // "PSIZ"
+    public static final int COMPRESSED_BLOCK_ROWS = 1024;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    protected final Channel[] channels;
+    protected final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final WritableByteChannel out;
+    private final double[] row;
+    private long bytesWritten;
+    private long rowsWritten;
+
+    protected TrajectoryWriter(WritableByteChannel out, Channel[] channels) {
+        this.out = out;
+        this.channels = channels;
+        this.row = new double[channels.length];
+    }
+
+    /**
+     * @param format {@code csv}, {@code binary} или {@code compressed}
+     * @param target путь к файлу или {@code -} для стандартного вывода
+     */
+    public static TrajectoryWriter open(String format, String target, Channel[] channels) throws IOException {
+        WritableByteChannel out = "-".equals(target)
+            ? Channels.newChannel(new FileOutputStream(FileDescriptor.out))
+            : FileChannel.open(Path.of(target), StandardOpenOption.CREATE,
+                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        TrajectoryWriter writer = switch (format) {
+            case "csv" -> new Csv(out, channels);
+            case "binary" -> new Binary(out, channels, MAGIC);
+            case "compressed" -> new Compressed(out, channels);
+            default -> throw new IllegalArgumentException("Неизвестный формат: " + format);
+        };
+        writer.writeHeader();
+        return writer;
+    }
+
+    protected abstract void writeHeader() throws IOException;
+
+    /** @param values значения каналов в порядке {@link #channels} */
+    protected abstract void writeRow(double[] values) throws IOException;
+
+    public void write(PhysicsState state) throws IOException {
+        for (int i = 0; i < channels.length; i++) {
+            row[i] = channels[i].read(state);
+        }
+        write(row);
+    }
+
+    public void write(double[] values) throws IOException {
+        writeRow(values);
+        rowsWritten++;
+    }
+
+    /** Гарантировать место в буфере, при необходимости сбросив его в канал. */
+    protected void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    public void flush() throws IOException {
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    /** Записать данные в канал мимо буфера, сохранив порядок с уже буферизованными. */
+    protected void writeDirect(ByteBuffer data) throws IOException {
+        drain();
+        writeFully(data);
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            bytesWritten += out.write(data);
+        }
+    }
+
+    public long getBytesWritten() { return bytesWritten; }
+    public long getRowsWritten() { return rowsWritten; }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private static class Csv extends TrajectoryWriter {
+        private final StringBuilder line = new StringBuilder(256);
+
+        Csv(WritableByteChannel out, Channel[] channels) {
+            super(out, channels);
+        }
+
+        @Override
+        protected void writeHeader() throws IOException {
+            line.setLength(0);
+            for (int i = 0; i < channels.length; i++) {
+                if (i > 0) line.append(',');
+                line.append(channels[i].getKey());
+            }
+            line.append('\n');
+            putLine();
+        }
+
+        @Override
+        protected void writeRow(double[] values) throws IOException {
+            line.setLength(0);
+            for (int i = 0; i < channels.length; i++) {
+                if (i > 0) line.append(',');
+                line.append(values[i]);
+            }
+            line.append('\n');
+            putLine();
+        }
+
+        private void putLine() throws IOException {
+            ensureCapacity(line.length());
+            for (int i = 0; i < line.length(); i++) {
+                buffer.put((byte) line.charAt(i)); // Только ASCII: имена каналов и числа
+            }
+        }
+    }
+
+    private static class Binary extends TrajectoryWriter {
+        private final int magic;
+
+        Binary(WritableByteChannel out, Channel[] channels, int magic) {
+            super(out, channels);
+            this.magic = magic;
+        }
+
+        @Override
+        protected void writeHeader() throws IOException {
+            ensureCapacity(8);
+            buffer.putInt(magic);
+            buffer.putInt(channels.length);
+            for (Channel channel : channels) {
+                byte[] name = channel.getKey().getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(2 + name.length);
+                buffer.putShort((short) name.length);
+                buffer.put(name);
+            }
+        }
+
+        @Override
+        protected void writeRow(double[] values) throws IOException {
+            ensureCapacity(channels.length * Double.BYTES);
+            for (int i = 0; i < channels.length; i++) {
+                buffer.putDouble(values[i]);
+            }
+        }
+    }
+
+    /** Заголовок двоичного формата, строки копятся в блок и сжимаются целиком. */
+    private static class Compressed extends Binary {
+        private final TrajectoryEncoder encoder;
+        private final ByteBuffer block;
+
+        Compressed(WritableByteChannel out, Channel[] channels) {
+            super(out, channels, COMPRESSED_MAGIC);
+            encoder = new TrajectoryEncoder(channels.length, COMPRESSED_BLOCK_ROWS);
+            block = ByteBuffer.allocateDirect(encoder.maxBlockBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        @Override
+        protected void writeRow(double[] values) throws IOException {
+            encoder.append(values);
+            if (encoder.isFull()) {
+                writeBlock();
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            block.clear();
+            encoder.encode(block);
+            writeDirect(block.flip());
+        }
+
+        /** Неполный блок записывается как есть: частые flush уменьшают степень сжатия. */
+        @Override
+        public void flush() throws IOException {
+            if (encoder.getRows() > 0) {
+                writeBlock();
+            }
+            super.flush();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.codec;
+
+/** Чтение битового потока, записанного {@link BitWriter}. */
+public final class BitReader {
+
+    private long[] words;
+    private int limit;
+    private int wordIndex;
+    private int used;       // Прочитано битов текущего слова
+
+    /** Начать чтение первых {@code count} слов массива. */
+    public void reset(long[] words, int count) {
+        this.words = words;
+        this.limit = count;
+        wordIndex = 0;
+        used = 0;
+    }
+
+    public boolean readBit() {
+        return readBits(1) != 0;
+    }
+
+    /** @param count число битов (1..64) */
+    public long readBits(int count) {
+        if (wordIndex >= limit) {
+            throw new IllegalStateException("Битовый поток закончился");
+        }
+        long current = words[wordIndex];
+        int free = 64 - used;
+        if (count < free) {
+            long value = (current << used) >>> (64 - count);
+            used += count;
+            return value;
+        }
+        int rest = count - free;
+        long high = (current << used) >>> used;
+        wordIndex++;
+        used = rest;
+        if (rest == 0) {
+            return high;
+        }
+        if (wordIndex >= limit) {
+            throw new IllegalStateException("Битовый поток закончился");
+        }
+        return (high << rest) | (words[wordIndex] >>> (64 - rest));
+    }
+}
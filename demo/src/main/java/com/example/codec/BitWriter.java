@@ -0,0 +1,62 @@
+package com.example.codec;
+
+/**
+ * Запись битового потока в массив 64-битных слов, старшие биты слова заполняются первыми.
+ * Массив выделяется один раз под наибольший блок и переиспользуется после {@link #reset()}.
+ */
+public final class BitWriter {
+
+    private final long[] words;
+    private int wordIndex;
+    private int used;       // Занято битов в текущем слове
+    private long current;
+
+    public BitWriter(int capacityBits) {
+        words = new long[(capacityBits + 63) / 64];
+    }
+
+    public void reset() {
+        wordIndex = 0;
+        used = 0;
+        current = 0;
+    }
+
+    public void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /** Записать младшие {@code count} битов значения (1..64), начиная со старшего. */
+    public void writeBits(long value, int count) {
+        if (count < 64) {
+            value &= (1L << count) - 1;
+        }
+        int free = 64 - used;
+        if (count < free) {
+            current |= value << (free - count);
+            used += count;
+            return;
+        }
+        int rest = count - free;
+        words[wordIndex++] = current | (value >>> rest);
+        current = rest == 0 ? 0 : value << (64 - rest);
+        used = rest;
+    }
+
+    public long bitLength() {
+        return (long) wordIndex * 64 + used;
+    }
+
+    /** Дописать неполное слово. @return число слов в {@link #words()} */
+    public int finish() {
+        if (used > 0) {
+            words[wordIndex++] = current;
+            current = 0;
+            used = 0;
+        }
+        return wordIndex;
+    }
+
+    public long[] words() {
+        return words;
+    }
+}
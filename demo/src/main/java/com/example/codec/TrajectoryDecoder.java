@@ -0,0 +1,91 @@
+package com.example.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Декодирование блоков {@link TrajectoryEncoder}. Буферы растут до размера наибольшего
+ * встреченного блока и дальше переиспользуются.
+ */
+public final class TrajectoryDecoder {
+
+    private final int channels;
+    private final BitReader bits = new BitReader();
+    private long[] words = new long[0];
+    private double[] values = new double[0];   // По столбцам: values[c · rows + r]
+    private int rows;
+
+    public TrajectoryDecoder(int channels) {
+        this.channels = channels;
+    }
+
+    /**
+     * Прочитать блок с текущей позиции буфера.
+     *
+     * @return число строк блока
+     * @throws IllegalArgumentException если данные повреждены
+     */
+    public int decode(ByteBuffer in) {
+        int blockRows = in.getInt();
+        int wordCount = in.getInt();
+        if (blockRows < 1 || wordCount < 0 || (long) wordCount * Long.BYTES > in.remaining()) {
+            throw new IllegalArgumentException("Повреждённый блок траектории");
+        }
+        if (words.length < wordCount) {
+            words = new long[wordCount];
+        }
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = in.getLong();
+        }
+        if (values.length < blockRows * channels) {
+            values = new double[blockRows * channels];
+        }
+        rows = blockRows;
+        bits.reset(words, wordCount);
+        try {
+            for (int c = 0; c < channels; c++) {
+                decodeColumn(c * rows);
+            }
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Повреждённый блок траектории", e);
+        }
+        return rows;
+    }
+
+    private void decodeColumn(int base) {
+        int order = (int) bits.readBits(2);
+        if (order > TrajectoryEncoder.MAX_ORDER) {
+            throw new IllegalStateException("Неизвестный порядок предсказания " + order);
+        }
+        values[base] = Double.longBitsToDouble(bits.readBits(64));
+        int windowLeading = 0, windowLength = 0;
+        for (int r = 1; r < rows; r++) {
+            long residual = 0;
+            if (bits.readBit()) {
+                if (bits.readBit()) {
+                    windowLeading = (int) bits.readBits(6);
+                    windowLength = (int) bits.readBits(6) + 1;
+                    if (windowLeading + windowLength > 64) {
+                        throw new IllegalStateException("Неверное окно значащих битов");
+                    }
+                }
+                if (windowLength == 0) {
+                    throw new IllegalStateException("Окно значащих битов не задано");
+                }
+                residual = bits.readBits(windowLength) << (64 - windowLeading - windowLength);
+            }
+            values[base + r] = Double.longBitsToDouble(residual ^ TrajectoryEncoder.predict(values, base, r, order));
+        }
+    }
+
+    public int getRows() { return rows; }
+
+    public double get(int row, int channel) {
+        return values[channel * rows + row];
+    }
+
+    public void getRow(int row, double[] out) {
+        for (int c = 0; c < channels; c++) {
+            out[c] = values[c * rows + row];
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Блочное сжатие траекторий без потерь в духе Gorilla (Facebook TSDB).
+ *
+ * Строки накапливаются в блок до {@code blockRows} строк и кодируются по столбцам. Каждое
+ * значение предсказывается по предыдущим значениям своего столбца полиномиальной
+ * экстраполяцией порядка 0–3 (0 — повтор предыдущего значения, как в Gorilla); порядок
+ * выбирается для каждого столбца блока по оценке длины кода. Записывается XOR битов значения с битами предсказания:
+ * <ul>
+ *   <li>{@code 0} — предсказание точное;</li>
+ *   <li>{@code 10} + значащие биты — они умещаются в окно предыдущего значения;</li>
+ *   <li>{@code 11} + 6 битов числа ведущих нулей + 6 битов (длина − 1) + значащие биты.</li>
+ * </ul>
+ * Для времени с постоянным шагом линейная экстраполяция — это дельта от дельты: остаток
+ * равен нулю или нескольким младшим битам ошибки округления.
+ *
+ * Блок: {@code int строк, int слов}, затем слова битового потока (порядок байтов — буфера).
+ * В потоке столбца: 2 бита порядка, первое значение целиком, далее коды остатков.
+ * Все буферы выделяются в конструкторе, кодирование блока не создаёт объектов.
+ */
+public final class TrajectoryEncoder {
+
+    public static final int BLOCK_HEADER_BYTES = 2 * Integer.BYTES;
+    static final int MAX_ORDER = 3;
+    private static final int ORDER_SAMPLING = 4;
+
+    private final int channels;
+    private final int blockRows;
+    private final double[] values;   // По столбцам: values[c · blockRows + r]
+    private final BitWriter bits;
+    private int rows;
+
+    private int windowLeading;       // Окно значащих битов предыдущего кода
+    private int windowTrailing;
+
+    public TrajectoryEncoder(int channels, int blockRows) {
+        if (channels < 1 || blockRows < 1) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным");
+        }
+        this.channels = channels;
+        this.blockRows = blockRows;
+        values = new double[channels * blockRows];
+        bits = new BitWriter(maxBlockBits());
+    }
+
+    private int maxBlockBits() {
+        return channels * (2 + 64 + (blockRows - 1) * (2 + 6 + 6 + 64));
+    }
+
+    /** @return наибольший размер закодированного блока с заголовком (байт) */
+    public int maxBlockBytes() {
+        return BLOCK_HEADER_BYTES + (maxBlockBits() + 63) / 64 * Long.BYTES;
+    }
+
+    /** Добавить строку из {@code channels} значений; при заполненном блоке сначала вызовите {@link #encode}. */
+    public void append(double[] row) {
+        if (rows == blockRows) {
+            throw new IllegalStateException("Блок заполнен");
+        }
+        for (int c = 0; c < channels; c++) {
+            values[c * blockRows + rows] = row[c];
+        }
+        rows++;
+    }
+
+    public int getRows() { return rows; }
+    public boolean isFull() { return rows == blockRows; }
+    public int getChannels() { return channels; }
+
+    /**
+     * Закодировать накопленные строки в буфер и начать новый блок.
+     * В буфере должно быть не меньше {@link #maxBlockBytes()} свободных байт.
+     *
+     * @return записано байт (0, если строк не было)
+     */
+    public int encode(ByteBuffer out) {
+        if (rows == 0) {
+            return 0;
+        }
+        bits.reset();
+        for (int c = 0; c < channels; c++) {
+            encodeColumn(c * blockRows);
+        }
+        int wordCount = bits.finish();
+        long[] words = bits.words();
+        int start = out.position();
+        out.putInt(rows);
+        out.putInt(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            out.putLong(words[i]);
+        }
+        rows = 0;
+        return out.position() - start;
+    }
+
+    private void encodeColumn(int base) {
+        int order = chooseOrder(base);
+        bits.writeBits(order, 2);
+        bits.writeBits(Double.doubleToRawLongBits(values[base]), 64);
+        windowLeading = -1;
+        for (int r = 1; r < rows; r++) {
+            long residual = Double.doubleToRawLongBits(values[base + r]) ^ predict(values, base, r, order);
+            writeResidual(residual);
+        }
+    }
+
+    /** Порядок предсказания с наименьшим числом значащих битов остатков (по каждой ORDER_SAMPLING-й строке). */
+    private int chooseOrder(int base) {
+        int best = 0;
+        long bestCost = Long.MAX_VALUE;
+        for (int order = 0; order <= MAX_ORDER && order < rows; order++) {
+            long cost = 0;
+            for (int r = 1; r < rows; r += ORDER_SAMPLING) {
+                long residual = Double.doubleToRawLongBits(values[base + r]) ^ predict(values, base, r, order);
+                if (residual != 0) {
+                    cost += 64 - Long.numberOfLeadingZeros(residual) - Long.numberOfTrailingZeros(residual);
+                }
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = order;
+            }
+        }
+        return best;
+    }
+
+    /** Биты предсказания значения {@code row} по предыдущим значениям столбца. */
+    static long predict(double[] values, int base, int row, int order) {
+        int i = base + row;
+        return switch (Math.min(order, row - 1)) {
+            case 0 -> Double.doubleToRawLongBits(values[i - 1]);
+            case 1 -> Double.doubleToRawLongBits(2 * values[i - 1] - values[i - 2]);
+            case 2 -> Double.doubleToRawLongBits(3 * (values[i - 1] - values[i - 2]) + values[i - 3]);
+            default -> Double.doubleToRawLongBits(4 * (values[i - 1] + values[i - 3]) - 6 * values[i - 2] - values[i - 4]);
+        };
+    }
+
+    private void writeResidual(long residual) {
+        if (residual == 0) {
+            bits.writeBits(0, 1);
+            return;
+        }
+        int leading = Long.numberOfLeadingZeros(residual);
+        int trailing = Long.numberOfTrailingZeros(residual);
+        if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+            bits.writeBits(0b10, 2);
+            bits.writeBits(residual >>> windowTrailing, 64 - windowLeading - windowTrailing);
+            return;
+        }
+        int length = 64 - leading - trailing;
+        bits.writeBits(0b11, 2);
+        bits.writeBits(leading, 6);
+        bits.writeBits(length - 1, 6);
+        bits.writeBits(residual >>> trailing, length);
+        windowLeading = leading;
+        windowTrailing = trailing;
+    }
+}
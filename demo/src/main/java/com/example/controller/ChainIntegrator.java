@@ -0,0 +1,334 @@
+package com.example.controller;
+
+import com.example.model.PhysicsState;
+import com.example.model.SimulationCheckpoint;
+import com.example.model.SimulationParameters;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Цепочка из N грузиков, соединённых пружинами и подвешенных к неподвижной точке.
+ * Все грузики и пружины одинаковы (m, k, R0 из параметров), затухание вязкое: -c·v.
+ *
+ * Состояние хранится в декартовых координатах по компонентам (x, y, vx, vy — отдельные
+ * массивы), шаг РК4 выполняется по стадиям: на каждой стадии силы в блоках тел
+ * считаются независимо, а при большом N блоки раздаются пулу ForkJoin.
+ * При N = 1 расчёт выполняет {@link PendulumIntegrator} в полярных координатах,
+ * в том числе с его ограничением длины пружины. Колеблющийся подвес учитывается,
+ * как в {@link PendulumIntegrator}: заменой g на g + A·ω²·cos(φ), где фаза φ накапливается по шагам.
+ */
+public class ChainIntegrator implements AutoCloseable {
+
+    /** Минимум тел на поток, при котором стадия считается параллельно */
+    public static final int PARALLEL_THRESHOLD = 2048;
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final int X = 0, Y = 1, VX = 2, VY = 3;
+
+    private final int bodies;
+    private final PendulumIntegrator single;
+    private SimulationParameters parameters;
+    private double m, k, R0, g, c;
+    private double driveAcceleration, driveOmega;
+    private double drivePhase;
+
+    private double time;
+    private long steps;
+    private final double[][] state;   // {x[], y[], vx[], vy[]}
+    private final double[][] stageA;  // Вход стадий 2 и 4
+    private final double[][] stageB;  // Вход стадии 3
+    private final double[][] sum;     // k1 + 2·k2 + 2·k3 + k4
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool pool;
+
+    public ChainIntegrator(SimulationParameters parameters, int bodies) {
+        if (bodies < 1) {
+            throw new IllegalArgumentException("Число тел должно быть положительным: " + bodies);
+        }
+        this.bodies = bodies;
+        if (bodies == 1) {
+            single = new PendulumIntegrator(parameters);
+            state = stageA = stageB = sum = null;
+        } else {
+            single = null;
+            state = new double[4][bodies];
+            stageA = new double[4][bodies];
+            stageB = new double[4][bodies];
+            sum = new double[4][bodies];
+        }
+        setParameters(parameters);
+        reset();
+    }
+
+    /** @param parallelism число потоков для расчёта сил (1 — без пула) */
+    public ChainIntegrator setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        close();
+        return this;
+    }
+
+    /** Заменить параметры без сброса текущего состояния. */
+    public void setParameters(SimulationParameters params) {
+        this.parameters = new SimulationParameters(params);
+        m = parameters.getMass();
+        k = parameters.getSpringConstant();
+        R0 = parameters.getNaturalLength();
+        g = parameters.getGravity();
+        c = parameters.getDamping();
+        driveAcceleration = parameters.getDriveAcceleration();
+        driveOmega = 2 * Math.PI * parameters.getDriveFrequency();
+        if (single != null) {
+            single.setParameters(params);
+        }
+    }
+
+    /** Начальное состояние: цепочка вытянута под начальным углом, пружины начальной длины. */
+    public void reset() {
+        time = 0;
+        steps = 0;
+        drivePhase = 0;
+        if (single != null) {
+            single.reset();
+            return;
+        }
+        double length = parameters.getInitialLength();
+        double sin = Math.sin(parameters.getInitialAngle());
+        double cos = Math.cos(parameters.getInitialAngle());
+        for (int i = 0; i < bodies; i++) {
+            state[X][i] = (i + 1) * length * sin;
+            state[Y][i] = (i + 1) * length * cos;
+            state[VX][i] = 0;
+            state[VY][i] = 0;
+        }
+    }
+
+    public void step(double dt) {
+        if (single != null) {
+            single.step(dt);
+            time = single.getTime();
+            steps = single.getSteps();
+            return;
+        }
+        double phaseEnd = drivePhase + driveOmega * dt;
+        double gMiddle = gravityAt(drivePhase + driveOmega * (dt / 2));
+        stage(state, stageA, 0, dt / 2, gravityAt(drivePhase));
+        stage(stageA, stageB, 2, dt / 2, gMiddle);
+        stage(stageB, stageA, 2, dt, gMiddle);
+        stage(stageA, null, 1, dt / 6, gravityAt(phaseEnd));
+        time += dt;
+        steps++;
+        drivePhase = PendulumIntegrator.wrapPhase(phaseEnd);
+    }
+
+    private double gravityAt(double phase) {
+        return driveAcceleration == 0 ? g : g + driveAcceleration * Math.cos(phase);
+    }
+
+    /**
+     * Одна стадия РК4 по всем телам.
+     *
+     * @param in     состояние, в котором вычисляются производные
+     * @param out    вход следующей стадии {@code state + h·k} или null для последней стадии
+     * @param weight вес производных в сумме (0 — сумма начинается заново)
+     * @param h      шаг до следующей стадии; в последней стадии — dt/6
+     * @param g      ускорение свободного падения в момент стадии
+     */
+    private void stage(double[][] in, double[][] out, int weight, double h, double g) {
+        int threads = Math.min(parallelism, bodies / PARALLEL_THRESHOLD);
+        if (threads <= 1) {
+            stage(in, out, weight, h, g, 0, bodies);
+            return;
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        pool.invoke(new StageTask(in, out, weight, h, g, 0, bodies));
+    }
+
+    private void stage(double[][] in, double[][] out, int weight, double h, double g, int from, int to) {
+        double[] x = in[X], y = in[Y], vx = in[VX], vy = in[VY];
+        double[] sx = sum[X], sy = sum[Y], svx = sum[VX], svy = sum[VY];
+        double[] px = state[X], py = state[Y], pvx = state[VX], pvy = state[VY];
+        double stiffness = k / m;
+        double friction = c / m;
+        int last = bodies - 1;
+
+        // Натяжение верхней пружины тела from; дальше переносится от тела к телу
+        double upperX, upperY;
+        {
+            double ax = from == 0 ? 0 : x[from - 1];
+            double ay = from == 0 ? 0 : y[from - 1];
+            double dx = x[from] - ax, dy = y[from] - ay;
+            double length = Math.sqrt(dx * dx + dy * dy);
+            double tension = length > 0 ? stiffness * (length - R0) / length : 0;
+            upperX = tension * dx;
+            upperY = tension * dy;
+        }
+        for (int i = from; i < to; i++) {
+            double lowerX = 0, lowerY = 0;
+            if (i < last) {
+                double dx = x[i + 1] - x[i], dy = y[i + 1] - y[i];
+                double length = Math.sqrt(dx * dx + dy * dy);
+                double tension = length > 0 ? stiffness * (length - R0) / length : 0;
+                lowerX = tension * dx;
+                lowerY = tension * dy;
+            }
+            double dvx = lowerX - upperX - friction * vx[i];
+            double dvy = lowerY - upperY + g - friction * vy[i];
+            double dx = vx[i];
+            double dy = vy[i];
+
+            if (weight == 0) {
+                sx[i] = dx; sy[i] = dy; svx[i] = dvx; svy[i] = dvy;
+            } else {
+                sx[i] += dx * weight; sy[i] += dy * weight; svx[i] += dvx * weight; svy[i] += dvy * weight;
+            }
+            if (out != null) {
+                out[X][i] = px[i] + dx * h;
+                out[Y][i] = py[i] + dy * h;
+                out[VX][i] = pvx[i] + dvx * h;
+                out[VY][i] = pvy[i] + dvy * h;
+            } else {
+                px[i] += sx[i] * h;
+                py[i] += sy[i] * h;
+                pvx[i] += svx[i] * h;
+                pvy[i] += svy[i] * h;
+            }
+            upperX = lowerX;
+            upperY = lowerY;
+        }
+    }
+
+    /** Блок тел стадии; делится пополам до {@link #BLOCK_SIZE}. */
+    private class StageTask extends RecursiveAction {
+        private final double[][] in, out;
+        private final int weight;
+        private final double h, g;
+        private final int from, to;
+
+        StageTask(double[][] in, double[][] out, int weight, double h, double g, int from, int to) {
+            this.in = in;
+            this.out = out;
+            this.weight = weight;
+            this.h = h;
+            this.g = g;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BLOCK_SIZE) {
+                stage(in, out, weight, h, g, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StageTask(in, out, weight, h, g, from, middle),
+                      new StageTask(in, out, weight, h, g, middle, to));
+        }
+    }
+
+    /** @param out координаты тел {x0, y0, x1, y1, ...} (м, ось y направлена вниз) */
+    public void getPositions(double[] out) {
+        if (single != null) {
+            double R = single.getSpringLength();
+            out[0] = R * Math.sin(single.getAngle());
+            out[1] = R * Math.cos(single.getAngle());
+            return;
+        }
+        double[] x = state[X], y = state[Y];
+        for (int i = 0; i < bodies; i++) {
+            out[2 * i] = x[i];
+            out[2 * i + 1] = y[i];
+        }
+    }
+
+    /**
+     * Заполнить каналы состояния по последнему телу цепочки в полярных координатах
+     * относительно точки подвеса; сила пружины — для нижней пружины.
+     */
+    public void fillState(PhysicsState target) {
+        if (single != null) {
+            single.fillState(target);
+            return;
+        }
+        int i = bodies - 1;
+        double x = state[X][i], y = state[Y][i], vx = state[VX][i], vy = state[VY][i];
+        double R = Math.sqrt(x * x + y * y);
+        double dx = x - state[X][i - 1], dy = y - state[Y][i - 1];
+        double spring = Math.sqrt(dx * dx + dy * dy);
+        double tension = spring > 0 ? k * (spring - R0) / spring : 0;
+        double ax = (-tension * dx - c * vx) / m;
+        double ay = (-tension * dy - c * vy) / m + gravityAt(drivePhase);
+
+        target.setTime(time);
+        target.setAngle(Math.atan2(x, y));
+        target.setAngularVelocity(R > 0 ? (y * vx - x * vy) / (R * R) : 0);
+        target.setSpringLength(R);
+        target.setRadialVelocity(R > 0 ? (x * vx + y * vy) / R : 0);
+        target.setX(x);
+        target.setY(y);
+        target.setVelocity(Math.sqrt(vx * vx + vy * vy));
+        target.setSpringForce(k * (spring - R0));
+        target.setGravityForce(m * g);
+        target.setAcceleration(Math.sqrt(ax * ax + ay * ay));
+        target.setEnergy(Double.NaN);
+        target.setEnergyDrift(Double.NaN);
+        target.setClampCount(0);
+    }
+
+    /**
+     * Снимок состояния всех тел; поля R, dR, fi, dfi описывают последнее тело.
+     * @param dt шаг, с которым будет продолжен расчёт
+     */
+    public SimulationCheckpoint checkpoint(double dt) {
+        if (single != null) {
+            return single.checkpoint(dt);
+        }
+        PhysicsState last = new PhysicsState();
+        fillState(last);
+        double[] chainState = new double[4 * bodies];
+        for (int component = 0; component < 4; component++) {
+            System.arraycopy(state[component], 0, chainState, component * bodies, bodies);
+        }
+        return new SimulationCheckpoint(dt, steps, time, last.getSpringLength(), last.getRadialVelocity(),
+                                        last.getAngle(), last.getAngularVelocity(), parameters, chainState, drivePhase);
+    }
+
+    /** Восстановить состояние и параметры из контрольной точки цепочки с тем же числом тел. */
+    public void restore(SimulationCheckpoint checkpoint) {
+        if (checkpoint.getBodies() != bodies) {
+            throw new IllegalArgumentException("Контрольная точка записана для " + checkpoint.getBodies()
+                                               + " тел, а в цепочке " + bodies);
+        }
+        setParameters(checkpoint.getParameters());
+        if (single != null) {
+            single.restore(checkpoint);
+            time = single.getTime();
+            steps = single.getSteps();
+            return;
+        }
+        double[] chainState = checkpoint.getChainState();
+        for (int component = 0; component < 4; component++) {
+            System.arraycopy(chainState, component * bodies, state[component], 0, bodies);
+        }
+        time = checkpoint.getTime();
+        steps = checkpoint.getSteps();
+        drivePhase = checkpoint.getDrivePhase();
+    }
+
+    public int getBodies() { return bodies; }
+    public double getTime() { return time; }
+    public long getSteps() { return steps; }
+
+    /** Остановить пул потоков (он создаётся заново при следующем параллельном шаге). */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
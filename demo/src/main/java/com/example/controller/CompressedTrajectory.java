@@ -0,0 +1,121 @@
+package com.example.controller;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Сжатая траектория: выборки {время, R, dR/dt, fi, d(fi)/dt, фаза подвеса} через каждые
+ * {@code sampleSteps} шагов, начиная с начального состояния. Фаза нужна, чтобы продолжение
+ * с выборки шло с той же накопленной фазой, что и непрерывный расчёт. Значения хранятся побитово: каждый столбец
+ * заменяется XOR с предыдущей выборкой (у соседних выборок совпадают знак, порядок и
+ * старшие разряды мантиссы), и результат сжимается Deflate. Восстановленное состояние
+ * совпадает с рассчитанным в точности, поэтому расчёт можно продолжать с любой выборки.
+ */
+public final class CompressedTrajectory {
+
+    /** Значений на выборку: время, вектор состояния и фаза подвеса */
+    public static final int STRIDE = 6;
+
+    private final int sampleSteps;
+    private final int sampleCount;
+    private final byte[] data;
+
+    private CompressedTrajectory(int sampleSteps, int sampleCount, byte[] data) {
+        this.sampleSteps = sampleSteps;
+        this.sampleCount = sampleCount;
+        this.data = data;
+    }
+
+    /**
+     * @param samples массив по {@link #STRIDE} значений на выборку
+     * @param count число выборок
+     */
+    public static CompressedTrajectory encode(int sampleSteps, double[] samples, int count) {
+        ByteBuffer raw = ByteBuffer.allocate(count * STRIDE * Long.BYTES);
+        long[] previous = new long[STRIDE];
+        for (int s = 0; s < count; s++) {
+            for (int c = 0; c < STRIDE; c++) {
+                long bits = Double.doubleToRawLongBits(samples[s * STRIDE + c]);
+                raw.putLong(bits ^ previous[c]);
+                previous[c] = bits;
+            }
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(raw.array());
+        deflater.finish();
+        ByteBuffer compressed = ByteBuffer.allocate(raw.capacity() / 2 + 64);
+        while (!deflater.finished()) {
+            if (!compressed.hasRemaining()) {
+                compressed = ByteBuffer.allocate(compressed.capacity() * 2).put(compressed.flip());
+            }
+            compressed.position(compressed.position()
+                + deflater.deflate(compressed.array(), compressed.position(), compressed.remaining()));
+        }
+        deflater.end();
+        byte[] data = new byte[compressed.position()];
+        System.arraycopy(compressed.array(), 0, data, 0, data.length);
+        return new CompressedTrajectory(sampleSteps, count, data);
+    }
+
+    /** @return массив по {@link #STRIDE} значений на выборку */
+    public double[] decode() {
+        byte[] raw = new byte[sampleCount * STRIDE * Long.BYTES];
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        try {
+            int offset = 0;
+            while (offset < raw.length) {
+                int n = inflater.inflate(raw, offset, raw.length - offset);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("Повреждённые данные траектории");
+                }
+                offset += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Повреждённые данные траектории", e);
+        } finally {
+            inflater.end();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        double[] samples = new double[sampleCount * STRIDE];
+        long[] previous = new long[STRIDE];
+        for (int s = 0; s < sampleCount; s++) {
+            for (int c = 0; c < STRIDE; c++) {
+                long bits = buffer.getLong() ^ previous[c];
+                samples[s * STRIDE + c] = Double.longBitsToDouble(bits);
+                previous[c] = bits;
+            }
+        }
+        return samples;
+    }
+
+    public int getSampleSteps() { return sampleSteps; }
+    public int getSampleCount() { return sampleCount; }
+
+    /** @return занимаемая память (байт), по ней ограничивается размер кэша */
+    public long getByteSize() { return data.length + 32L; }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(sampleSteps);
+        out.writeInt(sampleCount);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    static CompressedTrajectory readFrom(DataInput in) throws IOException {
+        int sampleSteps = in.readInt();
+        int sampleCount = in.readInt();
+        int length = in.readInt();
+        if (sampleSteps <= 0 || sampleCount < 0 || length < 0) {
+            throw new IOException("Повреждённый файл траектории");
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return new CompressedTrajectory(sampleSteps, sampleCount, data);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.controller;
+
+import com.example.model.SimulationEvent;
+
+/**
+ * Предупреждение о недостаточной точности шага: событие {@value #DRIFT_EVENT}, когда модуль
+ * дрейфа баланса энергии {@link PendulumIntegrator#getEnergyDrift()} превышает порог.
+ * Следующее предупреждение выдаётся только после возврата дрейфа ниже половины порога
+ * или сброса, чтобы не получать событие на каждом шаге. Проверка стоит одного вычисления энергии.
+ */
+public class EnergyMonitor {
+
+    public static final String DRIFT_EVENT = "energyDrift";
+    public static final double DEFAULT_THRESHOLD = 1e-6;
+
+    private volatile double threshold;
+    private boolean alerted;
+    private double maxDrift;
+    private long alerts;
+
+    public EnergyMonitor(double threshold) {
+        setThreshold(threshold);
+    }
+
+    public void setThreshold(double threshold) {
+        if (!(threshold > 0)) {
+            throw new IllegalArgumentException("Порог дрейфа энергии должен быть положительным: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    public double getThreshold() { return threshold; }
+
+    /**
+     * Проверить текущее состояние интегратора.
+     *
+     * @return событие-предупреждение или null
+     */
+    public SimulationEvent check(PendulumIntegrator integrator) {
+        double drift = Math.abs(integrator.getEnergyDrift());
+        if (Double.isNaN(drift)) {
+            return null;
+        }
+        maxDrift = Math.max(maxDrift, drift);
+        if (alerted) {
+            alerted = drift >= threshold / 2;
+            return null;
+        }
+        if (drift <= threshold) {
+            return null;
+        }
+        alerted = true;
+        alerts++;
+        return new SimulationEvent(DRIFT_EVENT, integrator.getTime(), integrator.getSpringLength(),
+            integrator.getRadialVelocity(), integrator.getAngle(), integrator.getAngularVelocity());
+    }
+
+    /** Начать отсчёт заново (после сброса или переноса состояния интегратора). */
+    public void reset() {
+        alerted = false;
+        maxDrift = 0;
+    }
+
+    /** @return наибольший модуль дрейфа с последнего сброса */
+    public double getMaxDrift() { return maxDrift; }
+
+    /** @return число выданных предупреждений */
+    public long getAlertCount() { return alerts; }
+}
@@ -0,0 +1,101 @@
+package com.example.controller;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Расчёт ансамбля из {@link EnsembleStore}: каждый член читается из памяти один раз,
+ * интегрируется на все шаги методом РК4 по уравнениям {@link PendulumIntegrator#derivatives}
+ * и записывается обратно, поэтому хранилище проходится последовательно. Блоки членов
+ * считаются параллельно в пуле ForkJoin. Результат совпадает с {@link PendulumIntegrator}
+ * побитово. Каждый вызов {@link #advance} окружён {@link EnsembleStore#beginUpdate} и
+ * {@link EnsembleStore#endUpdate}, поэтому файл хранилища после него — целая контрольная точка.
+ */
+public class EnsembleIntegrator {
+
+    private static final int BLOCK_MEMBERS = 4096;
+    private static final int MEMBER_BYTES = EnsembleStore.STRIDE * Double.BYTES;
+
+    private final EnsembleStore store;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public EnsembleIntegrator(EnsembleStore store) {
+        this.store = store;
+    }
+
+    public EnsembleIntegrator setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /** Продвинуть все члены ансамбля на {@code steps} шагов {@code dt}. */
+    public void advance(double dt, long steps) {
+        store.beginUpdate();
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int s = 0; s < store.shardCount(); s++) {
+            ByteBuffer shard = store.shard(s);
+            int count = shard.capacity() / MEMBER_BYTES;
+            for (int from = 0; from < count; from += BLOCK_MEMBERS) {
+                int first = from;
+                int last = Math.min(count, from + BLOCK_MEMBERS);
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        integrate(shard, first, last, dt, steps);
+                    }
+                });
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        store.endUpdate(store.getTime() + steps * dt, store.getSteps() + steps);
+    }
+
+    private static void integrate(ByteBuffer shard, int from, int to, double dt, long steps) {
+        double[] y = new double[4];
+        double[] k1 = new double[4], k2 = new double[4], k3 = new double[4], k4 = new double[4];
+        double[] tmp = new double[4];
+        for (int j = from; j < to; j++) {
+            int base = j * MEMBER_BYTES;
+            for (int i = 0; i < 4; i++) {
+                y[i] = shard.getDouble(base + i * Double.BYTES);
+            }
+            double m = shard.getDouble(base + EnsembleStore.MASS * Double.BYTES);
+            double k = shard.getDouble(base + EnsembleStore.K * Double.BYTES);
+            double R0 = shard.getDouble(base + EnsembleStore.R0 * Double.BYTES);
+            double g = shard.getDouble(base + EnsembleStore.G * Double.BYTES);
+            double c = shard.getDouble(base + EnsembleStore.C * Double.BYTES);
+
+            for (long n = 0; n < steps; n++) {
+                PendulumIntegrator.derivatives(y, m, k, R0, g, c, k1);
+                for (int i = 0; i < 4; i++) tmp[i] = y[i] + k1[i] * (dt / 2);
+                PendulumIntegrator.derivatives(tmp, m, k, R0, g, c, k2);
+                for (int i = 0; i < 4; i++) tmp[i] = y[i] + k2[i] * (dt / 2);
+                PendulumIntegrator.derivatives(tmp, m, k, R0, g, c, k3);
+                for (int i = 0; i < 4; i++) tmp[i] = y[i] + k3[i] * dt;
+                PendulumIntegrator.derivatives(tmp, m, k, R0, g, c, k4);
+                for (int i = 0; i < 4; i++) {
+                    double sum = k1[i] + k2[i] * 2 + k3[i] * 2 + k4[i];
+                    y[i] = y[i] + sum * (dt / 6);
+                }
+                y[0] = Math.max(PendulumIntegrator.MIN_SPRING_LENGTH, y[0]);
+            }
+
+            for (int i = 0; i < 4; i++) {
+                shard.putDouble(base + i * Double.BYTES, y[i]);
+            }
+        }
+    }
+}
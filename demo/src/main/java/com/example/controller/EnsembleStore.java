@@ -0,0 +1,262 @@
+package com.example.controller;
+
+import com.example.model.SimulationParameters;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Хранилище состояний большого ансамбля маятников вне кучи Java.
+ *
+ * Каждый член ансамбля занимает {@link #STRIDE} чисел double подряд: состояние
+ * {R, dR/dt, fi, d(fi)/dt} и параметры {m, k, R0, g, c}. Память — прямые буферы
+ * ({@link #allocate}) или файл, отображённый в память ({@link #create}, {@link #open});
+ * так как один буфер ограничен 2 ГБ, члены разбиты на сегменты по {@link #SHARD_MEMBERS}.
+ * Файл начинается с заголовка ({@link #HEADER_BYTES} байт) с числом членов и модельным
+ * временем, за ним идут сегменты без промежутков. Файл и есть контрольная точка:
+ * {@link #force()} сбрасывает изменённые страницы на диск, а {@link #open} продолжает расчёт.
+ * Пока состояния перезаписываются ({@link #beginUpdate} … {@link #endUpdate}), в заголовке
+ * стоит признак незавершённого шага: после сбоя в это время в файле смешаны состояния разных
+ * моментов, и {@link #open} такой файл не принимает.
+ *
+ * Память прямых и отображённых буферов освобождается сборщиком мусора после {@link #close()}.
+ */
+public final class EnsembleStore implements AutoCloseable {
+
+    /** Чисел double на одного члена ансамбля */
+    public static final int STRIDE = 9;
+    public static final int R = 0, DR = 1, FI = 2, DFI = 3, MASS = 4, K = 5, R0 = 6, G = 7, C = 8;
+
+    static final int SHARD_SHIFT = 24;
+    /** Членов в одном сегменте (1,2 ГБ) */
+    public static final int SHARD_MEMBERS = 1 << SHARD_SHIFT;
+    private static final int MEMBER_BYTES = STRIDE * Double.BYTES;
+
+    public static final int HEADER_BYTES = 64;
+    private static final int FILE_MAGIC = 0x50454E53; // "PENS"
+    private static final int FILE_VERSION = 1;
+    private static final int MEMBERS_OFFSET = 8, TIME_OFFSET = 16, STEPS_OFFSET = 24, UPDATING_OFFSET = 32;
+
+    private final long members;
+    private final ByteBuffer header;
+    private final ByteBuffer[] shards;
+    private final FileChannel channel; // null для прямой памяти
+
+    private EnsembleStore(long members, ByteBuffer header, ByteBuffer[] shards, FileChannel channel) {
+        this.members = members;
+        this.header = header.order(ByteOrder.LITTLE_ENDIAN);
+        this.shards = shards;
+        this.channel = channel;
+        for (ByteBuffer shard : shards) {
+            shard.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Ансамбль в прямой памяти процесса. Её объём ограничен {@code -XX:MaxDirectMemorySize}
+     * (по умолчанию — размером кучи); для больших ансамблей удобнее файл ({@link #create}).
+     */
+    public static EnsembleStore allocate(long members) {
+        checkMembers(members);
+        ByteBuffer[] shards = new ByteBuffer[shardCount(members)];
+        try {
+            for (int s = 0; s < shards.length; s++) {
+                shards[s] = ByteBuffer.allocateDirect(shardBytes(members, s));
+            }
+        } catch (OutOfMemoryError e) {
+            throw new IllegalArgumentException("Не хватает прямой памяти для " + members
+                + " членов ансамбля; увеличьте -XX:MaxDirectMemorySize или используйте файл", e);
+        }
+        EnsembleStore store = new EnsembleStore(members, ByteBuffer.allocateDirect(HEADER_BYTES), shards, null);
+        store.writeHeader();
+        return store;
+    }
+
+    /** Новый ансамбль в файле, отображённом в память (существующий файл перезаписывается). */
+    public static EnsembleStore create(Path file, long members) throws IOException {
+        checkMembers(members);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        EnsembleStore store = map(channel, members);
+        store.writeHeader();
+        return store;
+    }
+
+    /** Открыть ансамбль, ранее записанный {@link #create} или {@link #save}. */
+    public static EnsembleStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            if (header.getInt(0) != FILE_MAGIC || header.getInt(4) != FILE_VERSION) {
+                throw new IOException("Файл не является хранилищем ансамбля: " + file);
+            }
+            if (header.getInt(UPDATING_OFFSET) != 0) {
+                throw new IOException("Расчёт ансамбля прерван во время шага, состояния в файле не согласованы: "
+                                      + file + "; расчёт нужно начать заново");
+            }
+            long members = header.getLong(MEMBERS_OFFSET);
+            if (channel.size() < HEADER_BYTES + members * MEMBER_BYTES) {
+                throw new IOException("Файл ансамбля обрезан: " + file);
+            }
+            return map(channel, members);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static EnsembleStore map(FileChannel channel, long members) throws IOException {
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        ByteBuffer[] shards = new ByteBuffer[shardCount(members)];
+        for (int s = 0; s < shards.length; s++) {
+            long position = HEADER_BYTES + ((long) s << SHARD_SHIFT) * MEMBER_BYTES;
+            shards[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, shardBytes(members, s));
+        }
+        return new EnsembleStore(members, header, shards, channel);
+    }
+
+    private static void checkMembers(long members) {
+        if (members < 1) {
+            throw new IllegalArgumentException("Размер ансамбля должен быть положительным: " + members);
+        }
+    }
+
+    private static int shardCount(long members) {
+        return (int) ((members + SHARD_MEMBERS - 1) >>> SHARD_SHIFT);
+    }
+
+    private static int shardBytes(long members, int shard) {
+        long first = (long) shard << SHARD_SHIFT;
+        return (int) (Math.min(SHARD_MEMBERS, members - first) * MEMBER_BYTES);
+    }
+
+    private void writeHeader() {
+        header.putInt(0, FILE_MAGIC);
+        header.putInt(4, FILE_VERSION);
+        header.putLong(MEMBERS_OFFSET, members);
+        header.putDouble(TIME_OFFSET, 0);
+        header.putLong(STEPS_OFFSET, 0);
+        header.putInt(UPDATING_OFFSET, 0);
+    }
+
+    public long size() { return members; }
+
+    public boolean isMapped() { return channel != null; }
+
+    /** @return модельное время, до которого рассчитан ансамбль */
+    public double getTime() { return header.getDouble(TIME_OFFSET); }
+
+    public long getSteps() { return header.getLong(STEPS_OFFSET); }
+
+    public void setTime(double time, long steps) {
+        header.putDouble(TIME_OFFSET, time);
+        header.putLong(STEPS_OFFSET, steps);
+    }
+
+    /**
+     * Отметить в заголовке, что состояния начинают перезаписываться. В файле отметка
+     * сбрасывается на диск сразу, раньше любой изменённой страницы состояний.
+     */
+    public void beginUpdate() {
+        header.putInt(UPDATING_OFFSET, 1);
+        if (channel != null) {
+            ((MappedByteBuffer) header).force();
+        }
+    }
+
+    /**
+     * Завершить перезапись: в файле сначала на диск сбрасываются состояния, и только затем
+     * заголовок с новым временем и снятой отметкой.
+     */
+    public void endUpdate(double time, long steps) {
+        if (channel != null) {
+            for (ByteBuffer shard : shards) {
+                ((MappedByteBuffer) shard).force();
+            }
+        }
+        setTime(time, steps);
+        header.putInt(UPDATING_OFFSET, 0);
+        if (channel != null) {
+            ((MappedByteBuffer) header).force();
+        }
+    }
+
+    /** @return состояния перезаписываются (или перезапись прервана сбоем) */
+    public boolean isUpdating() { return header.getInt(UPDATING_OFFSET) != 0; }
+
+    public double get(long member, int field) {
+        return shards[(int) (member >>> SHARD_SHIFT)].getDouble(offset(member, field));
+    }
+
+    public void set(long member, int field, double value) {
+        shards[(int) (member >>> SHARD_SHIFT)].putDouble(offset(member, field), value);
+    }
+
+    private static int offset(long member, int field) {
+        return (int) (member & (SHARD_MEMBERS - 1)) * MEMBER_BYTES + field * Double.BYTES;
+    }
+
+    /** Записать члену ансамбля начальное состояние и параметры (подвес неподвижен). */
+    public void setMember(long member, SimulationParameters params) {
+        if (params.getDriveAmplitude() != 0) {
+            throw new IllegalArgumentException("Ансамбль не поддерживает колеблющийся подвес (driveAmplitude)");
+        }
+        ByteBuffer shard = shards[(int) (member >>> SHARD_SHIFT)];
+        int base = offset(member, 0);
+        shard.putDouble(base + R * Double.BYTES, params.getInitialLength());
+        shard.putDouble(base + DR * Double.BYTES, 0);
+        shard.putDouble(base + FI * Double.BYTES, params.getInitialAngle());
+        shard.putDouble(base + DFI * Double.BYTES, 0);
+        shard.putDouble(base + MASS * Double.BYTES, params.getMass());
+        shard.putDouble(base + K * Double.BYTES, params.getSpringConstant());
+        shard.putDouble(base + R0 * Double.BYTES, params.getNaturalLength());
+        shard.putDouble(base + G * Double.BYTES, params.getGravity());
+        shard.putDouble(base + C * Double.BYTES, params.getDamping());
+    }
+
+    int shardCount() { return shards.length; }
+
+    /** Сегмент для ядер расчёта; член {@code s·SHARD_MEMBERS + j} начинается с байта {@code j·STRIDE·8}. */
+    ByteBuffer shard(int index) { return shards[index]; }
+
+    /** Сбросить на диск изменённые страницы отображённого файла (контрольная точка). */
+    public void force() {
+        if (channel == null) {
+            throw new IllegalStateException("Хранилище в памяти не связано с файлом, используйте save");
+        }
+        for (ByteBuffer shard : shards) {
+            ((MappedByteBuffer) shard).force();
+        }
+        ((MappedByteBuffer) header).force();
+    }
+
+    /** Записать ансамбль в файл в формате {@link #open} без преобразования данных. */
+    public void save(Path file) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, header.duplicate().clear());
+            for (ByteBuffer shard : shards) {
+                writeFully(out, shard.duplicate().clear());
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
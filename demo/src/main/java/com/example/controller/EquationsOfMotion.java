@@ -0,0 +1,17 @@
+package com.example.controller;
+
+/**
+ * Уравнения движения, заменяющие встроенные {@link PendulumIntegrator#derivatives}.
+ * Реализация не должна выделять память: метод вызывается четыре раза на шаг РК4.
+ */
+public interface EquationsOfMotion {
+
+    /**
+     * @param y вектор {R, dR/dt, fi, d(fi)/dt}
+     * @param parameters значения параметров в порядке {@link com.example.model.SimulationParameters#getParameterNames()};
+     *        gravity — эффективное ускорение свободного падения в системе отсчёта подвеса
+     *        (с колеблющимся подвесом зависит от времени)
+     * @param out производные {dR/dt, d²R/dt², d(fi)/dt, d²(fi)/dt²}
+     */
+    void derivatives(double time, double[] y, double[] parameters, double[] out);
+}
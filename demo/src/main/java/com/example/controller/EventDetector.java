@@ -0,0 +1,170 @@
+package com.example.controller;
+
+import com.example.model.SimulationEvent;
+import com.example.observer.SimulationEventListener;
+
+import java.util.Arrays;
+
+/**
+ * Поиск событий между шагами интегрирования. После каждого шага проверяется смена знака
+ * функций событий; если она есть, момент пересечения уточняется методом Иллинойса
+ * по кубической эрмитовой интерполяции решения внутри шага (плотный вывод),
+ * и подписчики получают запись события с интерполированным состоянием.
+ */
+public class EventDetector {
+
+    private static final double TIME_TOLERANCE = 1e-12; // Точность момента события (с)
+    private static final int MAX_ITERATIONS = 60;
+
+    private final EventFunction[] functions;
+    private final double[] previousValues;
+    private boolean initialized;
+    private volatile SimulationEventListener[] listeners = new SimulationEventListener[0];
+
+    private final double[] endDerivatives = new double[4];
+    private final double[] interpolated = new double[4];
+    private final int[] pendingFunctions;
+    private final double[] pendingThetas;
+
+    // Текущий шаг для интерполяции
+    private double t0, h;
+    private double[] y0, f0, y1;
+
+    public EventDetector(EventFunction... functions) {
+        this.functions = functions.clone();
+        this.previousValues = new double[functions.length];
+        this.pendingFunctions = new int[functions.length];
+        this.pendingThetas = new double[functions.length];
+    }
+
+    public synchronized void addListener(SimulationEventListener listener) {
+        SimulationEventListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[updated.length - 1] = listener;
+        listeners = updated;
+    }
+
+    public synchronized void removeListener(SimulationEventListener listener) {
+        listeners = Arrays.stream(listeners)
+            .filter(existing -> existing != listener)
+            .toArray(SimulationEventListener[]::new);
+    }
+
+    public boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    /** Передать подписчикам событие, найденное не функцией события (например, предупреждение монитора). */
+    void publish(SimulationEvent event) {
+        for (SimulationEventListener listener : listeners) {
+            listener.onEvent(event);
+        }
+    }
+
+    /** Забыть значения функций с прошлого шага (после сброса или скачка состояния). */
+    public void reset() {
+        initialized = false;
+    }
+
+    /**
+     * Проверить шаг [start, end].
+     *
+     * @param startDerivatives производные в начале шага (первая стадия РК4)
+     */
+    void afterStep(PendulumIntegrator integrator, double start, double[] startState,
+                   double[] startDerivatives, double end, double[] endState) {
+        if (!initialized) {
+            for (int i = 0; i < functions.length; i++) {
+                previousValues[i] = functions[i].value(end, endState);
+            }
+            initialized = true;
+            return;
+        }
+
+        t0 = start;
+        h = end - start;
+        y0 = startState;
+        f0 = startDerivatives;
+        y1 = endState;
+
+        boolean derivativesReady = false;
+        int pending = 0;
+        for (int i = 0; i < functions.length; i++) {
+            double previous = previousValues[i];
+            double current = functions[i].value(end, endState);
+            previousValues[i] = current;
+
+            int direction = functions[i].getDirection();
+            boolean increasing = previous < 0 && current >= 0 && direction != EventFunction.DECREASING;
+            boolean decreasing = previous > 0 && current <= 0 && direction != EventFunction.INCREASING;
+            if (!increasing && !decreasing) {
+                continue;
+            }
+
+            if (!derivativesReady) {
+                integrator.evaluateDerivatives(endState, endDerivatives);
+                derivativesReady = true;
+            }
+            double theta = findRoot(functions[i], previous, current);
+
+            // Вставка с сохранением порядка по времени (событий за шаг обычно не больше одного)
+            int position = pending++;
+            while (position > 0 && pendingThetas[position - 1] > theta) {
+                pendingThetas[position] = pendingThetas[position - 1];
+                pendingFunctions[position] = pendingFunctions[position - 1];
+                position--;
+            }
+            pendingThetas[position] = theta;
+            pendingFunctions[position] = i;
+        }
+
+        SimulationEventListener[] targets = listeners;
+        for (int p = 0; p < pending; p++) {
+            double theta = pendingThetas[p];
+            interpolate(theta, interpolated);
+            SimulationEvent event = new SimulationEvent(functions[pendingFunctions[p]].getName(), t0 + theta * h,
+                interpolated[0], interpolated[1], interpolated[2], interpolated[3]);
+            for (SimulationEventListener listener : targets) {
+                listener.onEvent(event);
+            }
+        }
+    }
+
+    /** Метод Иллинойса по доле шага theta ∈ [0, 1]. */
+    private double findRoot(EventFunction function, double valueAtStart, double valueAtEnd) {
+        if (valueAtEnd == 0) {
+            return 1;
+        }
+        double a = 0, fa = valueAtStart;
+        double b = 1, fb = valueAtEnd;
+        for (int iteration = 0; iteration < MAX_ITERATIONS && Math.abs(b - a) * h > TIME_TOLERANCE; iteration++) {
+            double c = b - fb * (b - a) / (fb - fa);
+            interpolate(c, interpolated);
+            double fc = function.value(t0 + c * h, interpolated);
+            if (fc == 0) {
+                return c;
+            }
+            if (fc * fb < 0) {
+                a = b;
+                fa = fb;
+            } else {
+                fa /= 2;
+            }
+            b = c;
+            fb = fc;
+        }
+        return b;
+    }
+
+    /** Кубический эрмитов интерполянт по значениям и производным на концах шага. */
+    private void interpolate(double theta, double[] out) {
+        double theta2 = theta * theta;
+        double theta3 = theta2 * theta;
+        double h00 = 2 * theta3 - 3 * theta2 + 1;
+        double h10 = theta3 - 2 * theta2 + theta;
+        double h01 = -2 * theta3 + 3 * theta2;
+        double h11 = theta3 - theta2;
+        for (int i = 0; i < 4; i++) {
+            out[i] = h00 * y0[i] + h10 * h * f0[i] + h01 * y1[i] + h11 * h * endDerivatives[i];
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.controller;
+
+/**
+ * Функция события: событие происходит, когда значение функции меняет знак между шагами.
+ */
+public interface EventFunction {
+
+    /** Учитывать любое пересечение нуля */
+    int ANY = 0;
+    /** Учитывать только переход снизу вверх */
+    int INCREASING = 1;
+    /** Учитывать только переход сверху вниз */
+    int DECREASING = -1;
+
+    String getName();
+
+    /** @param y вектор {R, dR/dt, fi, d(fi)/dt} */
+    double value(double time, double[] y);
+
+    default int getDirection() {
+        return ANY;
+    }
+
+    /** Создать функцию события из лямбды. */
+    static EventFunction of(String name, int direction, Function function) {
+        return new EventFunction() {
+            @Override
+            public String getName() { return name; }
+
+            @Override
+            public double value(double time, double[] y) { return function.value(time, y); }
+
+            @Override
+            public int getDirection() { return direction; }
+        };
+    }
+
+    @FunctionalInterface
+    interface Function {
+        double value(double time, double[] y);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.controller;
+
+import com.example.model.SimulationParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельное по времени интегрирование методом Parareal. Интервал делится на отрезки;
+ * грубый пропагатор G (РК4 с крупным шагом) последовательно даёт начальные состояния
+ * отрезков, точный F (РК4 с рабочим шагом) параллельно уточняет каждый отрезок,
+ * после чего поправка {@code U[n+1] = G(U'[n]) + F(U[n]) - G(U[n])} проходит
+ * последовательно. Итерации повторяются, пока состояния на границах отрезков
+ * не перестанут меняться больше чем на {@code tolerance}. После k итераций
+ * первые k отрезков совпадают с последовательным расчётом, их точный
+ * пропагатор больше не пересчитывает.
+ */
+public class PararealIntegrator {
+
+    private final SimulationParameters parameters;
+    private final double dt;
+    private final double coarseDt;
+    private final int slices;
+    private final long stepsPerSlice;
+    private final double tolerance;
+    private final int maxIterations;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private final ThreadLocal<PendulumIntegrator> integrators;
+
+    private int iterations;
+    private long fineSteps;
+    private double lastCorrection;
+
+    /**
+     * @param coarseDt шаг грубого пропагатора (с)
+     * @param slices число отрезков; каждый содержит целое число точных шагов
+     */
+    public PararealIntegrator(SimulationParameters parameters, double dt, double coarseDt,
+                              double duration, int slices, double tolerance, int maxIterations) {
+        if (slices < 1 || !(coarseDt >= dt)) {
+            throw new IllegalArgumentException("Нужен хотя бы один отрезок и грубый шаг не меньше точного");
+        }
+        this.parameters = new SimulationParameters(parameters);
+        this.dt = dt;
+        this.coarseDt = coarseDt;
+        this.slices = slices;
+        this.stepsPerSlice = Math.max(1, Math.round(duration / dt / slices));
+        this.tolerance = tolerance;
+        this.maxIterations = Math.max(1, maxIterations);
+        this.integrators = ThreadLocal.withInitial(() -> new PendulumIntegrator(this.parameters));
+    }
+
+    public PararealIntegrator setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * Выполнить расчёт.
+     *
+     * @return состояния {R, dR/dt, fi, d(fi)/dt} на границах отрезков, [slices + 1][4]
+     */
+    public double[][] integrate() {
+        double[][] states = new double[slices + 1][4];
+        double[][] coarse = new double[slices][4];  // G(U[n]) с прошлой итерации
+        double[][] fine = new double[slices][4];    // F(U[n]) текущей итерации
+        double[] next = new double[4];
+
+        PendulumIntegrator initial = new PendulumIntegrator(parameters);
+        initial.getState(states[0]);
+        for (int n = 0; n < slices; n++) {
+            propagateCoarse(n, states[n], coarse[n]);
+            System.arraycopy(coarse[n], 0, states[n + 1], 0, 4);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            iterations = 0;
+            fineSteps = 0;
+            for (int k = 0; k < Math.min(maxIterations, slices); k++) {
+                int first = k; // Отрезки до k уже точные
+                List<RecursiveAction> tasks = new ArrayList<>();
+                for (int n = first; n < slices; n++) {
+                    int slice = n;
+                    tasks.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            propagateFine(slice, states[slice], fine[slice]);
+                        }
+                    });
+                }
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(tasks);
+                    }
+                });
+                fineSteps += tasks.size() * stepsPerSlice;
+                iterations++;
+
+                // Последовательная поправка; начало отрезка first уже точное
+                double correction = 0;
+                System.arraycopy(fine[first], 0, next, 0, 4);
+                correction = Math.max(correction, distance(next, states[first + 1]));
+                System.arraycopy(next, 0, states[first + 1], 0, 4);
+                for (int n = first + 1; n < slices; n++) {
+                    double[] coarseOld = coarse[n];
+                    double[] coarseNew = new double[4];
+                    propagateCoarse(n, states[n], coarseNew);
+                    for (int i = 0; i < 4; i++) {
+                        next[i] = coarseNew[i] + fine[n][i] - coarseOld[i];
+                    }
+                    coarse[n] = coarseNew;
+                    correction = Math.max(correction, distance(next, states[n + 1]));
+                    System.arraycopy(next, 0, states[n + 1], 0, 4);
+                }
+                lastCorrection = correction;
+                if (correction <= tolerance) {
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return states;
+    }
+
+    private void propagateFine(int slice, double[] start, double[] end) {
+        PendulumIntegrator integrator = integrators.get();
+        integrator.setState(start);
+        integrator.setTime(slice * stepsPerSlice * dt, slice * stepsPerSlice); // Для колеблющегося подвеса
+        for (long i = 0; i < stepsPerSlice; i++) {
+            integrator.step(dt);
+        }
+        integrator.getState(end);
+    }
+
+    private void propagateCoarse(int slice, double[] start, double[] end) {
+        PendulumIntegrator integrator = integrators.get();
+        integrator.setState(start);
+        integrator.setTime(slice * stepsPerSlice * dt, slice * stepsPerSlice);
+        double sliceDuration = stepsPerSlice * dt;
+        long coarseSteps = Math.max(1, Math.round(sliceDuration / coarseDt));
+        double step = sliceDuration / coarseSteps;
+        for (long i = 0; i < coarseSteps; i++) {
+            integrator.step(step);
+        }
+        integrator.getState(end);
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double max = 0;
+        for (int i = 0; i < 4; i++) {
+            max = Math.max(max, Math.abs(a[i] - b[i]));
+        }
+        return max;
+    }
+
+    /** @return модельное время конца расчёта (с) */
+    public double getEndTime() { return slices * stepsPerSlice * dt; }
+    public long getTotalSteps() { return slices * stepsPerSlice; }
+    public int getIterations() { return iterations; }
+    /** @return суммарное число точных шагов по всем итерациям */
+    public long getFineSteps() { return fineSteps; }
+    /** @return наибольшее изменение состояния на границах в последней итерации */
+    public double getLastCorrection() { return lastCorrection; }
+}
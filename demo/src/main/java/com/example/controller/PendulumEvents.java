@@ -0,0 +1,39 @@
+package com.example.controller;
+
+/**
+ * Стандартные события маятника на пружине.
+ */
+public final class PendulumEvents {
+
+    private PendulumEvents() {}
+
+    /** Угол проходит через ноль (грузик под точкой подвеса). */
+    public static final EventFunction ANGLE_ZERO =
+        EventFunction.of("angleZero", EventFunction.ANY, (t, y) -> y[2]);
+
+    /** Длина пружины достигает минимума (dR/dt меняет знак с минуса на плюс). */
+    public static final EventFunction SPRING_MIN =
+        EventFunction.of("springMin", EventFunction.INCREASING, (t, y) -> y[1]);
+
+    /** Длина пружины достигает максимума. */
+    public static final EventFunction SPRING_MAX =
+        EventFunction.of("springMax", EventFunction.DECREASING, (t, y) -> y[1]);
+
+    /** Длина пружины упирается в ограничение {@link PendulumIntegrator#MIN_SPRING_LENGTH}. */
+    public static final EventFunction CLAMP =
+        EventFunction.of("clamp", EventFunction.DECREASING, (t, y) -> y[0] - PendulumIntegrator.MIN_SPRING_LENGTH);
+
+    public static EventFunction[] all() {
+        return new EventFunction[] {ANGLE_ZERO, SPRING_MIN, SPRING_MAX, CLAMP};
+    }
+
+    /** @return стандартное событие по имени или null */
+    public static EventFunction find(String name) {
+        for (EventFunction function : all()) {
+            if (function.getName().equals(name)) {
+                return function;
+            }
+        }
+        return null;
+    }
+}
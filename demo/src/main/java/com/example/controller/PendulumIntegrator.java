@@ -0,0 +1,441 @@
+package com.example.controller;
+
+import com.example.model.PhysicsState;
+import com.example.model.SimulationCheckpoint;
+import com.example.model.SimulationParameters;
+
+import java.util.Arrays;
+
+/**
+ * Состояние маятника на пружине и шаг интегрирования методом Рунге-Кутты 4-го порядка.
+ * Не зависит от Swing и потоков, поэтому используется как контроллером,
+ * так и пакетными (headless) режимами. Шаг не выделяет память.
+ *
+ * Точка подвеса может колебаться по вертикали: смещение вниз {@code A·cos(ωt)}, ω = 2π·f
+ * (параметры driveAmplitude, driveFrequency). Уравнения записаны в системе отсчёта подвеса,
+ * где его ускорение даёт силу инерции, то есть g заменяется на {@code g + A·ω²·cos(ωt)}.
+ * Фаза ωt накапливается по шагам ({@code φ += ω·dt}), поэтому при изменении частоты на ходу
+ * (расписание параметров) мгновенная частота равна текущей f, а фаза не скачет.
+ *
+ * Вместе с состоянием теми же стадиями РК4 интегрируется баланс энергии: мощность затухания
+ * и работа, совершаемая колебаниями подвеса. Сумма энергии и этого интеграла постоянна
+ * у точного решения, поэтому её дрейф ({@link #getEnergyDrift()}) показывает погрешность шага.
+ * Изменение параметров на ходу учитывается как работа извне, сброс и перенос состояния
+ * начинают баланс заново, а контрольная точка сохраняет его вместе с состоянием. Срабатывания ограничения длины пружины считаются.
+ */
+public class PendulumIntegrator {
+
+    public static final double MIN_SPRING_LENGTH = 0.1; // Ограничение снизу на длину пружины (м)
+    private static final String[] PARAMETER_NAMES = SimulationParameters.getParameterNames();
+    private static final double TWO_PI = 2 * Math.PI;
+    private static final int GRAVITY_INDEX = Arrays.asList(PARAMETER_NAMES).indexOf("gravity");
+
+    private SimulationParameters parameters;
+    private double m, k, R0, g, c;
+    private double driveAcceleration, driveOmega;
+    private double drivePhase; // Фаза подвеса: накапливается по шагам, чтобы смена частоты не давала скачка
+
+    private double time;
+    private long steps;
+    private final double[] y = new double[4];  // {R, dR/dt, fi, d(fi)/dt}
+
+    private final double[] k1 = new double[4];
+    private final double[] k2 = new double[4];
+    private final double[] k3 = new double[4];
+    private final double[] k4 = new double[4];
+    private final double[] tmp = new double[4];
+
+    private EquationsOfMotion equations;
+    private double[] parameterValues;
+
+    private EventDetector eventDetector;
+    private final double[] startState = new double[4];
+
+    private double energyLedger;        // Рассеянная энергия минус работа подвеса (Дж)
+    private double referenceBalance;    // Баланс в начале отсчёта
+    private double referenceScale;      // Масштаб энергии в начале отсчёта (см. energyScale)
+    private long clampCount;
+
+    public PendulumIntegrator(SimulationParameters parameters) {
+        setParameters(parameters);
+        reset();
+    }
+
+    /** Вернуть систему в начальное состояние из параметров. */
+    public void reset() {
+        time = 0;
+        steps = 0;
+        drivePhase = 0;
+        if (eventDetector != null) {
+            eventDetector.reset();
+        }
+        y[0] = parameters.getInitialLength();
+        y[1] = 0;
+        y[2] = parameters.getInitialAngle();
+        y[3] = 0;
+        clampCount = 0;
+        resetEnergyBalance();
+    }
+
+    /** Заменить параметры без сброса текущего состояния. */
+    public void setParameters(SimulationParameters params) {
+        double before = energy();
+        this.parameters = new SimulationParameters(params);
+        readParameters();
+        energyLedger += before - energy();
+    }
+
+    /**
+     * Изменить один параметр без сброса состояния. В отличие от {@link #setParameters}
+     * не копирует параметры и не выделяет память, поэтому годится для вызова перед каждым шагом.
+     */
+    public void setParameter(String name, double value) {
+        double before = energy();
+        parameters.setParameter(name, value);
+        readParameters();
+        energyLedger += before - energy();
+    }
+
+    private void readParameters() {
+        m = parameters.getMass();
+        k = parameters.getSpringConstant();
+        R0 = parameters.getNaturalLength();
+        g = parameters.getGravity();
+        c = parameters.getDamping();
+        driveAcceleration = parameters.getDriveAcceleration();
+        driveOmega = 2 * Math.PI * parameters.getDriveFrequency();
+        if (parameterValues == null) {
+            parameterValues = new double[PARAMETER_NAMES.length];
+        }
+        for (int i = 0; i < PARAMETER_NAMES.length; i++) {
+            parameterValues[i] = parameters.getParameter(PARAMETER_NAMES[i]);
+        }
+    }
+
+    /** @param equations пользовательские уравнения движения или null для встроенных */
+    public void setEquations(EquationsOfMotion equations) {
+        this.equations = equations;
+    }
+
+    public EquationsOfMotion getEquations() {
+        return equations;
+    }
+
+    public SimulationParameters getParameters() {
+        return new SimulationParameters(parameters);
+    }
+
+    /** @param detector детектор событий, проверяемый после каждого шага, или null */
+    public void setEventDetector(EventDetector detector) {
+        this.eventDetector = detector;
+        if (detector != null) {
+            detector.reset();
+        }
+    }
+
+    public void step(double dt) {
+        boolean detectEvents = eventDetector != null && eventDetector.hasListeners();
+        double startTime = time;
+        if (detectEvents) {
+            System.arraycopy(y, 0, startState, 0, 4);
+        }
+
+        double phaseStart = drivePhase;
+        double phaseMiddle = phaseStart + driveOmega * (dt / 2);
+        double phaseEnd = phaseStart + driveOmega * dt;
+        double gStart = g, gMiddle = g, gEnd = g;
+        if (driveAcceleration != 0) {
+            gStart = gravityAtPhase(phaseStart);
+            gMiddle = gravityAtPhase(phaseMiddle);
+            gEnd = gravityAtPhase(phaseEnd);
+        }
+        if (equations == null) {
+            double rateStart = 0, rateMiddle = 0, rateEnd = 0;
+            if (driveAcceleration != 0) {
+                rateStart = gravityRate(phaseStart);
+                rateMiddle = gravityRate(phaseMiddle);
+                rateEnd = gravityRate(phaseEnd);
+            }
+            derivatives(y, m, k, R0, gStart, c, k1);
+            double power = ledgerPower(y, rateStart);
+            for (int i = 0; i < 4; i++) tmp[i] = y[i] + k1[i] * (dt / 2);
+
+            derivatives(tmp, m, k, R0, gMiddle, c, k2);
+            power += 2 * ledgerPower(tmp, rateMiddle);
+            for (int i = 0; i < 4; i++) tmp[i] = y[i] + k2[i] * (dt / 2);
+
+            derivatives(tmp, m, k, R0, gMiddle, c, k3);
+            power += 2 * ledgerPower(tmp, rateMiddle);
+            for (int i = 0; i < 4; i++) tmp[i] = y[i] + k3[i] * dt;
+
+            derivatives(tmp, m, k, R0, gEnd, c, k4);
+            power += ledgerPower(tmp, rateEnd);
+            energyLedger += power * (dt / 6);
+        } else {
+            customDerivatives(startTime, gStart, y, k1);
+            for (int i = 0; i < 4; i++) tmp[i] = y[i] + k1[i] * (dt / 2);
+
+            customDerivatives(startTime + dt / 2, gMiddle, tmp, k2);
+            for (int i = 0; i < 4; i++) tmp[i] = y[i] + k2[i] * (dt / 2);
+
+            customDerivatives(startTime + dt / 2, gMiddle, tmp, k3);
+            for (int i = 0; i < 4; i++) tmp[i] = y[i] + k3[i] * dt;
+
+            customDerivatives(startTime + dt, gEnd, tmp, k4);
+        }
+
+        for (int i = 0; i < 4; i++) {
+            double sum = k1[i] + k2[i] * 2 + k3[i] * 2 + k4[i];
+            y[i] = y[i] + sum * (dt / 6);
+        }
+
+        if (y[0] < MIN_SPRING_LENGTH) {
+            y[0] = MIN_SPRING_LENGTH;
+            clampCount++;
+        }
+        time += dt;
+        steps++;
+        drivePhase = wrapPhase(phaseEnd);
+
+        if (detectEvents) {
+            eventDetector.afterStep(this, startTime, startState, k1, time, y);
+        } else if (eventDetector != null) {
+            eventDetector.reset();
+        }
+    }
+
+    /** Производные в состоянии y при текущих параметрах и текущем времени. */
+    public void evaluateDerivatives(double[] state, double[] out) {
+        evaluateDerivatives(time, state, out);
+    }
+
+    public void evaluateDerivatives(double t, double[] state, double[] out) {
+        if (equations == null) {
+            derivatives(state, m, k, R0, getEffectiveGravity(t), c, out);
+        } else {
+            customDerivatives(t, getEffectiveGravity(t), state, out);
+        }
+    }
+
+    /**
+     * Пользовательские уравнения: в параметр gravity подставляется эффективное g в системе
+     * отсчёта подвеса, поэтому колеблющийся подвес действует на них так же, как на встроенные.
+     */
+    private void customDerivatives(double t, double gravity, double[] state, double[] out) {
+        parameterValues[GRAVITY_INDEX] = gravity;
+        equations.derivatives(t, state, parameterValues, out);
+    }
+
+    /** @param dt шаг, с которым будет продолжен расчёт */
+    public SimulationCheckpoint checkpoint(double dt) {
+        return new SimulationCheckpoint(dt, steps, time, y[0], y[1], y[2], y[3], parameters, null, drivePhase)
+            .withEnergyBalance(energyLedger, referenceBalance, referenceScale, clampCount);
+    }
+
+    /** Восстановить состояние и параметры из контрольной точки одиночного маятника. */
+    public void restore(SimulationCheckpoint checkpoint) {
+        if (checkpoint.getBodies() != 1) {
+            throw new IllegalArgumentException("Контрольная точка цепочки из " + checkpoint.getBodies()
+                                               + " тел не подходит для одиночного маятника");
+        }
+        setParameters(checkpoint.getParameters());
+        time = checkpoint.getTime();
+        steps = checkpoint.getSteps();
+        drivePhase = checkpoint.getDrivePhase();
+        y[0] = checkpoint.getSpringLength();
+        y[1] = checkpoint.getRadialVelocity();
+        y[2] = checkpoint.getAngle();
+        y[3] = checkpoint.getAngularVelocity();
+        if (checkpoint.hasEnergyBalance()) {
+            energyLedger = checkpoint.getEnergyLedger();
+            referenceBalance = checkpoint.getReferenceBalance();
+            referenceScale = checkpoint.getReferenceScale();
+            clampCount = checkpoint.getClampCount();
+        } else {
+            clampCount = 0;
+            resetEnergyBalance();
+        }
+        if (eventDetector != null) {
+            eventDetector.reset();
+        }
+    }
+
+    /** @param out вектор {R, dR/dt, fi, d(fi)/dt} */
+    public void getState(double[] out) {
+        System.arraycopy(y, 0, out, 0, 4);
+    }
+
+    /** Перенести систему в состояние {R, dR/dt, fi, d(fi)/dt} без изменения времени. */
+    public void setState(double[] state) {
+        System.arraycopy(state, 0, y, 0, 4);
+        resetEnergyBalance();
+        if (eventDetector != null) {
+            eventDetector.reset();
+        }
+    }
+
+    /**
+     * Установить модельное время и число шагов (при переходе к сохранённому состоянию).
+     * Фаза подвеса становится ω·t, как при неизменной с начала расчёта частоте.
+     */
+    public void setTime(double time, long steps) {
+        this.time = time;
+        this.steps = steps;
+        drivePhase = wrapPhase(driveOmega * time);
+        resetEnergyBalance();
+    }
+
+    /** То же с фазой подвеса, сохранённой вместе с состоянием (продолжение записанной траектории). */
+    public void setTime(double time, long steps, double drivePhase) {
+        this.time = time;
+        this.steps = steps;
+        this.drivePhase = drivePhase;
+        resetEnergyBalance();
+    }
+
+    /** @return фаза колебаний подвеса в текущий момент (рад, от 0 до 2π) */
+    public double getDrivePhase() { return drivePhase; }
+
+    /**
+     * @return ускорение свободного падения в системе отсчёта подвеса в момент t (м/с²);
+     *         фаза подвеса продолжается от текущей с текущей частотой
+     */
+    public double getEffectiveGravity(double t) {
+        return driveAcceleration == 0 ? g : gravityAtPhase(drivePhase + driveOmega * (t - time));
+    }
+
+    private double gravityAtPhase(double phase) {
+        return g + driveAcceleration * Math.cos(phase);
+    }
+
+    /** Скорость изменения эффективного g при фазе подвеса phase (м/с³). */
+    private double gravityRate(double phase) {
+        return -driveAcceleration * driveOmega * Math.sin(phase);
+    }
+
+    static double wrapPhase(double phase) {
+        return phase >= TWO_PI || phase < 0 ? phase - TWO_PI * Math.floor(phase / TWO_PI) : phase;
+    }
+
+    /**
+     * Производная интеграла баланса: мощность затухания c·v² плюс m·R·cos(fi)·dg/dt
+     * (минус частная производная потенциальной энергии по времени при колеблющемся подвесе).
+     */
+    private double ledgerPower(double[] s, double gravityRate) {
+        double power = c * (s[1] * s[1] + s[0] * s[0] * s[3] * s[3]);
+        if (gravityRate != 0) {
+            power += m * s[0] * Math.cos(s[2]) * gravityRate;
+        }
+        return power;
+    }
+
+    private double energy() {
+        double R = y[0], dR = y[1], fi = y[2], dfi = y[3];
+        return 0.5 * m * (dR * dR + R * R * dfi * dfi) + 0.5 * k * (R - R0) * (R - R0)
+            - m * getEffectiveGravity(time) * R * Math.cos(fi);
+    }
+
+    /**
+     * Масштаб для нормировки дрейфа: сумма модулей слагаемых энергии (кинетическая, пружины,
+     * |m·g·R·cos(fi)| с эффективным g). Всегда положителен и не зависит от выбора нуля
+     * потенциальной энергии, в том числе в положении равновесия и при колеблющемся подвесе.
+     */
+    private double energyScale() {
+        double R = y[0], dR = y[1], fi = y[2], dfi = y[3];
+        return 0.5 * m * (dR * dR + R * R * dfi * dfi) + 0.5 * k * (R - R0) * (R - R0)
+            + Math.abs(m * getEffectiveGravity(time) * R * Math.cos(fi));
+    }
+
+    private void resetEnergyBalance() {
+        energyLedger = 0;
+        referenceBalance = energy();
+        referenceScale = energyScale();
+    }
+
+    /** @return механическая энергия в системе отсчёта подвеса (Дж) или NaN для пользовательских уравнений */
+    public double getEnergy() {
+        return equations == null ? energy() : Double.NaN;
+    }
+
+    /**
+     * Относительный дрейф баланса энергии (энергия + рассеянная − работа подвеса) с начала
+     * отсчёта. Нормируется на сумму модулей слагаемых энергии ({@link #energyScale}) — большую
+     * из начальной и текущей.
+     *
+     * @return дрейф со знаком или NaN для пользовательских уравнений
+     */
+    public double getEnergyDrift() {
+        if (equations != null) {
+            return Double.NaN;
+        }
+        double scale = Math.max(Math.max(referenceScale, energyScale()), Double.MIN_NORMAL);
+        return (energy() + energyLedger - referenceBalance) / scale;
+    }
+
+    /** @return число шагов, на которых сработало ограничение длины пружины */
+    public long getClampCount() { return clampCount; }
+
+    /**
+     * Уравнения движения: производные вектора {R, dR/dt, fi, d(fi)/dt}.
+     * При колеблющемся подвесе в g передаётся {@link #getEffectiveGravity}.
+     */
+    public static void derivatives(double[] y, double m, double k, double R0, double g, double c,
+                                   double[] out) {
+        double R = y[0];
+        double dR = y[1];
+        double fi = y[2];
+        double dfi = y[3];
+
+        out[0] = dR;
+        out[1] = R * dfi * dfi - (k / m) * (R - R0) + g * Math.cos(fi) - (c / m) * dR;
+        out[2] = dfi;
+        out[3] = -g * Math.sin(fi) / R - 2 * (dR / R) * dfi - (c / m) * dfi;
+    }
+
+    public double getTime() { return time; }
+    public long getSteps() { return steps; }
+    public double getSpringLength() { return y[0]; }
+    public double getRadialVelocity() { return y[1]; }
+    public double getAngle() { return y[2]; }
+    public double getAngularVelocity() { return y[3]; }
+
+    /** Заполнить переданный объект текущим состоянием (без выделения памяти). */
+    public void fillState(PhysicsState state) {
+        double springLength = y[0];
+        double radialVelocity = y[1];
+        double angle = y[2];
+        double angularVelocity = y[3];
+
+        double sin = Math.sin(angle);
+        double cos = Math.cos(angle);
+
+        double vx = radialVelocity * sin + springLength * angularVelocity * cos;
+        double vy = radialVelocity * cos - springLength * angularVelocity * sin;
+
+        double gravity = getEffectiveGravity(time);
+        double radialAcc = springLength * angularVelocity * angularVelocity
+                          - (k / m) * (springLength - R0) + gravity * cos;
+        double tangentialAcc = -gravity * sin * springLength;
+
+        state.setTime(time);
+        state.setAngle(angle);
+        state.setAngularVelocity(angularVelocity);
+        state.setSpringLength(springLength);
+        state.setRadialVelocity(radialVelocity);
+        state.setX(springLength * sin);
+        state.setY(springLength * cos);
+        state.setVelocity(Math.sqrt(vx * vx + vy * vy));
+        state.setSpringForce(k * (springLength - R0));
+        state.setGravityForce(m * g);
+        state.setAcceleration(Math.sqrt(radialAcc * radialAcc + tangentialAcc * tangentialAcc));
+        state.setEnergy(getEnergy());
+        state.setEnergyDrift(getEnergyDrift());
+        state.setClampCount(clampCount);
+    }
+
+    public PhysicsState createState() {
+        PhysicsState state = new PhysicsState();
+        fillState(state);
+        return state;
+    }
+}
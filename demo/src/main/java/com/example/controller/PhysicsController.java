@@ -1,74 +1,92 @@
 package com.example.controller;
 
+import com.example.analysis.AnalysisPipeline;
 import com.example.model.PhysicsState;
+import com.example.model.SimulationCheckpoint;
+import com.example.model.SimulationEvent;
 import com.example.model.SimulationParameters;
 import com.example.observer.SimulationCommands;
+import com.example.observer.SimulationEventListener;
 import com.example.observer.SimulationObserver;
+import com.example.observer.StepListener;
 
 import javax.swing.SwingUtilities;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public class PhysicsController implements SimulationCommands, Runnable {
 
     private final List<SimulationObserver> observers = new CopyOnWriteArrayList<>();
-    private SimulationParameters parameters;
-    
-    private double time;
-    private double angle;           // fi - угол отклонения от вертикали
-    private double angularVelocity; // d(fi)/dt
-    private double springLength;    // R - текущая длина пружины
-    private double radialVelocity;  // dR/dt
+    private volatile SimulationParameters parameters;
+    private final PendulumIntegrator integrator;
+    private final Object stateLock = new Object(); // Состояние меняется только между шагами
+    private final AnalysisPipeline analysis = new AnalysisPipeline(DT);
+    private final TrajectoryCache cache = TrajectoryCache.getDefault();
+    private final TrajectoryRecorder recorder = new TrajectoryRecorder(cache);
+    private volatile StepListener[] stepListeners = {recorder};
+    private volatile boolean analysisAttached; // Конвейер анализа подключается по запросу наблюдателей
+    private final EventDetector eventDetector = new EventDetector(PendulumEvents.all());
+    private final EnergyMonitor energyMonitor = new EnergyMonitor(EnergyMonitor.DEFAULT_THRESHOLD);
+    private volatile ChainIntegrator chain; // Цепочка из нескольких тел или null
+    private volatile long stateVersion;     // Меняется под stateLock при каждом скачке состояния
     
     private volatile boolean running = false;
     private volatile boolean alive = true;
-    private double simulationSpeed = 1.0;
+    private volatile double simulationSpeed = 1.0;
     private Thread simulationThread;
+    private long lastUpdateTime = System.currentTimeMillis();
     
     private static final double DT = 0.001;        // Шаг интегрирования (с)
-    private static final int UPDATE_INTERVAL = 16; // Интервал обновления GUI (мс) ~60 FPS
+    static final int UPDATE_INTERVAL = 16;         // Интервал обновления GUI (мс) ~60 FPS
+    private static final long SEEK_CHECK_MASK = 0xFFF; // Проверка отмены перехода раз в 4096 шагов
     
     public PhysicsController() {
-        this.parameters = new SimulationParameters();
-        resetState();
+        this(new SimulationParameters(), true);
+    }
+    
+    /** @param ownThread запустить собственный поток; иначе шаги выполняет {@link SimulationManager} */
+    PhysicsController(SimulationParameters parameters, boolean ownThread) {
+        this.parameters = new SimulationParameters(parameters);
+        this.integrator = new PendulumIntegrator(this.parameters);
+        this.integrator.setEventDetector(eventDetector);
+        this.recorder.begin(cacheKey(), integrator);
         
-        simulationThread = new Thread(this, "PhysicsSimulation");
-        simulationThread.setDaemon(true);
-        simulationThread.start();
+        if (ownThread) {
+            simulationThread = new Thread(this, "PhysicsSimulation");
+            simulationThread.setDaemon(true);
+            simulationThread.start();
+        }
     }
     
     private void resetState() {
-        time = 0;
-        angle = parameters.getInitialAngle();
-        angularVelocity = 0;
-        springLength = parameters.getInitialLength();
-        radialVelocity = 0;
+        stateVersion++;
+        integrator.setParameters(parameters);
+        integrator.reset();
+        if (chain != null) {
+            chain.setParameters(parameters);
+            chain.reset();
+        }
+        notifyStepListenersReset();
+        recorder.begin(cacheKey(), integrator);
+    }
+    
+    private TrajectoryCache.Key cacheKey() {
+        return new TrajectoryCache.Key(parameters, DT, TrajectoryRecorder.SAMPLE_STEPS);
+    }
+    
+    private void notifyStepListenersReset() {
+        energyMonitor.reset();
+        for (StepListener listener : stepListeners) {
+            listener.onReset();
+        }
     }
     
     @Override
     public void run() {
-        long lastUpdateTime = System.currentTimeMillis();
-        
         while (alive) {
-            if (running) {
-                long currentTime = System.currentTimeMillis();
-                long elapsed = currentTime - lastUpdateTime;
-                
-                if (elapsed >= UPDATE_INTERVAL) {
-
-                    double simulatedTime = elapsed / 1000.0 * simulationSpeed;
-                    int steps = (int) (simulatedTime / DT);
-                    
-                    for (int i = 0; i < steps; i++) {
-                        integrate(DT);
-                    }
-                    
-                    notifyStateUpdate();
-                    lastUpdateTime = currentTime;
-                }
-            } else {
-                lastUpdateTime = System.currentTimeMillis();
-            }
+            tick();
             
             try {
                 Thread.sleep(1);
@@ -78,94 +96,84 @@ public class PhysicsController implements SimulationCommands, Runnable {
             }
         }
     }
-
-    private void integrate(double dt) {
-        
-        double m = parameters.getMass();
-        double k = parameters.getSpringConstant();
-        double R0 = parameters.getNaturalLength();
-        double g = parameters.getGravity();
-        double c = parameters.getDamping();
-        
-        double[] y = {springLength, radialVelocity, angle, angularVelocity};
-        
-        double[] k1 = derivatives(y, m, k, R0, g, c);
-        double[] y1 = add(y, mult(k1, dt / 2));
-        
-        double[] k2 = derivatives(y1, m, k, R0, g, c);
-        double[] y2 = add(y, mult(k2, dt / 2));
-        
-        double[] k3 = derivatives(y2, m, k, R0, g, c);
-        double[] y3 = add(y, mult(k3, dt));
-        
-        double[] k4 = derivatives(y3, m, k, R0, g, c);
-        
-        double[] sum = add(k1, mult(k2, 2));
-        sum = add(sum, mult(k3, 2));
-        sum = add(sum, k4);
-        
-        y = add(y, mult(sum, dt / 6));
-        
-        springLength = Math.max(0.1, y[0]);
-        radialVelocity = y[1];
-        angle = y[2];
-        angularVelocity = y[3];
-        time += dt;
-    }
-    
-    private double[] derivatives(double[] y, double m, double k, double R0, double g, double c) {
-        double R = y[0];
-        double dR = y[1];
-        double fi = y[2];
-        double dfi = y[3];
-        
-        double dR_dt = dR;
-        
-        double d2R_dt2 = R * dfi * dfi - (k / m) * (R - R0) + g * Math.cos(fi) - (c / m) * dR;
-        
-        double dfi_dt = dfi;
-        
-        double d2fi_dt2 = -g * Math.sin(fi) / R - 2 * (dR / R) * dfi - (c / m) * dfi;
-        
-        return new double[] {dR_dt, d2R_dt2, dfi_dt, d2fi_dt2};
-    }
     
-    private double[] add(double[] a, double[] b) {
-        return new double[] {a[0] + b[0], a[1] + b[1], a[2] + b[2], a[3] + b[3]};
+    /**
+     * Продвинуть симуляцию на реальное время, прошедшее с прошлого обновления.
+     * Вызывается либо собственным потоком контроллера, либо общим исполнителем
+     * {@link SimulationManager}; одновременно из двух потоков не вызывается.
+     */
+    void tick() {
+        long currentTime = System.currentTimeMillis();
+        if (!running) {
+            lastUpdateTime = currentTime;
+            return;
+        }
+        
+        long elapsed = currentTime - lastUpdateTime;
+        if (elapsed >= UPDATE_INTERVAL) {
+
+            double simulatedTime = elapsed / 1000.0 * simulationSpeed;
+            int steps = (int) (simulatedTime / DT);
+            
+            synchronized (stateLock) {
+                if (chain != null) {
+                    advanceChain(steps);
+                } else {
+                    advance(steps);
+                }
+            }
+            
+            notifyStateUpdate();
+            lastUpdateTime = currentTime;
+        }
     }
-    
-    private double[] mult(double[] a, double s) {
-        return new double[] {a[0] * s, a[1] * s, a[2] * s, a[3] * s};
+
+    /** Выполнить шаги с оповещением слушателей шагов; вызывается под stateLock. */
+    private void advance(long steps) {
+        StepListener[] listeners = stepListeners;
+        boolean checkEnergy = eventDetector.hasListeners();
+        for (long i = 0; i < steps; i++) {
+            integrator.step(DT);
+            for (StepListener listener : listeners) {
+                listener.onStep(integrator.getTime(), integrator.getSpringLength(),
+                                integrator.getRadialVelocity(), integrator.getAngle(),
+                                integrator.getAngularVelocity());
+            }
+            if (checkEnergy) {
+                SimulationEvent alert = energyMonitor.check(integrator);
+                if (alert != null) {
+                    eventDetector.publish(alert);
+                }
+            }
+        }
     }
-    
 
-    private PhysicsState createCurrentState() {
-        double m = parameters.getMass();
-        double k = parameters.getSpringConstant();
-        double R0 = parameters.getNaturalLength();
-        double g = parameters.getGravity();
-        
-        double x = springLength * Math.sin(angle);
-        double y = springLength * Math.cos(angle);
-        
-        double vx = radialVelocity * Math.sin(angle) + springLength * angularVelocity * Math.cos(angle);
-        double vy = radialVelocity * Math.cos(angle) - springLength * angularVelocity * Math.sin(angle);
-        double velocity = Math.sqrt(vx * vx + vy * vy);
-        
-        double springForce = k * (springLength - R0);
-        double gravityForce = m * g;
-        
-        double radialAcc = springLength * angularVelocity * angularVelocity 
-                          - (k / m) * (springLength - R0) + g * Math.cos(angle);
-        double tangentialAcc = -g * Math.sin(angle) * springLength;
-        double acceleration = Math.sqrt(radialAcc * radialAcc + tangentialAcc * tangentialAcc);
-        
-        return new PhysicsState(time, angle, angularVelocity, springLength, radialVelocity,
-                               x, y, velocity, springForce, gravityForce, acceleration);
+    /** Шаги цепочки; слушатели шагов, события и кэш траекторий относятся к одиночному маятнику. */
+    private void advanceChain(long steps) {
+        for (long i = 0; i < steps; i++) {
+            chain.step(DT);
+        }
     }
-    
+
     private void notifyStateUpdate() {
-        PhysicsState state = createCurrentState();
+        if (observers.isEmpty()) {
+            return; // Без подписчиков не создаём состояние и не нагружаем EDT
+        }
+        PhysicsState state;
+        synchronized (stateLock) {
+            if (chain != null) {
+                state = new PhysicsState();
+                chain.fillState(state);
+                double[] positions = new double[2 * chain.getBodies()];
+                chain.getPositions(positions);
+                state.setBodyPositions(positions);
+            } else {
+                state = integrator.createState();
+                if (analysisAttached) {
+                    analysis.publish(state);
+                }
+            }
+        }
         SwingUtilities.invokeLater(() -> {
             for (SimulationObserver observer : observers) {
                 observer.onStateUpdate(state);
@@ -217,7 +225,9 @@ public class PhysicsController implements SimulationCommands, Runnable {
     public void reset() {
         boolean wasRunning = running;
         running = false;
-        resetState();
+        synchronized (stateLock) {
+            resetState();
+        }
         notifySimulationReset();
         notifyStateUpdate();
         if (wasRunning) {
@@ -231,11 +241,197 @@ public class PhysicsController implements SimulationCommands, Runnable {
         reset();
     }
     
+    /**
+     * Заменить параметры между шагами без сброса: все значения вступают в силу одновременно
+     * с ближайшего шага, начальные условия — со следующего сброса. Траектория с параметрами,
+     * изменёнными на ходу, в кэш траекторий не записывается.
+     */
+    @Override
+    public void updateParameters(SimulationParameters params) {
+        synchronized (stateLock) {
+            stateVersion++;
+            parameters = new SimulationParameters(params);
+            integrator.setParameters(parameters);
+            if (chain != null) {
+                chain.setParameters(parameters);
+            }
+            recorder.onReset();
+        }
+    }
+    
+    /** Снимок одиночного маятника или, в режиме цепочки, всех её тел. */
+    @Override
+    public SimulationCheckpoint checkpoint() {
+        // Копируется только состояние между шагами; запись на диск идёт без блокировки расчёта
+        synchronized (stateLock) {
+            return chain != null ? chain.checkpoint(DT) : integrator.checkpoint(DT);
+        }
+    }
+    
+    @Override
+    public void restore(SimulationCheckpoint checkpoint) {
+        if (checkpoint.getDt() != DT) {
+            throw new IllegalArgumentException("Контрольная точка записана с шагом " + checkpoint.getDt()
+                                               + " с, а контроллер использует шаг " + DT + " с");
+        }
+        boolean wasRunning = running;
+        running = false;
+        synchronized (stateLock) {
+            stateVersion++;
+            parameters = checkpoint.getParameters();
+            if (checkpoint.getBodies() > 1) {
+                // Контрольная точка цепочки переключает контроллер в режим цепочки с её числом тел
+                if (chain == null || chain.getBodies() != checkpoint.getBodies()) {
+                    if (chain != null) {
+                        chain.close();
+                    }
+                    chain = new ChainIntegrator(parameters, checkpoint.getBodies());
+                }
+                chain.restore(checkpoint);
+                integrator.setParameters(parameters);
+            } else {
+                if (chain != null) {
+                    chain.close();
+                    chain = null;
+                }
+                integrator.restore(checkpoint);
+            }
+            notifyStepListenersReset();
+        }
+        notifySimulationReset();
+        notifyStateUpdate();
+        if (wasRunning) {
+            running = true;
+        }
+    }
+    
+    /**
+     * Перейти к моменту {@code time} траектории, начинающейся из начального состояния
+     * текущих параметров. Ближайшая предшествующая выборка берётся из кэша траекторий,
+     * остаток досчитывается без ожидания реального времени и дописывается в кэш.
+     * Цепочка из нескольких тел досчитывается от начального состояния.
+     *
+     * Досчёт идёт в фоновом потоке {@link TrajectoryRecorder#BACKGROUND} на отдельном
+     * интеграторе, симуляция тем временем продолжается; под stateLock переносится только
+     * итоговое состояние. Переход отменяется, если раньше его завершения состояние
+     * сбросили, восстановили, сменили параметры или начали новый переход.
+     */
+    @Override
+    public CompletableFuture<Void> seek(double time) {
+        if (!(time >= 0)) {
+            throw new IllegalArgumentException("Время перехода должно быть неотрицательным: " + time);
+        }
+        long version;
+        SimulationParameters params;
+        int bodies;
+        synchronized (stateLock) {
+            version = ++stateVersion;
+            params = parameters;
+            bodies = getBodyCount();
+            recorder.onReset(); // Записанное уходит в кэш до досчёта в той же очереди
+        }
+        long targetSteps = Math.round(time / DT);
+        return CompletableFuture.runAsync(() -> {
+            boolean applied = bodies > 1
+                ? seekChain(params, bodies, targetSteps, version)
+                : seekCached(params, targetSteps, version);
+            if (applied) {
+                notifySimulationReset();
+                notifyStateUpdate();
+            }
+        }, TrajectoryRecorder.BACKGROUND);
+    }
+    
+    /** Досчёт одиночного маятника через кэш траекторий; выполняется в фоновом потоке. */
+    private boolean seekCached(SimulationParameters params, long targetSteps, long version) {
+        TrajectoryCache.Key key = new TrajectoryCache.Key(params, DT, TrajectoryRecorder.SAMPLE_STEPS);
+        CompressedTrajectory cached = cache.get(key);
+        PendulumIntegrator target = new PendulumIntegrator(params);
+        TrajectoryRecorder trajectory = new TrajectoryRecorder(cache);
+        if (cached == null) {
+            trajectory.begin(key, target);
+        } else {
+            int sample = (int) Math.min(targetSteps / TrajectoryRecorder.SAMPLE_STEPS,
+                                        cached.getSampleCount() - 1);
+            double[] samples = cached.decode();
+            TrajectoryCache.loadSample(target, samples, sample, (long) sample * TrajectoryRecorder.SAMPLE_STEPS);
+            trajectory.resume(key, target, samples, sample + 1, cached.getSampleCount());
+        }
+        for (long step = target.getSteps(); step < targetSteps; step++) {
+            if ((step & SEEK_CHECK_MASK) == 0 && stateVersion != version) {
+                return false;
+            }
+            target.step(DT);
+            trajectory.onStep(target.getTime(), target.getSpringLength(), target.getRadialVelocity(),
+                              target.getAngle(), target.getAngularVelocity());
+        }
+        synchronized (stateLock) {
+            if (stateVersion != version) {
+                return false;
+            }
+            integrator.restore(target.checkpoint(DT));
+            notifyStepListenersReset();
+            recorder.takeOver(trajectory, integrator);
+        }
+        return true;
+    }
+    
+    /** Досчёт цепочки от начального состояния на новой цепочке; выполняется в фоновом потоке. */
+    private boolean seekChain(SimulationParameters params, int bodies, long targetSteps, long version) {
+        ChainIntegrator target = new ChainIntegrator(params, bodies);
+        for (long step = 0; step < targetSteps; step++) {
+            if ((step & SEEK_CHECK_MASK) == 0 && stateVersion != version) {
+                target.close();
+                return false;
+            }
+            target.step(DT);
+        }
+        synchronized (stateLock) {
+            if (stateVersion != version) {
+                target.close();
+                return false;
+            }
+            chain.close();
+            chain = target;
+        }
+        return true;
+    }
+    
     @Override
     public SimulationParameters getParameters() {
         return new SimulationParameters(parameters);
     }
     
+    /**
+     * Заменить одиночный маятник цепочкой из {@code bodies} грузиков (или вернуть одиночный
+     * при 1). Цепочка начинает с начального состояния; её шаги не проходят через слушатели
+     * шагов, события и кэш траекторий, каналы состояния описывают последний грузик.
+     */
+    @Override
+    public void setBodyCount(int bodies) {
+        if (bodies < 1) {
+            throw new IllegalArgumentException("Число тел должно быть положительным: " + bodies);
+        }
+        synchronized (stateLock) {
+            if (bodies == getBodyCount()) {
+                return;
+            }
+            stateVersion++;
+            if (chain != null) {
+                chain.close();
+            }
+            chain = bodies > 1 ? new ChainIntegrator(parameters, bodies) : null;
+        }
+        notifySimulationReset();
+        notifyStateUpdate();
+    }
+    
+    @Override
+    public int getBodyCount() {
+        ChainIntegrator current = chain;
+        return current == null ? 1 : current.getBodies();
+    }
+    
     @Override
     public boolean isRunning() {
         return running;
@@ -255,17 +451,93 @@ public class PhysicsController implements SimulationCommands, Runnable {
     public void subscribe(SimulationObserver observer) {
         if (observer != null && !observers.contains(observer)) {
             observers.add(observer);
+            updateAnalysisAttachment();
         }
     }
     
     @Override
     public void unsubscribe(SimulationObserver observer) {
-        observers.remove(observer);
+        if (observers.remove(observer)) {
+            updateAnalysisAttachment();
+        }
+    }
+    
+    /**
+     * Подключить конвейер анализа к шагам, пока есть наблюдатель производных каналов
+     * ({@link SimulationObserver#needsAnalysis()}), и отключить после ухода последнего.
+     * Подключённый заново конвейер начинает накопление с нуля.
+     */
+    private void updateAnalysisAttachment() {
+        boolean needed = observers.stream().anyMatch(SimulationObserver::needsAnalysis);
+        synchronized (stateLock) {
+            if (needed == analysisAttached) {
+                return;
+            }
+            if (needed) {
+                analysis.onReset();
+                addStepListener(analysis);
+            } else {
+                removeStepListener(analysis);
+            }
+            analysisAttached = needed;
+        }
+    }
+    
+    /** Подписать слушателя на каждый шаг интегрирования (вызывается в потоке симуляции). */
+    @Override
+    public void addStepListener(StepListener listener) {
+        synchronized (stateLock) {
+            StepListener[] listeners = Arrays.copyOf(stepListeners, stepListeners.length + 1);
+            listeners[listeners.length - 1] = listener;
+            stepListeners = listeners;
+        }
+    }
+    
+    @Override
+    public void removeStepListener(StepListener listener) {
+        synchronized (stateLock) {
+            stepListeners = Arrays.stream(stepListeners)
+                .filter(existing -> existing != listener)
+                .toArray(StepListener[]::new);
+        }
+    }
+    
+    /**
+     * Подписаться на стандартные события {@link PendulumEvents} и предупреждения
+     * {@link EnergyMonitor#DRIFT_EVENT}. Подписчик вызывается в потоке симуляции;
+     * пока подписчиков нет, события не ищутся.
+     */
+    @Override
+    public void addEventListener(SimulationEventListener listener) {
+        eventDetector.addListener(listener);
+    }
+    
+    @Override
+    public void removeEventListener(SimulationEventListener listener) {
+        eventDetector.removeListener(listener);
+    }
+    
+    /** @param threshold относительный дрейф баланса энергии, выше которого выдаётся предупреждение */
+    public void setEnergyDriftThreshold(double threshold) {
+        energyMonitor.setThreshold(threshold);
+    }
+
+    /**
+     * @return конвейер анализа, заполняющий производные каналы состояния; к шагам он подключён,
+     *         только пока подписан наблюдатель с {@link SimulationObserver#needsAnalysis()}
+     */
+    public AnalysisPipeline getAnalysis() {
+        return analysis;
     }
   
     public void shutdown() {
         alive = false;
         running = false;
+        synchronized (stateLock) {
+            if (chain != null) {
+                chain.close();
+            }
+        }
         if (simulationThread != null) {
             simulationThread.interrupt();
         }
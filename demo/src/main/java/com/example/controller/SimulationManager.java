@@ -0,0 +1,105 @@
+package com.example.controller;
+
+import com.example.model.SimulationParameters;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Менеджер независимых симуляций в одном процессе. Каждая симуляция адресуется
+ * по идентификатору и имеет свои параметры и наблюдателей, а шаги всех симуляций
+ * выполняет общий пул потоков размером с число ядер вместо отдельного потока на каждую.
+ * Исключение в шаге останавливает только эту симуляцию (с сообщением в stderr), а её
+ * расписание в пуле продолжает работать, поэтому её можно запустить снова.
+ */
+public class SimulationManager {
+
+    private final ScheduledExecutorService stepper;
+    private final Map<Integer, Hosted> simulations = new ConcurrentHashMap<>();
+    private final NavigableSet<Integer> ids = new ConcurrentSkipListSet<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    public SimulationManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SimulationManager(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.stepper = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "SimulationStepper-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** @return идентификатор новой (остановленной) симуляции */
+    public int create(SimulationParameters params) {
+        int id = nextId.getAndIncrement();
+        PhysicsController controller = new PhysicsController(params, false);
+        ScheduledFuture<?> future = stepper.scheduleAtFixedRate(() -> tick(id, controller), 0,
+            PhysicsController.UPDATE_INTERVAL, TimeUnit.MILLISECONDS);
+        simulations.put(id, new Hosted(controller, future));
+        ids.add(id);
+        return id;
+    }
+
+    /** Исключение из задачи отменило бы её расписание без следа, поэтому оно перехватывается здесь. */
+    private static void tick(int id, PhysicsController controller) {
+        try {
+            controller.tick();
+        } catch (RuntimeException e) {
+            System.err.println("Симуляция " + id + " остановлена из-за ошибки: " + e);
+            e.printStackTrace();
+            controller.stop();
+        }
+    }
+
+    /** @return контроллер симуляции или null, если её нет */
+    public PhysicsController get(int id) {
+        Hosted hosted = simulations.get(id);
+        return hosted == null ? null : hosted.controller;
+    }
+
+    /** @return идентификаторы симуляций по возрастанию (только чтение; удаление — {@link #remove}) */
+    public NavigableSet<Integer> getIds() {
+        return Collections.unmodifiableNavigableSet(ids);
+    }
+
+    public int size() {
+        return simulations.size();
+    }
+
+    public void remove(int id) {
+        Hosted hosted = simulations.remove(id);
+        ids.remove(id);
+        if (hosted != null) {
+            hosted.future.cancel(false);
+            hosted.controller.shutdown();
+        }
+    }
+
+    public void shutdown() {
+        for (Integer id : ids) {
+            remove(id);
+        }
+        stepper.shutdownNow();
+    }
+
+    private static class Hosted {
+        final PhysicsController controller;
+        final ScheduledFuture<?> future;
+
+        Hosted(PhysicsController controller, ScheduledFuture<?> future) {
+            this.controller = controller;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.controller;
+
+import com.example.model.SimulationParameters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш рассчитанных траекторий с адресацией по содержимому: ключ — побитовые значения
+ * всех параметров, шаг интегрирования и интервал выборки. Траектория с одним ключом
+ * всегда одна и та же, поэтому более длинная запись заменяет более короткую,
+ * а её начало обслуживает запросы меньшей длительности.
+ *
+ * Память ограничена суммарным размером сжатых траекторий, вытесняются давно
+ * не использованные. Если задан каталог, траектории также сохраняются на диск
+ * (в фоне, файлы названы по SHA-256 ключа) и читаются оттуда при промахе в памяти.
+ */
+public class TrajectoryCache {
+
+    private static final int FILE_MAGIC = 0x50545232; // "PTR2"; файлы "PTRJ" без фазы подвеса не читаются
+    private static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private static final TrajectoryCache DEFAULT = new TrajectoryCache(DEFAULT_MAX_BYTES,
+        System.getProperty("pendulum.cache.dir") != null ? Path.of(System.getProperty("pendulum.cache.dir")) : null);
+
+    private final long maxBytes;
+    private final Path directory;
+    private final LinkedHashMap<Key, CompressedTrajectory> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits, misses;
+    private ExecutorService diskWriter;
+
+    /** @param directory каталог дискового уровня или null */
+    public TrajectoryCache(long maxBytes, Path directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    /** Общий кэш процесса; каталог на диске задаётся свойством {@code pendulum.cache.dir}. */
+    public static TrajectoryCache getDefault() {
+        return DEFAULT;
+    }
+
+    /** @return траектория или null, если её нет ни в памяти, ни на диске */
+    public synchronized CompressedTrajectory get(Key key) {
+        CompressedTrajectory trajectory = entries.get(key);
+        if (trajectory == null && directory != null) {
+            trajectory = readFromDisk(key);
+            if (trajectory != null) {
+                insert(key, trajectory);
+            }
+        }
+        if (trajectory == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return trajectory;
+    }
+
+    /** Сохранить траекторию, если она длиннее уже известной с тем же ключом. */
+    public synchronized void put(Key key, CompressedTrajectory trajectory) {
+        CompressedTrajectory existing = entries.get(key);
+        if (existing != null && existing.getSampleCount() >= trajectory.getSampleCount()) {
+            return;
+        }
+        insert(key, trajectory);
+        if (directory != null) {
+            writeToDiskLater(key, trajectory);
+        }
+    }
+
+    /**
+     * Траектория длительностью не меньше {@code duration}: из кэша или рассчитанная
+     * (с продолжением от конца закэшированной) и сохранённая.
+     */
+    public CompressedTrajectory compute(SimulationParameters params, double dt, int sampleSteps, double duration) {
+        Key key = new Key(params, dt, sampleSteps);
+        int needed = (int) (Math.round(duration / dt) / sampleSteps) + 1;
+        CompressedTrajectory cached = get(key);
+        if (cached != null && cached.getSampleCount() >= needed) {
+            return cached;
+        }
+
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        double[] samples = new double[needed * CompressedTrajectory.STRIDE];
+        int count = 0;
+        if (cached != null && cached.getSampleCount() > 0) {
+            double[] prefix = cached.decode();
+            count = cached.getSampleCount();
+            System.arraycopy(prefix, 0, samples, 0, prefix.length);
+            loadSample(integrator, samples, count - 1, (long) (count - 1) * sampleSteps);
+        } else {
+            storeSample(integrator, samples, count++);
+        }
+        while (count < needed) {
+            for (int i = 0; i < sampleSteps; i++) {
+                integrator.step(dt);
+            }
+            storeSample(integrator, samples, count++);
+        }
+        CompressedTrajectory trajectory = CompressedTrajectory.encode(sampleSteps, samples, count);
+        put(key, trajectory);
+        return trajectory;
+    }
+
+    static void storeSample(PendulumIntegrator integrator, double[] samples, int index) {
+        int offset = index * CompressedTrajectory.STRIDE;
+        samples[offset] = integrator.getTime();
+        samples[offset + 1] = integrator.getSpringLength();
+        samples[offset + 2] = integrator.getRadialVelocity();
+        samples[offset + 3] = integrator.getAngle();
+        samples[offset + 4] = integrator.getAngularVelocity();
+        samples[offset + 5] = integrator.getDrivePhase();
+    }
+
+    /** Перевести интегратор в состояние выборки {@code index}, записанной {@link #storeSample}. */
+    public static void loadSample(PendulumIntegrator integrator, double[] samples, int index, long steps) {
+        int offset = index * CompressedTrajectory.STRIDE;
+        integrator.setState(Arrays.copyOfRange(samples, offset + 1, offset + 5));
+        integrator.setTime(samples[offset], steps, samples[offset + 5]);
+    }
+
+    private void insert(Key key, CompressedTrajectory trajectory) {
+        CompressedTrajectory previous = entries.put(key, trajectory);
+        if (previous != null) {
+            bytes -= previous.getByteSize();
+        }
+        bytes += trajectory.getByteSize();
+        Iterator<Map.Entry<Key, CompressedTrajectory>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, CompressedTrajectory> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue; // Только что добавленную не вытесняем
+            }
+            bytes -= entry.getValue().getByteSize();
+            eldest.remove();
+        }
+    }
+
+    private CompressedTrajectory readFromDisk(Key key) {
+        Path file = directory.resolve(key.digest() + ".trj");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                return null;
+            }
+            long[] bits = new long[in.readInt()];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = in.readLong();
+            }
+            if (!Arrays.equals(bits, key.bits)) {
+                return null; // Совпадение хэша без совпадения ключа
+            }
+            return CompressedTrajectory.readFrom(in);
+        } catch (IOException e) {
+            return null; // Дисковый уровень необязателен: повреждённый файл считается промахом
+        }
+    }
+
+    private void writeToDiskLater(Key key, CompressedTrajectory trajectory) {
+        if (diskWriter == null) {
+            diskWriter = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "TrajectoryCacheWriter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        diskWriter.execute(() -> {
+            try {
+                Files.createDirectories(directory);
+                Path file = directory.resolve(key.digest() + ".trj");
+                Path temporary = Files.createTempFile(directory, "trajectory", ".tmp");
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                    out.writeInt(FILE_MAGIC);
+                    out.writeInt(key.bits.length);
+                    for (long value : key.bits) {
+                        out.writeLong(value);
+                    }
+                    trajectory.writeTo(out);
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("Не удалось сохранить траекторию в кэш: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Дождаться завершения фоновой записи на диск. */
+    public void flush() {
+        ExecutorService writer;
+        synchronized (this) {
+            writer = diskWriter;
+            diskWriter = null;
+        }
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized long getBytes() { return bytes; }
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Ключ кэша: побитовые значения параметров в каноническом порядке
+     * {@link SimulationParameters#getParameterNames()}, шаг и интервал выборки.
+     * -0.0 приводится к 0.0, все NaN — к одному значению.
+     */
+    public static final class Key {
+        private final long[] bits;
+        private final int hash;
+
+        public Key(SimulationParameters params, double dt, int sampleSteps) {
+            String[] names = SimulationParameters.getParameterNames();
+            bits = new long[names.length + 2];
+            for (int i = 0; i < names.length; i++) {
+                bits[i] = canonical(params.getParameter(names[i]));
+            }
+            bits[names.length] = canonical(dt);
+            bits[names.length + 1] = sampleSteps;
+            hash = Arrays.hashCode(bits);
+        }
+
+        private static long canonical(double value) {
+            return Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+        }
+
+        /** @return SHA-256 ключа в шестнадцатеричном виде (имя файла на диске) */
+        public String digest() {
+            ByteBuffer buffer = ByteBuffer.allocate(bits.length * Long.BYTES);
+            for (long value : bits) {
+                buffer.putLong(value);
+            }
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+                StringBuilder hex = new StringBuilder(hash.length * 2);
+                for (byte b : hash) {
+                    hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // SHA-256 обязателен в любой Java SE
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(bits, ((Key) other).bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
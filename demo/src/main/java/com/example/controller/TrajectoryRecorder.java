@@ -0,0 +1,138 @@
+package com.example.controller;
+
+import com.example.observer.StepListener;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Запись траектории контроллера в {@link TrajectoryCache}. Запись ведётся, только пока
+ * состояние получено из начального шагами без скачков: после сброса или продолжения
+ * закэшированной траектории. При сбросе, смене параметров или восстановлении
+ * контрольной точки записанное сохраняется в кэш, а запись прекращается.
+ *
+ * Запись ограничена {@link #MAX_SAMPLES} выборками на контроллер (≈ 11 мин модельного
+ * времени, 2,5 МБ), поэтому память не растёт с числом симуляций и длительностью расчёта.
+ * Сжатие и сохранение в кэш выполняются в фоновом потоке {@link #BACKGROUND}.
+ */
+class TrajectoryRecorder implements StepListener {
+
+    static final int SAMPLE_STEPS = 10;
+    static final int MAX_SAMPLES = 1 << 16;
+    private static final int INITIAL_SAMPLES = 1024;
+
+    /**
+     * Фоновый поток кэша траекторий: сжатие записанного и переходы {@link PhysicsController#seek}
+     * выполняются в нём по очереди, поэтому переход видит траекторию, сохранённую перед ним.
+     */
+    static final ExecutorService BACKGROUND = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "TrajectoryRecorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TrajectoryCache cache;
+    private TrajectoryCache.Key key;
+    private PendulumIntegrator source; // Интегратор, шаги которого записываются
+    private double[] samples = new double[INITIAL_SAMPLES * CompressedTrajectory.STRIDE];
+    private int count;
+    private int stepsSinceSample;
+    private int storedCount; // Сколько выборок уже сохранено в кэше
+
+    TrajectoryRecorder(TrajectoryCache cache) {
+        this.cache = cache;
+    }
+
+    /** Начать запись с начального состояния интегратора. */
+    void begin(TrajectoryCache.Key key, PendulumIntegrator integrator) {
+        this.key = key;
+        this.source = integrator;
+        count = 0;
+        storedCount = 0;
+        stepsSinceSample = 0;
+        ensureCapacity(1);
+        TrajectoryCache.storeSample(integrator, samples, count++);
+    }
+
+    /**
+     * Продолжить запись после перехода к выборке {@code count - 1} траектории:
+     * первые {@code count} выборок берутся из {@code prefix}. Если префикс уже не короче
+     * {@link #MAX_SAMPLES} (траектория записана пакетным расчётом), запись не ведётся.
+     */
+    void resume(TrajectoryCache.Key key, PendulumIntegrator integrator, double[] prefix, int count, int storedCount) {
+        if (count >= MAX_SAMPLES) {
+            this.key = null;
+            this.count = 0;
+            this.storedCount = 0;
+            return;
+        }
+        this.key = key;
+        this.source = integrator;
+        ensureCapacity(count);
+        System.arraycopy(prefix, 0, samples, 0, count * CompressedTrajectory.STRIDE);
+        this.count = count;
+        this.storedCount = storedCount;
+        stepsSinceSample = 0;
+    }
+
+    /**
+     * Сохранить записанное в кэш (если появились новые выборки). Буфер передаётся фоновому
+     * потоку без копирования, запись продолжается в новый, поэтому после сохранения
+     * допустимы только {@link #begin}, {@link #resume} или {@link #takeOver}.
+     */
+    void flush() {
+        if (key != null && count > storedCount) {
+            TrajectoryCache.Key recordedKey = key;
+            double[] recorded = samples;
+            int recordedCount = count;
+            BACKGROUND.execute(() ->
+                cache.put(recordedKey, CompressedTrajectory.encode(SAMPLE_STEPS, recorded, recordedCount)));
+            samples = new double[INITIAL_SAMPLES * CompressedTrajectory.STRIDE];
+            count = 0;
+            storedCount = 0;
+        }
+    }
+
+    /**
+     * Продолжить запись, которую вёл {@code other} (расчёт перехода в фоновом потоке),
+     * по шагам {@code integrator}, переведённого в то же состояние.
+     */
+    void takeOver(TrajectoryRecorder other, PendulumIntegrator integrator) {
+        key = other.key;
+        source = integrator;
+        samples = other.samples;
+        count = other.count;
+        storedCount = other.storedCount;
+        stepsSinceSample = other.stepsSinceSample;
+    }
+
+    @Override
+    public void onStep(double time, double springLength, double radialVelocity,
+                       double angle, double angularVelocity) {
+        if (key == null || ++stepsSinceSample < SAMPLE_STEPS) {
+            return;
+        }
+        stepsSinceSample = 0;
+        if (count >= MAX_SAMPLES) {
+            flush();
+            key = null;
+            return;
+        }
+        ensureCapacity(count + 1);
+        TrajectoryCache.storeSample(source, samples, count++); // Вместе с фазой подвеса
+    }
+
+    @Override
+    public void onReset() {
+        flush();
+        key = null;
+    }
+
+    private void ensureCapacity(int sampleCount) {
+        if (samples.length < sampleCount * CompressedTrajectory.STRIDE) {
+            samples = Arrays.copyOf(samples,
+                Math.max(samples.length * 2, sampleCount * CompressedTrajectory.STRIDE));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.equations;
+
+import com.example.controller.EquationsOfMotion;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компиляция пользовательских уравнений движения ({@link EquationParser}) во время работы.
+ * Основной путь — исходный код Java, скомпилированный в памяти системным компилятором
+ * и загруженный скрытым классом ({@link MethodHandles.Lookup#defineHiddenClass}): JIT
+ * обрабатывает его как обычный код и встраивает в цикл РК4. Если компилятора нет
+ * (среда выполнения без модуля jdk.compiler), уравнения собираются в дерево MethodHandle.
+ */
+public final class EquationCompiler {
+
+    /** Встроенные уравнения {@code PendulumIntegrator.derivatives} в той же последовательности операций. */
+    public static final String DEFAULT_EQUATIONS = """
+        ddR = R * dfi * dfi - (k / m) * (R - R0) + g * cos(fi) - (c / m) * dR
+        ddfi = -g * sin(fi) / R - 2 * (dR / R) * dfi - (c / m) * dfi
+        """;
+
+    private static final String PACKAGE = EquationCompiler.class.getPackageName();
+    private static final String CLASS_NAME = "GeneratedEquations";
+
+    private EquationCompiler() {}
+
+    /** Скомпилировать в байт-код, а если компилятор недоступен — в дерево MethodHandle. */
+    public static EquationsOfMotion compile(String source) {
+        return isBytecodeAvailable() ? compileBytecode(source) : compileHandles(source);
+    }
+
+    public static boolean isBytecodeAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    public static EquationsOfMotion compileBytecode(String source) {
+        Map<String, Expression.Reference> definitions = new EquationParser().parse(source);
+        String code = generateSource(definitions);
+        byte[] bytes = compileInMemory(code);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class));
+            return (EquationsOfMotion) constructor.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось загрузить скомпилированные уравнения", e);
+        }
+    }
+
+    /** Каждое определение — отдельное дерево, ссылки на него читают уже вычисленное значение. */
+    public static EquationsOfMotion compileHandles(String source) {
+        Map<String, Expression.Reference> definitions = new EquationParser().parse(source);
+        try {
+            MethodHandle[] handles = new MethodHandle[definitions.size()];
+            for (Expression.Reference reference : definitions.values()) {
+                handles[reference.index] = reference.definition.toHandle();
+            }
+            return new HandleEquations(handles, definitions.get("ddR").index, definitions.get("ddfi").index);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось построить дерево MethodHandle", e);
+        }
+    }
+
+    static String generateSource(Map<String, Expression.Reference> definitions) {
+        StringBuilder code = new StringBuilder();
+        code.append("package ").append(PACKAGE).append(";\n\n")
+            .append("final class ").append(CLASS_NAME)
+            .append(" implements ").append(EquationsOfMotion.class.getName()).append(" {\n")
+            .append("    @Override\n")
+            .append("    public void derivatives(double t, double[] y, double[] p, double[] out) {\n");
+        for (Expression.Reference reference : definitions.values()) {
+            code.append("        final double ").append(reference.javaName).append(" = ");
+            reference.definition.toJava(code);
+            code.append(";\n");
+        }
+        code.append("        out[0] = y[1];\n")
+            .append("        out[1] = ").append(definitions.get("ddR").javaName).append(";\n")
+            .append("        out[2] = y[3];\n")
+            .append("        out[3] = ").append(definitions.get("ddfi").javaName).append(";\n")
+            .append("    }\n}\n");
+        return code.toString();
+    }
+
+    private static byte[] compileInMemory(String code) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Компилятор Java недоступен в этой среде выполнения");
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        JavaFileManager fileManager = new ForwardingJavaFileManager<>(standard) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                       JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return classBytes;
+                    }
+                };
+            }
+        };
+        JavaFileObject sourceFile = new SimpleJavaFileObject(
+                URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + CLASS_NAME + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+        List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-proc:none", "-g:none");
+        boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, List.of(sourceFile)).call();
+        try {
+            fileManager.close();
+        } catch (IOException ignored) {
+        }
+        if (!success) {
+            StringBuilder message = new StringBuilder("Ошибка компиляции уравнений:");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                message.append('\n').append(diagnostic.getMessage(null));
+            }
+            throw new IllegalArgumentException(message.toString());
+        }
+        return classBytes.toByteArray();
+    }
+
+    /**
+     * Уравнения на деревьях MethodHandle (запасной путь без компилятора). Определения
+     * вычисляются по порядку в массив значений экземпляра, поэтому экземпляр используется
+     * одним интегратором (как и {@link com.example.controller.PendulumIntegrator} — одним потоком).
+     */
+    private static final class HandleEquations implements EquationsOfMotion {
+        private final MethodHandle[] definitions;
+        private final int radial;
+        private final int angular;
+        private final double[] values;
+
+        HandleEquations(MethodHandle[] definitions, int radial, int angular) {
+            this.definitions = definitions;
+            this.radial = radial;
+            this.angular = angular;
+            this.values = new double[definitions.length];
+        }
+
+        @Override
+        public void derivatives(double time, double[] y, double[] parameters, double[] out) {
+            try {
+                for (int i = 0; i < definitions.length; i++) {
+                    values[i] = (double) definitions[i].invokeExact(time, y, parameters, values);
+                }
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            out[0] = y[1];
+            out[1] = values[radial];
+            out[2] = y[3];
+            out[3] = values[angular];
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.equations;
+
+import com.example.model.SimulationParameters;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Разбор описания уравнений движения. Каждая строка — определение {@code имя = выражение};
+ * обязательны {@code ddR} (d²R/dt²) и {@code ddfi} (d²(fi)/dt²). Остальные определения —
+ * вспомогательные величины, которые можно использовать ниже. Комментарии начинаются с {@code #}.
+ *
+ * В выражениях доступны {@code R, dR, fi, dfi, t}, параметры по именам
+ * {@link SimulationParameters#getParameterNames()} и сокращениям {@code m, k, R0, c, g},
+ * числа, {@code + - * / ^}, скобки и функции {@code sin cos tan asin acos atan exp log sqrt
+ * abs signum tanh sinh cosh min max pow atan2}. {@code g} ({@code gravity}) — эффективное
+ * ускорение в системе отсчёта подвеса: при колеблющемся подвесе оно включает его ускорение.
+ */
+final class EquationParser {
+
+    private static final Set<String> UNARY_FUNCTIONS = Set.of(
+        "sin", "cos", "tan", "asin", "acos", "atan", "exp", "log", "sqrt", "abs", "signum",
+        "tanh", "sinh", "cosh");
+    private static final Set<String> BINARY_FUNCTIONS = Set.of("min", "max", "pow", "atan2");
+    private static final Map<String, String> PARAMETER_ALIASES = Map.of(
+        "m", "mass", "k", "springConstant", "R0", "naturalLength", "c", "damping", "g", "gravity");
+    private static final String[] STATE_NAMES = {"R", "dR", "fi", "dfi"};
+
+    private final Map<String, Expression.Reference> definitions = new LinkedHashMap<>();
+
+    private String text;
+    private int position;
+    private int lineNumber;
+
+    /** @return определения в порядке описания (включая ddR и ddfi) */
+    Map<String, Expression.Reference> parse(String source) {
+        String[] lines = source.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            lineNumber = i + 1;
+            String line = lines[i];
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                throw error("ожидалось определение вида имя = выражение");
+            }
+            String name = line.substring(0, eq).trim();
+            if (!name.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+                throw error("некорректное имя: " + name);
+            }
+            if (definitions.containsKey(name) || isBuiltIn(name)) {
+                throw error("имя уже определено: " + name);
+            }
+            text = line.substring(eq + 1);
+            position = 0;
+            Expression expression = parseSum();
+            skipSpaces();
+            if (position < text.length()) {
+                throw error("лишние символы: " + text.substring(position).trim());
+            }
+            definitions.put(name, new Expression.Reference("d_" + name, definitions.size(), expression));
+        }
+        for (String required : new String[] {"ddR", "ddfi"}) {
+            if (!definitions.containsKey(required)) {
+                throw new IllegalArgumentException("Не задано уравнение " + required);
+            }
+        }
+        return definitions;
+    }
+
+    private boolean isBuiltIn(String name) {
+        return stateIndex(name) >= 0 || "t".equals(name) || parameterIndex(name) >= 0
+            || UNARY_FUNCTIONS.contains(name) || BINARY_FUNCTIONS.contains(name);
+    }
+
+    private Expression parseSum() {
+        Expression left = parseProduct();
+        while (true) {
+            char op = peek();
+            if (op != '+' && op != '-') {
+                return left;
+            }
+            position++;
+            left = new Expression.Binary(op, left, parseProduct());
+        }
+    }
+
+    private Expression parseProduct() {
+        Expression left = parseUnary();
+        while (true) {
+            char op = peek();
+            if (op != '*' && op != '/') {
+                return left;
+            }
+            position++;
+            left = new Expression.Binary(op, left, parseUnary());
+        }
+    }
+
+    private Expression parseUnary() {
+        char c = peek();
+        if (c == '-') {
+            position++;
+            return new Expression.Negate(parseUnary());
+        }
+        if (c == '+') {
+            position++;
+            return parseUnary();
+        }
+        return parsePower();
+    }
+
+    private Expression parsePower() {
+        Expression base = parsePrimary();
+        if (peek() == '^') {
+            position++;
+            return new Expression.Binary('^', base, parseUnary()); // Правоассоциативно
+        }
+        return base;
+    }
+
+    private Expression parsePrimary() {
+        char c = peek();
+        if (c == '(') {
+            position++;
+            Expression inner = parseSum();
+            expect(')');
+            return inner;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (Character.isLetter(c) || c == '_') {
+            String name = parseName();
+            if (peek() == '(') {
+                return parseCall(name);
+            }
+            return resolve(name);
+        }
+        throw error(c == 0 ? "неожиданный конец выражения" : "неожиданный символ '" + c + "'");
+    }
+
+    private Expression parseNumber() {
+        int start = position;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            boolean exponentSign = (c == '+' || c == '-') && position > start
+                && (text.charAt(position - 1) == 'e' || text.charAt(position - 1) == 'E');
+            if (!Character.isDigit(c) && c != '.' && c != 'e' && c != 'E' && !exponentSign) {
+                break;
+            }
+            position++;
+        }
+        try {
+            return new Expression.Constant(Double.parseDouble(text.substring(start, position)));
+        } catch (NumberFormatException e) {
+            throw error("некорректное число: " + text.substring(start, position));
+        }
+    }
+
+    private String parseName() {
+        int start = position;
+        while (position < text.length()
+               && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_')) {
+            position++;
+        }
+        return text.substring(start, position);
+    }
+
+    private Expression parseCall(String function) {
+        int arity;
+        if (UNARY_FUNCTIONS.contains(function)) {
+            arity = 1;
+        } else if (BINARY_FUNCTIONS.contains(function)) {
+            arity = 2;
+        } else {
+            throw error("неизвестная функция: " + function);
+        }
+        expect('(');
+        Expression[] arguments = new Expression[arity];
+        for (int i = 0; i < arity; i++) {
+            if (i > 0) {
+                expect(',');
+            }
+            arguments[i] = parseSum();
+        }
+        expect(')');
+        return new Expression.Call(function, arguments);
+    }
+
+    private Expression resolve(String name) {
+        int state = stateIndex(name);
+        if (state >= 0) {
+            return new Expression.Variable(Expression.Variable.STATE, state);
+        }
+        if ("t".equals(name)) {
+            return new Expression.Variable(Expression.Variable.TIME, 0);
+        }
+        int parameter = parameterIndex(name);
+        if (parameter >= 0) {
+            return new Expression.Variable(Expression.Variable.PARAMETER, parameter);
+        }
+        Expression.Reference reference = definitions.get(name);
+        if (reference == null) {
+            throw error("неизвестное имя: " + name);
+        }
+        return reference;
+    }
+
+    private static int stateIndex(String name) {
+        for (int i = 0; i < STATE_NAMES.length; i++) {
+            if (STATE_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parameterIndex(String name) {
+        String parameter = PARAMETER_ALIASES.getOrDefault(name, name);
+        String[] names = SimulationParameters.getParameterNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(parameter)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private char peek() {
+        skipSpaces();
+        return position < text.length() ? text.charAt(position) : 0;
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw error("ожидался символ '" + expected + "'");
+        }
+        position++;
+    }
+
+    private void skipSpaces() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Строка " + lineNumber + ": " + message);
+    }
+}
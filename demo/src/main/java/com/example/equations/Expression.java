@@ -0,0 +1,223 @@
+package com.example.equations;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+
+/**
+ * Узел дерева выражения уравнений движения. Дерево переводится либо в исходный код Java
+ * для компиляции, либо в дерево {@link MethodHandle} типа
+ * {@code (double t, double[] y, double[] p, double[] d)double}, где {@code d} — уже
+ * вычисленные значения определений: ссылка на определение читает {@code d[i]}, а не
+ * встраивает его дерево, поэтому размер дерева и время вычисления линейны по описанию.
+ */
+abstract class Expression {
+
+    static final MethodType TYPE = MethodType.methodType(double.class, double.class, double[].class, double[].class,
+                                                         double[].class);
+
+    /** Дописать выражение Java; переменные: {@code t}, {@code y[]}, {@code p[]} и локальные определения. */
+    abstract void toJava(StringBuilder out);
+
+    abstract MethodHandle toHandle() throws ReflectiveOperationException;
+
+    static final class Constant extends Expression {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        void toJava(StringBuilder out) {
+            out.append('(').append(Double.toString(value).replace("Infinity", "1.0/0.0")).append(')');
+        }
+
+        @Override
+        MethodHandle toHandle() {
+            return MethodHandles.dropArguments(MethodHandles.constant(double.class, value), 0, TYPE.parameterList());
+        }
+    }
+
+    /** Время, элемент вектора состояния или параметр симуляции. */
+    static final class Variable extends Expression {
+        static final int TIME = 0, STATE = 1, PARAMETER = 2;
+
+        final int kind;
+        final int index;
+
+        Variable(int kind, int index) {
+            this.kind = kind;
+            this.index = index;
+        }
+
+        @Override
+        void toJava(StringBuilder out) {
+            switch (kind) {
+                case TIME -> out.append('t');
+                case STATE -> out.append("y[").append(index).append(']');
+                default -> out.append("p[").append(index).append(']');
+            }
+        }
+
+        @Override
+        MethodHandle toHandle() {
+            if (kind == TIME) {
+                return MethodHandles.dropArguments(MethodHandles.identity(double.class), 1,
+                                                   double[].class, double[].class, double[].class);
+            }
+            return arrayElement(kind == STATE ? 1 : 2, index);
+        }
+    }
+
+    /** Ссылка на именованное определение из того же описания. */
+    static final class Reference extends Expression {
+        final String javaName;
+        final int index;
+        final Expression definition;
+
+        /** @param index номер определения в порядке описания (элемент {@code d}) */
+        Reference(String javaName, int index, Expression definition) {
+            this.javaName = javaName;
+            this.index = index;
+            this.definition = definition;
+        }
+
+        @Override
+        void toJava(StringBuilder out) {
+            out.append(javaName);
+        }
+
+        @Override
+        MethodHandle toHandle() {
+            return arrayElement(3, index);
+        }
+    }
+
+    static final class Negate extends Expression {
+        final Expression operand;
+
+        Negate(Expression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        void toJava(StringBuilder out) {
+            out.append("(-");
+            operand.toJava(out);
+            out.append(')');
+        }
+
+        @Override
+        MethodHandle toHandle() throws ReflectiveOperationException {
+            return MethodHandles.filterReturnValue(operand.toHandle(), Operations.handle("negate", 1));
+        }
+    }
+
+    static final class Binary extends Expression {
+        final char operator;
+        final Expression left, right;
+
+        Binary(char operator, Expression left, Expression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void toJava(StringBuilder out) {
+            if (operator == '^') {
+                out.append("Math.pow(");
+                left.toJava(out);
+                out.append(", ");
+                right.toJava(out);
+                out.append(')');
+                return;
+            }
+            out.append('(');
+            left.toJava(out);
+            out.append(' ').append(operator).append(' ');
+            right.toJava(out);
+            out.append(')');
+        }
+
+        @Override
+        MethodHandle toHandle() throws ReflectiveOperationException {
+            String name = switch (operator) {
+                case '+' -> "add";
+                case '-' -> "subtract";
+                case '*' -> "multiply";
+                case '/' -> "divide";
+                default -> "pow";
+            };
+            return combine(Operations.handle(name, 2), left.toHandle(), right.toHandle());
+        }
+    }
+
+    static final class Call extends Expression {
+        final String function;
+        final Expression[] arguments;
+
+        Call(String function, Expression[] arguments) {
+            this.function = function;
+            this.arguments = arguments;
+        }
+
+        @Override
+        void toJava(StringBuilder out) {
+            out.append("Math.").append(function).append('(');
+            for (int i = 0; i < arguments.length; i++) {
+                if (i > 0) out.append(", ");
+                arguments[i].toJava(out);
+            }
+            out.append(')');
+        }
+
+        @Override
+        MethodHandle toHandle() throws ReflectiveOperationException {
+            MethodHandle target = Operations.handle(function, arguments.length);
+            if (arguments.length == 1) {
+                return MethodHandles.filterReturnValue(arguments[0].toHandle(), target);
+            }
+            return combine(target, arguments[0].toHandle(), arguments[1].toHandle());
+        }
+    }
+
+    /** Подставить два выражения (t, y, p, d) в аргументы двуместной операции. */
+    private static MethodHandle combine(MethodHandle operation, MethodHandle left, MethodHandle right) {
+        MethodHandle withRight = MethodHandles.collectArguments(operation, 1, right);
+        MethodHandle spread = MethodHandles.collectArguments(withRight, 0, left);
+        return MethodHandles.permuteArguments(spread, TYPE, 0, 1, 2, 3, 0, 1, 2, 3);
+    }
+
+    /** @return (t, y, p, d) -> элемент {@code index} массива-аргумента номер {@code argument} (1..3) */
+    private static MethodHandle arrayElement(int argument, int index) {
+        MethodHandle element = MethodHandles.insertArguments(
+            MethodHandles.arrayElementGetter(double[].class), 1, index);
+        MethodHandle withLeading = MethodHandles.dropArguments(element, 0, TYPE.parameterList().subList(0, argument));
+        return MethodHandles.dropArguments(withLeading, argument + 1, TYPE.parameterList().subList(argument + 1, 4));
+    }
+
+    /** Операции для дерева MethodHandle; функции берутся из {@link Math}. */
+    static final class Operations {
+        private Operations() {}
+
+        static double negate(double a) { return -a; }
+        static double add(double a, double b) { return a + b; }
+        static double subtract(double a, double b) { return a - b; }
+        static double multiply(double a, double b) { return a * b; }
+        static double divide(double a, double b) { return a / b; }
+
+        static MethodHandle handle(String name, int arity) throws ReflectiveOperationException {
+            MethodType type = arity == 1
+                ? MethodType.methodType(double.class, double.class)
+                : MethodType.methodType(double.class, double.class, double.class);
+            Class<?> owner = switch (name) {
+                case "negate", "add", "subtract", "multiply", "divide" -> Operations.class;
+                default -> Math.class;
+            };
+            return MethodHandles.lookup().findStatic(owner, name.toLowerCase(Locale.ROOT), type);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.gui;
+
+import com.example.model.Channel;
+import com.example.model.PhysicsState;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Колоночный набор данных для нескольких каналов с общей осью времени.
+ * Значения хранятся в кольцевых массивах примитивов; оповещение графиков
+ * выполняется один раз за кадр через {@link #publish()}.
+ */
+class ChannelDataset extends AbstractXYDataset implements XYDomainInfo, XYRangeInfo {
+
+    private final Channel[] channels;
+    private final int capacity;
+    private final double[] times;
+    private final double[][] values;  // [канал][отсчёт]
+    private int start;
+    private int size;
+
+    private final double[] minValues;
+    private final double[] maxValues;
+    private final boolean[] boundsValid;
+
+    private final List<ChannelView> views = new ArrayList<>();
+    private boolean changed;
+
+    ChannelDataset(List<Channel> channels, int capacity) {
+        this.channels = channels.toArray(new Channel[0]);
+        this.capacity = capacity;
+        this.times = new double[capacity];
+        this.values = new double[this.channels.length][capacity];
+        this.minValues = new double[this.channels.length];
+        this.maxValues = new double[this.channels.length];
+        this.boundsValid = new boolean[this.channels.length];
+    }
+
+    void append(PhysicsState state) {
+        int index;
+        if (size < capacity) {
+            index = (start + size) % capacity;
+            size++;
+        } else {
+            // Буфер заполнен: затираем самый старый отсчёт
+            index = start;
+            start = (start + 1) % capacity;
+            for (int c = 0; c < channels.length; c++) {
+                double evicted = values[c][index];
+                if (evicted <= minValues[c] || evicted >= maxValues[c]) {
+                    boundsValid[c] = false;
+                }
+            }
+        }
+
+        times[index] = state.getTime();
+        for (int c = 0; c < channels.length; c++) {
+            double value = channels[c].read(state);
+            values[c][index] = value;
+            if (size == 1) {
+                minValues[c] = value;
+                maxValues[c] = value;
+                boundsValid[c] = true;
+            } else if (boundsValid[c]) {
+                minValues[c] = Math.min(minValues[c], value);
+                maxValues[c] = Math.max(maxValues[c], value);
+            }
+        }
+        changed = true;
+    }
+
+    void clear() {
+        start = 0;
+        size = 0;
+        Arrays.fill(boundsValid, false);
+        changed = true;
+    }
+
+    /** Оповестить графики об изменениях, накопленных с прошлого кадра. */
+    boolean publish() {
+        if (!changed) {
+            return false;
+        }
+        changed = false;
+        fireDatasetChanged();
+        for (ChannelView view : views) {
+            view.fireChanged();
+        }
+        return true;
+    }
+
+    /** @return набор данных из одного канала, разделяющий хранилище с этим */
+    XYDataset channelView(int channel) {
+        ChannelView view = new ChannelView(channel);
+        views.add(view);
+        return view;
+    }
+
+    private int physicalIndex(int item) {
+        return (start + item) % capacity;
+    }
+
+    private Range timeBounds() {
+        if (size == 0) {
+            return null;
+        }
+        return new Range(times[start], times[physicalIndex(size - 1)]);
+    }
+
+    private Range valueBounds(int channel) {
+        if (size == 0) {
+            return null;
+        }
+        if (!boundsValid[channel]) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double[] column = values[channel];
+            for (int i = 0; i < size; i++) {
+                double value = column[physicalIndex(i)];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            minValues[channel] = min;
+            maxValues[channel] = max;
+            boundsValid[channel] = true;
+        }
+        return new Range(minValues[channel], maxValues[channel]);
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return channels.length;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") // Сигнатура JFreeChart
+    public Comparable getSeriesKey(int series) {
+        return channels[series].getLabel();
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return size;
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return times[physicalIndex(item)];
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return values[series][physicalIndex(item)];
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") // Сигнатура JFreeChart
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        return timeBounds();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") // Сигнатура JFreeChart
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        Range result = null;
+        for (int c = 0; c < channels.length; c++) {
+            if (visibleSeriesKeys == null || visibleSeriesKeys.contains(channels[c].getLabel())) {
+                result = Range.combine(result, valueBounds(c));
+            }
+        }
+        return result;
+    }
+
+    /** Представление одного канала для отдельного подграфика. */
+    private class ChannelView extends AbstractXYDataset implements XYDomainInfo, XYRangeInfo {
+        private final int channel;
+
+        ChannelView(int channel) {
+            this.channel = channel;
+        }
+
+        void fireChanged() {
+            fireDatasetChanged();
+        }
+
+        @Override
+        public int getSeriesCount() {
+            return 1;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // Сигнатура JFreeChart
+        public Comparable getSeriesKey(int series) {
+            return channels[channel].getLabel();
+        }
+
+        @Override
+        public DomainOrder getDomainOrder() {
+            return DomainOrder.ASCENDING;
+        }
+
+        @Override
+        public int getItemCount(int series) {
+            return size;
+        }
+
+        @Override
+        public Number getX(int series, int item) {
+            return getXValue(series, item);
+        }
+
+        @Override
+        public double getXValue(int series, int item) {
+            return times[physicalIndex(item)];
+        }
+
+        @Override
+        public Number getY(int series, int item) {
+            return getYValue(series, item);
+        }
+
+        @Override
+        public double getYValue(int series, int item) {
+            return values[channel][physicalIndex(item)];
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // Сигнатура JFreeChart
+        public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+            return timeBounds();
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // Сигнатура JFreeChart
+        public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+            return valueBounds(channel);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.gui;
+
+import com.example.analysis.ChaosMap;
+import com.example.model.SimulationParameters;
+import com.example.observer.SimulationCommands;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Карта хаоса по двум параметрам вокруг текущих параметров симуляции.
+ * Плитки рассчитываются в фоне ({@link ChaosMap}) и дорисовываются по мере готовности.
+ */
+public class ChaosMapWindow extends JFrame implements FrameScheduler.FrameView {
+
+    private final SimulationCommands controller;
+    private final JComboBox<String> xParameterBox = new JComboBox<>(SimulationParameters.getParameterNames());
+    private final JComboBox<String> yParameterBox = new JComboBox<>(SimulationParameters.getParameterNames());
+    private final JSpinner xFromSpinner = new JSpinner(new SpinnerNumberModel(0.1, -1000.0, 1000.0, 0.1));
+    private final JSpinner xToSpinner = new JSpinner(new SpinnerNumberModel(3.0, -1000.0, 1000.0, 0.1));
+    private final JSpinner yFromSpinner = new JSpinner(new SpinnerNumberModel(0.5, -1000.0, 1000.0, 0.1));
+    private final JSpinner yToSpinner = new JSpinner(new SpinnerNumberModel(2.5, -1000.0, 1000.0, 0.1));
+    private final JSpinner resolutionSpinner = new JSpinner(new SpinnerNumberModel(64, 4, 1024, 8));
+    private final JSpinner durationSpinner = new JSpinner(new SpinnerNumberModel(30.0, 1.0, 10000.0, 10.0));
+    private final JCheckBox conservativeBox = new JCheckBox("без затухания", true);
+    private final JButton startButton = new JButton("▶ Рассчитать");
+    private final JButton cancelButton = new JButton("✖ Отмена");
+    private final JButton exportButton = new JButton("💾 PNG");
+    private final JProgressBar progressBar = new JProgressBar(0, 1000);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final MapPanel mapPanel = new MapPanel();
+
+    private ChaosMap map;
+    private Thread worker;
+
+    public ChaosMapWindow(SimulationCommands controller) {
+        this.controller = controller;
+        setTitle("🗺 Карта хаоса (показатель Ляпунова)");
+        setSize(760, 760);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        xParameterBox.setSelectedItem("initialAngle");
+        yParameterBox.setSelectedItem("initialLength");
+
+        JPanel axesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        axesPanel.add(new JLabel("X:"));
+        axesPanel.add(xParameterBox);
+        axesPanel.add(xFromSpinner);
+        axesPanel.add(xToSpinner);
+        axesPanel.add(new JLabel("Y:"));
+        axesPanel.add(yParameterBox);
+        axesPanel.add(yFromSpinner);
+        axesPanel.add(yToSpinner);
+
+        JPanel runPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        runPanel.add(new JLabel("Сетка:"));
+        runPanel.add(resolutionSpinner);
+        runPanel.add(new JLabel("Время (с):"));
+        runPanel.add(durationSpinner);
+        runPanel.add(conservativeBox);
+        runPanel.add(startButton);
+        runPanel.add(cancelButton);
+        runPanel.add(exportButton);
+
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusPanel.add(progressBar);
+        statusPanel.add(statusLabel);
+
+        JPanel northPanel = new JPanel(new GridLayout(3, 1));
+        northPanel.add(axesPanel);
+        northPanel.add(runPanel);
+        northPanel.add(statusPanel);
+
+        setLayout(new BorderLayout());
+        add(northPanel, BorderLayout.NORTH);
+        add(mapPanel, BorderLayout.CENTER);
+
+        cancelButton.setEnabled(false);
+        exportButton.setEnabled(false);
+        startButton.addActionListener(e -> start());
+        cancelButton.addActionListener(e -> map.cancel());
+        exportButton.addActionListener(e -> exportImage());
+
+        FrameScheduler.getInstance().register(this);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (map != null) {
+                    map.cancel();
+                }
+                FrameScheduler.getInstance().unregister(ChaosMapWindow.this);
+            }
+        });
+    }
+
+    private void start() {
+        SimulationParameters base = controller.getParameters();
+        if (conservativeBox.isSelected()) {
+            base.setDamping(0);
+        }
+        int resolution = (Integer) resolutionSpinner.getValue();
+        ChaosMap newMap = new ChaosMap(base,
+                (String) xParameterBox.getSelectedItem(), (Double) xFromSpinner.getValue(),
+                (Double) xToSpinner.getValue(), resolution,
+                (String) yParameterBox.getSelectedItem(), (Double) yFromSpinner.getValue(),
+                (Double) yToSpinner.getValue(), resolution)
+            .setIntegration(0.001, (Double) durationSpinner.getValue(), 100)
+            .setTileListener((column, row, width, height) ->
+                SwingUtilities.invokeLater(() -> FrameScheduler.getInstance().markDirty(this)));
+        map = newMap;
+        mapPanel.setMap(newMap);
+
+        long startNanos = System.nanoTime();
+        worker = new Thread(() -> {
+            newMap.compute();
+            SwingUtilities.invokeLater(() -> finished(newMap, System.nanoTime() - startNanos));
+        }, "ChaosMap");
+        worker.setDaemon(true);
+
+        startButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        exportButton.setEnabled(false);
+        progressBar.setValue(0);
+        statusLabel.setText("Расчёт...");
+        worker.start();
+    }
+
+    private void finished(ChaosMap finishedMap, long elapsedNanos) {
+        if (finishedMap != map) {
+            return;
+        }
+        startButton.setEnabled(true);
+        cancelButton.setEnabled(false);
+        exportButton.setEnabled(true);
+        renderFrame();
+        statusLabel.setText(finishedMap.isCancelled() ? "Отменено"
+            : String.format(Locale.US, "Готово за %.1f с, максимум %.3f 1/с",
+                            elapsedNanos / 1e9, finishedMap.getMaxValue()));
+    }
+
+    @Override
+    public void renderFrame() {
+        if (map == null) {
+            return;
+        }
+        progressBar.setValue((int) (map.getProgress() * 1000));
+        mapPanel.updateImage();
+        FrameScheduler.paintNow(mapPanel);
+    }
+
+    private void exportImage() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("chaos-map.png"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        BufferedImage image = new BufferedImage(mapPanel.getWidth(), mapPanel.getHeight(),
+                                                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        mapPanel.paint(g2d);
+        g2d.dispose();
+        try {
+            ImageIO.write(image, "png", chooser.getSelectedFile());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Не удалось сохранить: " + ex.getMessage(),
+                "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /** Тепловая карта с подписями осей и шкалой. */
+    private static class MapPanel extends JPanel {
+        private static final int MARGIN = 50;
+
+        private ChaosMap map;
+        private BufferedImage image;
+        private double maxValue;
+
+        MapPanel() {
+            setBackground(Color.WHITE);
+        }
+
+        void setMap(ChaosMap map) {
+            this.map = map;
+            updateImage();
+            repaint();
+        }
+
+        void updateImage() {
+            maxValue = map.getMaxValue();
+            image = map.toImage(maxValue);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            if (map == null) {
+                return;
+            }
+            Graphics2D g2d = (Graphics2D) g;
+            int plotWidth = getWidth() - 2 * MARGIN - 40;
+            int plotHeight = getHeight() - 2 * MARGIN;
+            if (plotWidth <= 0 || plotHeight <= 0) {
+                return;
+            }
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                 RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2d.drawImage(image, MARGIN, MARGIN, plotWidth, plotHeight, null);
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.drawRect(MARGIN, MARGIN, plotWidth, plotHeight);
+
+            // Шкала цвета справа
+            int scaleX = MARGIN + plotWidth + 15;
+            for (int y = 0; y < plotHeight; y++) {
+                g2d.setColor(new Color(ChaosMap.colorFor(maxValue * (plotHeight - 1 - y) / plotHeight, maxValue)));
+                g2d.drawLine(scaleX, MARGIN + y, scaleX + 12, MARGIN + y);
+            }
+
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.setFont(new Font("Arial", Font.PLAIN, 11));
+            g2d.drawString(String.format(Locale.US, "%.2f", maxValue), scaleX - 5, MARGIN - 5);
+            g2d.drawString("0", scaleX, MARGIN + plotHeight + 15);
+            int last = map.getColumns() - 1;
+            g2d.drawString(String.format(Locale.US, "%.3g", map.getX(0)), MARGIN, MARGIN + plotHeight + 15);
+            String xMax = String.format(Locale.US, "%.3g", map.getX(last));
+            g2d.drawString(xMax, MARGIN + plotWidth - g2d.getFontMetrics().stringWidth(xMax),
+                           MARGIN + plotHeight + 15);
+            g2d.drawString(map.getXParameter(), MARGIN + plotWidth / 2 - 20, MARGIN + plotHeight + 30);
+            g2d.drawString(String.format(Locale.US, "%.3g", map.getY(map.getRows() - 1)), 5, MARGIN + 10);
+            g2d.drawString(String.format(Locale.US, "%.3g", map.getY(0)), 5, MARGIN + plotHeight);
+            g2d.drawString(map.getYParameter(), 5, MARGIN - 10);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.gui;
 
+import com.example.model.Channel;
 import com.example.model.PhysicsState;
 import com.example.observer.SimulationCommands;
 import com.example.observer.SimulationObserver;
@@ -18,12 +19,14 @@ import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
-public class ChartWindow extends JFrame implements SimulationObserver {
+public class ChartWindow extends JFrame implements SimulationObserver, FrameScheduler.FrameView {
     
     private final String parameterName;
     
     private XYSeries series;
     private XYLineAndShapeRenderer renderer;
+    private ChartPanel chartPanel;
+    private final PendingSamples pending = new PendingSamples();
     private static final int MAX_POINTS = 500;
     
     public ChartWindow(SimulationCommands controller, String parameterName) {
@@ -37,17 +40,20 @@ public class ChartWindow extends JFrame implements SimulationObserver {
         initChart();
         
         controller.subscribe(this);
+        FrameScheduler.getInstance().register(this);
         
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
                 controller.unsubscribe(ChartWindow.this);
+                FrameScheduler.getInstance().unregister(ChartWindow.this);
             }
         });
     }
     
     private void initChart() {
         series = new XYSeries(parameterName);
+        series.setMaximumItemCount(MAX_POINTS);
         XYSeriesCollection dataset = new XYSeriesCollection(series);
         
         JFreeChart chart = ChartFactory.createXYLineChart(
@@ -72,14 +78,17 @@ public class ChartWindow extends JFrame implements SimulationObserver {
         renderer.setSeriesShapesVisible(0, false);
         plot.setRenderer(renderer);
         
-        ChartPanel chartPanel = new ChartPanel(chart);
+        chartPanel = new ChartPanel(chart);
         chartPanel.setPreferredSize(new Dimension(580, 350));
         chartPanel.setMouseWheelEnabled(true);
         
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         
         JButton clearButton = new JButton("🗑 Очистить");
-        clearButton.addActionListener(e -> series.clear());
+        clearButton.addActionListener(e -> {
+            pending.clear();
+            series.clear();
+        });
         controlPanel.add(clearButton);
 
         controlPanel.add(new JLabel("🎨 Цвет:"));
@@ -103,16 +112,30 @@ public class ChartWindow extends JFrame implements SimulationObserver {
         add(controlPanel, BorderLayout.SOUTH);
     }
     
+    @Override
+    public boolean needsAnalysis() {
+        Channel channel = Channel.find(parameterName);
+        return channel != null && channel.isDerived();
+    }
+    
     @Override
     public void onStateUpdate(PhysicsState state) {
-        double value = state.getParameter(parameterName);
-        double time = state.getTime();
-        
-        series.add(time, value);
-        
-        while (series.getItemCount() > MAX_POINTS) {
-            series.remove(0);
+        pending.add(state.getTime(), state.getParameter(parameterName));
+        FrameScheduler.getInstance().markDirty(this);
+    }
+    
+    @Override
+    public void renderFrame() {
+        if (pending.size() == 0) {
+            return;
+        }
+        // Добавляем все точки кадра без оповещений и перерисовываем график один раз
+        for (int i = 0; i < pending.size(); i++) {
+            series.add(pending.getX(i), pending.getY(i), false);
         }
+        pending.clear();
+        series.fireSeriesChanged();
+        FrameScheduler.paintNow(chartPanel);
     }
     
     @Override
@@ -125,6 +148,7 @@ public class ChartWindow extends JFrame implements SimulationObserver {
     
     @Override
     public void onSimulationReset() {
+        pending.clear();
         series.clear();
     }
 }
@@ -0,0 +1,45 @@
+package com.example.gui;
+
+import com.example.model.Channel;
+import com.example.observer.SimulationCommands;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Единственная точка входа главного окна в окна на JFreeChart.
+ *
+ * Главное окно и его классы не называют типы JFreeChart ни в полях, ни в сигнатурах,
+ * поэтому классы библиотеки загружаются только при открытии первого
+ * графика, а не при запуске. Пока они загружаются, над окном-источником показывается
+ * курсор ожидания.
+ */
+final class ChartWindows {
+
+    private ChartWindows() {}
+
+    static void openChart(Component owner, SimulationCommands controller, String parameter) {
+        show(owner, () -> new ChartWindow(controller, parameter));
+    }
+
+    static void openMultiChannel(Component owner, SimulationCommands controller,
+                                 List<Channel> channels, boolean stacked) {
+        show(owner, () -> new MultiChannelChartWindow(controller, channels, stacked));
+    }
+
+    static void openUncertainty(Component owner, SimulationCommands controller) {
+        show(owner, () -> new UncertaintyWindow(controller));
+    }
+
+    private static void show(Component owner, Supplier<? extends Window> factory) {
+        Cursor cursor = owner.getCursor();
+        owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        try {
+            factory.get().setVisible(true);
+        } finally {
+            owner.setCursor(cursor);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gui;
+
+import com.example.model.SimulationEvent;
+import com.example.observer.SimulationCommands;
+import com.example.observer.SimulationEventListener;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Журнал событий интегратора (прохождение нуля углом, экстремумы длины пружины,
+ * срабатывание ограничения длины). События приходят из потока симуляции
+ * и выводятся раз в кадр.
+ */
+public class EventLogWindow extends JFrame implements SimulationEventListener, FrameScheduler.FrameView {
+
+    private static final int MAX_LINES = 1000;
+
+    private final Queue<SimulationEvent> incoming = new ConcurrentLinkedQueue<>();
+    private final JTextArea log = new JTextArea();
+    private int lines;
+
+    public EventLogWindow(SimulationCommands controller) {
+        setTitle("🔔 События");
+        setSize(520, 400);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        log.setEditable(false);
+        log.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+        JButton clearButton = new JButton("🗑 Очистить");
+        clearButton.addActionListener(e -> {
+            log.setText("");
+            lines = 0;
+        });
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        controlPanel.add(clearButton);
+
+        setLayout(new BorderLayout());
+        add(new JScrollPane(log), BorderLayout.CENTER);
+        add(controlPanel, BorderLayout.SOUTH);
+
+        controller.addEventListener(this);
+        FrameScheduler.getInstance().register(this);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                controller.removeEventListener(EventLogWindow.this);
+                FrameScheduler.getInstance().unregister(EventLogWindow.this);
+            }
+        });
+    }
+
+    @Override
+    public void onEvent(SimulationEvent event) {
+        incoming.add(event);
+        SwingUtilities.invokeLater(() -> FrameScheduler.getInstance().markDirty(this));
+    }
+
+    @Override
+    public void renderFrame() {
+        StringBuilder text = new StringBuilder();
+        SimulationEvent event;
+        while ((event = incoming.poll()) != null) {
+            text.append(String.format(Locale.US, "%-10s t=%12.6f  fi=%9.5f  R=%8.5f  dR=%9.5f%n",
+                event.getName(), event.getTime(), event.getAngle(),
+                event.getSpringLength(), event.getRadialVelocity()));
+            lines++;
+        }
+        if (text.length() == 0) {
+            return;
+        }
+        log.append(text.toString());
+        if (lines > MAX_LINES) {
+            try {
+                int end = log.getLineEndOffset(lines - MAX_LINES - 1);
+                log.replaceRange("", 0, end);
+                lines = MAX_LINES;
+            } catch (javax.swing.text.BadLocationException ignored) {
+            }
+        }
+        log.setCaretPosition(log.getDocument().getLength());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.gui;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Общие часы отрисовки для всех окон симуляции.
+ * Наблюдатели в onStateUpdate только накапливают данные и помечают себя изменёнными,
+ * а перерисовка всех изменённых представлений выполняется один раз за кадр
+ * в пределах бюджета времени кадра. Представления, не укладывающиеся в бюджет,
+ * пропускаются и перерисовываются реже.
+ */
+public final class FrameScheduler {
+
+    /** Представление, перерисовываемое планировщиком. */
+    public interface FrameView {
+        /** Перенести накопленные данные в компонент и перерисовать его (вызывается в EDT). */
+        void renderFrame();
+    }
+
+    private static final int FRAME_INTERVAL = 16;                 // Интервал кадра (мс) ~60 FPS
+    private static final long FRAME_BUDGET_NANOS = 10_000_000L;   // Бюджет отрисовки на кадр (нс)
+    private static final int MAX_FRAME_DIVIDER = 30;              // Не реже ~2 раз в секунду
+    private static final int SLACK_FRAMES_TO_SPEED_UP = 30;       // Кадров с запасом до ускорения
+
+    private static FrameScheduler instance;
+
+    private final List<ViewSlot> slots = new ArrayList<>();
+    private final Map<FrameView, ViewSlot> slotByView = new IdentityHashMap<>();
+    private final Timer timer;
+    private int cursor;
+    private int slackFrames;
+
+    private FrameScheduler() {
+        timer = new Timer(FRAME_INTERVAL, e -> onFrame());
+        timer.setCoalesce(true);
+    }
+
+    /** @return общий планировщик; использовать только из EDT */
+    public static FrameScheduler getInstance() {
+        if (instance == null) {
+            instance = new FrameScheduler();
+        }
+        return instance;
+    }
+
+    public void register(FrameView view) {
+        if (view == null || slotByView.containsKey(view)) {
+            return;
+        }
+        ViewSlot slot = new ViewSlot(view);
+        slots.add(slot);
+        slotByView.put(view, slot);
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    public void unregister(FrameView view) {
+        ViewSlot slot = slotByView.remove(view);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+        if (slots.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    public void markDirty(FrameView view) {
+        ViewSlot slot = slotByView.get(view);
+        if (slot != null) {
+            slot.dirty = true;
+        }
+    }
+
+    /**
+     * Немедленно перерисовать компонент, отменив уже запрошенные для него repaint(),
+     * чтобы один кадр не рисовался дважды.
+     */
+    public static void paintNow(JComponent component) {
+        RepaintManager.currentManager(component).markCompletelyClean(component);
+        component.paintImmediately(0, 0, component.getWidth(), component.getHeight());
+    }
+
+    private void onFrame() {
+        int count = slots.size();
+        if (count == 0) {
+            return;
+        }
+
+        long spent = 0;
+        boolean overBudget = false;
+
+        for (int i = 0; i < count; i++) {
+            ViewSlot slot = slots.get((cursor + i) % count);
+            if (!slot.dirty) {
+                continue;
+            }
+            slot.framesWaited++;
+            if (slot.framesWaited < slot.divider) {
+                continue;
+            }
+            if (spent > 0 && spent + slot.averageCost > FRAME_BUDGET_NANOS) {
+                // Не помещается в кадр: откладываем и снижаем частоту обновления
+                overBudget = true;
+                slot.divider = Math.min(MAX_FRAME_DIVIDER, slot.divider + 1);
+                continue;
+            }
+
+            slot.dirty = false;
+            slot.framesWaited = 0;
+            long start = System.nanoTime();
+            slot.view.renderFrame();
+            long cost = System.nanoTime() - start;
+
+            slot.averageCost = slot.averageCost == 0 ? cost : slot.averageCost * 0.8 + cost * 0.2;
+            spent += cost;
+        }
+
+        // Начинаем следующий кадр с другого представления, чтобы отложенные не голодали
+        cursor = (cursor + 1) % count;
+
+        if (overBudget || spent > FRAME_BUDGET_NANOS / 2) {
+            slackFrames = 0;
+        } else if (++slackFrames >= SLACK_FRAMES_TO_SPEED_UP) {
+            slackFrames = 0;
+            for (ViewSlot slot : slots) {
+                if (slot.divider > 1) {
+                    slot.divider--;
+                }
+            }
+        }
+    }
+
+    private static class ViewSlot {
+        final FrameView view;
+        boolean dirty;
+        double averageCost;  // Скользящее среднее времени отрисовки (нс)
+        int divider = 1;     // Перерисовывать не чаще одного раза в divider кадров
+        int framesWaited;
+
+        ViewSlot(FrameView view) {
+            this.view = view;
+        }
+    }
+}
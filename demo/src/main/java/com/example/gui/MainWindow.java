@@ -1,6 +1,10 @@
 package com.example.gui;
 
+import com.example.controller.PhysicsController;
+import com.example.controller.SimulationManager;
+import com.example.model.Channel;
 import com.example.model.PhysicsState;
+import com.example.model.SimulationCheckpoint;
 import com.example.observer.SimulationCommands;
 import com.example.observer.SimulationObserver;
 
@@ -10,17 +14,32 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Path2D;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Главное окно приложения с визуализацией грузика на пружине.
+ * При наличии {@link SimulationManager} в окно можно добавить дополнительные
+ * симуляции с другими параметрами для сравнения бок о бок.
  */
-public class MainWindow extends JFrame implements SimulationObserver {
+public class MainWindow extends JFrame implements SimulationObserver, FrameScheduler.FrameView {
     
     private final SimulationCommands controller;
+    private final SimulationManager manager;
+    private final List<AttachedSimulation> attached = new ArrayList<>();
     private final SimulationPanel simulationPanel;
     
     public MainWindow(SimulationCommands controller) {
+        this(controller, null);
+    }
+    
+    public MainWindow(SimulationCommands controller, SimulationManager manager) {
         this.controller = controller;
+        this.manager = manager;
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(700, 550);
         setLocationRelativeTo(null);
@@ -39,11 +58,14 @@ public class MainWindow extends JFrame implements SimulationObserver {
         add(mainPanel);
         
         controller.subscribe(this);
+        FrameScheduler.getInstance().register(this);
         
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
                 controller.unsubscribe(MainWindow.this);
+                FrameScheduler.getInstance().unregister(MainWindow.this);
+                removeAttachedSimulations();
             }
         });
     }
@@ -58,25 +80,114 @@ public class MainWindow extends JFrame implements SimulationObserver {
         buttonPanel.setBorder(BorderFactory.createTitledBorder("🎮 Управление"));
         
         JButton start = new JButton("▶ Старт");
-        start.addActionListener(e -> controller.start());
+        start.addActionListener(e -> forEachSimulation(SimulationCommands::start));
         buttonPanel.add(start);
         
         JButton stop = new JButton("⏸ Стоп");
-        stop.addActionListener(e -> controller.stop());
+        stop.addActionListener(e -> forEachSimulation(SimulationCommands::stop));
         buttonPanel.add(stop);
         
         JButton reset = new JButton("↺ Сброс");
-        reset.addActionListener(e -> controller.reset());
+        reset.addActionListener(e -> forEachSimulation(SimulationCommands::reset));
         buttonPanel.add(reset);
         
         panel.add(buttonPanel);
         panel.add(Box.createVerticalStrut(10));
         
+        JPanel checkpointPanel = new JPanel(new GridLayout(1, 2, 5, 5));
+        checkpointPanel.setBorder(BorderFactory.createTitledBorder("💾 Контрольная точка"));
+        
+        JButton saveCheckpoint = new JButton("Сохранить");
+        saveCheckpoint.addActionListener(e -> saveCheckpoint());
+        checkpointPanel.add(saveCheckpoint);
+        
+        JButton loadCheckpoint = new JButton("Загрузить");
+        loadCheckpoint.addActionListener(e -> loadCheckpoint());
+        checkpointPanel.add(loadCheckpoint);
+        
+        panel.add(checkpointPanel);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JPanel seekPanel = new JPanel(new GridLayout(1, 2, 5, 5));
+        seekPanel.setBorder(BorderFactory.createTitledBorder("⏩ Переход ко времени (с)"));
+        
+        JSpinner seekTime = new JSpinner(new SpinnerNumberModel(0.0, 0.0, 1e6, 1.0));
+        seekPanel.add(seekTime);
+        
+        JButton seekButton = new JButton("Перейти");
+        seekButton.addActionListener(e -> {
+            double time = (Double) seekTime.getValue();
+            forEachSimulation(simulation -> simulation.seek(time));
+        });
+        seekPanel.add(seekButton);
+        
+        panel.add(seekPanel);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JPanel chainPanel = new JPanel(new GridLayout(1, 2, 5, 5));
+        chainPanel.setBorder(BorderFactory.createTitledBorder("⛓ Цепочка: число грузиков"));
+        
+        JSpinner bodyCount = new JSpinner(new SpinnerNumberModel(controller.getBodyCount(), 1, 10000, 1));
+        chainPanel.add(bodyCount);
+        
+        JButton applyBodies = new JButton("Применить");
+        applyBodies.addActionListener(e -> {
+            int bodies = (Integer) bodyCount.getValue();
+            forEachSimulation(simulation -> simulation.setBodyCount(bodies));
+        });
+        chainPanel.add(applyBodies);
+        
+        panel.add(chainPanel);
+        panel.add(Box.createVerticalStrut(10));
+        
+        if (manager != null) {
+            JPanel comparePanel = new JPanel(new GridLayout(1, 2, 5, 5));
+            comparePanel.setBorder(BorderFactory.createTitledBorder("🧪 Сравнение"));
+            
+            JButton addSimulation = new JButton("➕ Добавить");
+            addSimulation.addActionListener(e -> addSimulation());
+            comparePanel.add(addSimulation);
+            
+            JButton removeSimulations = new JButton("✖ Убрать");
+            removeSimulations.addActionListener(e -> removeAttachedSimulations());
+            comparePanel.add(removeSimulations);
+            
+            panel.add(comparePanel);
+            panel.add(Box.createVerticalStrut(10));
+        }
+        
         JButton settingsButton = new JButton("⚙ Настройки параметров");
         settingsButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         settingsButton.addActionListener(e -> openSettingsWindow());
         panel.add(settingsButton);
         
+        panel.add(Box.createVerticalStrut(10));
+        
+        JPanel analysisPanel = new JPanel(new GridLayout(0, 1, 5, 5));
+        analysisPanel.setBorder(BorderFactory.createTitledBorder("🔬 Анализ"));
+        
+        JButton eventsButton = new JButton("🔔 Журнал событий");
+        eventsButton.addActionListener(e -> new EventLogWindow(controller).setVisible(true));
+        analysisPanel.add(eventsButton);
+        
+        JButton poincareButton = new JButton("🌀 Сечение Пуанкаре");
+        poincareButton.addActionListener(e -> new PoincareWindow(controller).setVisible(true));
+        analysisPanel.add(poincareButton);
+        
+        JButton chaosButton = new JButton("🗺 Карта хаоса");
+        chaosButton.addActionListener(e -> new ChaosMapWindow(controller).setVisible(true));
+        analysisPanel.add(chaosButton);
+        
+        JButton occupancyButton = new JButton("🔥 Занятость положения");
+        occupancyButton.addActionListener(e -> new OccupancyWindow(controller).setVisible(true));
+        analysisPanel.add(occupancyButton);
+        
+        JButton uncertaintyButton = new JButton("🎲 Неопределённость");
+        uncertaintyButton.addActionListener(e -> ChartWindows.openUncertainty(this, controller));
+        analysisPanel.add(uncertaintyButton);
+        
+        panel.add(analysisPanel);
+        
         panel.add(Box.createVerticalStrut(20));
         
         JPanel subscribePanel = new JPanel();
@@ -96,7 +207,9 @@ public class MainWindow extends JFrame implements SimulationObserver {
         subscribePanel.add(new JLabel("Тип графика:"));
         JComboBox<String> typeSelector = new JComboBox<>(new String[] {
             "JFreeChart график",
-            "PointsPanel (ЛБ3)"
+            "PointsPanel (ЛБ3)",
+            "Несколько каналов (наложение)",
+            "Несколько каналов (друг под другом)"
         });
         typeSelector.setMaximumSize(new Dimension(180, 25));
         subscribePanel.add(typeSelector);
@@ -122,7 +235,7 @@ public class MainWindow extends JFrame implements SimulationObserver {
         JSlider speedSlider = new JSlider(1, 50, 10);
         speedSlider.addChangeListener(e -> {
             double speed = speedSlider.getValue() / 10.0;
-            controller.setSimulationSpeed(speed);
+            forEachSimulation(simulation -> simulation.setSimulationSpeed(speed));
         });
         speedPanel.add(speedSlider);
         panel.add(speedPanel);
@@ -132,6 +245,66 @@ public class MainWindow extends JFrame implements SimulationObserver {
         return panel;
     }
     
+    private void forEachSimulation(Consumer<SimulationCommands> action) {
+        action.accept(controller);
+        for (AttachedSimulation simulation : attached) {
+            action.accept(simulation.controller);
+        }
+    }
+    
+    private void addSimulation() {
+        int id = manager.create(controller.getParameters());
+        PhysicsController simulation = manager.get(id);
+        new SettingsWindow(this, simulation).setVisible(true);
+        
+        AttachedSimulation attachedSimulation = new AttachedSimulation(id, simulation, attached.size() + 1);
+        attached.add(attachedSimulation);
+        simulation.subscribe(attachedSimulation);
+        simulation.setSimulationSpeed(controller.getSimulationSpeed());
+        simulation.setBodyCount(controller.getBodyCount());
+        if (controller.isRunning()) {
+            simulation.start();
+        }
+    }
+    
+    private void removeAttachedSimulations() {
+        for (AttachedSimulation simulation : attached) {
+            simulation.controller.unsubscribe(simulation);
+            manager.remove(simulation.id);
+        }
+        attached.clear();
+        simulationPanel.retainStates(1);
+        FrameScheduler.getInstance().markDirty(this);
+    }
+    
+    private void saveCheckpoint() {
+        SimulationCheckpoint checkpoint = controller.checkpoint();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("simulation.chk"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            checkpoint.save(chooser.getSelectedFile().toPath());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Не удалось сохранить: " + ex.getMessage(),
+                "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    private void loadCheckpoint() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            controller.restore(SimulationCheckpoint.load(chooser.getSelectedFile().toPath()));
+        } catch (IOException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Не удалось загрузить: " + ex.getMessage(),
+                "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
     private void openSettingsWindow() {
         SettingsWindow settingsWindow = new SettingsWindow(this, controller);
         settingsWindow.setVisible(true);
@@ -139,21 +312,45 @@ public class MainWindow extends JFrame implements SimulationObserver {
     
     private void createSubscriber(String parameter, int type) {
         switch (type) {
-            case 0 -> { // JFreeChart график
-                ChartWindow chartWindow = new ChartWindow(controller, parameter);
-                chartWindow.setVisible(true);
-            }
+            case 0 -> ChartWindows.openChart(this, controller, parameter); // JFreeChart график
             case 1 -> { // Собственный компонент (точки)
                 PointsChartWindow pointsWindow = new PointsChartWindow(controller, parameter);
                 pointsWindow.setVisible(true);
             }
+            case 2, 3 -> openMultiChannelWindow(parameter, type == 3);
+        }
+    }
+    
+    private void openMultiChannelWindow(String parameter, boolean stacked) {
+        Channel[] channels = Arrays.stream(Channel.values())
+            .filter(channel -> channel != Channel.TIME)
+            .toArray(Channel[]::new);
+        JList<Channel> channelList = new JList<>(channels);
+        channelList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        channelList.setSelectedValue(Channel.find(parameter), false);
+        
+        int result = JOptionPane.showConfirmDialog(this, new JScrollPane(channelList),
+            "Выберите каналы", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        List<Channel> selected = channelList.getSelectedValuesList();
+        if (result == JOptionPane.OK_OPTION && !selected.isEmpty()) {
+            ChartWindows.openMultiChannel(this, controller, selected, stacked);
         }
     }
     
     @Override
     public void onStateUpdate(PhysicsState state) {
-        simulationPanel.setState(state);
-        simulationPanel.repaint();
+        simulationPanel.setState(0, state);
+        FrameScheduler.getInstance().markDirty(this);
+    }
+    
+    @Override
+    public void renderFrame() {
+        FrameScheduler.paintNow(simulationPanel);
+    }
+    
+    /** Выполнить действие на EDT после того, как панель маятника нарисована впервые. */
+    public void onFirstFrame(Runnable action) {
+        simulationPanel.firstFrame = action;
     }
     
     @Override
@@ -168,12 +365,57 @@ public class MainWindow extends JFrame implements SimulationObserver {
     public void onSimulationReset() {
     }
     
+    /** Дополнительная симуляция, отображаемая в этом окне. */
+    private class AttachedSimulation implements SimulationObserver {
+        final int id;
+        final PhysicsController controller;
+        final int index;
+        
+        AttachedSimulation(int id, PhysicsController controller, int index) {
+            this.id = id;
+            this.controller = controller;
+            this.index = index;
+        }
+        
+        @Override
+        public void onStateUpdate(PhysicsState state) {
+            simulationPanel.setState(index, state);
+            FrameScheduler.getInstance().markDirty(MainWindow.this);
+        }
+        
+        @Override
+        public void onSimulationStarted() {
+        }
+        
+        @Override
+        public void onSimulationStopped() {
+        }
+        
+        @Override
+        public void onSimulationReset() {
+        }
+    }
+    
     private static class SimulationPanel extends JPanel {
-        private PhysicsState state;
+        private final List<PhysicsState> states = new ArrayList<>();
         private static final int SCALE = 150;
+        private static final int DETAILED_CHAIN = 30; // До стольких тел цепочка рисуется пружинами
+        private Runnable firstFrame;
+        private static final Color[] MASS_COLORS = {
+            Color.RED, new Color(0, 120, 215), new Color(0, 150, 0), Color.ORANGE, Color.MAGENTA
+        };
         
-        public void setState(PhysicsState state) {
-            this.state = state;
+        public void setState(int index, PhysicsState state) {
+            while (states.size() <= index) {
+                states.add(null);
+            }
+            states.set(index, state);
+        }
+        
+        public void retainStates(int count) {
+            while (states.size() > count) {
+                states.remove(states.size() - 1);
+            }
         }
         
         @Override
@@ -191,20 +433,37 @@ public class MainWindow extends JFrame implements SimulationObserver {
             g2d.setColor(Color.DARK_GRAY);
             g2d.fillRect(centerX - 30, pivotY - 10, 60, 10);
             
-            if (state == null) {
+            if (states.isEmpty() || states.get(0) == null) {
                 drawSpring(g2d, centerX, pivotY, centerX, pivotY + 150, 10);
                 g2d.setColor(Color.RED);
                 g2d.fill(new Ellipse2D.Double(centerX - 20, pivotY + 150 - 20, 40, 40));
-                return;
             }
             
+            // Первой рисуется основная симуляция, дополнительные поверх неё
+            for (int i = 0; i < states.size(); i++) {
+                if (states.get(i) != null) {
+                    drawPendulum(g2d, states.get(i), centerX, pivotY, MASS_COLORS[i % MASS_COLORS.length]);
+                }
+            }
+            if (firstFrame != null) {
+                // После возврата из отрисовки кадр уже выведен на экран
+                SwingUtilities.invokeLater(firstFrame);
+                firstFrame = null;
+            }
+        }
+        
+        private void drawPendulum(Graphics2D g2d, PhysicsState state, int centerX, int pivotY, Color massColor) {
+            if (state.getBodyPositions() != null) {
+                drawChain(g2d, state.getBodyPositions(), centerX, pivotY, massColor);
+                return;
+            }
             int massX = centerX + (int) (state.getX() * SCALE);
             int massY = pivotY + (int) (state.getY() * SCALE);
             
             drawSpring(g2d, centerX, pivotY, massX, massY, 15);
             
             int massRadius = 20;
-            g2d.setColor(Color.RED);
+            g2d.setColor(massColor);
             g2d.fill(new Ellipse2D.Double(massX - massRadius, massY - massRadius, 
                                           massRadius * 2, massRadius * 2));
             g2d.setColor(Color.DARK_GRAY);
@@ -212,6 +471,49 @@ public class MainWindow extends JFrame implements SimulationObserver {
                                           massRadius * 2, massRadius * 2));
         }
         
+        /** Цепочка масштабируется так, чтобы поместиться в панель; длинная рисуется ломаной. */
+        private void drawChain(Graphics2D g2d, double[] positions, int centerX, int pivotY, Color massColor) {
+            int bodies = positions.length / 2;
+            double extent = 0;
+            for (int i = 0; i < bodies; i++) {
+                extent = Math.max(extent, Math.hypot(positions[2 * i], positions[2 * i + 1]));
+            }
+            double room = Math.max(50, Math.min(getHeight() - pivotY - 25, getWidth() / 2 - 25));
+            double scale = extent > 0 ? Math.min(SCALE, room / extent) : SCALE;
+            
+            if (bodies <= DETAILED_CHAIN) {
+                int massRadius = Math.max(4, 20 - bodies);
+                int previousX = centerX, previousY = pivotY;
+                for (int i = 0; i < bodies; i++) {
+                    int massX = centerX + (int) (positions[2 * i] * scale);
+                    int massY = pivotY + (int) (positions[2 * i + 1] * scale);
+                    drawSpring(g2d, previousX, previousY, massX, massY, 8);
+                    previousX = massX;
+                    previousY = massY;
+                }
+                for (int i = 0; i < bodies; i++) {
+                    double massX = centerX + positions[2 * i] * scale;
+                    double massY = pivotY + positions[2 * i + 1] * scale;
+                    Ellipse2D mass = new Ellipse2D.Double(massX - massRadius, massY - massRadius,
+                                                          massRadius * 2, massRadius * 2);
+                    g2d.setColor(massColor);
+                    g2d.fill(mass);
+                    g2d.setColor(Color.DARK_GRAY);
+                    g2d.draw(mass);
+                }
+                return;
+            }
+            
+            Path2D chain = new Path2D.Double();
+            chain.moveTo(centerX, pivotY);
+            for (int i = 0; i < bodies; i++) {
+                chain.lineTo(centerX + positions[2 * i] * scale, pivotY + positions[2 * i + 1] * scale);
+            }
+            g2d.setColor(massColor);
+            g2d.setStroke(new BasicStroke(2));
+            g2d.draw(chain);
+        }
+        
         private void drawSpring(Graphics2D g2d, int x1, int y1, int x2, int y2, int coils) {
             double dx = x2 - x1;
             double dy = y2 - y1;
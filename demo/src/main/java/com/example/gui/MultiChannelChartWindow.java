@@ -0,0 +1,144 @@
+package com.example.gui;
+
+import com.example.model.Channel;
+import com.example.model.PhysicsState;
+import com.example.observer.SimulationCommands;
+import com.example.observer.SimulationObserver;
+
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.CombinedDomainXYPlot;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.SamplingXYLineRenderer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+
+/**
+ * Окно с графиками нескольких каналов: одна подписка, один колоночный набор данных,
+ * общая ось времени. Каналы рисуются наложенными на одном графике или друг под другом.
+ * Рендерер прореживает точки до одной вертикали на пиксель, поэтому стоимость кадра
+ * определяется шириной графика, а не числом точек.
+ */
+public class MultiChannelChartWindow extends JFrame implements SimulationObserver, FrameScheduler.FrameView {
+
+    private static final int CAPACITY = 20_000;
+    private static final Color[] COLORS = {
+        new Color(0, 120, 215), Color.RED, new Color(0, 150, 0), Color.ORANGE,
+        Color.MAGENTA, Color.DARK_GRAY, new Color(0, 170, 170), new Color(140, 70, 20)
+    };
+
+    private final ChannelDataset dataset;
+    private final ChartPanel chartPanel;
+    private final boolean derived;
+
+    public MultiChannelChartWindow(SimulationCommands controller, List<Channel> channels, boolean stacked) {
+        this.dataset = new ChannelDataset(channels, CAPACITY);
+        this.derived = channels.stream().anyMatch(Channel::isDerived);
+
+        setTitle("📈 Каналы: " + channels.size());
+        setSize(700, stacked ? 200 + 150 * channels.size() : 450);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        NumberAxis timeAxis = new NumberAxis("Время (с)");
+        timeAxis.setAutoRangeIncludesZero(false);
+
+        JFreeChart chart;
+        if (stacked) {
+            CombinedDomainXYPlot plot = new CombinedDomainXYPlot(timeAxis);
+            plot.setGap(8);
+            for (int i = 0; i < channels.size(); i++) {
+                NumberAxis valueAxis = new NumberAxis(channels.get(i).getLabel());
+                valueAxis.setAutoRangeIncludesZero(false);
+                XYPlot subplot = new XYPlot(dataset.channelView(i), null, valueAxis, createRenderer(i, 1));
+                stylePlot(subplot);
+                plot.add(subplot);
+            }
+            chart = new JFreeChart(null, JFreeChart.DEFAULT_TITLE_FONT, plot, false);
+        } else {
+            NumberAxis valueAxis = new NumberAxis("Значение");
+            valueAxis.setAutoRangeIncludesZero(false);
+            XYPlot plot = new XYPlot(dataset, timeAxis, valueAxis, createRenderer(0, channels.size()));
+            stylePlot(plot);
+            chart = new JFreeChart(null, JFreeChart.DEFAULT_TITLE_FONT, plot, true);
+        }
+
+        chartPanel = new ChartPanel(chart);
+        chartPanel.setMouseWheelEnabled(true);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton clearButton = new JButton("🗑 Очистить");
+        clearButton.addActionListener(e -> {
+            dataset.clear();
+            FrameScheduler.getInstance().markDirty(this);
+        });
+        controlPanel.add(clearButton);
+
+        setLayout(new BorderLayout());
+        add(chartPanel, BorderLayout.CENTER);
+        add(controlPanel, BorderLayout.SOUTH);
+
+        controller.subscribe(this);
+        FrameScheduler.getInstance().register(this);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                controller.unsubscribe(MultiChannelChartWindow.this);
+                FrameScheduler.getInstance().unregister(MultiChannelChartWindow.this);
+            }
+        });
+    }
+
+    private static SamplingXYLineRenderer createRenderer(int firstColor, int seriesCount) {
+        SamplingXYLineRenderer renderer = new SamplingXYLineRenderer();
+        for (int i = 0; i < seriesCount; i++) {
+            renderer.setSeriesPaint(i, COLORS[(firstColor + i) % COLORS.length]);
+            renderer.setSeriesStroke(i, new BasicStroke(1.5f));
+        }
+        return renderer;
+    }
+
+    private static void stylePlot(XYPlot plot) {
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setDomainGridlinePaint(Color.LIGHT_GRAY);
+        plot.setRangeGridlinePaint(Color.LIGHT_GRAY);
+    }
+
+    @Override
+    public boolean needsAnalysis() {
+        return derived;
+    }
+
+    @Override
+    public void onStateUpdate(PhysicsState state) {
+        dataset.append(state);
+        FrameScheduler.getInstance().markDirty(this);
+    }
+
+    @Override
+    public void renderFrame() {
+        if (dataset.publish()) {
+            FrameScheduler.paintNow(chartPanel);
+        }
+    }
+
+    @Override
+    public void onSimulationStarted() {
+    }
+
+    @Override
+    public void onSimulationStopped() {
+    }
+
+    @Override
+    public void onSimulationReset() {
+        dataset.clear();
+        FrameScheduler.getInstance().markDirty(this);
+    }
+}
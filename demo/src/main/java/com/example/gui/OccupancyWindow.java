@@ -0,0 +1,151 @@
+package com.example.gui;
+
+import com.example.analysis.OccupancyGrid;
+import com.example.analysis.OccupancyRenderer;
+import com.example.model.PhysicsState;
+import com.example.observer.SimulationCommands;
+import com.example.observer.SimulationObserver;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Где грузик проводит время: гистограмма занятости плоскости (x, y), которая пополняется
+ * на каждом шаге интегрирования, а не по кадрам, как след в {@link com.example.gui.components.PointsPanel}.
+ * Сетка фиксированного размера, поэтому память не зависит от длины расчёта; изображение
+ * обновляется раз в кадр только в изменившихся ячейках. При сбросе симуляции сетка строится
+ * заново по новым параметрам: после смены начальных условий или жёсткости прежние границы
+ * могут не вмещать траекторию или быть слишком широкими.
+ */
+public class OccupancyWindow extends JFrame implements SimulationObserver, FrameScheduler.FrameView {
+
+    private static final int RESOLUTION = 256;
+
+    private final SimulationCommands controller;
+    private OccupancyGrid grid;          // Меняются только в EDT
+    private OccupancyRenderer renderer;
+    private final HeatmapPanel heatmapPanel = new HeatmapPanel();
+    private final JLabel statusLabel = new JLabel(" ");
+
+    public OccupancyWindow(SimulationCommands controller) {
+        this.controller = controller;
+        this.grid = OccupancyGrid.forParameters(controller.getParameters(), RESOLUTION);
+        this.renderer = new OccupancyRenderer(grid);
+        setTitle("🔥 Занятость положения");
+        setSize(620, 680);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        JButton clearButton = new JButton("🗑 Очистить");
+        clearButton.addActionListener(e -> {
+            grid.clear();
+            FrameScheduler.getInstance().markDirty(this);
+        });
+        JButton exportButton = new JButton("💾 PNG");
+        exportButton.addActionListener(e -> exportImage());
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlPanel.add(clearButton);
+        controlPanel.add(exportButton);
+        controlPanel.add(statusLabel);
+
+        setLayout(new BorderLayout());
+        add(heatmapPanel, BorderLayout.CENTER);
+        add(controlPanel, BorderLayout.SOUTH);
+
+        controller.addStepListener(grid);
+        controller.subscribe(this);
+        FrameScheduler.getInstance().register(this);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                controller.removeStepListener(grid);
+                controller.unsubscribe(OccupancyWindow.this);
+                FrameScheduler.getInstance().unregister(OccupancyWindow.this);
+            }
+        });
+    }
+
+    @Override
+    public void onStateUpdate(PhysicsState state) {
+        FrameScheduler.getInstance().markDirty(this);
+    }
+
+    @Override
+    public void onSimulationStarted() {}
+
+    @Override
+    public void onSimulationStopped() {}
+
+    @Override
+    public void onSimulationReset() {
+        OccupancyGrid previous = grid;
+        grid = OccupancyGrid.forParameters(controller.getParameters(), RESOLUTION);
+        renderer = new OccupancyRenderer(grid);
+        controller.addStepListener(grid);
+        controller.removeStepListener(previous);
+        heatmapPanel.repaint();
+        FrameScheduler.getInstance().markDirty(this);
+    }
+
+    @Override
+    public void renderFrame() {
+        int changed = renderer.render();
+        statusLabel.setText(String.format(Locale.US, "шагов: %d, вне сетки: %d, обновлено ячеек: %d",
+            grid.getInside(), grid.getOutside(), changed));
+        if (changed > 0) {
+            heatmapPanel.repaint();
+        }
+    }
+
+    private void exportImage() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("occupancy.png"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            ImageIO.write(renderer.getImage(), "png", chooser.getSelectedFile());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Не удалось сохранить: " + ex.getMessage(),
+                "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /** Изображение сетки с сохранением пропорций и отметкой точки подвеса. */
+    private class HeatmapPanel extends JPanel {
+        private static final int MARGIN = 20;
+
+        HeatmapPanel() {
+            setBackground(Color.WHITE);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int size = Math.min(getWidth(), getHeight()) - 2 * MARGIN;
+            if (size <= 0) {
+                return;
+            }
+            int left = (getWidth() - size) / 2;
+            int top = (getHeight() - size) / 2;
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2d.drawImage(renderer.getImage(), left, top, size, size, null);
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.drawRect(left, top, size, size);
+
+            int pivotX = left + (int) Math.round(-grid.getXMin() / (grid.getXMax() - grid.getXMin()) * size);
+            int pivotY = top + (int) Math.round(-grid.getYMin() / (grid.getYMax() - grid.getYMin()) * size);
+            g2d.setColor(Color.BLACK);
+            g2d.fillOval(pivotX - 3, pivotY - 3, 6, 6);
+            g2d.drawString(String.format(Locale.US, "±%.2f м", grid.getXMax()), left + 4, top + 14);
+        }
+    }
+}
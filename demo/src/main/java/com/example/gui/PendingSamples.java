@@ -0,0 +1,30 @@
+package com.example.gui;
+
+import java.util.Arrays;
+
+/**
+ * Точки (x, y), накопленные между кадрами отрисовки.
+ */
+class PendingSamples {
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private int size;
+
+    void add(double x, double y) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+
+    int size() { return size; }
+    double getX(int index) { return xs[index]; }
+    double getY(int index) { return ys[index]; }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.gui;
+
+import com.example.analysis.PhaseHistogram;
+import com.example.analysis.PoincareBuilder;
+import com.example.analysis.PoincareSection;
+import com.example.model.SimulationParameters;
+import com.example.observer.SimulationCommands;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Сечение Пуанкаре (R, dR/dt при fi = 0, dfi > 0) для набора начальных углов
+ * вокруг текущих параметров симуляции. Расчёт идёт в фоне без интерфейса
+ * ({@link PoincareBuilder}), результат показывается как плотность или как точки
+ * и сохраняется в PNG.
+ */
+public class PoincareWindow extends JFrame {
+
+    private static final Color[] TRAJECTORY_COLORS = {
+        new Color(31, 119, 180), new Color(214, 39, 40), new Color(44, 160, 44), new Color(148, 103, 189),
+        new Color(255, 127, 14), new Color(23, 190, 207), new Color(140, 86, 75), new Color(227, 119, 194)
+    };
+
+    private final SimulationCommands controller;
+    private final SectionPanel sectionPanel = new SectionPanel();
+    private final JSpinner durationSpinner = new JSpinner(new SpinnerNumberModel(500.0, 1.0, 1e6, 100.0));
+    private final JSpinner countSpinner = new JSpinner(new SpinnerNumberModel(8, 1, 256, 1));
+    private final JSpinner angleFromSpinner = new JSpinner(new SpinnerNumberModel(5.0, -180.0, 180.0, 5.0));
+    private final JSpinner angleToSpinner = new JSpinner(new SpinnerNumberModel(90.0, -180.0, 180.0, 5.0));
+    private final JCheckBox conservativeBox = new JCheckBox("без затухания", true);
+    private final JComboBox<String> modeBox = new JComboBox<>(new String[] {"Плотность", "Точки"});
+    private final JButton buildButton = new JButton("▶ Построить");
+    private final JButton cancelButton = new JButton("✖ Отмена");
+    private final JButton exportButton = new JButton("💾 PNG");
+    private final JProgressBar progressBar = new JProgressBar(0, 1000);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final Timer progressTimer;
+
+    private SwingWorker<PoincareBuilder.Result, Void> worker;
+    private PoincareBuilder builder;
+
+    public PoincareWindow(SimulationCommands controller) {
+        this.controller = controller;
+        setTitle("🌀 Сечение Пуанкаре");
+        setSize(760, 720);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        JPanel settingsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        settingsPanel.add(new JLabel("Время (с):"));
+        settingsPanel.add(durationSpinner);
+        settingsPanel.add(new JLabel("Траекторий:"));
+        settingsPanel.add(countSpinner);
+        settingsPanel.add(new JLabel("Угол от/до (°):"));
+        settingsPanel.add(angleFromSpinner);
+        settingsPanel.add(angleToSpinner);
+        settingsPanel.add(conservativeBox);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlPanel.add(buildButton);
+        controlPanel.add(cancelButton);
+        controlPanel.add(modeBox);
+        controlPanel.add(exportButton);
+        controlPanel.add(progressBar);
+        controlPanel.add(statusLabel);
+
+        JPanel northPanel = new JPanel(new GridLayout(2, 1));
+        northPanel.add(settingsPanel);
+        northPanel.add(controlPanel);
+
+        setLayout(new BorderLayout());
+        add(northPanel, BorderLayout.NORTH);
+        add(sectionPanel, BorderLayout.CENTER);
+
+        cancelButton.setEnabled(false);
+        exportButton.setEnabled(false);
+        buildButton.addActionListener(e -> build());
+        cancelButton.addActionListener(e -> worker.cancel(true));
+        modeBox.addActionListener(e -> {
+            sectionPanel.showPoints = modeBox.getSelectedIndex() == 1;
+            sectionPanel.repaint();
+        });
+        exportButton.addActionListener(e -> exportImage());
+
+        progressTimer = new Timer(100, e -> {
+            if (builder != null) {
+                progressBar.setValue((int) (builder.getProgress() * 1000));
+            }
+        });
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (worker != null) {
+                    worker.cancel(true);
+                }
+                progressTimer.stop();
+            }
+        });
+    }
+
+    private void build() {
+        SimulationParameters base = controller.getParameters();
+        if (conservativeBox.isSelected()) {
+            base.setDamping(0);
+        }
+        int count = (Integer) countSpinner.getValue();
+        double from = Math.toRadians((Double) angleFromSpinner.getValue());
+        double to = Math.toRadians((Double) angleToSpinner.getValue());
+        List<SimulationParameters> initialConditions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SimulationParameters params = new SimulationParameters(base);
+            params.setInitialAngle(count == 1 ? from : from + (to - from) * i / (count - 1));
+            initialConditions.add(params);
+        }
+
+        builder = new PoincareBuilder(initialConditions, 0.001, (Double) durationSpinner.getValue());
+        worker = new SwingWorker<>() {
+            @Override
+            protected PoincareBuilder.Result doInBackground() throws Exception {
+                return builder.build();
+            }
+
+            @Override
+            protected void done() {
+                progressTimer.stop();
+                buildButton.setEnabled(true);
+                cancelButton.setEnabled(false);
+                if (isCancelled()) {
+                    statusLabel.setText("Отменено");
+                    return;
+                }
+                try {
+                    showResult(get());
+                } catch (InterruptedException | ExecutionException ex) {
+                    statusLabel.setText("Ошибка: " + ex.getMessage());
+                }
+            }
+        };
+        buildButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        statusLabel.setText("Расчёт...");
+        progressTimer.start();
+        worker.execute();
+    }
+
+    private void showResult(PoincareBuilder.Result result) {
+        progressBar.setValue(1000);
+        sectionPanel.setResult(result);
+        exportButton.setEnabled(true);
+        statusLabel.setText(String.format(Locale.US, "%d пересечений за %.1f с",
+            result.getHistogram().getTotal(), result.getElapsedNanos() / 1e9));
+    }
+
+    private void exportImage() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("poincare.png"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        BufferedImage image = new BufferedImage(sectionPanel.getWidth(), sectionPanel.getHeight(),
+                                                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        sectionPanel.paint(g2d);
+        g2d.dispose();
+        try {
+            ImageIO.write(image, "png", chooser.getSelectedFile());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Не удалось сохранить: " + ex.getMessage(),
+                "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /** Плоскость сечения: по горизонтали R, по вертикали dR/dt. */
+    private static class SectionPanel extends JPanel {
+        private static final int MARGIN = 50;
+
+        private PoincareBuilder.Result result;
+        private BufferedImage densityImage;
+        private boolean showPoints;
+
+        SectionPanel() {
+            setBackground(Color.WHITE);
+        }
+
+        void setResult(PoincareBuilder.Result result) {
+            this.result = result;
+            this.densityImage = result.getHistogram().toImage();
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            if (result == null) {
+                return;
+            }
+            Graphics2D g2d = (Graphics2D) g;
+            PhaseHistogram histogram = result.getHistogram();
+            int plotWidth = getWidth() - 2 * MARGIN;
+            int plotHeight = getHeight() - 2 * MARGIN;
+            if (plotWidth <= 0 || plotHeight <= 0) {
+                return;
+            }
+
+            if (showPoints) {
+                double scaleX = plotWidth / (histogram.getXMax() - histogram.getXMin());
+                double scaleY = plotHeight / (histogram.getYMax() - histogram.getYMin());
+                List<PoincareSection> sections = result.getSections();
+                for (int s = 0; s < sections.size(); s++) {
+                    PoincareSection section = sections.get(s);
+                    g2d.setColor(TRAJECTORY_COLORS[s % TRAJECTORY_COLORS.length]);
+                    for (int i = 0; i < section.size(); i++) {
+                        int x = MARGIN + (int) ((section.getSpringLength(i) - histogram.getXMin()) * scaleX);
+                        int y = MARGIN + plotHeight
+                              - (int) ((section.getRadialVelocity(i) - histogram.getYMin()) * scaleY);
+                        g2d.fillRect(x, y, 1, 1);
+                    }
+                }
+            } else {
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                     RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                g2d.drawImage(densityImage, MARGIN, MARGIN, plotWidth, plotHeight, null);
+            }
+
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.drawRect(MARGIN, MARGIN, plotWidth, plotHeight);
+            g2d.setFont(new Font("Arial", Font.PLAIN, 11));
+            g2d.drawString(String.format(Locale.US, "%.3f", histogram.getXMin()), MARGIN, MARGIN + plotHeight + 15);
+            String xMax = String.format(Locale.US, "%.3f", histogram.getXMax());
+            g2d.drawString(xMax, MARGIN + plotWidth - g2d.getFontMetrics().stringWidth(xMax),
+                           MARGIN + plotHeight + 15);
+            g2d.drawString("R (м)", MARGIN + plotWidth / 2 - 15, MARGIN + plotHeight + 30);
+            g2d.drawString(String.format(Locale.US, "%.2f", histogram.getYMax()), 5, MARGIN + 10);
+            g2d.drawString(String.format(Locale.US, "%.2f", histogram.getYMin()), 5, MARGIN + plotHeight);
+            g2d.drawString("dR/dt (м/с)", 5, MARGIN - 10);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.gui;
 
+import com.example.model.Channel;
 import com.example.model.PhysicsState;
 import com.example.observer.SimulationCommands;
 import com.example.observer.SimulationObserver;
@@ -10,15 +11,18 @@ import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
-public class PointsChartWindow extends JFrame implements SimulationObserver {
+public class PointsChartWindow extends JFrame implements SimulationObserver, FrameScheduler.FrameView {
     
     private final String parameterName;
     private final PointsPanel pointsPanel;
+    private final PendingSamples pending = new PendingSamples();
     
     private double minTime = 0, maxTime = 10;
     private double minValue = -5, maxValue = 5;
     private boolean autoScale = true;
     
+    private static final int MAX_POINTS = 1 << 20;
+    
     public PointsChartWindow(SimulationCommands controller, String parameterName) {
         this.parameterName = parameterName;
         
@@ -27,12 +31,13 @@ public class PointsChartWindow extends JFrame implements SimulationObserver {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         
-        pointsPanel = new PointsPanel(550, 350, minTime, maxTime, minValue, maxValue, 500);
+        pointsPanel = new PointsPanel(550, 350, minTime, maxTime, minValue, maxValue, MAX_POINTS);
         
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
         
         JButton clearButton = new JButton("🗑 Очистить");
         clearButton.addActionListener(e -> {
+            pending.clear();
             pointsPanel.clearPoints();
             minTime = 0; maxTime = 10;
             minValue = -5; maxValue = 5;
@@ -44,6 +49,15 @@ public class PointsChartWindow extends JFrame implements SimulationObserver {
         autoScaleBox.addActionListener(e -> autoScale = autoScaleBox.isSelected());
         controlPanel.add(autoScaleBox);
         
+        // Ручное масштабирование колесом мыши или сдвиг отключают авто-масштаб
+        pointsPanel.addPropertyChangeListener(PointsPanel.VIEW_RANGE_PROPERTY, e -> {
+            double[] range = (double[]) e.getNewValue();
+            minTime = range[0];
+            maxTime = range[1];
+            autoScale = false;
+            autoScaleBox.setSelected(false);
+        });
+        
         controlPanel.add(new JLabel("🎨 Цвет:"));
         JComboBox<String> colorSelector = new JComboBox<>(new String[]{"Синий", "Красный", "Зелёный", "Оранжевый"});
         colorSelector.addActionListener(e -> {
@@ -63,20 +77,39 @@ public class PointsChartWindow extends JFrame implements SimulationObserver {
         add(controlPanel, BorderLayout.SOUTH);
         
         controller.subscribe(this);
+        FrameScheduler.getInstance().register(this);
         
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
                 controller.unsubscribe(PointsChartWindow.this);
+                FrameScheduler.getInstance().unregister(PointsChartWindow.this);
             }
         });
     }
     
+    @Override
+    public boolean needsAnalysis() {
+        Channel channel = Channel.find(parameterName);
+        return channel != null && channel.isDerived();
+    }
+    
     @Override
     public void onStateUpdate(PhysicsState state) {
-        double value = state.getParameter(parameterName);
-        double time = state.getTime();
+        pending.add(state.getTime(), state.getParameter(parameterName));
+        FrameScheduler.getInstance().markDirty(this);
+    }
+    
+    @Override
+    public void renderFrame() {
+        for (int i = 0; i < pending.size(); i++) {
+            addSample(pending.getX(i), pending.getY(i));
+        }
+        pending.clear();
+        FrameScheduler.paintNow(pointsPanel);
+    }
     
+    private void addSample(double time, double value) {
         if (autoScale) {
             boolean rangeChanged = false;
             
@@ -113,6 +146,7 @@ public class PointsChartWindow extends JFrame implements SimulationObserver {
     
     @Override
     public void onSimulationReset() {
+        pending.clear();
         pointsPanel.clearPoints();
         minTime = 0; maxTime = 10;
         minValue = -5; maxValue = 5;
@@ -17,12 +17,14 @@ public class SettingsWindow extends JDialog {
     private JSpinner initialAngleSpinner;
     private JSpinner dampingSpinner;
     private JSpinner gravitySpinner;
+    private JSpinner driveAmplitudeSpinner;
+    private JSpinner driveFrequencySpinner;
     
     public SettingsWindow(JFrame parent, SimulationCommands controller) {
         super(parent, "⚙ Настройки параметров", true);
         this.controller = controller;
         
-        setSize(400, 400);
+        setSize(400, 470);
         setLocationRelativeTo(parent);
         setResizable(false);
         
@@ -90,6 +92,20 @@ public class SettingsWindow extends JDialog {
         gravitySpinner.setPreferredSize(new Dimension(100, 25));
         paramsPanel.add(gravitySpinner, gbc);
         
+        gbc.gridx = 0; gbc.gridy = 7;
+        paramsPanel.add(new JLabel("Амплитуда колебаний подвеса (м):"), gbc);
+        gbc.gridx = 1;
+        driveAmplitudeSpinner = new JSpinner(new SpinnerNumberModel(0.0, 0.0, 1.0, 0.005));
+        driveAmplitudeSpinner.setPreferredSize(new Dimension(100, 25));
+        paramsPanel.add(driveAmplitudeSpinner, gbc);
+        
+        gbc.gridx = 0; gbc.gridy = 8;
+        paramsPanel.add(new JLabel("Частота колебаний подвеса (Гц):"), gbc);
+        gbc.gridx = 1;
+        driveFrequencySpinner = new JSpinner(new SpinnerNumberModel(1.0, 0.01, 50.0, 0.05));
+        driveFrequencySpinner.setPreferredSize(new Dimension(100, 25));
+        paramsPanel.add(driveFrequencySpinner, gbc);
+        
         mainPanel.add(paramsPanel, BorderLayout.CENTER);
         
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -121,6 +137,8 @@ public class SettingsWindow extends JDialog {
         initialAngleSpinner.setValue(Math.toDegrees(params.getInitialAngle()));
         dampingSpinner.setValue(params.getDamping());
         gravitySpinner.setValue(params.getGravity());
+        driveAmplitudeSpinner.setValue(params.getDriveAmplitude());
+        driveFrequencySpinner.setValue(params.getDriveFrequency());
     }
     
     private void applyParameters() {
@@ -133,6 +151,8 @@ public class SettingsWindow extends JDialog {
         params.setInitialAngle(Math.toRadians((Double) initialAngleSpinner.getValue()));
         params.setDamping((Double) dampingSpinner.getValue());
         params.setGravity((Double) gravitySpinner.getValue());
+        params.setDriveAmplitude((Double) driveAmplitudeSpinner.getValue());
+        params.setDriveFrequency((Double) driveFrequencySpinner.getValue());
         
         controller.setParameters(params);
         
@@ -153,5 +173,7 @@ public class SettingsWindow extends JDialog {
         initialAngleSpinner.setValue(Math.toDegrees(defaults.getInitialAngle()));
         dampingSpinner.setValue(defaults.getDamping());
         gravitySpinner.setValue(defaults.getGravity());
+        driveAmplitudeSpinner.setValue(defaults.getDriveAmplitude());
+        driveFrequencySpinner.setValue(defaults.getDriveFrequency());
     }
 }
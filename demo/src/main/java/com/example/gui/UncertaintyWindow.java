@@ -0,0 +1,206 @@
+package com.example.gui;
+
+import com.example.analysis.MonteCarloEnsemble;
+import com.example.analysis.ParameterDistribution;
+import com.example.model.Channel;
+import com.example.model.SimulationParameters;
+import com.example.observer.SimulationCommands;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Неопределённость результата при неточно известных параметрах: медиана и полосы
+ * 5–95 % и 25–75 % выбранного канала по ансамблю реализаций ({@link MonteCarloEnsemble}).
+ * Полосы перестраиваются по мере того, как рабочие потоки вливают свои эскизы квантилей.
+ */
+public class UncertaintyWindow extends JFrame implements FrameScheduler.FrameView {
+
+    private static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+
+    private final SimulationCommands controller;
+    private final JComboBox<Channel> channelBox = new JComboBox<>();
+    private final JSpinner realizationsSpinner = new JSpinner(new SpinnerNumberModel(1000, 10, 1000000, 100));
+    private final JSpinner durationSpinner = new JSpinner(new SpinnerNumberModel(10.0, 0.1, 10000.0, 1.0));
+    private final JSpinner massSpinner = new JSpinner(new SpinnerNumberModel(5.0, 0.0, 100.0, 1.0));
+    private final JSpinner springSpinner = new JSpinner(new SpinnerNumberModel(5.0, 0.0, 100.0, 1.0));
+    private final JSpinner dampingSpinner = new JSpinner(new SpinnerNumberModel(20.0, 0.0, 100.0, 5.0));
+    private final JButton startButton = new JButton("▶ Рассчитать");
+    private final JButton cancelButton = new JButton("✖ Отмена");
+    private final JLabel statusLabel = new JLabel(" ");
+    private final YIntervalSeriesCollection dataset = new YIntervalSeriesCollection();
+    private final ChartPanel chartPanel;
+
+    private MonteCarloEnsemble ensemble;
+
+    public UncertaintyWindow(SimulationCommands controller) {
+        this.controller = controller;
+        setTitle("🎲 Неопределённость параметров");
+        setSize(800, 560);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        for (Channel channel : Channel.values()) {
+            if (!channel.isDerived() && channel != Channel.TIME) {
+                channelBox.addItem(channel);
+            }
+        }
+
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            "Медиана и полосы квантилей", "Время (с)", "", dataset,
+            PlotOrientation.VERTICAL, true, true, false);
+        XYPlot plot = chart.getXYPlot();
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setDomainGridlinePaint(Color.LIGHT_GRAY);
+        plot.setRangeGridlinePaint(Color.LIGHT_GRAY);
+
+        DeviationRenderer renderer = new DeviationRenderer(true, false);
+        renderer.setAlpha(0.25f);
+        renderer.setSeriesPaint(0, new Color(0, 100, 200));
+        renderer.setSeriesFillPaint(0, new Color(0, 100, 200));
+        renderer.setSeriesPaint(1, new Color(0, 100, 200));
+        renderer.setSeriesFillPaint(1, new Color(0, 60, 160));
+        renderer.setSeriesStroke(0, new BasicStroke(2.0f));
+        renderer.setSeriesStroke(1, new BasicStroke(2.0f));
+        plot.setRenderer(renderer);
+
+        chartPanel = new ChartPanel(chart);
+        chartPanel.setMouseWheelEnabled(true);
+
+        JPanel settingsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        settingsPanel.add(new JLabel("Канал:"));
+        settingsPanel.add(channelBox);
+        settingsPanel.add(new JLabel("Реализаций:"));
+        settingsPanel.add(realizationsSpinner);
+        settingsPanel.add(new JLabel("Время (с):"));
+        settingsPanel.add(durationSpinner);
+
+        JPanel uncertaintyPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        uncertaintyPanel.add(new JLabel("СКО, % от значения — масса:"));
+        uncertaintyPanel.add(massSpinner);
+        uncertaintyPanel.add(new JLabel("жёсткость:"));
+        uncertaintyPanel.add(springSpinner);
+        uncertaintyPanel.add(new JLabel("затухание:"));
+        uncertaintyPanel.add(dampingSpinner);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlPanel.add(startButton);
+        controlPanel.add(cancelButton);
+        controlPanel.add(statusLabel);
+
+        JPanel northPanel = new JPanel(new GridLayout(3, 1));
+        northPanel.add(settingsPanel);
+        northPanel.add(uncertaintyPanel);
+        northPanel.add(controlPanel);
+
+        setLayout(new BorderLayout());
+        add(northPanel, BorderLayout.NORTH);
+        add(chartPanel, BorderLayout.CENTER);
+
+        cancelButton.setEnabled(false);
+        startButton.addActionListener(e -> start());
+        cancelButton.addActionListener(e -> ensemble.cancel());
+
+        FrameScheduler.getInstance().register(this);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (ensemble != null) {
+                    ensemble.cancel();
+                }
+                FrameScheduler.getInstance().unregister(UncertaintyWindow.this);
+            }
+        });
+    }
+
+    private void start() {
+        SimulationParameters base = controller.getParameters();
+        List<ParameterDistribution> distributions = new ArrayList<>();
+        addDistribution(distributions, "mass", base.getMass(), massSpinner);
+        addDistribution(distributions, "springConstant", base.getSpringConstant(), springSpinner);
+        addDistribution(distributions, "damping", base.getDamping(), dampingSpinner);
+
+        Channel channel = (Channel) channelBox.getSelectedItem();
+        double duration = (Double) durationSpinner.getValue();
+        MonteCarloEnsemble newEnsemble = new MonteCarloEnsemble(base, distributions, new Channel[] {channel},
+                (Integer) realizationsSpinner.getValue(), 0.001, duration, Math.max(0.001, duration / 1000))
+            .setProgressListener(() ->
+                SwingUtilities.invokeLater(() -> FrameScheduler.getInstance().markDirty(this)));
+        ensemble = newEnsemble;
+        chartPanel.getChart().getXYPlot().getRangeAxis().setLabel(channel.getLabel());
+
+        Thread worker = new Thread(() -> {
+            try {
+                newEnsemble.run();
+            } catch (InterruptedException ignored) {
+            }
+            SwingUtilities.invokeLater(() -> finished(newEnsemble));
+        }, "MonteCarlo");
+        worker.setDaemon(true);
+
+        startButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        statusLabel.setText("Расчёт...");
+        worker.start();
+    }
+
+    private static void addDistribution(List<ParameterDistribution> distributions, String parameter,
+                                        double value, JSpinner percentSpinner) {
+        double percent = (Double) percentSpinner.getValue();
+        if (percent > 0) {
+            distributions.add(ParameterDistribution.normal(parameter, value, Math.abs(value) * percent / 100));
+        }
+    }
+
+    private void finished(MonteCarloEnsemble finishedEnsemble) {
+        if (finishedEnsemble != ensemble) {
+            return;
+        }
+        startButton.setEnabled(true);
+        cancelButton.setEnabled(false);
+        renderFrame();
+        if (finishedEnsemble.isCancelled()) {
+            statusLabel.setText("Отменено, учтено реализаций: " + finishedEnsemble.getMergedRealizations());
+        }
+    }
+
+    @Override
+    public void renderFrame() {
+        if (ensemble == null) {
+            return;
+        }
+        int samples = ensemble.getSampleCount();
+        double[][] bands = new double[QUANTILES.length][samples];
+        ensemble.quantiles(0, QUANTILES, bands);
+
+        YIntervalSeries outer = new YIntervalSeries("5–95 %");
+        YIntervalSeries inner = new YIntervalSeries("25–75 %, медиана");
+        for (int s = 0; s < samples; s++) {
+            double median = bands[2][s];
+            if (Double.isNaN(median)) {
+                continue;
+            }
+            double time = ensemble.getSampleTime(s);
+            outer.add(time, median, bands[0][s], bands[4][s]);
+            inner.add(time, median, bands[1][s], bands[3][s]);
+        }
+        dataset.removeAllSeries();
+        dataset.addSeries(outer);
+        dataset.addSeries(inner);
+        statusLabel.setText(String.format("Реализаций: %d из %d",
+            ensemble.getMergedRealizations(), ensemble.getRealizations()));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.gui.components;
+
+/**
+ * Пирамида минимумов/максимумов над последовательностью точек (x, y) для отрисовки
+ * с уровнем детализации. Уровень 0 хранит сами точки, уровень l — min/max y по
+ * блокам из 2^l соседних точек. Все уровни — кольцевые буферы, поэтому старые точки
+ * вытесняются без перестроения пирамиды, а добавление стоит O(число уровней).
+ *
+ * Блоки адресуются абсолютным номером точки, блок b уровня l покрывает точки
+ * [b * 2^l, (b + 1) * 2^l). После заполнения кольца самый старый блок уровня l может
+ * быть вытеснен частично: его ячейку уже занял самый новый блок, поэтому min/max такого
+ * блока считаются по сохранённым точкам уровня 0 (их меньше 2^l).
+ */
+public class MinMaxPyramid {
+    private static final int MIN_TOP_BUCKETS = 4;
+
+    private final int capacity;
+    private final int mask;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[][] mins;  // [уровень][блок], уровень 0 не используется
+    private final double[][] maxs;
+    private long count;
+    private boolean ascending = true;
+
+    /** @param capacity ёмкость, округляется вверх до степени двойки */
+    public MinMaxPyramid(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(MIN_TOP_BUCKETS, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.xs = new double[this.capacity];
+        this.ys = new double[this.capacity];
+
+        int levels = Integer.numberOfTrailingZeros(this.capacity / MIN_TOP_BUCKETS) + 1;
+        this.mins = new double[levels][];
+        this.maxs = new double[levels][];
+        for (int level = 1; level < levels; level++) {
+            mins[level] = new double[this.capacity >> level];
+            maxs[level] = new double[this.capacity >> level];
+        }
+    }
+
+    public void add(double x, double y) {
+        long index = count;
+        int slot = (int) (index & mask);
+        if (index > 0 && x < xs[(int) ((index - 1) & mask)]) {
+            ascending = false;
+        }
+        xs[slot] = x;
+        ys[slot] = y;
+
+        for (int level = 1; level < mins.length; level++) {
+            int bucket = slot >> level;
+            if ((index & ((1L << level) - 1)) == 0) {
+                mins[level][bucket] = y;
+                maxs[level][bucket] = y;
+            } else {
+                if (y < mins[level][bucket]) mins[level][bucket] = y;
+                if (y > maxs[level][bucket]) maxs[level][bucket] = y;
+            }
+        }
+        count++;
+    }
+
+    public void clear() {
+        count = 0;
+        ascending = true;
+    }
+
+    public int getCapacity() { return capacity; }
+    public int size() { return (int) Math.min(count, capacity); }
+
+    /** @return абсолютный номер самой старой сохранённой точки */
+    public long firstIndex() { return Math.max(0, count - capacity); }
+
+    /** @return абсолютный номер, следующий за последней точкой */
+    public long endIndex() { return count; }
+
+    public int levelCount() { return mins.length; }
+
+    /** @return true, если x точек не убывает (можно искать по x) */
+    public boolean isAscending() { return ascending; }
+
+    public double getX(long index) { return xs[(int) (index & mask)]; }
+    public double getY(long index) { return ys[(int) (index & mask)]; }
+
+    /** @return минимум y по сохранённым точкам блока */
+    public double bucketMin(int level, long bucket) {
+        if (level == 0) {
+            return getY(bucket);
+        }
+        if (bucket << level < firstIndex()) {
+            double min = Double.POSITIVE_INFINITY;
+            for (long i = firstIndex(); i < Math.min(count, (bucket + 1) << level); i++) {
+                min = Math.min(min, getY(i));
+            }
+            return min;
+        }
+        return mins[level][(int) (bucket & (mask >> level))];
+    }
+
+    /** @return максимум y по сохранённым точкам блока */
+    public double bucketMax(int level, long bucket) {
+        if (level == 0) {
+            return getY(bucket);
+        }
+        if (bucket << level < firstIndex()) {
+            double max = Double.NEGATIVE_INFINITY;
+            for (long i = firstIndex(); i < Math.min(count, (bucket + 1) << level); i++) {
+                max = Math.max(max, getY(i));
+            }
+            return max;
+        }
+        return maxs[level][(int) (bucket & (mask >> level))];
+    }
+
+    /** @return уровень, на котором на один пиксель приходится не более двух блоков */
+    public int levelFor(long points, int pixels) {
+        int level = 0;
+        while (level + 1 < mins.length && (points >> (level + 1)) >= pixels) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * @return абсолютный номер первой сохранённой точки с x >= value
+     *         (для неупорядоченных данных — номер самой старой точки)
+     */
+    public long lowerBound(double value) {
+        long lo = firstIndex();
+        long hi = count;
+        if (!ascending) {
+            return lo;
+        }
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (getX(mid) < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return абсолютный номер первой сохранённой точки с x > value
+     *         (для неупорядоченных данных — конец данных)
+     */
+    public long upperBound(double value) {
+        long lo = firstIndex();
+        long hi = count;
+        if (!ascending) {
+            return hi;
+        }
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (getX(mid) <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
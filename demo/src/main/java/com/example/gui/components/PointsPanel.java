@@ -2,14 +2,27 @@ package com.example.gui.components;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
+/**
+ * Панель точек. Точки хранятся в пирамиде min/max ({@link MinMaxPyramid}), поэтому
+ * при плотных данных рисуется огибающая по столбцам пикселей и время отрисовки
+ * зависит от ширины панели, а не от числа сохранённых точек.
+ * Колесо мыши масштабирует ось X, перетаскивание сдвигает её; при этом
+ * генерируется событие свойства {@link #VIEW_RANGE_PROPERTY}.
+ */
 public class PointsPanel extends JPanel implements PointsPanelObserver {
-    private final List<Point2D.Double> points;
+    public static final String VIEW_RANGE_PROPERTY = "viewRange";
+    private static final double ZOOM_STEP = 1.25;
+
+    private final MinMaxPyramid points;
     private final int maxPoints;
     private double minX, maxX, minY, maxY;
     private static final int POINT_SIZE = 6;
@@ -19,8 +32,8 @@ public class PointsPanel extends JPanel implements PointsPanelObserver {
 
     public PointsPanel(int width, int height, double minX, double maxX,
                        double minY, double maxY, int maxPoints) {
-        this.points = new ArrayList<>();
-        this.maxPoints = maxPoints;
+        this.points = new MinMaxPyramid(maxPoints);
+        this.maxPoints = points.getCapacity();
         this.minX = minX;
         this.maxX = maxX;
         this.minY = minY;
@@ -29,20 +42,55 @@ public class PointsPanel extends JPanel implements PointsPanelObserver {
         setPreferredSize(new Dimension(width, height));
         setBackground(BACKGROUND_COLOR);
         setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
+
+        MouseAdapter navigation = new MouseAdapter() {
+            private int lastX;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                lastX = e.getX();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                int width = getWidth() - 2 * PADDING;
+                if (width <= 0) {
+                    return;
+                }
+                double shift = (lastX - e.getX()) * (PointsPanel.this.maxX - PointsPanel.this.minX) / width;
+                lastX = e.getX();
+                changeViewRange(PointsPanel.this.minX + shift, PointsPanel.this.maxX + shift);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double factor = Math.pow(ZOOM_STEP, e.getPreciseWheelRotation());
+                double anchor = fromScreenX(e.getX());
+                changeViewRange(anchor - (anchor - PointsPanel.this.minX) * factor,
+                                anchor + (PointsPanel.this.maxX - anchor) * factor);
+            }
+        };
+        addMouseListener(navigation);
+        addMouseMotionListener(navigation);
+        addMouseWheelListener(navigation);
     }
 
     public void setVal(double x, double y) {
         synchronized (points) {
-            points.add(new Point2D.Double(x, y));
-
-            if (points.size() > maxPoints) {
-                points.remove(0);
-            }
+            points.add(x, y);
         }
 
         repaint();
     }
 
+    private void changeViewRange(double newMinX, double newMaxX) {
+        if (!(newMaxX > newMinX)) {
+            return;
+        }
+        setRange(newMinX, newMaxX, minY, maxY);
+        firePropertyChange(VIEW_RANGE_PROPERTY, null, new double[] {minX, maxX});
+    }
+
     public void setRange(double minX, double maxX, double minY, double maxY) {
         this.minX = minX;
         this.maxX = maxX;
@@ -65,7 +113,11 @@ public class PointsPanel extends JPanel implements PointsPanelObserver {
 
     public List<Point2D.Double> getPoints() {
         synchronized (points) {
-            return Collections.unmodifiableList(new ArrayList<>(points));
+            List<Point2D.Double> copy = new ArrayList<>(points.size());
+            for (long i = points.firstIndex(); i < points.endIndex(); i++) {
+                copy.add(new Point2D.Double(points.getX(i), points.getY(i)));
+            }
+            return Collections.unmodifiableList(copy);
         }
     }
 
@@ -79,6 +131,11 @@ public class PointsPanel extends JPanel implements PointsPanelObserver {
         return PADDING + (int) ((x - minX) / (maxX - minX) * width);
     }
 
+    private double fromScreenX(int screenX) {
+        int width = getWidth() - 2 * PADDING;
+        return minX + (double) (screenX - PADDING) / width * (maxX - minX);
+    }
+
     private int toScreenY(double y) {
         int height = getHeight() - 2 * PADDING;
         return getHeight() - PADDING - (int) ((y - minY) / (maxY - minY) * height);
@@ -98,22 +155,70 @@ public class PointsPanel extends JPanel implements PointsPanelObserver {
                     getHeight() - 2 * PADDING);
 
         g2d.setColor(pointColor);
+        int size;
         synchronized (points) {
-            for (Point2D.Double point : points) {
-                int screenX = toScreenX(point.x);
-                int screenY = toScreenY(point.y);
-
-                g2d.fillOval(screenX - POINT_SIZE / 2,
-                           screenY - POINT_SIZE / 2,
-                           POINT_SIZE, POINT_SIZE);
-            }
+            size = points.size();
+            paintPoints(g2d);
         }
 
         g2d.setColor(Color.DARK_GRAY);
         g2d.setFont(new Font("Monospaced", Font.PLAIN, 10));
         g2d.drawString(String.format(Locale.US, "Диапазон: X[%.1f, %.1f] Y[%.1f, %.1f]",
                                     minX, maxX, minY, maxY), 5, 15);
-        g2d.drawString(String.format(Locale.US, "Точки: %d/%d", points.size(), maxPoints),
+        g2d.drawString(String.format(Locale.US, "Точки: %d/%d", size, maxPoints),
                       5, getHeight() - 5);
     }
+
+    private void paintPoints(Graphics2D g2d) {
+        long first = points.lowerBound(minX);
+        long end = points.upperBound(maxX);
+        int width = Math.max(1, getWidth() - 2 * PADDING);
+
+        if (end - first <= width) {
+            // Точек не больше, чем пикселей: рисуем каждую
+            for (long i = first; i < end; i++) {
+                int screenX = toScreenX(points.getX(i));
+                int screenY = toScreenY(points.getY(i));
+
+                g2d.fillOval(screenX - POINT_SIZE / 2,
+                           screenY - POINT_SIZE / 2,
+                           POINT_SIZE, POINT_SIZE);
+            }
+            return;
+        }
+
+        // Плотные данные: огибающая min/max по столбцам пикселей с подходящего уровня пирамиды
+        int level = points.levelFor(end - first, width);
+        long firstBucket = first >> level;
+        long lastBucket = (end - 1) >> level;
+
+        int column = Integer.MIN_VALUE;
+        double columnMin = 0, columnMax = 0;
+        for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+            int bucketColumn = toScreenX(points.getX(Math.max(first, bucket << level)));
+            double min = points.bucketMin(level, bucket);
+            double max = points.bucketMax(level, bucket);
+
+            if (bucketColumn != column) {
+                if (column != Integer.MIN_VALUE) {
+                    fillColumn(g2d, column, columnMin, columnMax);
+                }
+                column = bucketColumn;
+                columnMin = min;
+                columnMax = max;
+            } else {
+                columnMin = Math.min(columnMin, min);
+                columnMax = Math.max(columnMax, max);
+            }
+        }
+        if (column != Integer.MIN_VALUE) {
+            fillColumn(g2d, column, columnMin, columnMax);
+        }
+    }
+
+    private void fillColumn(Graphics2D g2d, int column, double min, double max) {
+        int top = toScreenY(max);
+        int bottom = toScreenY(min);
+        g2d.fillRect(column, top - POINT_SIZE / 2, 1, bottom - top + POINT_SIZE);
+    }
 }
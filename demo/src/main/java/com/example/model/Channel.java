@@ -0,0 +1,100 @@
+package com.example.model;
+
+/**
+ * Каналы состояния системы. В отличие от {@link PhysicsState#getParameter(String)}
+ * значение канала читается без поиска по строке.
+ * Производные каналы заполняются конвейером анализа и до его подключения равны NaN.
+ */
+public enum Channel {
+    TIME("time", "Время (с)"),
+    ANGLE("angle", "Угол (рад)"),
+    ANGULAR_VELOCITY("angularVelocity", "Угловая скорость (рад/с)"),
+    SPRING_LENGTH("springLength", "Длина пружины (м)"),
+    RADIAL_VELOCITY("radialVelocity", "Радиальная скорость (м/с)"),
+    X("x", "Координата X (м)"),
+    Y("y", "Координата Y (м)"),
+    VELOCITY("velocity", "Скорость (м/с)"),
+    SPRING_FORCE("springForce", "Сила пружины (Н)"),
+    GRAVITY_FORCE("gravityForce", "Сила тяжести (Н)"),
+    ACCELERATION("acceleration", "Ускорение (м/с²)"),
+    ENERGY("energy", "Энергия (Дж)"),
+    ENERGY_DRIFT("energyDrift", "Дрейф энергии (отн.)"),
+    CLAMP_COUNT("clampCount", "Срабатывания ограничения длины"),
+
+    ANGLE_MEAN("angleMean", "Угол: среднее (рад)", 0),
+    ANGLE_STD("angleStd", "Угол: СКО (рад)", 1),
+    ANGLE_PERIOD("anglePeriod", "Угол: период (с)", 2),
+    ANGLE_FREQUENCY("angleFrequency", "Угол: частота БПФ (Гц)", 3),
+    ANGLE_AMPLITUDE("angleAmplitude", "Угол: амплитуда (рад)", 4),
+    LENGTH_MEAN("lengthMean", "Длина: среднее (м)", 5),
+    LENGTH_STD("lengthStd", "Длина: СКО (м)", 6),
+    LENGTH_PERIOD("lengthPeriod", "Длина: период (с)", 7),
+    LENGTH_FREQUENCY("lengthFrequency", "Длина: частота БПФ (Гц)", 8),
+    LENGTH_AMPLITUDE("lengthAmplitude", "Длина: амплитуда (м)", 9);
+
+    /** Число производных каналов */
+    public static final int DERIVED_COUNT = 10;
+
+    private final String key;
+    private final String label;
+    private final int derivedIndex;
+
+    Channel(String key, String label) {
+        this(key, label, -1);
+    }
+
+    Channel(String key, String label, int derivedIndex) {
+        this.key = key;
+        this.label = label;
+        this.derivedIndex = derivedIndex;
+    }
+
+    /** @return короткое имя канала (для командной строки и файлов) */
+    public String getKey() { return key; }
+
+    /** @return название канала, совпадающее с именами из {@link PhysicsState#getAvailableParameters()} */
+    public String getLabel() { return label; }
+
+    public boolean isDerived() { return derivedIndex >= 0; }
+
+    /** @return индекс в массиве производных значений {@link PhysicsState#getDerived(int)} */
+    public int getDerivedIndex() { return derivedIndex; }
+
+    public double read(PhysicsState state) {
+        if (derivedIndex >= 0) {
+            return state.getDerived(derivedIndex);
+        }
+        return switch (this) {
+            case TIME -> state.getTime();
+            case ANGLE -> state.getAngle();
+            case ANGULAR_VELOCITY -> state.getAngularVelocity();
+            case SPRING_LENGTH -> state.getSpringLength();
+            case RADIAL_VELOCITY -> state.getRadialVelocity();
+            case X -> state.getX();
+            case Y -> state.getY();
+            case VELOCITY -> state.getVelocity();
+            case SPRING_FORCE -> state.getSpringForce();
+            case GRAVITY_FORCE -> state.getGravityForce();
+            case ACCELERATION -> state.getAcceleration();
+            case ENERGY -> state.getEnergy();
+            case ENERGY_DRIFT -> state.getEnergyDrift();
+            case CLAMP_COUNT -> state.getClampCount();
+            default -> Double.NaN;
+        };
+    }
+
+    /** @return канал по короткому имени или названию, либо null */
+    public static Channel find(String name) {
+        for (Channel channel : values()) {
+            if (channel.key.equalsIgnoreCase(name) || channel.label.equals(name)) {
+                return channel;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Расписание изменения параметров во времени: для каждого параметра — узлы (время, значение)
+ * и способ перехода между ними. Ступенчатое расписание держит значение узла до следующего
+ * узла, линейное — интерполирует. До первого узла действует его значение, после последнего —
+ * значение последнего.
+ *
+ * Текстовая запись: {@code имя:step|linear:t=значение,t=значение,...}, несколько параметров
+ * через {@code ;}, например {@code springConstant:linear:0=40,1000=80,2000=40}.
+ * Объект неизменяем и может использоваться из нескольких потоков.
+ */
+public final class ParameterSchedule {
+
+    public enum Interpolation { STEP, LINEAR }
+
+    /** Узлы одного параметра. */
+    public static final class Track {
+        private final String parameter;
+        private final Interpolation interpolation;
+        private final double[] times;
+        private final double[] values;
+
+        Track(String parameter, Interpolation interpolation, double[] times, double[] values) {
+            this.parameter = parameter;
+            this.interpolation = interpolation;
+            this.times = times;
+            this.values = values;
+        }
+
+        public String getParameter() { return parameter; }
+        public Interpolation getInterpolation() { return interpolation; }
+        public int getKnotCount() { return times.length; }
+        public double getTime(int knot) { return times[knot]; }
+
+        /** Значение параметра в момент t (без выделения памяти). */
+        public double valueAt(double t) {
+            int index = Arrays.binarySearch(times, t);
+            if (index >= 0) {
+                return values[index];
+            }
+            int next = -index - 1;
+            if (next == 0) {
+                return values[0];
+            }
+            if (next == times.length || interpolation == Interpolation.STEP) {
+                return values[next - 1];
+            }
+            double fraction = (t - times[next - 1]) / (times[next] - times[next - 1]);
+            return values[next - 1] + fraction * (values[next] - values[next - 1]);
+        }
+    }
+
+    private final Track[] tracks;
+
+    private ParameterSchedule(Track[] tracks) {
+        this.tracks = tracks;
+    }
+
+    /** Разобрать текстовую запись расписания. */
+    public static ParameterSchedule parse(String text) {
+        List<Track> tracks = new ArrayList<>();
+        for (String part : text.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] fields = part.trim().split(":", 3);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Ожидается имя:step|linear:t=значение,...: " + part);
+            }
+            Interpolation interpolation = switch (fields[1].trim()) {
+                case "step" -> Interpolation.STEP;
+                case "linear" -> Interpolation.LINEAR;
+                default -> throw new IllegalArgumentException("Неизвестный способ перехода: " + fields[1]);
+            };
+            String[] knots = fields[2].split(",");
+            double[] times = new double[knots.length];
+            double[] values = new double[knots.length];
+            for (int i = 0; i < knots.length; i++) {
+                String[] pair = knots[i].split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Ожидается t=значение: " + knots[i]);
+                }
+                try {
+                    times[i] = Double.parseDouble(pair[0].trim());
+                    values[i] = Double.parseDouble(pair[1].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Не число в узле " + knots[i]);
+                }
+            }
+            tracks.add(track(fields[0].trim(), interpolation, times, values));
+        }
+        if (tracks.isEmpty()) {
+            throw new IllegalArgumentException("Расписание пусто");
+        }
+        return new ParameterSchedule(tracks.toArray(new Track[0]));
+    }
+
+    private static Track track(String parameter, Interpolation interpolation, double[] times, double[] values) {
+        new SimulationParameters().getParameter(parameter); // Проверка имени
+        if ("initialLength".equals(parameter) || "initialAngle".equals(parameter)) {
+            throw new IllegalArgumentException("Начальные условия не меняются по ходу расчёта: " + parameter);
+        }
+        for (int i = 0; i < times.length; i++) {
+            if (!(times[i] >= 0) || i > 0 && !(times[i] > times[i - 1])) {
+                throw new IllegalArgumentException("Время узлов " + parameter + " должно быть неотрицательным и возрастать");
+            }
+        }
+        return new Track(parameter, interpolation, times, values);
+    }
+
+    public int getTrackCount() { return tracks.length; }
+    public Track getTrack(int index) { return tracks[index]; }
+
+    /** Подставить в params значения всех параметров расписания в момент t. */
+    public void apply(double t, SimulationParameters params) {
+        for (Track track : tracks) {
+            params.setParameter(track.parameter, track.valueAt(t));
+        }
+    }
+
+    /** @return время последнего узла всех параметров */
+    public double getLastKnotTime() {
+        double last = 0;
+        for (Track track : tracks) {
+            last = Math.max(last, track.times[track.times.length - 1]);
+        }
+        return last;
+    }
+
+    /**
+     * Длительность по умолчанию: последний узел, а для ступенчатых параметров ещё и последний
+     * интервал между узлами, чтобы последнее значение выдерживалось так же долго, как предыдущие.
+     */
+    public double getDefaultDuration() {
+        double tail = 0;
+        for (Track track : tracks) {
+            int n = track.times.length;
+            if (n > 1 && track.interpolation == Interpolation.STEP) {
+                tail = Math.max(tail, track.times[n - 1] - track.times[n - 2]);
+            }
+        }
+        return getLastKnotTime() + tail;
+    }
+
+    /**
+     * Границы отрезков на [0, duration]: все узлы, а при {@code segmentLength > 0} ещё и
+     * равные отрезки этой длины (для наблюдения за линейным изменением).
+     *
+     * @return возрастающие моменты, первый 0, последний duration
+     */
+    public double[] segmentBoundaries(double duration, double segmentLength) {
+        TreeSet<Double> boundaries = new TreeSet<>();
+        boundaries.add(0.0);
+        boundaries.add(duration);
+        for (Track track : tracks) {
+            for (double t : track.times) {
+                if (t > 0 && t < duration) {
+                    boundaries.add(t);
+                }
+            }
+        }
+        if (segmentLength > 0) {
+            for (long i = 1; i * segmentLength < duration; i++) {
+                boundaries.add(i * segmentLength);
+            }
+        }
+        return boundaries.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
@@ -12,6 +12,11 @@ public class PhysicsState {
     private double springForce;    // Сила пружины (Н)
     private double gravityForce;   // Сила тяжести (Н)
     private double acceleration;   // Полное ускорение (м/с²)
+    private double energy;         // Механическая энергия (Дж)
+    private double energyDrift;    // Относительный дрейф баланса энергии
+    private long clampCount;       // Срабатывания ограничения длины пружины
+    private double[] derived;      // Производные каналы анализа (см. Channel.isDerived)
+    private double[] bodyPositions; // Координаты тел цепочки {x0, y0, x1, y1, ...} или null
 
     public PhysicsState() {}
 
@@ -43,6 +48,9 @@ public class PhysicsState {
     public double getSpringForce() { return springForce; }
     public double getGravityForce() { return gravityForce; }
     public double getAcceleration() { return acceleration; }
+    public double getEnergy() { return energy; }
+    public double getEnergyDrift() { return energyDrift; }
+    public long getClampCount() { return clampCount; }
 
     public void setTime(double time) { this.time = time; }
     public void setAngle(double angle) { this.angle = angle; }
@@ -55,6 +63,22 @@ public class PhysicsState {
     public void setSpringForce(double springForce) { this.springForce = springForce; }
     public void setGravityForce(double gravityForce) { this.gravityForce = gravityForce; }
     public void setAcceleration(double acceleration) { this.acceleration = acceleration; }
+    public void setEnergy(double energy) { this.energy = energy; }
+    public void setEnergyDrift(double energyDrift) { this.energyDrift = energyDrift; }
+    public void setClampCount(long clampCount) { this.clampCount = clampCount; }
+
+    /** @return значение производного канала или NaN, если анализ не подключён */
+    public double getDerived(int index) {
+        return derived == null ? Double.NaN : derived[index];
+    }
+
+    /** @param derived массив из {@link Channel#DERIVED_COUNT} значений (хранится по ссылке) */
+    public void setDerived(double[] derived) { this.derived = derived; }
+
+    /** @return координаты тел цепочки {x0, y0, x1, y1, ...} или null для одного грузика */
+    public double[] getBodyPositions() { return bodyPositions; }
+
+    public void setBodyPositions(double[] bodyPositions) { this.bodyPositions = bodyPositions; }
 
     public double getParameter(String parameterName) {
         return switch (parameterName) {
@@ -69,7 +93,13 @@ public class PhysicsState {
             case "Сила пружины (Н)" -> springForce;
             case "Сила тяжести (Н)" -> gravityForce;
             case "Ускорение (м/с²)" -> acceleration;
-            default -> 0;
+            case "Энергия (Дж)" -> energy;
+            case "Дрейф энергии (отн.)" -> energyDrift;
+            case "Срабатывания ограничения длины" -> clampCount;
+            default -> {
+                Channel channel = Channel.find(parameterName);
+                yield channel != null && channel.isDerived() ? getDerived(channel.getDerivedIndex()) : 0;
+            }
         };
     }
 
@@ -84,7 +114,20 @@ public class PhysicsState {
             "Скорость (м/с)",
             "Сила пружины (Н)",
             "Сила тяжести (Н)",
-            "Ускорение (м/с²)"
+            "Ускорение (м/с²)",
+            "Энергия (Дж)",
+            "Дрейф энергии (отн.)",
+            "Срабатывания ограничения длины",
+            "Угол: среднее (рад)",
+            "Угол: СКО (рад)",
+            "Угол: период (с)",
+            "Угол: частота БПФ (Гц)",
+            "Угол: амплитуда (рад)",
+            "Длина: среднее (м)",
+            "Длина: СКО (м)",
+            "Длина: период (с)",
+            "Длина: частота БПФ (Гц)",
+            "Длина: амплитуда (м)"
         };
     }
 
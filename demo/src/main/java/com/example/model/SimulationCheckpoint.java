@@ -0,0 +1,243 @@
+package com.example.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Снимок полного состояния интегратора для сохранения и продолжения расчёта.
+ * Значения хранятся побитово, поэтому продолжение с того же шага интегрирования
+ * воспроизводит исходный расчёт в точности.
+ *
+ * Формат: {@code int MAGIC, short VERSION, double dt, long steps, double time,
+ * double R, dR, fi, dfi, int N, N × (UTF имя параметра, double значение), int B,
+ * при B > 1: B × x, B × y, B × vx, B × vy, double фаза подвеса, double журнал энергии,
+ * double баланс и double масштаб энергии в начале отсчёта, long срабатывания ограничения длины}.
+ * B — число тел: для цепочки R, dR, fi, dfi описывают последнее тело, а состояние всех тел хранится
+ * в декартовых координатах. Фаза подвеса накапливается интегратором и при изменявшейся частоте
+ * не равна ω·t. Баланс энергии (NaN, если не записан) позволяет продолжить и его отсчёт.
+ * Версия 1 (без числа тел) читается как одиночный маятник, в версиях 1 и 2 фаза считается равной ω·t,
+ * до версии 4 баланс энергии не записан.
+ */
+public final class SimulationCheckpoint {
+
+    public static final int MAGIC = 0x5043484B; // "PCHK"
+    public static final short VERSION = 4;
+
+    private final double dt;
+    private final long steps;
+    private final double time;
+    private final double springLength;
+    private final double radialVelocity;
+    private final double angle;
+    private final double angularVelocity;
+    private final SimulationParameters parameters;
+    private final double[] chainState; // {x[], y[], vx[], vy[]} цепочки или null
+    private final double drivePhase;
+    private final double energyLedger, referenceBalance, referenceScale; // NaN, если не записаны
+    private final long clampCount;
+
+    public SimulationCheckpoint(double dt, long steps, double time,
+                                double springLength, double radialVelocity,
+                                double angle, double angularVelocity,
+                                SimulationParameters parameters) {
+        this(dt, steps, time, springLength, radialVelocity, angle, angularVelocity, parameters, null);
+    }
+
+    /** @param chainState координаты и скорости тел цепочки {x[], y[], vx[], vy[]} или null */
+    public SimulationCheckpoint(double dt, long steps, double time,
+                                double springLength, double radialVelocity,
+                                double angle, double angularVelocity,
+                                SimulationParameters parameters, double[] chainState) {
+        this(dt, steps, time, springLength, radialVelocity, angle, angularVelocity, parameters, chainState,
+             2 * Math.PI * parameters.getDriveFrequency() * time % (2 * Math.PI));
+    }
+
+    /** @param drivePhase фаза колебаний подвеса (рад) */
+    public SimulationCheckpoint(double dt, long steps, double time,
+                                double springLength, double radialVelocity,
+                                double angle, double angularVelocity,
+                                SimulationParameters parameters, double[] chainState, double drivePhase) {
+        this(dt, steps, time, springLength, radialVelocity, angle, angularVelocity, parameters, chainState,
+             drivePhase, Double.NaN, Double.NaN, Double.NaN, 0);
+    }
+
+    private SimulationCheckpoint(double dt, long steps, double time,
+                                 double springLength, double radialVelocity,
+                                 double angle, double angularVelocity,
+                                 SimulationParameters parameters, double[] chainState, double drivePhase,
+                                 double energyLedger, double referenceBalance, double referenceScale,
+                                 long clampCount) {
+        if (chainState != null && (chainState.length % 4 != 0 || chainState.length < 8)) {
+            throw new IllegalArgumentException("Состояние цепочки должно содержать 4 массива по числу тел (не меньше 2)");
+        }
+        this.chainState = chainState == null ? null : chainState.clone();
+        this.dt = dt;
+        this.steps = steps;
+        this.time = time;
+        this.springLength = springLength;
+        this.radialVelocity = radialVelocity;
+        this.angle = angle;
+        this.angularVelocity = angularVelocity;
+        this.parameters = new SimulationParameters(parameters);
+        this.drivePhase = drivePhase;
+        this.energyLedger = energyLedger;
+        this.referenceBalance = referenceBalance;
+        this.referenceScale = referenceScale;
+        this.clampCount = clampCount;
+    }
+
+    /**
+     * Копия с балансом энергии интегратора: журналом (рассеянная энергия минус работа подвеса),
+     * балансом и масштабом энергии в начале отсчёта и числом срабатываний ограничения длины.
+     */
+    public SimulationCheckpoint withEnergyBalance(double energyLedger, double referenceBalance,
+                                                  double referenceScale, long clampCount) {
+        return new SimulationCheckpoint(dt, steps, time, springLength, radialVelocity, angle, angularVelocity,
+                                        parameters, chainState, drivePhase,
+                                        energyLedger, referenceBalance, referenceScale, clampCount);
+    }
+
+    public double getDt() { return dt; }
+    public long getSteps() { return steps; }
+    public double getTime() { return time; }
+    public double getSpringLength() { return springLength; }
+    public double getRadialVelocity() { return radialVelocity; }
+    public double getAngle() { return angle; }
+    public double getAngularVelocity() { return angularVelocity; }
+    public SimulationParameters getParameters() { return new SimulationParameters(parameters); }
+    public double getDrivePhase() { return drivePhase; }
+
+    /** @return записан ли баланс энергии ({@link #withEnergyBalance}) */
+    public boolean hasEnergyBalance() { return !Double.isNaN(referenceBalance); }
+    public double getEnergyLedger() { return energyLedger; }
+    public double getReferenceBalance() { return referenceBalance; }
+    public double getReferenceScale() { return referenceScale; }
+    public long getClampCount() { return clampCount; }
+
+    /** @return число тел: 1 для одиночного маятника */
+    public int getBodies() { return chainState == null ? 1 : chainState.length / 4; }
+
+    /** @return копия состояния цепочки {x[], y[], vx[], vy[]} или null для одиночного маятника */
+    public double[] getChainState() { return chainState == null ? null : chainState.clone(); }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        writeExact(out, dt);
+        out.writeLong(steps);
+        writeExact(out, time);
+        writeExact(out, springLength);
+        writeExact(out, radialVelocity);
+        writeExact(out, angle);
+        writeExact(out, angularVelocity);
+
+        String[] names = SimulationParameters.getParameterNames();
+        out.writeInt(names.length);
+        for (String name : names) {
+            out.writeUTF(name);
+            writeExact(out, parameters.getParameter(name));
+        }
+        out.writeInt(getBodies());
+        if (chainState != null) {
+            for (double value : chainState) {
+                writeExact(out, value);
+            }
+        }
+        writeExact(out, drivePhase);
+        writeExact(out, energyLedger);
+        writeExact(out, referenceBalance);
+        writeExact(out, referenceScale);
+        out.writeLong(clampCount);
+    }
+
+    public static SimulationCheckpoint readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Файл не является контрольной точкой симуляции");
+        }
+        short version = in.readShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Неподдерживаемая версия контрольной точки: " + version);
+        }
+        double dt = readExact(in);
+        long steps = in.readLong();
+        double time = readExact(in);
+        double springLength = readExact(in);
+        double radialVelocity = readExact(in);
+        double angle = readExact(in);
+        double angularVelocity = readExact(in);
+
+        SimulationParameters parameters = new SimulationParameters();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            double value = readExact(in);
+            try {
+                parameters.setParameter(name, value);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Неизвестный параметр в контрольной точке: " + name, e);
+            }
+        }
+        double[] chainState = null;
+        if (version >= 2) {
+            int bodies = in.readInt();
+            if (bodies < 1) {
+                throw new IOException("Некорректное число тел в контрольной точке: " + bodies);
+            }
+            if (bodies > 1) {
+                chainState = new double[4 * bodies];
+                for (int i = 0; i < chainState.length; i++) {
+                    chainState[i] = readExact(in);
+                }
+            }
+        }
+        if (version < 3) {
+            return new SimulationCheckpoint(dt, steps, time, springLength, radialVelocity,
+                                            angle, angularVelocity, parameters, chainState);
+        }
+        SimulationCheckpoint checkpoint = new SimulationCheckpoint(dt, steps, time, springLength, radialVelocity,
+                                                                   angle, angularVelocity, parameters, chainState,
+                                                                   readExact(in));
+        if (version < 4) {
+            return checkpoint;
+        }
+        double energyLedger = readExact(in);
+        double referenceBalance = readExact(in);
+        double referenceScale = readExact(in);
+        return checkpoint.withEnergyBalance(energyLedger, referenceBalance, referenceScale, in.readLong());
+    }
+
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path)))) {
+            writeTo(out);
+        }
+    }
+
+    public static SimulationCheckpoint load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            return readFrom(in);
+        }
+    }
+
+    private static void writeExact(DataOutput out, double value) throws IOException {
+        out.writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    private static double readExact(DataInput in) throws IOException {
+        return Double.longBitsToDouble(in.readLong());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SimulationCheckpoint[t=%.3f, steps=%d, bodies=%d, angle=%.3f, R=%.3f]",
+                             time, steps, getBodies(), angle, springLength);
+    }
+}
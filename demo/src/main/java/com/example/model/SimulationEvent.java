@@ -0,0 +1,39 @@
+package com.example.model;
+
+import java.util.Locale;
+
+/**
+ * Событие, найденное между шагами интегрирования: имя функции события,
+ * уточнённый момент пересечения и интерполированное состояние в этот момент.
+ */
+public final class SimulationEvent {
+    private final String name;
+    private final double time;
+    private final double springLength;
+    private final double radialVelocity;
+    private final double angle;
+    private final double angularVelocity;
+
+    public SimulationEvent(String name, double time, double springLength, double radialVelocity,
+                           double angle, double angularVelocity) {
+        this.name = name;
+        this.time = time;
+        this.springLength = springLength;
+        this.radialVelocity = radialVelocity;
+        this.angle = angle;
+        this.angularVelocity = angularVelocity;
+    }
+
+    public String getName() { return name; }
+    public double getTime() { return time; }
+    public double getSpringLength() { return springLength; }
+    public double getRadialVelocity() { return radialVelocity; }
+    public double getAngle() { return angle; }
+    public double getAngularVelocity() { return angularVelocity; }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "SimulationEvent[%s, t=%.6f, angle=%.4f, R=%.4f]",
+                             name, time, angle, springLength);
+    }
+}
@@ -8,6 +8,8 @@ public class SimulationParameters {
     private double initialAngle;      // Начальный угол отклонения (рад)
     private double damping;           // Коэффициент затухания
     private double gravity;           // Ускорение свободного падения (м/с²)
+    private double driveAmplitude;    // Амплитуда вертикальных колебаний точки подвеса (м)
+    private double driveFrequency;    // Частота колебаний точки подвеса (Гц)
 
     public SimulationParameters() {
         this.mass = 1.0;
@@ -17,6 +19,8 @@ public class SimulationParameters {
         this.initialAngle = Math.PI / 6;
         this.damping = 0.1;
         this.gravity = 9.81;
+        this.driveAmplitude = 0.0;
+        this.driveFrequency = 1.0;
     }
 
     public SimulationParameters(SimulationParameters other) {
@@ -27,6 +31,8 @@ public class SimulationParameters {
         this.initialAngle = other.initialAngle;
         this.damping = other.damping;
         this.gravity = other.gravity;
+        this.driveAmplitude = other.driveAmplitude;
+        this.driveFrequency = other.driveFrequency;
     }
 
     public double getMass() { return mass; }
@@ -36,6 +42,8 @@ public class SimulationParameters {
     public double getInitialAngle() { return initialAngle; }
     public double getDamping() { return damping; }
     public double getGravity() { return gravity; }
+    public double getDriveAmplitude() { return driveAmplitude; }
+    public double getDriveFrequency() { return driveFrequency; }
 
     public void setMass(double mass) { this.mass = mass; }
     public void setSpringConstant(double springConstant) { this.springConstant = springConstant; }
@@ -44,6 +52,59 @@ public class SimulationParameters {
     public void setInitialAngle(double initialAngle) { this.initialAngle = initialAngle; }
     public void setDamping(double damping) { this.damping = damping; }
     public void setGravity(double gravity) { this.gravity = gravity; }
+    public void setDriveAmplitude(double driveAmplitude) { this.driveAmplitude = driveAmplitude; }
+    public void setDriveFrequency(double driveFrequency) { this.driveFrequency = driveFrequency; }
+
+    /** @return амплитуда ускорения точки подвеса A·ω² (м/с²); 0 — подвес неподвижен */
+    public double getDriveAcceleration() {
+        double omega = 2 * Math.PI * driveFrequency;
+        return driveAmplitude * omega * omega;
+    }
+
+    public double getParameter(String parameterName) {
+        return switch (parameterName) {
+            case "mass" -> mass;
+            case "springConstant" -> springConstant;
+            case "naturalLength" -> naturalLength;
+            case "initialLength" -> initialLength;
+            case "initialAngle" -> initialAngle;
+            case "damping" -> damping;
+            case "gravity" -> gravity;
+            case "driveAmplitude" -> driveAmplitude;
+            case "driveFrequency" -> driveFrequency;
+            default -> throw new IllegalArgumentException("Неизвестный параметр: " + parameterName);
+        };
+    }
+
+    public void setParameter(String parameterName, double value) {
+        switch (parameterName) {
+            case "mass" -> mass = value;
+            case "springConstant" -> springConstant = value;
+            case "naturalLength" -> naturalLength = value;
+            case "initialLength" -> initialLength = value;
+            case "initialAngle" -> initialAngle = value;
+            case "damping" -> damping = value;
+            case "gravity" -> gravity = value;
+            case "driveAmplitude" -> driveAmplitude = value;
+            case "driveFrequency" -> driveFrequency = value;
+            default -> throw new IllegalArgumentException("Неизвестный параметр: " + parameterName);
+        }
+    }
+
+    /** @return имена параметров для {@link #getParameter(String)} и {@link #setParameter(String, double)} */
+    public static String[] getParameterNames() {
+        return new String[] {
+            "mass",
+            "springConstant",
+            "naturalLength",
+            "initialLength",
+            "initialAngle",
+            "damping",
+            "gravity",
+            "driveAmplitude",
+            "driveFrequency"
+        };
+    }
 
     @Override
     public String toString() {
@@ -1,7 +1,10 @@
 package com.example.observer;
 
+import com.example.model.SimulationCheckpoint;
 import com.example.model.SimulationParameters;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface SimulationCommands {
     
     void start();
@@ -11,9 +14,30 @@ public interface SimulationCommands {
     /** @param params */
     void setParameters(SimulationParameters params);
     
+    /** @param params новые параметры, применяемые между шагами без сброса состояния */
+    void updateParameters(SimulationParameters params);
+    
     /** @return */
     SimulationParameters getParameters();
     
+    /** @return снимок состояния, снятый между шагами интегрирования */
+    SimulationCheckpoint checkpoint();
+    
+    /** @param checkpoint */
+    void restore(SimulationCheckpoint checkpoint);
+    
+    /**
+     * @param time момент траектории от начального состояния (с)
+     * @return завершается, когда состояние перенесено (или переход отменён более поздним изменением)
+     */
+    CompletableFuture<Void> seek(double time);
+    
+    /** @param bodies число грузиков в цепочке (1 — одиночный маятник) */
+    void setBodyCount(int bodies);
+    
+    /** @return */
+    int getBodyCount();
+    
     /** @return */
     boolean isRunning();
     
@@ -28,4 +52,16 @@ public interface SimulationCommands {
     
     /** @param observer */
     void unsubscribe(SimulationObserver observer);
+    
+    /** @param listener вызывается в потоке симуляции */
+    void addEventListener(SimulationEventListener listener);
+    
+    /** @param listener */
+    void removeEventListener(SimulationEventListener listener);
+    
+    /** @param listener вызывается в потоке симуляции после каждого шага интегрирования */
+    void addStepListener(StepListener listener);
+    
+    /** @param listener */
+    void removeStepListener(StepListener listener);
 }
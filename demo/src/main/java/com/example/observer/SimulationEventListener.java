@@ -0,0 +1,13 @@
+package com.example.observer;
+
+import com.example.model.SimulationEvent;
+
+/**
+ * Подписчик на события интегратора. Вызывается в потоке симуляции сразу после шага,
+ * на котором событие найдено; обновлять Swing нужно через {@code SwingUtilities.invokeLater}.
+ */
+public interface SimulationEventListener {
+    
+    /** @param event */
+    void onEvent(SimulationEvent event);
+}
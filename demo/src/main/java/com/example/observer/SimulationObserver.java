@@ -12,4 +12,12 @@ public interface SimulationObserver {
     void onSimulationStopped();
     
     void onSimulationReset();
+
+    /**
+     * @return true, если наблюдатель читает производные каналы: пока таких наблюдателей нет,
+     *         конвейер анализа не подключается к шагам и производные каналы равны NaN
+     */
+    default boolean needsAnalysis() {
+        return false;
+    }
 }
@@ -0,0 +1,14 @@
+package com.example.observer;
+
+/**
+ * Слушатель шагов интегрирования. В отличие от {@link SimulationObserver} вызывается
+ * в потоке симуляции после каждого шага, поэтому должен работать за O(1) и не выделять память.
+ */
+public interface StepListener {
+    
+    void onStep(double time, double springLength, double radialVelocity,
+                double angle, double angularVelocity);
+    
+    /** Состояние сброшено или восстановлено: накопленные данные больше не относятся к расчёту. */
+    void onReset();
+}
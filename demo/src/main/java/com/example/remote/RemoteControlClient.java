@@ -0,0 +1,92 @@
+package com.example.remote;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Клиент удалённого управления ({@link RemoteControlServer}). Запросы можно отправлять
+ * конвейером: {@link #send} без ожидания, затем столько же {@link #receive}.
+ * Строки событий передаются обработчику {@link #setEventHandler}. Не потокобезопасен.
+ */
+public class RemoteControlClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final BufferedReader in;
+    private final Writer out;
+    private Consumer<String> eventHandler = event -> { };
+
+    public RemoteControlClient(String host, int port) throws IOException {
+        this(SocketChannel.open(new InetSocketAddress(host, port)));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    public RemoteControlClient(Path socketFile) throws IOException {
+        this(openUnix(socketFile));
+    }
+
+    private RemoteControlClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+        this.out = Channels.newWriter(channel, StandardCharsets.UTF_8);
+    }
+
+    private static SocketChannel openUnix(Path socketFile) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.connect(UnixDomainSocketAddress.of(socketFile));
+        return channel;
+    }
+
+    public void setEventHandler(Consumer<String> handler) {
+        this.eventHandler = handler;
+    }
+
+    /** Выполнить запрос и дождаться ответа. @throws IOException если сервер ответил ошибкой */
+    public String request(String command) throws IOException {
+        send(command);
+        flush();
+        return receive();
+    }
+
+    /** Поставить запрос в буфер отправки (отправляется при {@link #flush()} или переполнении). */
+    public void send(String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /** @return данные ответа после {@code ok} (пустая строка, если их нет) */
+    public String receive() throws IOException {
+        while (true) {
+            String line = in.readLine();
+            if (line == null) {
+                throw new IOException("Сервер закрыл соединение");
+            }
+            if (line.startsWith("event ")) {
+                eventHandler.accept(line);
+            } else if (line.equals("ok")) {
+                return "";
+            } else if (line.startsWith("ok ")) {
+                return line.substring(3);
+            } else {
+                throw new IOException(line.startsWith("error ") ? line.substring(6) : "Неверный ответ: " + line);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
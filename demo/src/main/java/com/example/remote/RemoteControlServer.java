@@ -0,0 +1,304 @@
+package com.example.remote;
+
+import com.example.model.SimulationCheckpoint;
+import com.example.model.SimulationEvent;
+import com.example.model.SimulationParameters;
+import com.example.observer.SimulationCommands;
+import com.example.observer.SimulationEventListener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Удалённое управление симуляцией через {@link SimulationCommands} по локальному сокету
+ * (TCP или Unix-domain). Протокол текстовый, по строке на запрос и ответ (UTF-8):
+ *
+ * <pre>
+ * start | stop | reset | running | ping
+ * set имя=значение ...      параметры без сброса, все сразу между шагами
+ * params имя=значение ...   новые параметры со сбросом (setParameters)
+ * get                       текущие параметры
+ * speed [множитель]         задать или прочитать скорость
+ * seek время | bodies [N]
+ * state                     состояние на границе шага
+ * checkpoint файл | restore файл
+ * events on|off             события PendulumEvents строками "event имя время R dR fi dfi"
+ * </pre>
+ *
+ * События копятся в очереди соединения ({@link #EVENT_QUEUE} штук) и пишутся в сокет отдельным
+ * потоком соединения, поэтому медленный клиент не задерживает шаги симуляции. Если очередь
+ * переполнена, события отбрасываются, а перед следующим отправленным событием приходит
+ * строка {@code dropped N} с их числом.
+ *
+ * Ответ — {@code ok [данные]} или {@code error сообщение}. Запросы можно отправлять, не дожидаясь
+ * ответов: соединение обслуживается по порядку, а ответы сбрасываются в сокет, когда
+ * прочитанные запросы закончились. Каждое соединение обслуживает свой поток.
+ */
+public class RemoteControlServer implements AutoCloseable {
+
+    /** Событий в очереди одного соединения */
+    public static final int EVENT_QUEUE = 1024;
+
+    private final SimulationCommands simulation;
+    private final ServerSocketChannel serverChannel;
+    private final Path socketFile;
+    private final List<SocketChannel> connections = new CopyOnWriteArrayList<>();
+    private final Object parameterLock = new Object(); // Чтение и замена параметров без гонок между соединениями
+    private volatile boolean open = true;
+
+    /** Сервер на TCP-порту. @param port 0 — любой свободный */
+    public RemoteControlServer(SimulationCommands simulation, String host, int port) throws IOException {
+        this(simulation, ServerSocketChannel.open(), new InetSocketAddress(host, port), null);
+    }
+
+    /** Сервер на Unix-domain сокете; существующий файл сокета заменяется. */
+    public RemoteControlServer(SimulationCommands simulation, Path socketFile) throws IOException {
+        this(simulation, ServerSocketChannel.open(StandardProtocolFamily.UNIX),
+             UnixDomainSocketAddress.of(socketFile), socketFile);
+    }
+
+    private RemoteControlServer(SimulationCommands simulation, ServerSocketChannel channel,
+                                SocketAddress address, Path socketFile) throws IOException {
+        this.simulation = simulation;
+        this.serverChannel = channel;
+        this.socketFile = socketFile;
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+        channel.bind(address);
+        Thread acceptor = new Thread(this::acceptLoop, "RemoteControl");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** @return TCP-порт или -1 для Unix-domain сокета */
+    public int getPort() throws IOException {
+        SocketAddress address = serverChannel.getLocalAddress();
+        return address instanceof InetSocketAddress inet ? inet.getPort() : -1;
+    }
+
+    private void acceptLoop() {
+        while (open) {
+            try {
+                SocketChannel connection = serverChannel.accept();
+                connections.add(connection);
+                Thread worker = new Thread(() -> serve(connection), "RemoteControlConnection");
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                if (open) {
+                    System.err.println("Удалённое управление остановлено: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel connection) {
+        EventForwarder events = null;
+        try (BufferedReader in = new BufferedReader(Channels.newReader(connection, StandardCharsets.UTF_8));
+             Writer out = Channels.newWriter(connection, StandardCharsets.UTF_8)) {
+            Object writeLock = new Object();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String response;
+                try {
+                    String[] words = line.trim().split("\\s+");
+                    if (words[0].equals("events")) {
+                        boolean on = words.length > 1 && words[1].equals("on");
+                        if (on && events == null) {
+                            events = new EventForwarder(out, writeLock);
+                            simulation.addEventListener(events);
+                        } else if (!on && events != null) {
+                            simulation.removeEventListener(events);
+                            events.stop();
+                            events = null;
+                        }
+                        response = "ok";
+                    } else {
+                        response = execute(words);
+                    }
+                } catch (RuntimeException | IOException e) {
+                    response = "error " + String.valueOf(e.getMessage()).replace('\n', ' ');
+                }
+                synchronized (writeLock) {
+                    out.write(response);
+                    out.write('\n');
+                    if (!in.ready()) {
+                        out.flush(); // Ответы на конвейер запросов уходят одной записью
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Клиент отключился
+        } finally {
+            if (events != null) {
+                simulation.removeEventListener(events);
+                events.stop();
+            }
+            connections.remove(connection);
+        }
+    }
+
+    /** Выполнить запрос (кроме events). */
+    String execute(String[] words) throws IOException {
+        switch (words[0]) {
+            case "ping" -> {
+                return "ok";
+            }
+            case "start" -> simulation.start();
+            case "stop" -> simulation.stop();
+            case "reset" -> simulation.reset();
+            case "running" -> {
+                return "ok " + simulation.isRunning();
+            }
+            case "set" -> {
+                synchronized (parameterLock) {
+                    simulation.updateParameters(withChanges(words));
+                }
+            }
+            case "params" -> {
+                synchronized (parameterLock) {
+                    simulation.setParameters(withChanges(words));
+                }
+            }
+            case "get" -> {
+                StringBuilder result = new StringBuilder("ok");
+                SimulationParameters params = simulation.getParameters();
+                for (String name : SimulationParameters.getParameterNames()) {
+                    result.append(' ').append(name).append('=').append(params.getParameter(name));
+                }
+                return result.toString();
+            }
+            case "speed" -> {
+                if (words.length > 1) {
+                    simulation.setSimulationSpeed(Double.parseDouble(words[1]));
+                }
+                return "ok " + simulation.getSimulationSpeed();
+            }
+            case "seek" -> simulation.seek(Double.parseDouble(argument(words))).join();
+            case "bodies" -> {
+                if (words.length > 1) {
+                    simulation.setBodyCount(Integer.parseInt(words[1]));
+                }
+                return "ok " + simulation.getBodyCount();
+            }
+            case "state" -> {
+                SimulationCheckpoint state = simulation.checkpoint();
+                return "ok time=" + state.getTime() + " springLength=" + state.getSpringLength()
+                       + " radialVelocity=" + state.getRadialVelocity() + " angle=" + state.getAngle()
+                       + " angularVelocity=" + state.getAngularVelocity();
+            }
+            case "checkpoint" -> simulation.checkpoint().save(Path.of(argument(words)));
+            case "restore" -> simulation.restore(SimulationCheckpoint.load(Path.of(argument(words))));
+            default -> throw new IllegalArgumentException("Неизвестная команда: " + words[0]);
+        }
+        return "ok";
+    }
+
+    /**
+     * Пересылка событий одного соединения: поток симуляции только кладёт событие в очередь,
+     * а записью в сокет занят собственный поток, который завершается по {@link #stop()}.
+     */
+    private static final class EventForwarder implements SimulationEventListener {
+        private final BlockingQueue<SimulationEvent> queue = new ArrayBlockingQueue<>(EVENT_QUEUE);
+        private final AtomicLong dropped = new AtomicLong();
+        private final Writer out;
+        private final Object writeLock;
+        private volatile boolean active = true;
+
+        EventForwarder(Writer out, Object writeLock) {
+            this.out = out;
+            this.writeLock = writeLock;
+            Thread sender = new Thread(this::send, "RemoteControlEvents");
+            sender.setDaemon(true);
+            sender.start();
+        }
+
+        @Override
+        public void onEvent(SimulationEvent event) {
+            if (!queue.offer(event)) {
+                dropped.incrementAndGet();
+            }
+        }
+
+        /** Остановить поток; прерывать его нельзя — прерывание записи закрыло бы канал соединения. */
+        void stop() {
+            active = false;
+        }
+
+        private void send() {
+            try {
+                while (active) {
+                    SimulationEvent event = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (event == null) {
+                        continue;
+                    }
+                    synchronized (writeLock) {
+                        do {
+                            long lost = dropped.getAndSet(0);
+                            if (lost > 0) {
+                                out.write("dropped " + lost + "\n");
+                            }
+                            out.write(String.format(Locale.US, "event %s %s %s %s %s %s%n",
+                                event.getName(), event.getTime(), event.getSpringLength(),
+                                event.getRadialVelocity(), event.getAngle(), event.getAngularVelocity()));
+                        } while ((event = queue.poll()) != null);
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException | IOException e) {
+                // События выключены или соединение закрыто
+            }
+        }
+    }
+
+    private SimulationParameters withChanges(String[] words) {
+        SimulationParameters params = simulation.getParameters();
+        for (int i = 1; i < words.length; i++) {
+            int eq = words[i].indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Ожидалось имя=значение: " + words[i]);
+            }
+            params.setParameter(words[i].substring(0, eq), Double.parseDouble(words[i].substring(eq + 1)));
+        }
+        return params;
+    }
+
+    private static String argument(String[] words) {
+        if (words.length < 2) {
+            throw new IllegalArgumentException("Команде " + words[0] + " нужен аргумент");
+        }
+        return words[1];
+    }
+
+    @Override
+    public void close() throws IOException {
+        open = false;
+        serverChannel.close();
+        for (SocketChannel connection : connections) {
+            connection.close();
+        }
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+    }
+}
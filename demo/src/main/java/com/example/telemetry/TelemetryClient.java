@@ -0,0 +1,90 @@
+package com.example.telemetry;
+
+import com.example.model.Channel;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * Блокирующий клиент телеметрии: подписывается на каналы и читает записи по одной.
+ * Не потокобезопасен.
+ */
+public class TelemetryClient implements AutoCloseable {
+
+    /** Небольшой буфер приёма: при отставании сервер отбрасывает старые записи, а не копит их в ядре */
+    private static final int RECEIVE_BUFFER_BYTES = 64 * 1024;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    private List<Channel> channels = List.of();
+    private int decimation = 1;
+    private int remainingInBatch;
+    private long dropped;
+    private long lastNanos;
+
+    public TelemetryClient(String host, int port) throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.setReceiveBufferSize(RECEIVE_BUFFER_BYTES); // До connect: ограничивает окно TCP
+        socket.connect(new InetSocketAddress(host, port));
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        out = new DataOutputStream(socket.getOutputStream());
+    }
+
+    /** Подписаться на каналы; вступает в силу после подтверждения сервера в потоке записей. */
+    public void subscribe(List<Channel> channels, int decimation) throws IOException {
+        out.writeInt(TelemetryProtocol.MAGIC);
+        out.writeByte(TelemetryProtocol.VERSION);
+        out.writeLong(TelemetryProtocol.maskOf(channels));
+        out.writeInt(decimation);
+        out.flush();
+    }
+
+    /**
+     * Прочитать следующую запись, дождавшись её.
+     *
+     * @param values значения каналов {@link #getChannels()} по порядку
+     */
+    public void next(double[] values) throws IOException {
+        while (remainingInBatch == 0) {
+            byte type = in.readByte();
+            if (type == TelemetryProtocol.ACK) {
+                channels = TelemetryProtocol.channelsOf(in.readLong());
+                decimation = in.readInt();
+            } else if (type == TelemetryProtocol.BATCH) {
+                remainingInBatch = in.readInt();
+                dropped = in.readLong();
+            } else {
+                throw new IOException("Неизвестный тип кадра телеметрии: " + type);
+            }
+        }
+        lastNanos = in.readLong();
+        for (int i = 0; i < channels.size(); i++) {
+            values[i] = in.readDouble();
+        }
+        remainingInBatch--;
+    }
+
+    /** @return каналы, принятые сервером (пусто до первого подтверждения) */
+    public List<Channel> getChannels() { return channels; }
+
+    public int getDecimation() { return decimation; }
+
+    /** @return момент снятия последней записи по {@link System#nanoTime()} сервера */
+    public long getLastNanos() { return lastNanos; }
+
+    /** @return записей, отброшенных сервером для этого клиента */
+    public long getDropped() { return dropped; }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.telemetry;
+
+import com.example.model.Channel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Двоичный протокол телеметрии (порядок байтов сетевой, big-endian).
+ *
+ * Клиент → сервер, подписка (может повторяться для смены подписки):
+ * {@code int MAGIC, byte VERSION, long маска каналов, int прореживание}.
+ * Бит канала — {@code 1L << channel.ordinal()}.
+ *
+ * Сервер → клиент, кадры с байтом типа в начале:
+ * <ul>
+ *   <li>{@link #ACK}: {@code long принятая маска, int прореживание};</li>
+ *   <li>{@link #BATCH}: {@code int число записей, long потеряно записей всего}, затем записи
+ *       {@code long момент снятия (System.nanoTime сервера), double значения каналов}
+ *       в порядке возрастания ordinal.</li>
+ * </ul>
+ */
+public final class TelemetryProtocol {
+
+    public static final int MAGIC = 0x5054454C; // "PTEL"
+    public static final byte VERSION = 1;
+    public static final int SUBSCRIBE_BYTES = 4 + 1 + 8 + 4;
+
+    public static final byte ACK = 1;
+    public static final byte BATCH = 2;
+    public static final int ACK_BYTES = 1 + 8 + 4;
+    public static final int BATCH_HEADER_BYTES = 1 + 4 + 8;
+
+    /** Каналы, вычисляемые по состоянию шага без параметров модели */
+    public static final long SUPPORTED_MASK = maskOf(List.of(Channel.TIME, Channel.ANGLE,
+        Channel.ANGULAR_VELOCITY, Channel.SPRING_LENGTH, Channel.RADIAL_VELOCITY,
+        Channel.X, Channel.Y, Channel.VELOCITY));
+
+    private TelemetryProtocol() {}
+
+    public static long maskOf(List<Channel> channels) {
+        long mask = 0;
+        for (Channel channel : channels) {
+            mask |= 1L << channel.ordinal();
+        }
+        return mask;
+    }
+
+    /** @return каналы маски в порядке передачи */
+    public static List<Channel> channelsOf(long mask) {
+        List<Channel> channels = new ArrayList<>();
+        for (Channel channel : Channel.values()) {
+            if ((mask & (1L << channel.ordinal())) != 0) {
+                channels.add(channel);
+            }
+        }
+        return channels;
+    }
+
+    public static int recordBytes(long mask) {
+        return Long.BYTES + Long.bitCount(mask) * Double.BYTES;
+    }
+}
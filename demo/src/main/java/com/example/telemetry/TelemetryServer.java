@@ -0,0 +1,360 @@
+package com.example.telemetry;
+
+import com.example.model.Channel;
+import com.example.observer.StepListener;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Сервер телеметрии: рассылает состояния шагов клиентам по протоколу {@link TelemetryProtocol}.
+ *
+ * Подключается к контроллеру как {@link StepListener}: поток симуляции только кладёт состояние
+ * шага в кольцевой буфер и никогда не ждёт сеть (при переполнении буфера шаг теряется).
+ * Единственный поток сервера с одним селектором разбирает буфер, собирает для каждого клиента
+ * пакеты записей с его каналами и прореживанием и отправляет их записью со сбором буферов.
+ * Очередь клиента ограничена: если клиент не успевает читать, отбрасываются самые старые пакеты,
+ * поэтому медленный клиент не задерживает ни симуляцию, ни других клиентов.
+ */
+public class TelemetryServer implements StepListener, AutoCloseable {
+
+    private static final int RING_SIZE = 1 << 16;           // Шагов в кольцевом буфере
+    private static final int SAMPLE_FIELDS = 5;             // {t, R, dR, fi, dfi}
+    private static final int BATCH_BYTES = 16 * 1024;       // Размер пакета записей
+    private static final int MAX_QUEUED_BATCHES = 32;       // Очередь клиента (512 КБ)
+    private static final int SEND_BUFFER_BYTES = 64 * 1024; // Буфер сокета: отставание копится в очереди
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean open = true;
+
+    // Кольцевой буфер: пишет поток симуляции, читает поток сервера
+    private final double[] ringValues = new double[RING_SIZE * SAMPLE_FIELDS];
+    private final long[] ringNanos = new long[RING_SIZE];
+    private volatile long published;          // Записано шагов (пишет только поток симуляции)
+    private volatile long consumed;           // Прочитано сервером
+    private volatile long ringDropped;
+    private volatile long recordsDropped;     // Отброшено из очередей медленных клиентов
+    private volatile int clientCount;
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    private final List<Client> clients = new ArrayList<>();
+    private final double[] values = new double[Channel.values().length];
+
+    /** Открыть порт и запустить поток сервера. @param port 0 — любой свободный */
+    public TelemetryServer(String host, int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(host, port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::serve, "TelemetryServer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getClientCount() {
+        return clientCount;
+    }
+
+    /** @return шагов, не попавших в кольцевой буфер из-за отставания потока сервера */
+    public long getDroppedSteps() {
+        return ringDropped;
+    }
+
+    /** @return записей, отброшенных из переполненных очередей клиентов */
+    public long getDroppedRecords() {
+        return recordsDropped;
+    }
+
+    @Override
+    public void onStep(double time, double springLength, double radialVelocity,
+                       double angle, double angularVelocity) {
+        if (clientCount == 0) {
+            return;
+        }
+        long sequence = published;
+        if (sequence - consumed >= RING_SIZE) {
+            ringDropped++;
+            return;
+        }
+        int slot = (int) (sequence & (RING_SIZE - 1));
+        int base = slot * SAMPLE_FIELDS;
+        ringValues[base] = time;
+        ringValues[base + 1] = springLength;
+        ringValues[base + 2] = radialVelocity;
+        ringValues[base + 3] = angle;
+        ringValues[base + 4] = angularVelocity;
+        ringNanos[slot] = System.nanoTime();
+        published = sequence + 1;
+        if (!wakeupPending.get() && wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void onReset() {
+        // Поток записей продолжается; клиент видит сброс по времени шага
+    }
+
+    private void serve() {
+        try {
+            while (open) {
+                selector.select();
+                wakeupPending.set(false);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Client client = (Client) key.attachment();
+                        if (key.isReadable()) {
+                            client.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            client.flush();
+                        }
+                    }
+                }
+                drain();
+                for (Client client : clients.toArray(new Client[0])) {
+                    client.flush();
+                }
+            }
+        } catch (IOException e) {
+            if (open) {
+                System.err.println("Сервер телеметрии остановлен: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_BYTES);
+            Client client = new Client(channel);
+            client.key = channel.register(selector, SelectionKey.OP_READ, client);
+            clients.add(client);
+            clientCount = clients.size();
+        }
+    }
+
+    /** Разложить накопленные шаги по пакетам клиентов. */
+    private void drain() {
+        long end = published;
+        long start = consumed;
+        if (start == end) {
+            return;
+        }
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence & (RING_SIZE - 1));
+            int base = slot * SAMPLE_FIELDS;
+            double R = ringValues[base + 1], dR = ringValues[base + 2];
+            double fi = ringValues[base + 3], dfi = ringValues[base + 4];
+            values[Channel.TIME.ordinal()] = ringValues[base];
+            values[Channel.SPRING_LENGTH.ordinal()] = R;
+            values[Channel.RADIAL_VELOCITY.ordinal()] = dR;
+            values[Channel.ANGLE.ordinal()] = fi;
+            values[Channel.ANGULAR_VELOCITY.ordinal()] = dfi;
+            values[Channel.X.ordinal()] = R * Math.sin(fi);
+            values[Channel.Y.ordinal()] = R * Math.cos(fi);
+            values[Channel.VELOCITY.ordinal()] = Math.sqrt(dR * dR + R * dfi * R * dfi);
+            for (Client client : clients) {
+                client.append(sequence, ringNanos[slot], values);
+            }
+        }
+        consumed = end;
+        for (Client client : clients) {
+            client.finishBatch();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        open = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    /** Подключённый клиент: подписка, текущий пакет и ограниченная очередь пакетов. */
+    private final class Client {
+        final SocketChannel channel;
+        SelectionKey key;
+        final ByteBuffer input = ByteBuffer.allocate(TelemetryProtocol.SUBSCRIBE_BYTES * 4);
+        final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+        ByteBuffer[] gather = new ByteBuffer[MAX_QUEUED_BATCHES];
+
+        long mask;          // 0 — подписки ещё нет
+        int[] ordinals = new int[0];
+        int decimation = 1;
+        int recordBytes;
+        ByteBuffer batch;
+        int batchCount;
+        long dropped;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() {
+            try {
+                if (channel.read(input) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            input.flip();
+            while (input.remaining() >= TelemetryProtocol.SUBSCRIBE_BYTES) {
+                if (input.getInt() != TelemetryProtocol.MAGIC || input.get() != TelemetryProtocol.VERSION) {
+                    close(); // Чужой протокол
+                    return;
+                }
+                subscribe(input.getLong(), input.getInt());
+            }
+            input.compact();
+        }
+
+        void subscribe(long requested, int requestedDecimation) {
+            mask = requested & TelemetryProtocol.SUPPORTED_MASK;
+            decimation = Math.max(1, requestedDecimation);
+            recordBytes = TelemetryProtocol.recordBytes(mask);
+            ordinals = TelemetryProtocol.channelsOf(mask).stream().mapToInt(Channel::ordinal).toArray();
+            ByteBuffer ack = ByteBuffer.allocate(TelemetryProtocol.ACK_BYTES);
+            ack.put(TelemetryProtocol.ACK).putLong(mask).putInt(decimation).flip();
+            enqueue(ack);
+        }
+
+        void append(long sequence, long nanos, double[] values) {
+            if (mask == 0 || sequence % decimation != 0) {
+                return;
+            }
+            if (batch != null && batch.remaining() < recordBytes) {
+                finishBatch();
+            }
+            if (batch == null) {
+                batch = free.isEmpty() ? ByteBuffer.allocateDirect(BATCH_BYTES) : free.poll();
+                batch.clear();
+                batch.position(TelemetryProtocol.BATCH_HEADER_BYTES);
+                batchCount = 0;
+            }
+            batch.putLong(nanos);
+            for (int ordinal : ordinals) {
+                batch.putDouble(values[ordinal]);
+            }
+            batchCount++;
+        }
+
+        void finishBatch() {
+            if (batch == null) {
+                return;
+            }
+            batch.put(0, TelemetryProtocol.BATCH).putInt(1, batchCount).putLong(5, dropped);
+            batch.flip();
+            enqueue(batch);
+            batch = null;
+        }
+
+        /** Поставить кадр в очередь; при переполнении отбросить самый старый пакет записей. */
+        void enqueue(ByteBuffer frame) {
+            if (queue.size() >= MAX_QUEUED_BATCHES) {
+                Iterator<ByteBuffer> frames = queue.iterator();
+                while (frames.hasNext()) {
+                    ByteBuffer oldest = frames.next();
+                    // Начатый кадр дописывается целиком, подтверждения подписки не теряются
+                    if (oldest.position() == 0 && oldest.get(0) == TelemetryProtocol.BATCH) {
+                        dropped += oldest.getInt(1);
+                        recordsDropped += oldest.getInt(1);
+                        frames.remove();
+                        recycle(oldest);
+                        break;
+                    }
+                }
+            }
+            queue.add(frame);
+        }
+
+        void recycle(ByteBuffer buffer) {
+            if (buffer.isDirect() && buffer.capacity() == BATCH_BYTES && free.size() < 4) {
+                free.add(buffer);
+            }
+        }
+
+        /** Записать очередь одной операцией со сбором буферов. */
+        void flush() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            if (queue.isEmpty()) {
+                setWriteInterest(false);
+                return;
+            }
+            int count = queue.size();
+            gather = queue.toArray(gather);
+            try {
+                channel.write(gather, 0, count);
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            while (!queue.isEmpty() && !queue.peek().hasRemaining()) {
+                recycle(queue.poll());
+            }
+            Arrays.fill(gather, 0, count, null);
+            setWriteInterest(!queue.isEmpty());
+        }
+
+        void setWriteInterest(boolean write) {
+            int ops = write ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (key.isValid() && key.interestOps() != ops) {
+                key.interestOps(ops);
+            }
+        }
+
+        void close() {
+            clients.remove(this);
+            clientCount = clients.size();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.controller;
+
+import com.example.model.ParameterSchedule;
+import com.example.model.SimulationCheckpoint;
+import com.example.model.SimulationParameters;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendulumIntegratorDriveTest {
+
+    private static final double DT = 0.001;
+
+    private static SimulationParameters drivenParameters() {
+        SimulationParameters params = new SimulationParameters();
+        params.setParameter("driveAmplitude", 0.01);
+        params.setParameter("driveFrequency", 0.5);
+        return params;
+    }
+
+    /** При линейном изменении f период колебаний подвеса равен 1/f в середине периода, а не 1/(f + t·f′). */
+    @Test
+    void instantaneousFrequencyFollowsRamp() {
+        ParameterSchedule.Track ramp = ParameterSchedule.parse("driveFrequency:linear:0=0.5,200=1.5").getTrack(0);
+        SimulationParameters params = drivenParameters();
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        double g = params.getGravity();
+
+        List<Double> crossings = new ArrayList<>();
+        double previous = integrator.getEffectiveGravity(0) - g;
+        for (int n = 0; n < 200_000; n++) {
+            integrator.setParameter("driveFrequency", ramp.valueAt(integrator.getTime()));
+            integrator.step(DT);
+            double current = integrator.getEffectiveGravity(integrator.getTime()) - g;
+            if (previous < 0 && current >= 0) {
+                crossings.add(integrator.getTime() - DT * current / (current - previous));
+            }
+            previous = current;
+        }
+
+        assertTrue(crossings.size() > 150, "периодов: " + crossings.size());
+        for (int i = 1; i < crossings.size(); i++) {
+            double period = crossings.get(i) - crossings.get(i - 1);
+            double expected = ramp.valueAt((crossings.get(i) + crossings.get(i - 1)) / 2);
+            assertEquals(expected, 1 / period, expected * 1e-3, "период около t = " + crossings.get(i));
+        }
+    }
+
+    /** Фаза подвеса сохраняется в контрольной точке: продолжение после смены частоты совпадает побитово. */
+    @Test
+    void checkpointKeepsDrivePhase() throws IOException {
+        PendulumIntegrator original = new PendulumIntegrator(drivenParameters());
+        for (int n = 0; n < 5000; n++) {
+            original.step(DT);
+        }
+        original.setParameter("driveFrequency", 1.3);
+        for (int n = 0; n < 5000; n++) {
+            original.step(DT);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.checkpoint(DT).writeTo(new DataOutputStream(bytes));
+        SimulationCheckpoint checkpoint = SimulationCheckpoint.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        PendulumIntegrator restored = new PendulumIntegrator(drivenParameters());
+        restored.restore(checkpoint);
+        assertEquals(original.getDrivePhase(), restored.getDrivePhase());
+
+        double[] expected = new double[4], actual = new double[4];
+        for (int n = 0; n < 5000; n++) {
+            original.step(DT);
+            restored.step(DT);
+        }
+        original.getState(expected);
+        restored.getState(actual);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i], actual[i], 0.0);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.controller;
+
+import com.example.model.SimulationCheckpoint;
+import com.example.model.SimulationParameters;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendulumIntegratorEnergyTest {
+
+    private static double maxDrift(SimulationParameters params, double dt, double duration) {
+        PendulumIntegrator integrator = new PendulumIntegrator(params);
+        double max = 0;
+        for (long n = Math.round(duration / dt); n > 0; n--) {
+            integrator.step(dt);
+            max = Math.max(max, Math.abs(integrator.getEnergyDrift()));
+        }
+        return max;
+    }
+
+    /** Старт из положения равновесия: энергия над ним нулевая, но дрейф не должен делиться на ноль. */
+    @Test
+    void drivenRunFromEquilibriumHasSmallDrift() {
+        for (double amplitude : new double[] {0, 0.01}) {
+            SimulationParameters params = new SimulationParameters();
+            params.setParameter("initialAngle", 0);
+            params.setParameter("initialLength", 1.1962);
+            params.setParameter("driveAmplitude", amplitude);
+            for (double dt : new double[] {0.001, 0.002}) {
+                double drift = maxDrift(params, dt, 100);
+                assertTrue(drift < EnergyMonitor.DEFAULT_THRESHOLD * 1e-3,
+                           "A = " + amplitude + ", dt = " + dt + ": дрейф " + drift);
+            }
+        }
+    }
+
+    /** Продолжение с контрольной точки даёт тот же дрейф и то же число срабатываний ограничения, что и сплошной расчёт. */
+    @Test
+    void checkpointContinuesEnergyBalance() throws IOException {
+        SimulationParameters driven = new SimulationParameters();
+        driven.setParameter("damping", 0.3);
+        driven.setParameter("springConstant", 5);
+        driven.setParameter("initialLength", 0.3);
+        driven.setParameter("driveAmplitude", 0.05);
+        driven.setParameter("driveFrequency", 1.3);
+        PendulumIntegrator straight = straightAndResumed(driven);
+        assertTrue(Math.abs(straight.getEnergyDrift()) < 1e-6, "дрейф " + straight.getEnergyDrift());
+
+        SimulationParameters clamped = new SimulationParameters();
+        clamped.setParameter("springConstant", 5);
+        clamped.setParameter("naturalLength", 0.1);
+        clamped.setParameter("initialLength", 0.15);
+        clamped.setParameter("initialAngle", 3);
+        assertTrue(straightAndResumed(clamped).getClampCount() > 0);
+    }
+
+    /** Расчёт 40 000 шагов подряд и с контрольной точкой посередине; совпадение проверяется, возвращается сплошной. */
+    private static PendulumIntegrator straightAndResumed(SimulationParameters params) throws IOException {
+        double dt = 0.001;
+        PendulumIntegrator straight = new PendulumIntegrator(params);
+        for (int n = 0; n < 20_000; n++) {
+            straight.step(dt);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        straight.checkpoint(dt).writeTo(new DataOutputStream(bytes));
+        PendulumIntegrator resumed = new PendulumIntegrator(new SimulationParameters());
+        resumed.restore(SimulationCheckpoint.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        for (int n = 0; n < 20_000; n++) {
+            straight.step(dt);
+            resumed.step(dt);
+        }
+        assertEquals(straight.getEnergyDrift(), resumed.getEnergyDrift(), 0.0);
+        assertEquals(straight.getClampCount(), resumed.getClampCount());
+        return straight;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.controller;
+
+import com.example.model.SimulationParameters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrajectoryCacheTest {
+
+    private static final double DT = 0.001;
+    private static final int SAMPLE_STEPS = 10;
+
+    private static SimulationParameters drivenParameters() {
+        SimulationParameters params = new SimulationParameters();
+        params.setParameter("driveAmplitude", 0.05);
+        params.setParameter("driveFrequency", 1.3);
+        params.setParameter("initialAngle", 1);
+        return params;
+    }
+
+    private static void assertSameAsFreshRun(SimulationParameters params, CompressedTrajectory trajectory) {
+        double[] samples = trajectory.decode();
+        PendulumIntegrator fresh = new PendulumIntegrator(params);
+        double[] expected = new double[CompressedTrajectory.STRIDE];
+        for (int s = 1; s < trajectory.getSampleCount(); s++) {
+            for (int i = 0; i < SAMPLE_STEPS; i++) {
+                fresh.step(DT);
+            }
+            TrajectoryCache.storeSample(fresh, expected, 0);
+            for (int c = 0; c < CompressedTrajectory.STRIDE; c++) {
+                assertEquals(expected[c], samples[s * CompressedTrajectory.STRIDE + c], 0.0,
+                             "выборка " + s + ", столбец " + c);
+            }
+        }
+    }
+
+    /** Продолжение закэшированной траектории с колеблющимся подвесом совпадает с непрерывным расчётом побитово. */
+    @Test
+    void continuationMatchesUninterruptedDrivenRun() {
+        SimulationParameters params = drivenParameters();
+        TrajectoryCache cache = new TrajectoryCache(Long.MAX_VALUE, null);
+        cache.compute(params, DT, SAMPLE_STEPS, 10);
+        CompressedTrajectory continued = cache.compute(params, DT, SAMPLE_STEPS, 50);
+        assertEquals(5001, continued.getSampleCount());
+        assertSameAsFreshRun(params, continued);
+    }
+
+    /** Файл кэша прежнего формата (без фазы подвеса) не читается, траектория рассчитывается заново. */
+    @Test
+    void oldFormatFilesAreIgnored(@TempDir Path directory) throws IOException {
+        SimulationParameters params = drivenParameters();
+        TrajectoryCache.Key key = new TrajectoryCache.Key(params, DT, SAMPLE_STEPS);
+        try (DataOutputStream out = new DataOutputStream(
+                Files.newOutputStream(directory.resolve(key.digest() + ".trj")))) {
+            out.writeInt(0x5054524A); // "PTRJ"
+        }
+        TrajectoryCache cache = new TrajectoryCache(Long.MAX_VALUE, directory);
+        CompressedTrajectory trajectory = cache.compute(params, DT, SAMPLE_STEPS, 1);
+        assertEquals(0, cache.getHits());
+        assertSameAsFreshRun(params, trajectory);
+        cache.flush();
+    }
+}
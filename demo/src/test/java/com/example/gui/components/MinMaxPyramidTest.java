@@ -0,0 +1,50 @@
+package com.example.gui.components;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinMaxPyramidTest {
+
+    /** Ёмкость 16, 18 точек: старый блок уровня 2 вытеснен наполовину, его ячейку занял новый блок. */
+    @Test
+    void partiallyEvictedBlockIgnoresNewestData() {
+        MinMaxPyramid pyramid = new MinMaxPyramid(16);
+        for (int i = 0; i < 16; i++) {
+            pyramid.add(i, i == 2 ? 1 : i == 3 ? 2 : 0);
+        }
+        pyramid.add(16, 100);
+        pyramid.add(17, -100);
+        assertEquals(2, pyramid.firstIndex());
+        assertEquals(1, pyramid.bucketMin(2, 0));
+        assertEquals(2, pyramid.bucketMax(2, 0));
+        assertEquals(-100, pyramid.bucketMin(2, 4));
+        assertEquals(100, pyramid.bucketMax(2, 4));
+    }
+
+    /** После заполнения кольца каждый блок каждого уровня совпадает с прямым перебором сохранённых точек. */
+    @Test
+    void bucketsMatchStoredPointsAfterWrap() {
+        Random random = new Random(1);
+        MinMaxPyramid pyramid = new MinMaxPyramid(64);
+        for (int n = 1; n <= 300; n++) {
+            pyramid.add(n, random.nextGaussian());
+            long first = pyramid.firstIndex();
+            long end = pyramid.endIndex();
+            for (int level = 1; level < pyramid.levelCount(); level++) {
+                for (long bucket = first >> level; bucket <= (end - 1) >> level; bucket++) {
+                    double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+                    for (long i = Math.max(first, bucket << level); i < Math.min(end, (bucket + 1) << level); i++) {
+                        min = Math.min(min, pyramid.getY(i));
+                        max = Math.max(max, pyramid.getY(i));
+                    }
+                    String where = "точек " + n + ", уровень " + level + ", блок " + bucket;
+                    assertEquals(min, pyramid.bucketMin(level, bucket), where);
+                    assertEquals(max, pyramid.bucketMax(level, bucket), where);
+                }
+            }
+        }
+    }
+}